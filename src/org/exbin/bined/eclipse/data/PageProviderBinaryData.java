@@ -17,30 +17,79 @@ package org.exbin.bined.eclipse.data;
 
 import org.exbin.auxiliary.binary_data.BinaryData;
 import org.exbin.auxiliary.binary_data.ByteArrayEditableData;
+import org.exbin.framework.bined.objectdata.PageCache;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
 /**
- * Debugger value dual page data source.
+ * Debugger value paged data source.
+ * <p>
+ * Pages are kept in bounded least recently used cache with sequential
+ * read-ahead. Streams process data in chunks so whole data is never held in
+ * memory.
  */
 @ParametersAreNonnullByDefault
 public class PageProviderBinaryData implements BinaryData {
 
     public static final int PAGE_SIZE = 2048;
+    private static final int STREAM_BUFFER_SIZE = 65536;
 
     private final PageProvider pageProvider;
-
-    private final CachePage[] pages = new CachePage[2];
-    private int nextPage = 0;
+    private final PageCache pageCache;
 
     public PageProviderBinaryData(PageProvider pageProvider) {
+        this(pageProvider, PageCache.DEFAULT_MAXIMUM_PAGES, PageCache.DEFAULT_READ_AHEAD_PAGES);
+    }
+
+    /**
+     * Creates data source with given cache configuration.
+     *
+     * @param pageProvider page provider
+     * @param cachePages maximum count of cached pages
+     * @param readAheadPages count of pages loaded ahead on sequential access
+     */
+    public PageProviderBinaryData(PageProvider pageProvider, int cachePages, int readAheadPages) {
         this.pageProvider = pageProvider;
-        pages[0] = new CachePage();
-        pages[1] = new CachePage();
+        pageCache = new PageCache(this::loadPage, cachePages, readAheadPages);
+    }
+
+    /**
+     * Sets maximum size of page cache in pages.
+     *
+     * @param cachePages count of pages
+     */
+    public void setCacheSizeInPages(int cachePages) {
+        pageCache.setMaximumPages(cachePages);
+    }
+
+    /**
+     * Sets maximum size of page cache in bytes, rounded up to whole pages.
+     *
+     * @param cacheSize size in bytes
+     */
+    public void setCacheSizeInBytes(long cacheSize) {
+        pageCache.setMaximumPages((int) Math.min((cacheSize + PAGE_SIZE - 1) / PAGE_SIZE, Integer.MAX_VALUE));
+    }
+
+    public void setReadAheadPages(int readAheadPages) {
+        pageCache.setReadAheadPages(readAheadPages);
+    }
+
+    public long getCacheHitsCount() {
+        return pageCache.getHitsCount();
+    }
+
+    public long getCacheMissesCount() {
+        return pageCache.getMissesCount();
+    }
+
+    public void resetCacheStatistics() {
+        pageCache.resetStatistics();
     }
 
     @Override
@@ -57,29 +106,12 @@ public class PageProviderBinaryData implements BinaryData {
     public byte getByte(long position) {
         long pageIndex = position / PAGE_SIZE;
         int pageOffset = (int) (position % PAGE_SIZE);
-        CachePage page;
-
-        if (pages[0].index == pageIndex && pages[0].data != null) {
-            page = pages[0];
-        } else if (pages[1].index == pageIndex && pages[1].data != null) {
-            page = pages[1];
-        } else {
-            byte[] data = pageProvider.getPage(pageIndex);
-            if (data == null) {
-                return -1;
-            }
-
-            pages[nextPage].data = data;
-            pages[nextPage].index = pageIndex;
-            page = pages[nextPage];
-            nextPage = 1 - nextPage;
-        }
-
-        if (pageOffset >= page.data.length) {
+        byte[] page = pageCache.getPage(pageIndex);
+        if (page == null || pageOffset >= page.length) {
             return -1;
         }
 
-        return page.data[pageOffset];
+        return page[pageOffset];
     }
 
     @Nonnull
@@ -98,37 +130,20 @@ public class PageProviderBinaryData implements BinaryData {
         while (length > 0) {
             long pageIndex = startFrom / PAGE_SIZE;
             int pageOffset = (int) (startFrom % PAGE_SIZE);
-            CachePage page;
-
-            if (pages[0].index == pageIndex && pages[0].data != null) {
-                page = pages[0];
-            } else if (pages[1].index == pageIndex && pages[1].data != null) {
-                page = pages[1];
-            } else {
-                byte[] data = pageProvider.getPage(pageIndex);
-                if (data == null) {
-                    throw createIndexOutOfBoundsException();
-                }
-
-                pages[nextPage].data = data;
-                pages[nextPage].index = pageIndex;
-                page = pages[nextPage];
-                nextPage = 1 - nextPage;
-            }
-
-            if (pageOffset >= page.data.length) {
+            byte[] page = pageCache.getPage(pageIndex);
+            if (page == null || pageOffset >= page.length) {
                 throw createIndexOutOfBoundsException();
             }
 
             int copyLength = length > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) length;
-            if (pageOffset + copyLength > page.data.length) {
-                copyLength = page.data.length - pageOffset;
+            if (pageOffset + copyLength > page.length) {
+                copyLength = page.length - pageOffset;
             }
             if (copyLength == 0) {
                 throw createIndexOutOfBoundsException();
             }
 
-            result.replace(offset, page.data, pageOffset, copyLength);
+            result.replace(offset, page, pageOffset, copyLength);
             startFrom += copyLength;
             offset += copyLength;
             length -= copyLength;
@@ -142,37 +157,20 @@ public class PageProviderBinaryData implements BinaryData {
         while (length > 0) {
             long pageIndex = startFrom / PAGE_SIZE;
             int pageOffset = (int) (startFrom % PAGE_SIZE);
-            CachePage page;
-
-            if (pages[0].index == pageIndex && pages[0].data != null) {
-                page = pages[0];
-            } else if (pages[1].index == pageIndex && pages[1].data != null) {
-                page = pages[1];
-            } else {
-                byte[] data = pageProvider.getPage(pageIndex);
-                if (data == null) {
-                    throw createIndexOutOfBoundsException();
-                }
-
-                pages[nextPage].data = data;
-                pages[nextPage].index = pageIndex;
-                page = pages[nextPage];
-                nextPage = 1 - nextPage;
-            }
-
-            if (pageOffset >= page.data.length) {
+            byte[] page = pageCache.getPage(pageIndex);
+            if (page == null || pageOffset >= page.length) {
                 throw createIndexOutOfBoundsException();
             }
 
             int copyLength = length;
-            if (pageOffset + copyLength > page.data.length) {
-                copyLength = page.data.length - pageOffset;
+            if (pageOffset + copyLength > page.length) {
+                copyLength = page.length - pageOffset;
             }
             if (copyLength == 0) {
                 throw createIndexOutOfBoundsException();
             }
 
-            System.arraycopy(page.data, pageOffset, target, offset, copyLength);
+            System.arraycopy(page, pageOffset, target, offset, copyLength);
             startFrom += copyLength;
             offset += copyLength;
             length -= copyLength;
@@ -181,25 +179,72 @@ public class PageProviderBinaryData implements BinaryData {
 
     @Override
     public void saveToStream(OutputStream outputStream) throws IOException {
-        throw new UnsupportedOperationException("Save to stream is not supported");
+        byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+        long dataSize = getDataSize();
+        long position = 0;
+        while (position < dataSize) {
+            int length = (int) Math.min(buffer.length, dataSize - position);
+            copyToArray(position, buffer, 0, length);
+            outputStream.write(buffer, 0, length);
+            position += length;
+        }
     }
 
     @Nonnull
     @Override
     public InputStream getDataInputStream() {
-        throw new UnsupportedOperationException("Data input stream is not supported");
+        long dataSize = getDataSize();
+        return new InputStream() {
+            private long position = 0;
+
+            @Override
+            public int read() {
+                return position < dataSize ? getByte(position++) & 0xff : -1;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                if (length == 0) {
+                    return 0;
+                }
+                if (position >= dataSize) {
+                    return -1;
+                }
+                int readLength = (int) Math.min(length, dataSize - position);
+                copyToArray(position, buffer, offset, readLength);
+                position += readLength;
+                return readLength;
+            }
+
+            @Override
+            public long skip(long count) {
+                long skipped = Math.max(0, Math.min(count, dataSize - position));
+                position += skipped;
+                return skipped;
+            }
+
+            @Override
+            public int available() {
+                return (int) Math.min(Integer.MAX_VALUE, dataSize - position);
+            }
+        };
     }
 
     @Override
     public void dispose() {
+        pageCache.clear();
     }
 
-    private static IndexOutOfBoundsException createIndexOutOfBoundsException() {
-        return new IndexOutOfBoundsException("Requested data out of bounds");
+    @Nullable
+    private byte[] loadPage(long pageIndex) {
+        if (pageIndex < 0 || pageIndex * PAGE_SIZE >= pageProvider.getDocumentSize()) {
+            return null;
+        }
+
+        return pageProvider.getPage(pageIndex);
     }
 
-    private static class CachePage {
-        long index = 0;
-        byte[] data = null;
+    private static IndexOutOfBoundsException createIndexOutOfBoundsException() {
+        return new IndexOutOfBoundsException("Requested data out of bounds");
     }
 }
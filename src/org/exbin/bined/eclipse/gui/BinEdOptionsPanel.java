@@ -171,6 +171,7 @@ public class BinEdOptionsPanel extends javax.swing.JPanel implements BinEdApplyO
         List<String> fileHandlingModes = new ArrayList<>();
         fileHandlingModes.add(managerResourceBundle.getString("fileHandlingMode.memory"));
         fileHandlingModes.add(managerResourceBundle.getString("fileHandlingMode.delta"));
+        fileHandlingModes.add(managerResourceBundle.getString("fileHandlingMode.mapped"));
         editorOptionsPanel.setFileHandlingModes(fileHandlingModes);
         List<String> enderKeyHandlingModes = new ArrayList<>();
         enderKeyHandlingModes.add(managerResourceBundle.getString("enterKeyHandlingMode.platformSpecific"));
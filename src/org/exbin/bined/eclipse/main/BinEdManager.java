@@ -29,15 +29,19 @@ import org.exbin.bined.eclipse.gui.BinEdToolbarPanel;
 import org.exbin.bined.eclipse.options.IntegrationOptions;
 import org.exbin.bined.swing.extended.ExtCodeArea;
 import org.exbin.framework.about.gui.AboutPanel;
+import org.exbin.framework.bined.BinEdCodeAreaPainter;
 import org.exbin.framework.bined.BinEdEditorComponent;
 import org.exbin.framework.bined.BinEdFileHandler;
 import org.exbin.framework.bined.BinEdFileManager;
 import org.exbin.framework.bined.BinaryStatusApi;
+import org.exbin.framework.bined.ByteClassPositionColorModifier;
 import org.exbin.framework.bined.FileHandlingMode;
+import org.exbin.framework.bined.MappedFileDocument;
 import org.exbin.framework.bined.action.EditSelectionAction;
 import org.exbin.framework.bined.action.GoToPositionAction;
 import org.exbin.framework.bined.bookmarks.BookmarksManager;
 import org.exbin.framework.bined.bookmarks.action.ManageBookmarksAction;
+import org.exbin.framework.bined.bookmarks.model.BookmarkRecord;
 import org.exbin.framework.bined.compare.action.CompareFilesAction;
 import org.exbin.framework.bined.gui.BinEdComponentFileApi;
 import org.exbin.framework.bined.gui.BinEdComponentPanel;
@@ -62,9 +66,11 @@ import org.exbin.framework.bined.options.CodeAreaOptions;
 import org.exbin.framework.bined.options.CodeAreaThemeOptions;
 import org.exbin.framework.bined.options.EditorOptions;
 import org.exbin.framework.bined.options.StatusOptions;
+import org.exbin.framework.bined.overview.BinEdComponentOverview;
 import org.exbin.framework.bined.preferences.BinaryEditorPreferences;
 import org.exbin.framework.bined.search.action.FindReplaceActions;
 import org.exbin.framework.bined.search.BinEdComponentSearch;
+import org.exbin.framework.bined.search.SearchRange;
 import org.exbin.framework.bined.tool.content.action.ClipboardContentAction;
 import org.exbin.framework.bined.tool.content.action.DragDropContentAction;
 import org.exbin.framework.editor.api.EditorProvider;
@@ -129,6 +135,7 @@ public final class BinEdManager {
     private java.util.ResourceBundle searchResourceBundle;
     private java.util.ResourceBundle compareResourceBundle;
     private java.util.ResourceBundle inspectorResourceBundle;
+    private java.util.ResourceBundle overviewResourceBundle;
     private java.util.ResourceBundle toolContentResourceBundle;
     private java.util.ResourceBundle actionPopupResourceBundle;
     private java.util.ResourceBundle aboutResourceBundle;
@@ -136,6 +143,7 @@ public final class BinEdManager {
 
     private static final String FRAMEWORK_TANGO_ICON_THEME_PREFIX = "/org/exbin/framework/action/resources/icons/tango-icon-theme/16x16/actions/";
     private static final String ONLINE_HELP_URL = "https://bined.exbin.org/eclipse-plugin/?manual";
+    private static final String PAINT_STATISTICS_PROPERTY = "org.exbin.bined.paintStatistics";
 
     private final Application application = new Application();
     private final BinaryEditorPreferences preferences;
@@ -150,6 +158,7 @@ public final class BinEdManager {
     private final List<InsertDataMethod> insertDataComponents = new ArrayList<>();
     private final List<ConvertDataMethod> convertDataComponents = new ArrayList<>();
     private BasicValuesPositionColorModifier basicValuesColorModifier = new BasicValuesPositionColorModifier();
+    private ByteClassPositionColorModifier byteClassColorModifier = new ByteClassPositionColorModifier();
 
     private BinEdManager() {
         languageChanged();
@@ -182,6 +191,7 @@ public final class BinEdManager {
         addConvertDataComponent(computeHashDataMethod);
 
         fileManager.addPainterColorModifier(basicValuesColorModifier);
+        fileManager.addPainterColorModifier(byteClassColorModifier);
         fileManager.addBinEdComponentExtension(new BinEdFileManager.BinEdFileExtension() {
             @Nonnull
             @Override
@@ -193,12 +203,28 @@ public final class BinEdManager {
         });
 
         fileManager.addActionStatusUpdateListener(codeArea -> findReplaceActions.updateForActiveFile());
-        fileManager.addBinEdComponentExtension((BinEdComponentPanel component) -> Optional.of(new BinEdComponentSearch()));
+        fileManager.addBinEdComponentExtension((BinEdComponentPanel component) -> {
+            BinEdComponentSearch binEdComponentSearch = new BinEdComponentSearch();
+            binEdComponentSearch.setBookmarkRangesProvider(this::getBookmarkRanges);
+            return Optional.of(binEdComponentSearch);
+        });
+        fileManager.addBinEdComponentExtension((BinEdComponentPanel component) -> Optional.of(new BinEdComponentOverview()));
 
         fileManager.setCommandHandlerProvider(CodeAreaMacroCommandHandler::new);
         findReplaceActions.addFindAgainListener();
     }
 
+    @Nonnull
+    private List<SearchRange> getBookmarkRanges() {
+        List<SearchRange> ranges = new ArrayList<>();
+        for (BookmarkRecord bookmarkRecord : bookmarksManager.getBookmarkRecords()) {
+            if (!bookmarkRecord.isEmpty()) {
+                ranges.add(new SearchRange(bookmarkRecord.getStartPosition(), bookmarkRecord.getLength()));
+            }
+        }
+        return ranges;
+    }
+
     private static class SingletonHelper {
         private static final BinEdManager INSTANCE = new BinEdManager();
 
@@ -228,6 +254,7 @@ public final class BinEdManager {
         searchResourceBundle = LanguageUtils.getResourceBundleByBundleName("org/exbin/framework/bined/search/resources/BinedSearchModule");
         compareResourceBundle = LanguageUtils.getResourceBundleByBundleName("org/exbin/framework/bined/compare/resources/BinedCompareModule");
         inspectorResourceBundle = LanguageUtils.getResourceBundleByBundleName("org/exbin/framework/bined/inspector/resources/BinedInspectorModule");
+        overviewResourceBundle = LanguageUtils.getResourceBundleByBundleName("org/exbin/framework/bined/overview/resources/BinedOverviewModule");
         toolContentResourceBundle = LanguageUtils.getResourceBundleByBundleName("org/exbin/framework/bined/tool/content/resources/BinedToolContentModule");
         actionPopupResourceBundle = LanguageUtils.getResourceBundleByBundleName("org/exbin/framework/popup/resources/DefaultPopupMenu");
         aboutResourceBundle = LanguageUtils.getResourceBundleByBundleName("org/exbin/framework/about/action/resources/AboutAction");
@@ -376,9 +403,14 @@ public final class BinEdManager {
             public void changeMemoryMode(BinaryStatusApi.MemoryMode memoryMode) {
                 if (fileHandler instanceof BinEdFileHandler) {
                     BinEdFileHandler binEdFileHandler = (BinEdFileHandler) fileHandler;
-                    FileHandlingMode newHandlingMode = memoryMode == BinaryStatusApi.MemoryMode.DELTA_MODE ?
-                            FileHandlingMode.DELTA :
-                            FileHandlingMode.MEMORY;
+                    FileHandlingMode newHandlingMode;
+                    if (memoryMode == BinaryStatusApi.MemoryMode.DELTA_MODE) {
+                        newHandlingMode = FileHandlingMode.DELTA;
+                    } else if (memoryMode == BinaryStatusApi.MemoryMode.MAPPED) {
+                        newHandlingMode = FileHandlingMode.MAPPED;
+                    } else {
+                        newHandlingMode = FileHandlingMode.MEMORY;
+                    }
                     FileHandlingMode fileHandlingMode = binEdFileHandler.getFileHandlingMode();
                     if (newHandlingMode != fileHandlingMode) {
                         binEdFileHandler.switchFileHandlingMode(newHandlingMode);
@@ -537,6 +569,7 @@ public final class BinEdManager {
                 showMenu.add(createShowHeaderMenuItem(codeArea));
                 showMenu.add(createShowRowPositionMenuItem(codeArea));
                 showMenu.add(createShowInspectorPanel(editorComponent.getComponentPanel()));
+                showMenu.add(createShowDataOverview(editorComponent.getComponentPanel()));
                 menu.add(showMenu);
                 menu.addSeparator();
             }
@@ -927,6 +960,20 @@ public final class BinEdManager {
         return showInspectorPanelMenuItem;
     }
 
+    @Nonnull
+    public JMenuItem createShowDataOverview(BinEdComponentPanel binEdComponentPanel) {
+        BinEdComponentOverview componentExtension = binEdComponentPanel.getComponentExtension(BinEdComponentOverview.class);
+        JCheckBoxMenuItem showDataOverviewMenuItem = new JCheckBoxMenuItem(overviewResourceBundle.getString("showDataOverviewAction.text"));
+        showDataOverviewMenuItem.setToolTipText(overviewResourceBundle.getString("showDataOverviewAction.shortDescription"));
+        showDataOverviewMenuItem.setSelected(componentExtension.isShowOverview());
+        showDataOverviewMenuItem.addActionListener(event -> {
+            boolean show = !componentExtension.isShowOverview();
+            componentExtension.setShowOverview(show);
+            preferences.getDataOverviewPreferences().setShowDataOverview(show);
+        });
+        return showDataOverviewMenuItem;
+    }
+
     public void addInsertDataComponent(InsertDataMethod insertDataComponent) {
         insertDataComponents.add(insertDataComponent);
     }
@@ -960,6 +1007,12 @@ public final class BinEdManager {
             statusPanel.setEditMode(mode, operation);
         });
 
+        if (Boolean.getBoolean(PAINT_STATISTICS_PROPERTY) && codeArea.getPainter() instanceof BinEdCodeAreaPainter) {
+            BinEdCodeAreaPainter painter = (BinEdCodeAreaPainter) codeArea.getPainter();
+            painter.addPaintStatisticsListener(statusPanel::setPaintStatistics);
+            painter.setInstrumentationEnabled(true);
+        }
+
         long documentOriginalSize = fileHandler == null ? 0 : fileHandler.getDocumentOriginalSize();
         updateStatus(editorComponent, documentOriginalSize);
     }
@@ -1001,6 +1054,8 @@ public final class BinEdManager {
             newMemoryMode = BinaryStatusApi.MemoryMode.READ_ONLY;
         } else if (codeArea.getContentData() instanceof DeltaDocument) {
             newMemoryMode = BinaryStatusApi.MemoryMode.DELTA_MODE;
+        } else if (codeArea.getContentData() instanceof MappedFileDocument) {
+            newMemoryMode = ((MappedFileDocument) codeArea.getContentData()).isUpgraded() ? BinaryStatusApi.MemoryMode.DELTA_MODE : BinaryStatusApi.MemoryMode.MAPPED;
         }
 
         statusPanel.setMemoryMode(newMemoryMode);
@@ -16,13 +16,14 @@
 package org.exbin.bined.eclipse.main;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
 import java.util.Objects;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import javax.swing.event.ChangeListener;
 
@@ -30,7 +31,12 @@ import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.ui.IEditorInput;
+import org.eclipse.ui.IURIEditorInput;
 import org.eclipse.ui.part.FileEditorInput;
 import org.exbin.auxiliary.binary_data.BinaryData;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
@@ -38,10 +44,14 @@ import org.exbin.auxiliary.binary_data.delta.DeltaDocument;
 import org.exbin.auxiliary.binary_data.delta.FileDataSource;
 import org.exbin.auxiliary.binary_data.paged.PagedData;
 import org.exbin.bined.EditMode;
+import org.exbin.bined.eclipse.plugin.BinEdPlugin;
 import org.exbin.bined.operation.swing.CodeAreaUndoHandler;
 import org.exbin.bined.swing.extended.ExtCodeArea;
 import org.exbin.framework.bined.BinEdFileHandler;
+import org.exbin.framework.bined.FileDataLoader;
 import org.exbin.framework.bined.FileHandlingMode;
+import org.exbin.framework.bined.MappedFileData;
+import org.exbin.framework.bined.MappedFileDocument;
 import org.exbin.framework.bined.UndoHandlerWrapper;
 import org.exbin.xbup.operation.Command;
 import org.exbin.xbup.operation.undo.XBUndoUpdateListener;
@@ -87,14 +97,7 @@ public class BinEdNativeFile extends BinEdFileHandler {
 		if (dataObject instanceof FileEditorInput) {
 			IFile file = ((FileEditorInput) dataObject).getFile();
 			IPath path = file.getLocation();
-			try {
-				File documentFile = path.toFile();
-				openDocument(documentFile, documentFile.canWrite());
-		        getUndoHandler().clear();
-		        fileSync();
-			} catch (IOException ex) {
-				ex.printStackTrace();
-			}
+			openDocumentFile(path.toFile());
 //	        displayName = dataObject.getPrimaryFile().getNameExt();
 //	        setHtmlDisplayName(displayName);
 //	        node.openFile(dataObject);
@@ -106,12 +109,59 @@ public class BinEdNativeFile extends BinEdFileHandler {
 //	            charsetChangeListener.charsetChanged();
 	//	        }
 //	        codeArea.setCharset(charset);
+		} else if (dataObject instanceof IURIEditorInput) {
+			URI uri = ((IURIEditorInput) dataObject).getURI();
+			if ("file".equals(uri.getScheme())) {
+				openDocumentFile(new File(uri));
+			}
+		}
+    }
+
+    /**
+     * Returns local file of opened editor input.
+     *
+     * @return file or null if input is not local file
+     */
+    @Nullable
+    private File getDocumentFile() {
+		if (dataObject instanceof FileEditorInput) {
+			IPath path = ((FileEditorInput) dataObject).getFile().getLocation();
+			return path == null ? null : path.toFile();
+		} else if (dataObject instanceof IURIEditorInput) {
+			URI uri = ((IURIEditorInput) dataObject).getURI();
+			if ("file".equals(uri.getScheme())) {
+				return new File(uri);
+			}
+		}
+		return null;
+    }
+
+    @Nonnull
+    private FileHandlingMode getPreferredFileHandlingMode() {
+        return BinEdManager.getInstance().getPreferences().getEditorPreferences().getFileHandlingMode();
+    }
+
+    private void openDocumentFile(File documentFile) {
+        openDocumentFile(documentFile, getPreferredFileHandlingMode());
+    }
+
+    private void openDocumentFile(File documentFile, FileHandlingMode fileHandlingMode) {
+		try {
+			openDocument(documentFile, documentFile.canWrite(), fileHandlingMode);
+	        getUndoHandler().clear();
+	        fileSync();
+		} catch (IOException ex) {
+			ex.printStackTrace();
 		}
     }
 
     public void openDocument(File file, boolean editable) throws IOException {
+        openDocument(file, editable, getPreferredFileHandlingMode());
+    }
+
+    public void openDocument(File file, boolean editable, FileHandlingMode fileHandlingMode) throws IOException {
+        stopLoading();
         ExtCodeArea codeArea = getCodeArea();
-        FileHandlingMode fileHandlingMode = getFileHandlingMode();
 
         BinaryData oldData = codeArea.getContentData();
         if (fileHandlingMode == FileHandlingMode.DELTA) {
@@ -121,26 +171,30 @@ public class BinEdNativeFile extends BinEdFileHandler {
             if (oldData != null) {
                 oldData.dispose();
             }
+        } else if (fileHandlingMode == FileHandlingMode.MAPPED) {
+            MappedFileDocument document = new MappedFileDocument(new MappedFileData(file), this::upgradeMappedData);
+            getEditorComponent().setContentData(document);
+            if (oldData != null) {
+                oldData.dispose();
+            }
         } else {
-            try (FileInputStream fileStream = new FileInputStream(file)) {
-                BinaryData data = codeArea.getContentData();
-                if (!(data instanceof PagedData)) {
-                    data = new PagedData();
-                    if (oldData != null) {
-                        oldData.dispose();
-                    }
-                }
-                ((EditableBinaryData) data).loadFromStream(fileStream);
-                getEditorComponent().setContentData(data);
+            PagedData data = new PagedData();
+            getEditorComponent().setContentData(data);
+            if (oldData != null) {
+                oldData.dispose();
             }
+            fileSync();
+            loadFileInBackground(file, data, editable ? EditMode.EXPANDING : EditMode.READ_ONLY);
+            return;
         }
         fileSync();
         codeArea.setEditMode(editable ? EditMode.EXPANDING : EditMode.READ_ONLY);
     }
 
     public void openDocument(InputStream stream, boolean editable) throws IOException {
+        stopLoading();
         ExtCodeArea codeArea = getCodeArea();
-        setNewData(getFileHandlingMode());
+        setNewData(getPreferredFileHandlingMode());
         EditableBinaryData data = Objects.requireNonNull((EditableBinaryData) codeArea.getContentData());
         data.loadFromStream(stream);
         codeArea.setEditMode(editable ? EditMode.EXPANDING : EditMode.READ_ONLY);
@@ -149,6 +203,13 @@ public class BinEdNativeFile extends BinEdFileHandler {
     }
 
     public void saveFile() {
+        if (!isFullyLoaded()) {
+            reportSaveRefused();
+            return;
+        }
+
+        releaseMappedData();
+
         if (dataObject instanceof FileEditorInput) {
 			IFile file = ((FileEditorInput) dataObject).getFile();
 			IPath path = file.getLocation();
@@ -160,6 +221,8 @@ public class BinEdNativeFile extends BinEdFileHandler {
 		        BinaryData data = codeArea.getContentData();
 		        if (fileHandlingMode == FileHandlingMode.MEMORY) {
 		            data.saveToStream(new FileOutputStream(path.toFile()));
+		        } else if (fileHandlingMode == FileHandlingMode.MAPPED) {
+		            // Mapped file is switched to delta mode on first edit, so it's unmodified
 		        } else {
 		            DeltaDocument document = (DeltaDocument) data;
 		            document.save();
@@ -175,12 +238,19 @@ public class BinEdNativeFile extends BinEdFileHandler {
     }
 
     public void saveFile(File file) {
+        if (!isFullyLoaded()) {
+            reportSaveRefused();
+            return;
+        }
+
+        releaseMappedData();
+
         FileHandlingMode fileHandlingMode = getFileHandlingMode();
         ExtCodeArea codeArea = getCodeArea();
 
 		try {
 	        BinaryData data = codeArea.getContentData();
-	        if (fileHandlingMode == FileHandlingMode.MEMORY) {
+	        if (fileHandlingMode == FileHandlingMode.MEMORY || fileHandlingMode == FileHandlingMode.MAPPED) {
 	            data.saveToStream(new FileOutputStream(file));
 	        } else {
 	        	throw new UnsupportedOperationException("Not supported yet.");
@@ -201,6 +271,72 @@ public class BinEdNativeFile extends BinEdFileHandler {
         openFile(dataObject);
     }
 
+    /**
+     * Reopens file of editor input in given mode, content without file is
+     * converted in memory.
+     * <p>
+     * Modified document is offered to be saved first, mode is kept if user
+     * cancels.
+     *
+     * @param handlingMode file handling mode
+     */
+    @Override
+    public void switchFileHandlingMode(FileHandlingMode handlingMode) {
+        if (handlingMode == getFileHandlingMode()) {
+            return;
+        }
+
+        File documentFile = getDocumentFile();
+        if (documentFile != null) {
+            if (isModified() && !BinEdManager.getInstance().releaseFile(this)) {
+                return;
+            }
+            openDocumentFile(documentFile, handlingMode);
+        } else {
+            super.switchFileHandlingMode(handlingMode);
+        }
+    }
+
+    @Override
+    protected void runFileLoader(FileDataLoader fileLoader) {
+        Job job = new Job("Loading " + fileLoader.getFile().getName()) {
+            @Override
+            protected IStatus run(IProgressMonitor monitor) {
+                monitor.beginTask(getName(), fileLoader.getChunksCount());
+                try {
+                    while (!monitor.isCanceled() && fileLoader.loadNextChunk()) {
+                        monitor.worked(1);
+                    }
+                } catch (IOException ex) {
+                    fileLoader.fail(ex);
+                }
+                if (monitor.isCanceled()) {
+                    fileLoader.cancel();
+                }
+                fileLoader.finish();
+                monitor.done();
+                IOException loadError = fileLoader.getLoadError();
+                if (loadError != null) {
+                    return new Status(IStatus.ERROR, BinEdPlugin.PLUGIN_ID, "File " + fileLoader.getFile().getName() + " was loaded only partially", loadError);
+                }
+                return fileLoader.isCancelled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+            }
+
+            @Override
+            protected void canceling() {
+                fileLoader.cancel();
+            }
+        };
+        job.schedule();
+    }
+
+    /**
+     * Load error is reported by status of loading job.
+     */
+    @Override
+    protected void reportLoadError(File file, IOException exception) {
+    }
+
     @Override
     public void saveDocument() {
         if (dataObject == null) {
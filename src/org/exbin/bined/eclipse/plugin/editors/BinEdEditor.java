@@ -51,6 +51,7 @@ import org.eclipse.ui.actions.ActionFactory;
 import org.eclipse.ui.editors.text.ILocationProvider;
 import org.eclipse.ui.part.EditorPart;
 import org.exbin.bined.eclipse.main.BinEdNativeFile;
+import org.exbin.bined.swing.extended.ExtCodeArea;
 import org.exbin.framework.utils.WindowUtils;
 import org.exbin.xbup.operation.Command;
 import org.exbin.xbup.operation.undo.XBUndoHandler;
@@ -62,6 +63,8 @@ import org.exbin.xbup.operation.undo.XBUndoUpdateListener;
 @ParametersAreNonnullByDefault
 public final class BinEdEditor extends EditorPart implements ISelectionProvider {
 
+	public static final String ID = "org.exbin.bined.eclipse.plugin.editors.BinEdEditor";
+
 	private List<ISelectionChangedListener> selectionChangedListeners = new ArrayList<>();
 	private BinEdNativeFile editorFile;
 
@@ -305,6 +308,29 @@ public final class BinEdEditor extends EditorPart implements ISelectionProvider
 		});
 	}
 
+	/**
+	 * Moves cursor to given position and selects data of given length.
+	 * <p>
+	 * If file is still loading, navigation waits until selected data are
+	 * loaded.
+	 *
+	 * @param position data position
+	 * @param length length of selection
+	 */
+	public void goToPosition(long position, long length) {
+		SwingUtilities.invokeLater(() -> {
+			editorFile.invokeWhenLoaded(position + length, () -> {
+				ExtCodeArea codeArea = editorFile.getCodeArea();
+				// Loading could end before reaching position
+				long dataSize = codeArea.getDataSize();
+				long startPosition = Math.min(position, dataSize);
+				codeArea.setCaretPosition(startPosition);
+				codeArea.setSelection(startPosition, Math.min(position + length, dataSize));
+				codeArea.centerOnPosition(startPosition, 0, codeArea.getActiveSection());
+			});
+		});
+	}
+
 	@Override
 	public void setFocus() {
 		editorFile.requestFocus();
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.eclipse.plugin.handlers;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import org.eclipse.core.commands.AbstractHandler;
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.Adapters;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.ui.IWorkbenchPage;
+import org.eclipse.ui.PartInitException;
+import org.eclipse.ui.handlers.HandlerUtil;
+import org.exbin.bined.eclipse.plugin.views.FindInBinaryFilesView;
+
+/**
+ * Opens search in binary files for selected workspace resources.
+ * <p>
+ * Whole workspace is searched when no resource is selected.
+ */
+@ParametersAreNonnullByDefault
+public class FindInBinaryFilesHandler extends AbstractHandler {
+
+	@Nullable
+	@Override
+	public Object execute(ExecutionEvent event) throws ExecutionException {
+		List<File> searchRoots = new ArrayList<>();
+		ISelection selection = HandlerUtil.getCurrentSelection(event);
+		if (selection instanceof IStructuredSelection) {
+			Iterator<?> iterator = ((IStructuredSelection) selection).iterator();
+			while (iterator.hasNext()) {
+				IResource resource = Adapters.adapt(iterator.next(), IResource.class);
+				if (resource != null) {
+					IPath location = resource.getLocation();
+					if (location != null) {
+						searchRoots.add(location.toFile());
+					}
+				}
+			}
+		}
+		if (searchRoots.isEmpty()) {
+			IPath workspaceLocation = ResourcesPlugin.getWorkspace().getRoot().getLocation();
+			if (workspaceLocation != null) {
+				searchRoots.add(workspaceLocation.toFile());
+			}
+		}
+
+		IWorkbenchPage page = HandlerUtil.getActiveWorkbenchWindowChecked(event).getActivePage();
+		try {
+			FindInBinaryFilesView view = (FindInBinaryFilesView) page.showView(FindInBinaryFilesView.ID);
+			view.setSearchRoots(searchRoots);
+		} catch (PartInitException ex) {
+			throw new ExecutionException("Unable to open search view", ex);
+		}
+
+		return null;
+	}
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.eclipse.plugin.views;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.swing.SwingUtilities;
+
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.awt.SWT_AWT;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.ui.IEditorPart;
+import org.eclipse.ui.PartInitException;
+import org.eclipse.ui.ide.IDE;
+import org.eclipse.ui.part.ViewPart;
+import org.exbin.bined.eclipse.plugin.editors.BinEdEditor;
+import org.exbin.framework.bined.search.SearchParameters;
+import org.exbin.framework.bined.search.files.FileSearch;
+import org.exbin.framework.bined.search.files.FileSearchResult;
+import org.exbin.framework.bined.search.gui.FileSearchPanel;
+import org.exbin.framework.utils.WindowUtils;
+
+/**
+ * View for search of data in multiple binary files.
+ */
+@ParametersAreNonnullByDefault
+public class FindInBinaryFilesView extends ViewPart {
+
+	public static final String ID = "org.exbin.bined.eclipse.plugin.views.FindInBinaryFilesView";
+
+	private FileSearchPanel fileSearchPanel;
+	private ResourceBundle resourceBundle;
+	private volatile FileSearch fileSearch = null;
+
+	@Override
+	public void createPartControl(Composite parent) {
+		fileSearchPanel = new FileSearchPanel();
+		resourceBundle = fileSearchPanel.getResourceBundle();
+		fileSearchPanel.setControl(new FileSearchPanel.Control() {
+			@Override
+			public void performSearch(SearchParameters searchParameters, List<File> searchRoots) {
+				FindInBinaryFilesView.this.performSearch(searchParameters, searchRoots);
+			}
+
+			@Override
+			public void cancelSearch() {
+				FindInBinaryFilesView.this.cancelSearch();
+			}
+
+			@Override
+			public void openResult(FileSearchResult result) {
+				Display.getDefault().asyncExec(() -> FindInBinaryFilesView.this.openResult(result));
+			}
+		});
+
+		Composite wrapper = new Composite(parent, SWT.EMBEDDED);
+		java.awt.Frame frame = SWT_AWT.new_Frame(wrapper);
+		Shell shell = parent.getShell();
+		WindowUtils.frameShells.put(frame, shell);
+		shell.addDisposeListener((e) -> {
+			WindowUtils.frameShells.remove(frame);
+		});
+
+		frame.add(fileSearchPanel);
+		final org.eclipse.swt.graphics.Rectangle size = wrapper.getClientArea();
+		SwingUtilities.invokeLater(() -> {
+			frame.invalidate();
+			frame.setSize(size.width, size.height);
+		});
+	}
+
+	/**
+	 * Sets workspace files and folders to search in.
+	 *
+	 * @param searchRoots files and folders
+	 */
+	public void setSearchRoots(List<File> searchRoots) {
+		List<File> roots = new ArrayList<>(searchRoots);
+		SwingUtilities.invokeLater(() -> fileSearchPanel.setSearchRoots(roots));
+	}
+
+	private void performSearch(SearchParameters searchParameters, List<File> searchRoots) {
+		cancelSearch();
+		final FileSearch search = new FileSearch(searchParameters, getWorkspaceCharset());
+		fileSearch = search;
+		fileSearchPanel.setSearchRunning(true);
+		fileSearchPanel.setStatus("");
+
+		Job job = new Job("Searching binary files") {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				List<File> files = FileSearch.collectFiles(searchRoots);
+				monitor.beginTask(getName(), files.size());
+				AtomicInteger matchesCount = new AtomicInteger();
+				AtomicInteger truncatedCount = new AtomicInteger();
+				boolean validCondition = true;
+				try {
+					search.search(files, new FileSearch.FileSearchListener() {
+						@Override
+						public void resultFound(FileSearchResult result) {
+							// Results of superseded search must not mix with results of current one
+							if (fileSearch == search) {
+								fileSearchPanel.addResult(result);
+								matchesCount.incrementAndGet();
+							}
+						}
+
+						@Override
+						public void resultsTruncated(File file, int resultsCount) {
+							if (fileSearch == search) {
+								fileSearchPanel.addTruncatedFile(file, resultsCount);
+								truncatedCount.incrementAndGet();
+							}
+						}
+
+						@Override
+						public void fileProcessed(File file, int processedCount, int filesCount) {
+							monitor.worked(1);
+							String status = MessageFormat.format(resourceBundle.getString("searchStatus.searching"), processedCount, filesCount, matchesCount.get());
+							SwingUtilities.invokeLater(() -> fileSearchPanel.setStatus(status));
+						}
+
+						@Override
+						public void fileFailed(File file, Throwable exception) {
+							Logger.getLogger(FindInBinaryFilesView.class.getName()).log(Level.WARNING, "Unable to search file " + file, exception);
+						}
+					});
+				} catch (IllegalArgumentException ex) {
+					validCondition = false;
+				}
+
+				String status;
+				if (!validCondition) {
+					status = resourceBundle.getString("searchStatus.invalidCondition");
+				} else if (search.isCancelled()) {
+					status = MessageFormat.format(resourceBundle.getString("searchStatus.cancelled"), matchesCount.get());
+				} else {
+					status = MessageFormat.format(resourceBundle.getString("searchStatus.finished"), matchesCount.get(), files.size());
+				}
+				if (validCondition && truncatedCount.get() > 0) {
+					status = MessageFormat.format(resourceBundle.getString("searchStatus.truncated"), status, truncatedCount.get());
+				}
+				final String searchStatus = status;
+				SwingUtilities.invokeLater(() -> {
+					if (fileSearch == search) {
+						fileSearchPanel.setSearchRunning(false);
+						fileSearchPanel.setStatus(searchStatus);
+					}
+				});
+				monitor.done();
+				return search.isCancelled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+			}
+
+			@Override
+			protected void canceling() {
+				search.cancel();
+			}
+		};
+		job.schedule();
+	}
+
+	private void cancelSearch() {
+		if (fileSearch != null) {
+			fileSearch.cancel();
+		}
+	}
+
+	private void openResult(FileSearchResult result) {
+		try {
+			IEditorPart editor = IDE.openEditor(getSite().getPage(), result.getFile().toURI(), BinEdEditor.ID, true);
+			if (editor instanceof BinEdEditor) {
+				((BinEdEditor) editor).goToPosition(result.getPosition(), result.getLength());
+			}
+		} catch (PartInitException ex) {
+			Logger.getLogger(FindInBinaryFilesView.class.getName()).log(Level.SEVERE, null, ex);
+		}
+	}
+
+	@Nonnull
+	private static Charset getWorkspaceCharset() {
+		try {
+			return Charset.forName(ResourcesPlugin.getEncoding());
+		} catch (IllegalArgumentException ex) {
+			return Charset.defaultCharset();
+		}
+	}
+
+	@Override
+	public void setFocus() {
+	}
+
+	@Override
+	public void dispose() {
+		cancelSearch();
+		super.dispose();
+	}
+}
@@ -16,8 +16,11 @@
 package org.exbin.framework.bined;
 
 import java.awt.Color;
+import java.awt.Graphics;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import org.exbin.bined.CodeAreaSection;
@@ -25,9 +28,15 @@ import org.exbin.bined.CodeAreaSelection;
 import org.exbin.bined.capability.SelectionCapable;
 import org.exbin.bined.highlight.swing.extended.ExtendedHighlightNonAsciiCodeAreaPainter;
 import org.exbin.bined.swing.CodeAreaCore;
+import org.exbin.bined.swing.basic.color.CodeAreaColorsProfile;
 
 /**
  * Specific painter for binary editor.
+ * <p>
+ * Colors of row color modifiers are merged once per painted row into row
+ * buffers, position color modifiers are still called for each position.
+ * <p>
+ * Optional instrumentation records statistics of each painted frame.
  */
 @ParametersAreNonnullByDefault
 public class BinEdCodeAreaPainter extends ExtendedHighlightNonAsciiCodeAreaPainter {
@@ -35,84 +44,175 @@ public class BinEdCodeAreaPainter extends ExtendedHighlightNonAsciiCodeAreaPaint
     private final List<PositionColorModifier> priorityColorModifiers = new ArrayList<>();
     private final List<PositionColorModifier> colorModifiers = new ArrayList<>();
 
+    private final RowColors priorityRowColors = new RowColors();
+    private final RowColors rowColors = new RowColors();
+    private byte[] rowData = new byte[0];
+    private int rowDataLength = 0;
+    private long preparedRowPosition = -1;
+    private long selectionStart = 0;
+    private long selectionEnd = 0;
+
+    private boolean instrumentationEnabled = false;
+    private final List<PaintStatisticsListener> paintStatisticsListeners = new ArrayList<>();
+    private PaintStatistics lastPaintStatistics = null;
+    private long rowBackgroundTime;
+    private long rowTextTime;
+    private int rowsCount;
+    private long bytesFetched;
+    private long dataAccessTime;
+    private long modifierCallsCount;
+    private long modifierTime;
+
     public BinEdCodeAreaPainter(CodeAreaCore codeArea) {
         super(codeArea);
     }
 
     public void addColorModifier(PositionColorModifier colorModifier) {
         colorModifiers.add(colorModifier);
+        invalidateRowColors();
     }
 
     public void removeColorModifier(PositionColorModifier colorModifier) {
         colorModifiers.remove(colorModifier);
+        invalidateRowColors();
     }
 
     public void addPriorityColorModifier(PositionColorModifier colorModifier) {
         priorityColorModifiers.add(colorModifier);
+        invalidateRowColors();
     }
 
     public void removePriorityColorModifier(PositionColorModifier colorModifier) {
         priorityColorModifiers.remove(colorModifier);
+        invalidateRowColors();
+    }
+
+    public boolean isInstrumentationEnabled() {
+        return instrumentationEnabled;
+    }
+
+    /**
+     * Enables recording of paint statistics for each painted frame.
+     *
+     * @param instrumentationEnabled true to enable recording
+     */
+    public void setInstrumentationEnabled(boolean instrumentationEnabled) {
+        this.instrumentationEnabled = instrumentationEnabled;
+        if (!instrumentationEnabled) {
+            lastPaintStatistics = null;
+        }
+    }
+
+    /**
+     * Returns statistics of the last painted frame.
+     *
+     * @return statistics or null if instrumentation is disabled or nothing
+     * was painted yet
+     */
+    @Nullable
+    public PaintStatistics getLastPaintStatistics() {
+        return lastPaintStatistics;
+    }
+
+    public void addPaintStatisticsListener(PaintStatisticsListener listener) {
+        paintStatisticsListeners.add(listener);
+    }
+
+    public void removePaintStatisticsListener(PaintStatisticsListener listener) {
+        paintStatisticsListeners.remove(listener);
+    }
+
+    @Override
+    public void paintComponent(Graphics g) {
+        if (!instrumentationEnabled) {
+            super.paintComponent(g);
+            return;
+        }
+
+        rowBackgroundTime = 0;
+        rowTextTime = 0;
+        rowsCount = 0;
+        bytesFetched = 0;
+        dataAccessTime = 0;
+        modifierCallsCount = 0;
+        modifierTime = 0;
+        long startTime = System.nanoTime();
+        super.paintComponent(g);
+        long paintTime = System.nanoTime() - startTime;
+        lastPaintStatistics = new PaintStatistics(paintTime, rowBackgroundTime, rowTextTime, rowsCount, bytesFetched, dataAccessTime, modifierCallsCount, modifierTime);
+        for (PaintStatisticsListener listener : paintStatisticsListeners) {
+            listener.paintStatisticsChanged(lastPaintStatistics);
+        }
+    }
+
+    @Override
+    public void paintRowBackground(Graphics g, long rowDataPosition, int rowPositionX, int rowPositionY) {
+        if (!instrumentationEnabled) {
+            super.paintRowBackground(g, rowDataPosition, rowPositionX, rowPositionY);
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        super.paintRowBackground(g, rowDataPosition, rowPositionX, rowPositionY);
+        rowBackgroundTime += System.nanoTime() - startTime;
+    }
+
+    @Override
+    public void paintRowText(Graphics g, long rowDataPosition, int rowPositionX, int rowPositionY) {
+        if (!instrumentationEnabled) {
+            super.paintRowText(g, rowDataPosition, rowPositionX, rowPositionY);
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        super.paintRowText(g, rowDataPosition, rowPositionX, rowPositionY);
+        rowTextTime += System.nanoTime() - startTime;
+    }
+
+    @Override
+    public void paintMainArea(Graphics g) {
+        invalidateRowColors();
+        super.paintMainArea(g);
     }
 
     @Nullable
     @Override
     public Color getPositionBackgroundColor(long rowDataPosition, int byteOnRow, int charOnRow, CodeAreaSection section, boolean unprintables) {
-        CodeAreaSelection selectionHandler = ((SelectionCapable) codeArea).getSelectionHandler();
-        boolean inSelection = selectionHandler.isInSelection(rowDataPosition + byteOnRow);
+        prepareRowColors(rowDataPosition);
+        long dataPosition = rowDataPosition + byteOnRow;
+        boolean inSelection = dataPosition >= selectionStart && dataPosition < selectionEnd;
 
-        for (PositionColorModifier colorModifier : priorityColorModifiers) {
-            Color positionBackgroundColor = colorModifier.getPositionBackgroundColor(rowDataPosition, byteOnRow, charOnRow, section, unprintables);
-            if (positionBackgroundColor != null) {
-                return positionBackgroundColor;
-            }
+        Color positionBackgroundColor = resolveColor(priorityColorModifiers, priorityRowColors, true, rowDataPosition, byteOnRow, charOnRow, section, unprintables);
+        if (positionBackgroundColor != null) {
+            return positionBackgroundColor;
         }
 
         if (!inSelection) {
-            for (PositionColorModifier colorModifier : colorModifiers) {
-                Color positionBackgroundColor = colorModifier.getPositionBackgroundColor(rowDataPosition, byteOnRow, charOnRow, section, unprintables);
-                if (positionBackgroundColor != null) {
-                    return positionBackgroundColor;
-                }
+            positionBackgroundColor = resolveColor(colorModifiers, rowColors, true, rowDataPosition, byteOnRow, charOnRow, section, unprintables);
+            if (positionBackgroundColor != null) {
+                return positionBackgroundColor;
             }
         }
 
-        Color color = super.getPositionBackgroundColor(rowDataPosition, byteOnRow, charOnRow, section, unprintables);
-//        if (color == null || inSelection) {
-//            long dataPosition = rowDataPosition + byteOnRow;
-//            if (dataPosition > 100 && dataPosition < 300) {
-//                if (inSelection && color != null) {
-//                    return new Color(
-//                            (((int) (dataPosition * 17) % 255) + color.getRed()) / 2,
-//                            (((int) (dataPosition * 37) % 255) + color.getGreen()) / 2,
-//                            (((int) (dataPosition * 13) % 255) + color.getBlue()) / 2);
-//                }
-//                return new Color((int) (dataPosition * 17) % 255, (int) (dataPosition * 37) % 255, (int) (dataPosition * 13) % 255);
-//            }
-//        }
-
-        return color;
+        return super.getPositionBackgroundColor(rowDataPosition, byteOnRow, charOnRow, section, unprintables);
     }
 
     @Nullable
     @Override
     public Color getPositionTextColor(long rowDataPosition, int byteOnRow, int charOnRow, CodeAreaSection section, boolean unprintables) {
-        CodeAreaSelection selectionHandler = ((SelectionCapable) codeArea).getSelectionHandler();
-        boolean inSelection = selectionHandler.isInSelection(rowDataPosition + byteOnRow);
+        prepareRowColors(rowDataPosition);
+        long dataPosition = rowDataPosition + byteOnRow;
+        boolean inSelection = dataPosition >= selectionStart && dataPosition < selectionEnd;
 
-        for (PositionColorModifier colorModifier : priorityColorModifiers) {
-            Color positionTextColor = colorModifier.getPositionTextColor(rowDataPosition, byteOnRow, charOnRow, section, unprintables);
-            if (positionTextColor != null) {
-                return positionTextColor;
-            }
+        Color positionTextColor = resolveColor(priorityColorModifiers, priorityRowColors, false, rowDataPosition, byteOnRow, charOnRow, section, unprintables);
+        if (positionTextColor != null) {
+            return positionTextColor;
         }
 
         if (!inSelection) {
-            for (PositionColorModifier colorModifier : colorModifiers) {
-                Color positionTextColor = colorModifier.getPositionTextColor(rowDataPosition, byteOnRow, charOnRow, section, unprintables);
-                if (positionTextColor != null) {
-                    return positionTextColor;
-                }
+            positionTextColor = resolveColor(colorModifiers, rowColors, false, rowDataPosition, byteOnRow, charOnRow, section, unprintables);
+            if (positionTextColor != null) {
+                return positionTextColor;
             }
         }
 
@@ -130,6 +230,99 @@ public class BinEdCodeAreaPainter extends ExtendedHighlightNonAsciiCodeAreaPaint
         for (PositionColorModifier colorModifier : colorModifiers) {
             colorModifier.resetColors();
         }
+        invalidateRowColors();
+    }
+
+    /**
+     * Resolves color of position from modifiers in order.
+     * <p>
+     * Row color modifiers are read from merged row buffer, position color
+     * modifiers preceding the modifier which provided buffered color are
+     * called directly.
+     */
+    @Nullable
+    private Color resolveColor(List<PositionColorModifier> modifiers, RowColors colors, boolean background, long rowDataPosition, int byteOnRow, int charOnRow, CodeAreaSection section, boolean unprintables) {
+        int owner;
+        Color color;
+        if (byteOnRow < colors.length) {
+            owner = background ? colors.backgroundOwners[byteOnRow] : colors.textOwners[byteOnRow];
+            color = background ? colors.backgroundColors[byteOnRow] : colors.textColors[byteOnRow];
+        } else {
+            owner = RowColors.NO_OWNER;
+            color = null;
+        }
+
+        if (colors.positionModifiersCount > 0) {
+            int[] positionModifiers = colors.positionModifiers;
+            for (int i = 0; i < colors.positionModifiersCount && positionModifiers[i] < owner; i++) {
+                PositionColorModifier colorModifier = modifiers.get(positionModifiers[i]);
+                long startTime = instrumentationEnabled ? System.nanoTime() : 0;
+                Color positionColor = background
+                        ? colorModifier.getPositionBackgroundColor(rowDataPosition, byteOnRow, charOnRow, section, unprintables)
+                        : colorModifier.getPositionTextColor(rowDataPosition, byteOnRow, charOnRow, section, unprintables);
+                if (instrumentationEnabled) {
+                    modifierTime += System.nanoTime() - startTime;
+                    modifierCallsCount++;
+                }
+                if (positionColor != null) {
+                    return positionColor;
+                }
+            }
+        }
+
+        return color;
+    }
+
+    private void prepareRowColors(long rowDataPosition) {
+        if (rowDataPosition == preparedRowPosition) {
+            return;
+        }
+
+        preparedRowPosition = rowDataPosition;
+        if (instrumentationEnabled) {
+            rowsCount++;
+        }
+        CodeAreaSelection selectionHandler = ((SelectionCapable) codeArea).getSelectionHandler();
+        selectionStart = selectionHandler.getFirst();
+        selectionEnd = selectionStart + selectionHandler.getLength();
+
+        int bytesPerRow = getBytesPerRow();
+        CodeAreaColorsProfile colorsProfile = getColorsProfile();
+        boolean hasRowModifiers = priorityRowColors.prepare(priorityColorModifiers, bytesPerRow, colorsProfile);
+        hasRowModifiers |= rowColors.prepare(colorModifiers, bytesPerRow, colorsProfile);
+        if (!hasRowModifiers) {
+            return;
+        }
+
+        if (rowData.length < bytesPerRow) {
+            rowData = new byte[bytesPerRow];
+        }
+        long dataSize = codeArea.getDataSize();
+        rowDataLength = (int) Math.max(0, Math.min(bytesPerRow, dataSize - rowDataPosition));
+        if (!instrumentationEnabled) {
+            if (rowDataLength > 0) {
+                codeArea.getContentData().copyToArray(rowDataPosition, rowData, 0, rowDataLength);
+            }
+
+            priorityRowColors.collect(priorityColorModifiers, rowDataPosition, rowData, rowDataLength);
+            rowColors.collect(colorModifiers, rowDataPosition, rowData, rowDataLength);
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        if (rowDataLength > 0) {
+            codeArea.getContentData().copyToArray(rowDataPosition, rowData, 0, rowDataLength);
+            bytesFetched += rowDataLength;
+        }
+        long collectTime = System.nanoTime();
+        dataAccessTime += collectTime - startTime;
+        modifierCallsCount += priorityRowColors.collect(priorityColorModifiers, rowDataPosition, rowData, rowDataLength);
+        modifierCallsCount += rowColors.collect(colorModifiers, rowDataPosition, rowData, rowDataLength);
+        modifierTime += System.nanoTime() - collectTime;
+    }
+
+    private void invalidateRowColors() {
+        preparedRowPosition = -1;
     }
 
     @ParametersAreNonnullByDefault
@@ -143,4 +336,168 @@ public class BinEdCodeAreaPainter extends ExtendedHighlightNonAsciiCodeAreaPaint
 
         void resetColors();
     }
+
+    /**
+     * Listener for statistics of painted frames.
+     */
+    @ParametersAreNonnullByDefault
+    public interface PaintStatisticsListener {
+
+        void paintStatisticsChanged(PaintStatistics paintStatistics);
+    }
+
+    /**
+     * Color modifier providing colors for whole row in single call.
+     * <p>
+     * Painter uses row colors instead of per position methods, which are kept
+     * for compatibility only. Colors apply to all sections of given bytes.
+     */
+    @ParametersAreNonnullByDefault
+    public interface RowColorModifier extends PositionColorModifier {
+
+        /**
+         * Reports color spans of given row.
+         *
+         * @param rowDataPosition data position of the start of the row
+         * @param rowData data of the row
+         * @param rowDataLength length of valid data in row data
+         * @param spans target for color spans
+         */
+        void collectRowColors(long rowDataPosition, byte[] rowData, int rowDataLength, RowColorSpans spans);
+    }
+
+    /**
+     * Target for color spans of single row.
+     * <p>
+     * Span positions are byte offsets from the start of the row, spans are
+     * clipped to row. Later span of the same modifier replaces earlier one.
+     */
+    @ParametersAreNonnullByDefault
+    public interface RowColorSpans {
+
+        /**
+         * Returns count of bytes of row.
+         *
+         * @return bytes per row
+         */
+        int getBytesPerRow();
+
+        /**
+         * Returns colors profile of painter.
+         *
+         * @return colors profile
+         */
+        @Nonnull
+        CodeAreaColorsProfile getColorsProfile();
+
+        void setBackgroundColor(int startByte, int endByte, Color color);
+
+        void setTextColor(int startByte, int endByte, Color color);
+    }
+
+    /**
+     * Merged colors of single row for list of modifiers.
+     * <p>
+     * For each byte color of the first modifier providing it is stored
+     * together with index of that modifier.
+     */
+    @ParametersAreNonnullByDefault
+    private static class RowColors implements RowColorSpans {
+
+        private static final int NO_OWNER = Integer.MAX_VALUE;
+
+        private Color[] backgroundColors = new Color[0];
+        private Color[] textColors = new Color[0];
+        private int[] backgroundOwners = new int[0];
+        private int[] textOwners = new int[0];
+        private int[] positionModifiers = new int[0];
+        private int positionModifiersCount = 0;
+        private int length = 0;
+        private int owner;
+        private CodeAreaColorsProfile colorsProfile;
+
+        /**
+         * Clears row buffers and records position color modifiers.
+         *
+         * @param modifiers list of modifiers
+         * @param bytesPerRow bytes per row
+         * @param colorsProfile colors profile of painter
+         * @return true if row color modifiers are present
+         */
+        private boolean prepare(List<PositionColorModifier> modifiers, int bytesPerRow, CodeAreaColorsProfile colorsProfile) {
+            this.colorsProfile = colorsProfile;
+            if (backgroundColors.length < bytesPerRow) {
+                backgroundColors = new Color[bytesPerRow];
+                textColors = new Color[bytesPerRow];
+                backgroundOwners = new int[bytesPerRow];
+                textOwners = new int[bytesPerRow];
+            }
+            if (positionModifiers.length < modifiers.size()) {
+                positionModifiers = new int[modifiers.size()];
+            }
+
+            length = bytesPerRow;
+            Arrays.fill(backgroundColors, 0, length, null);
+            Arrays.fill(textColors, 0, length, null);
+            Arrays.fill(backgroundOwners, 0, length, NO_OWNER);
+            Arrays.fill(textOwners, 0, length, NO_OWNER);
+            positionModifiersCount = 0;
+            for (int i = 0; i < modifiers.size(); i++) {
+                if (!(modifiers.get(i) instanceof RowColorModifier)) {
+                    positionModifiers[positionModifiersCount++] = i;
+                }
+            }
+            return positionModifiersCount < modifiers.size();
+        }
+
+        /**
+         * Collects colors of row color modifiers.
+         *
+         * @return count of called modifiers
+         */
+        private int collect(List<PositionColorModifier> modifiers, long rowDataPosition, byte[] rowData, int rowDataLength) {
+            int calledCount = 0;
+            for (int i = 0; i < modifiers.size(); i++) {
+                PositionColorModifier modifier = modifiers.get(i);
+                if (modifier instanceof RowColorModifier) {
+                    owner = i;
+                    ((RowColorModifier) modifier).collectRowColors(rowDataPosition, rowData, rowDataLength, this);
+                    calledCount++;
+                }
+            }
+            return calledCount;
+        }
+
+        @Override
+        public int getBytesPerRow() {
+            return length;
+        }
+
+        @Nonnull
+        @Override
+        public CodeAreaColorsProfile getColorsProfile() {
+            return colorsProfile;
+        }
+
+        @Override
+        public void setBackgroundColor(int startByte, int endByte, Color color) {
+            setColors(backgroundColors, backgroundOwners, startByte, endByte, color);
+        }
+
+        @Override
+        public void setTextColor(int startByte, int endByte, Color color) {
+            setColors(textColors, textOwners, startByte, endByte, color);
+        }
+
+        private void setColors(Color[] colors, int[] owners, int startByte, int endByte, Color color) {
+            int start = Math.max(startByte, 0);
+            int end = Math.min(endByte, length);
+            for (int i = start; i < end; i++) {
+                if (owners[i] >= owner) {
+                    colors[i] = color;
+                    owners[i] = owner;
+                }
+            }
+        }
+    }
 }
@@ -17,7 +17,6 @@ package org.exbin.framework.bined;
 
 import java.awt.Font;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -33,6 +32,7 @@ import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import javax.swing.JComponent;
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 import org.exbin.auxiliary.binary_data.BinaryData;
 import org.exbin.auxiliary.binary_data.ByteArrayEditableData;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
@@ -41,6 +41,7 @@ import org.exbin.auxiliary.binary_data.delta.DeltaDocument;
 import org.exbin.auxiliary.binary_data.delta.FileDataSource;
 import org.exbin.auxiliary.binary_data.delta.SegmentsRepository;
 import org.exbin.auxiliary.binary_data.paged.PagedData;
+import org.exbin.bined.EditMode;
 import org.exbin.bined.eclipse.main.BinEdManager;
 import org.exbin.bined.operation.swing.CodeAreaUndoHandler;
 import org.exbin.bined.operation.undo.BinaryDataUndoHandler;
@@ -77,6 +78,8 @@ public class BinEdFileHandler implements FileHandler, UndoFileHandler, BinEdComp
     private Font defaultFont;
     private ExtendedCodeAreaColorProfile defaultColors;
     private long documentOriginalSize;
+    private FileDataLoader fileLoader = null;
+    private EditMode editModeAfterLoading = null;
 
     public BinEdFileHandler() {
         editorComponent = new BinEdEditorComponent();
@@ -132,6 +135,7 @@ public class BinEdFileHandler implements FileHandler, UndoFileHandler, BinEdComp
             return;
         }
 
+        stopLoading();
         try {
             BinaryData oldData = editorComponent.getContentData();
             if (fileHandlingMode == FileHandlingMode.DELTA) {
@@ -140,17 +144,17 @@ public class BinEdFileHandler implements FileHandler, UndoFileHandler, BinEdComp
                 editorComponent.setContentData(document);
                 this.fileUri = fileUri;
                 oldData.dispose();
+            } else if (fileHandlingMode == FileHandlingMode.MAPPED) {
+                MappedFileDocument document = new MappedFileDocument(new MappedFileData(file), this::upgradeMappedData);
+                editorComponent.setContentData(document);
+                this.fileUri = fileUri;
+                oldData.dispose();
             } else {
-                try ( FileInputStream fileStream = new FileInputStream(file)) {
-                    BinaryData data = editorComponent.getContentData();
-                    if (!(data instanceof PagedData)) {
-                        data = new PagedData();
-                        oldData.dispose();
-                    }
-                    ((EditableBinaryData) data).loadFromStream(fileStream);
-                    editorComponent.setContentData(data);
-                    this.fileUri = fileUri;
-                }
+                PagedData data = new PagedData();
+                editorComponent.setContentData(data);
+                this.fileUri = fileUri;
+                oldData.dispose();
+                loadFileInBackground(file, data, getCodeArea().getEditMode());
             }
         } catch (IOException ex) {
             Logger.getLogger(BinEdFileHandler.class.getName()).log(Level.SEVERE, null, ex);
@@ -160,8 +164,215 @@ public class BinEdFileHandler implements FileHandler, UndoFileHandler, BinEdComp
         fileSync();
     }
 
+    /**
+     * Loads content of file to given data in background.
+     * <p>
+     * Code area is read-only until loading finishes, then it's switched to
+     * given edit mode.
+     *
+     * @param file source file
+     * @param data target data shown in code area
+     * @param editMode edit mode after loading
+     */
+    protected void loadFileInBackground(File file, EditableBinaryData data, EditMode editMode) {
+        ExtCodeArea codeArea = getCodeArea();
+        final FileDataLoader loader = new FileDataLoader(file, data);
+        loader.addLoadListener(new FileDataLoader.LoadListener() {
+            @Override
+            public void dataLoaded(long loadedSize, long fileSize) {
+                if (fileLoader == loader) {
+                    codeArea.notifyDataChanged();
+                }
+            }
+
+            @Override
+            public void loadFinished(boolean completed) {
+                if (fileLoader != loader) {
+                    return;
+                }
+
+                fileLoader = null;
+                if (completed) {
+                    codeArea.setEditMode(editModeAfterLoading);
+                    editModeAfterLoading = null;
+                } else {
+                    editorComponent.getStatusPanel().setPartiallyLoaded(true);
+                }
+                undoHandlerWrapper.clear();
+                fileSync();
+                IOException loadError = loader.getLoadError();
+                if (loadError != null) {
+                    reportLoadError(loader.getFile(), loadError);
+                }
+            }
+        });
+        fileLoader = loader;
+        editModeAfterLoading = editMode;
+        codeArea.setEditMode(EditMode.READ_ONLY);
+        runFileLoader(loader);
+    }
+
+    /**
+     * Runs file loader, default implementation uses new background thread.
+     *
+     * @param loader file loader
+     */
+    protected void runFileLoader(FileDataLoader loader) {
+        Thread thread = new Thread(loader::load, "Loading " + loader.getFile().getName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Reports that file cannot be saved as it was loaded only partially.
+     */
+    protected void reportSaveRefused() {
+        Logger.getLogger(BinEdFileHandler.class.getName()).log(Level.WARNING, "Unable to save partially loaded file");
+        JOptionPane.showOptionDialog(editorComponent.getComponentPanel(),
+                "File was loaded only partially, saving it would truncate the file",
+                "Unable to save file",
+                JOptionPane.CLOSED_OPTION,
+                JOptionPane.ERROR_MESSAGE,
+                null, null, null);
+    }
+
+    /**
+     * Reports failure of loading, loaded part of file is kept in read-only
+     * mode.
+     *
+     * @param file source file
+     * @param exception error
+     */
+    protected void reportLoadError(File file, IOException exception) {
+        Logger.getLogger(BinEdFileHandler.class.getName()).log(Level.SEVERE, "Unable to load file " + file.getPath(), exception);
+        JOptionPane.showOptionDialog(editorComponent.getComponentPanel(),
+                "File was loaded only partially: " + exception.getLocalizedMessage(),
+                "Unable to load file",
+                JOptionPane.CLOSED_OPTION,
+                JOptionPane.ERROR_MESSAGE,
+                null, null, null);
+    }
+
+    public boolean isLoading() {
+        return fileLoader != null;
+    }
+
+    /**
+     * Runs action once data are loaded up to given position or loading ends.
+     * <p>
+     * Has to be called in event dispatch thread.
+     *
+     * @param position required data size
+     * @param action action to run in event dispatch thread
+     */
+    public void invokeWhenLoaded(long position, Runnable action) {
+        FileDataLoader loader = fileLoader;
+        if (loader == null || getCodeArea().getDataSize() >= position) {
+            action.run();
+            return;
+        }
+
+        loader.addLoadListener(new FileDataLoader.LoadListener() {
+            @Override
+            public void dataLoaded(long loadedSize, long fileSize) {
+                if (loadedSize >= position) {
+                    loader.removeLoadListener(this);
+                    action.run();
+                }
+            }
+
+            @Override
+            public void loadFinished(boolean completed) {
+                loader.removeLoadListener(this);
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Returns false if loading of file is running or was cancelled.
+     *
+     * @return true if data contain whole file
+     */
+    public boolean isFullyLoaded() {
+        return editModeAfterLoading == null;
+    }
+
+    /**
+     * Cancels loading of file if running.
+     * <p>
+     * Already loaded data are kept in read-only mode.
+     */
+    public void cancelLoading() {
+        if (fileLoader != null) {
+            fileLoader.cancel();
+            fileLoader = null;
+            editorComponent.getStatusPanel().setPartiallyLoaded(true);
+            fileSync();
+        }
+    }
+
+    /**
+     * Cancels loading of file and restores edit mode of code area.
+     */
+    protected void stopLoading() {
+        if (fileLoader != null) {
+            fileLoader.cancel();
+            fileLoader = null;
+        }
+        if (editModeAfterLoading != null) {
+            getCodeArea().setEditMode(editModeAfterLoading);
+            editModeAfterLoading = null;
+            editorComponent.getStatusPanel().setPartiallyLoaded(false);
+        }
+    }
+
+    /**
+     * Creates delta document of the same file for mapped document.
+     * <p>
+     * Mapped document is called during first edit, so it is replaced in code
+     * area only after the edit is finished.
+     *
+     * @param document mapped document
+     * @return delta document
+     */
+    @Nonnull
+    protected EditableBinaryData upgradeMappedData(MappedFileDocument document) {
+        DeltaDocument deltaDocument;
+        try {
+            FileDataSource fileSource = segmentsRepository.openFileSource(document.getFile());
+            deltaDocument = segmentsRepository.createDocument(fileSource);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unable to switch mapped file to delta mode", ex);
+        }
+        SwingUtilities.invokeLater(this::releaseMappedData);
+        return deltaDocument;
+    }
+
+    /**
+     * Replaces upgraded mapped document in code area with its delta document.
+     * <p>
+     * Mapping is released explicitly, so that file can be rewritten.
+     */
+    protected void releaseMappedData() {
+        BinaryData contentData = editorComponent.getContentData();
+        if (contentData instanceof MappedFileDocument && ((MappedFileDocument) contentData).isUpgraded()) {
+            MappedFileDocument document = (MappedFileDocument) contentData;
+            document.dispose();
+            editorComponent.setContentData(document.getUpgradedData());
+            editorComponent.getStatusPanel().setMemoryMode(BinaryStatusApi.MemoryMode.DELTA_MODE);
+        }
+    }
+
     @Override
     public void saveToFile(URI fileUri, FileType fileType) {
+        if (!isFullyLoaded()) {
+            reportSaveRefused();
+            return;
+        }
+
+        releaseMappedData();
+
         File file = new File(fileUri);
         try {
             BinaryData contentData = editorComponent.getContentData();
@@ -179,6 +390,9 @@ public class BinEdFileHandler implements FileHandler, UndoFileHandler, BinEdComp
                 }
                 segmentsRepository.saveDocument(document);
                 this.fileUri = fileUri;
+            } else if (contentData instanceof MappedFileDocument && file.equals(((MappedFileDocument) contentData).getFile())) {
+                // Unmodified mapped file cannot be rewritten while mapped
+                this.fileUri = fileUri;
             } else {
                 try ( FileOutputStream outputStream = new FileOutputStream(file)) {
                     Objects.requireNonNull(contentData).saveToStream(outputStream);
@@ -295,6 +509,13 @@ public class BinEdFileHandler implements FileHandler, UndoFileHandler, BinEdComp
 
     @Override
     public void saveFile() {
+        if (!isFullyLoaded()) {
+            reportSaveRefused();
+            return;
+        }
+
+        releaseMappedData();
+
         ExtCodeArea codeArea = editorComponent.getCodeArea();
         BinaryData data = codeArea.getContentData();
         if (data instanceof DeltaDocument) {
@@ -303,7 +524,7 @@ public class BinEdFileHandler implements FileHandler, UndoFileHandler, BinEdComp
             } catch (IOException ex) {
                 Logger.getLogger(BinEdFileHandler.class.getName()).log(Level.SEVERE, null, ex);
             }
-        } else {
+        } else if (!(data instanceof MappedFileDocument)) {
             File file = new File(fileUri);
             try ( OutputStream stream = new FileOutputStream(file)) {
                 BinaryData contentData = codeArea.getContentData();
@@ -324,6 +545,7 @@ public class BinEdFileHandler implements FileHandler, UndoFileHandler, BinEdComp
 
     @Override
     public void closeData() {
+        stopLoading();
         ExtCodeArea codeArea = editorComponent.getCodeArea();
         BinaryData data = codeArea.getContentData();
         editorComponent.setContentData(EmptyBinaryData.INSTANCE);
@@ -355,7 +577,7 @@ public class BinEdFileHandler implements FileHandler, UndoFileHandler, BinEdComp
         if (handlingMode != oldFileHandlingMode) {
             if (fileUri != null) {
                 loadFromFile(fileUri, null, handlingMode);
-            } else {
+            } else if (handlingMode != FileHandlingMode.MAPPED) {
                 BinaryData oldData = codeArea.getContentData();
                 if (oldData instanceof DeltaDocument) {
                     PagedData data = new PagedData();
@@ -378,7 +600,14 @@ public class BinEdFileHandler implements FileHandler, UndoFileHandler, BinEdComp
 
     @Nonnull
     public FileHandlingMode getFileHandlingMode() {
-        return getCodeArea().getContentData() instanceof DeltaDocument ? FileHandlingMode.DELTA : FileHandlingMode.MEMORY;
+        BinaryData contentData = getCodeArea().getContentData();
+        if (contentData instanceof DeltaDocument) {
+            return FileHandlingMode.DELTA;
+        }
+        if (contentData instanceof MappedFileDocument) {
+            return ((MappedFileDocument) contentData).isUpgraded() ? FileHandlingMode.DELTA : FileHandlingMode.MAPPED;
+        }
+        return FileHandlingMode.MEMORY;
     }
 
     @Nonnull
@@ -414,7 +643,7 @@ public class BinEdFileHandler implements FileHandler, UndoFileHandler, BinEdComp
     }
 
     public void setNewData(FileHandlingMode fileHandlingMode) {
-        if (fileHandlingMode == FileHandlingMode.DELTA) {
+        if (fileHandlingMode == FileHandlingMode.DELTA || fileHandlingMode == FileHandlingMode.MAPPED) {
             editorComponent.setContentData(segmentsRepository.createDocument());
         } else {
             editorComponent.setContentData(new PagedData());
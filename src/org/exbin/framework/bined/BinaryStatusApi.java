@@ -72,6 +72,7 @@ public interface BinaryStatusApi {
         READ_ONLY("R", "read_only"),
         RAM_MEMORY("M", "ram"),
         DELTA_MODE("\u0394", "delta"),
+        MAPPED("F", "mapped"),
         NATIVE("N", "native");
 
         private final String displayChar;
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined;
+
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.exbin.bined.color.CodeAreaColorGroup;
+import org.exbin.bined.color.CodeAreaColorType;
+
+/**
+ * Text color types for classes of byte values.
+ */
+@ParametersAreNonnullByDefault
+public enum ByteClassColorType implements CodeAreaColorType {
+
+    ZERO_COLOR("byte_class.zero_color"),
+    PRINTABLE_COLOR("byte_class.printable_color"),
+    WHITESPACE_COLOR("byte_class.whitespace_color"),
+    CONTROL_COLOR("byte_class.control_color"),
+    HIGH_BIT_COLOR("byte_class.high_bit_color"),
+    FF_COLOR("byte_class.ff_color");
+
+    private final String typeId;
+
+    private ByteClassColorType(String typeId) {
+        this.typeId = typeId;
+    }
+
+    @Nonnull
+    @Override
+    public String getId() {
+        return typeId;
+    }
+
+    @Nonnull
+    @Override
+    public Optional<CodeAreaColorGroup> getGroup() {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns color type for class of given byte value.
+     *
+     * @param value byte value
+     * @return color type
+     */
+    @Nonnull
+    public static ByteClassColorType forValue(int value) {
+        value = value & 0xff;
+        if (value == 0) {
+            return ZERO_COLOR;
+        }
+        if (value == 0xff) {
+            return FF_COLOR;
+        }
+        if (value == 0x20 || (value >= 0x09 && value <= 0x0d)) {
+            return WHITESPACE_COLOR;
+        }
+        if (value > 0x20 && value < 0x7f) {
+            return PRINTABLE_COLOR;
+        }
+        if (value < 0x80) {
+            return CONTROL_COLOR;
+        }
+        return HIGH_BIT_COLOR;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined;
+
+import java.awt.Color;
+import java.util.Map;
+import java.util.WeakHashMap;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.exbin.bined.CodeAreaSection;
+import org.exbin.bined.swing.basic.color.CodeAreaColorsProfile;
+
+/**
+ * Byte class color modifier.
+ * <p>
+ * Text color is taken from 256 entries lookup table built from colors of
+ * byte classes in colors profile. Byte values are read from row data of
+ * painter, so no data are fetched by this modifier.
+ */
+@ParametersAreNonnullByDefault
+public class ByteClassPositionColorModifier implements BinEdCodeAreaPainter.RowColorModifier {
+
+    private static final int VALUES_COUNT = 256;
+    private static final ByteClassColorType[] VALUE_CLASSES = new ByteClassColorType[VALUES_COUNT];
+
+    static {
+        for (int value = 0; value < VALUES_COUNT; value++) {
+            VALUE_CLASSES[value] = ByteClassColorType.forValue(value);
+        }
+    }
+
+    private final Map<CodeAreaColorsProfile, Color[]> lookupTables = new WeakHashMap<>();
+
+    public ByteClassPositionColorModifier() {
+    }
+
+    @Override
+    public void collectRowColors(long rowDataPosition, byte[] rowData, int rowDataLength, BinEdCodeAreaPainter.RowColorSpans spans) {
+        Color[] lookupTable = getLookupTable(spans.getColorsProfile());
+        if (lookupTable == null) {
+            return;
+        }
+
+        int spanStart = 0;
+        Color spanColor = null;
+        for (int i = 0; i < rowDataLength; i++) {
+            Color color = lookupTable[rowData[i] & 0xff];
+            if (color != spanColor) {
+                if (spanColor != null) {
+                    spans.setTextColor(spanStart, i, spanColor);
+                }
+                spanStart = i;
+                spanColor = color;
+            }
+        }
+        if (spanColor != null) {
+            spans.setTextColor(spanStart, rowDataLength, spanColor);
+        }
+    }
+
+    @Nullable
+    @Override
+    public Color getPositionBackgroundColor(long rowDataPosition, int byteOnRow, int charOnRow, CodeAreaSection section, boolean unprintables) {
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public Color getPositionTextColor(long rowDataPosition, int byteOnRow, int charOnRow, CodeAreaSection section, boolean unprintables) {
+        // Byte value is available in row data only
+        return null;
+    }
+
+    @Override
+    public void resetColors() {
+        lookupTables.clear();
+    }
+
+    /**
+     * Returns lookup table for given colors profile.
+     *
+     * @param colorsProfile colors profile
+     * @return lookup table or null if no byte class color is set
+     */
+    @Nullable
+    private Color[] getLookupTable(CodeAreaColorsProfile colorsProfile) {
+        if (lookupTables.containsKey(colorsProfile)) {
+            return lookupTables.get(colorsProfile);
+        }
+
+        Color[] lookupTable = buildLookupTable(colorsProfile);
+        lookupTables.put(colorsProfile, lookupTable);
+        return lookupTable;
+    }
+
+    @Nullable
+    private static Color[] buildLookupTable(CodeAreaColorsProfile colorsProfile) {
+        ByteClassColorType[] colorTypes = ByteClassColorType.values();
+        Color[] classColors = new Color[colorTypes.length];
+        boolean hasColor = false;
+        for (ByteClassColorType colorType : colorTypes) {
+            Color color = colorsProfile.getColor(colorType);
+            classColors[colorType.ordinal()] = color;
+            hasColor |= color != null;
+        }
+        if (!hasColor) {
+            return null;
+        }
+
+        Color[] lookupTable = new Color[VALUES_COUNT];
+        for (int value = 0; value < VALUES_COUNT; value++) {
+            lookupTable[value] = classColors[VALUE_CLASSES[value].ordinal()];
+        }
+        return lookupTable;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.bined.swing.extended.ExtCodeArea;
+
+/**
+ * Tracker of edits of code area data.
+ * <p>
+ * Data change notifications don't carry edited range. It cannot be derived
+ * from caret and selection either, as undo, redo and replayed macros place
+ * them independently of edited data. Edits are therefore reported as unknown
+ * unless edited range was announced by code performing the edit.
+ */
+@ParametersAreNonnullByDefault
+public class DataEditTracker {
+
+    private final ExtCodeArea codeArea;
+    private BinaryData data;
+    private long dataSize;
+    private DataEdit expectedEdit = null;
+
+    public DataEditTracker(ExtCodeArea codeArea) {
+        this.codeArea = codeArea;
+        reset();
+    }
+
+    /**
+     * Resets tracking to current state of data.
+     */
+    public final void reset() {
+        data = codeArea.getContentData();
+        dataSize = data.getDataSize();
+        expectedEdit = null;
+    }
+
+    /**
+     * Processes data change notification.
+     *
+     * @return edit or null if edited range is not known
+     */
+    @Nullable
+    public DataEdit dataChanged() {
+        BinaryData previousData = data;
+        long previousDataSize = dataSize;
+        DataEdit edit = expectedEdit;
+        reset();
+        if (edit == null || data != previousData) {
+            return null;
+        }
+
+        if (dataSize - previousDataSize != edit.getInsertedLength() - edit.getRemovedLength()
+                || edit.getPosition() + edit.getRemovedLength() > previousDataSize) {
+            // Notification is for different edit
+            return null;
+        }
+
+        return edit;
+    }
+
+    /**
+     * Announces edit which is going to be performed and notified.
+     *
+     * @param edit edit
+     */
+    public void expectEdit(DataEdit edit) {
+        expectedEdit = edit;
+    }
+
+    /**
+     * Records edit performed directly on data without notification.
+     *
+     * @param edit performed edit
+     */
+    public void editPerformed(DataEdit edit) {
+        dataSize += edit.getInsertedLength() - edit.getRemovedLength();
+    }
+
+    /**
+     * Edit replacing range of data with data of possibly different length.
+     */
+    public static class DataEdit {
+
+        private final long position;
+        private final long removedLength;
+        private final long insertedLength;
+
+        public DataEdit(long position, long removedLength, long insertedLength) {
+            this.position = position;
+            this.removedLength = removedLength;
+            this.insertedLength = insertedLength;
+        }
+
+        public long getPosition() {
+            return position;
+        }
+
+        public long getRemovedLength() {
+            return removedLength;
+        }
+
+        public long getInsertedLength() {
+            return insertedLength;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.swing.SwingUtilities;
+import org.exbin.auxiliary.binary_data.EditableBinaryData;
+
+/**
+ * Loader of file content to editable data in background thread.
+ * <p>
+ * File is read in chunks outside of event dispatch thread, but chunks are
+ * appended to data in event dispatch thread, so that data which are already
+ * shown in code area are never modified concurrently with painting.
+ */
+@ParametersAreNonnullByDefault
+public class FileDataLoader {
+
+    public static final int CHUNK_SIZE = 4 * 1024 * 1024;
+
+    private final File file;
+    private final EditableBinaryData data;
+    private final long fileSize;
+    private final List<LoadListener> loadListeners = new CopyOnWriteArrayList<>();
+    private final byte[] buffer = new byte[CHUNK_SIZE];
+    private InputStream stream = null;
+    private volatile long loadedSize = 0;
+    private volatile boolean cancelled = false;
+    private volatile boolean finished = false;
+    private volatile IOException loadError = null;
+    private boolean endReached = false;
+
+    public FileDataLoader(File file, EditableBinaryData data) {
+        this.file = file;
+        this.data = data;
+        fileSize = file.length();
+    }
+
+    @Nonnull
+    public File getFile() {
+        return file;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public long getLoadedSize() {
+        return loadedSize;
+    }
+
+    /**
+     * Returns count of chunks needed to load whole file.
+     *
+     * @return count of chunks
+     */
+    public int getChunksCount() {
+        return (int) Math.min(Integer.MAX_VALUE, (fileSize + CHUNK_SIZE - 1) / CHUNK_SIZE);
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Returns error which stopped loading.
+     *
+     * @return error or null if loading didn't fail
+     */
+    @Nullable
+    public IOException getLoadError() {
+        return loadError;
+    }
+
+    /**
+     * Records error which stopped loading, data remain truncated.
+     *
+     * @param exception error
+     */
+    public void fail(IOException exception) {
+        loadError = exception;
+    }
+
+    /**
+     * Requests cancellation of loading.
+     * <p>
+     * No more data are appended after cancellation when called from event
+     * dispatch thread.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Loads whole file in calling thread.
+     */
+    public void load() {
+        try {
+            while (loadNextChunk()) {
+                // Chunks are appended and reported by listeners
+            }
+        } catch (IOException ex) {
+            fail(ex);
+        }
+        finish();
+    }
+
+    /**
+     * Reads next chunk of file and appends it to data.
+     *
+     * @return true if there are more chunks to load
+     * @throws IOException if reading of file fails
+     */
+    public boolean loadNextChunk() throws IOException {
+        if (cancelled || endReached) {
+            return false;
+        }
+        if (stream == null) {
+            stream = new FileInputStream(file);
+        }
+
+        int length = 0;
+        while (length < CHUNK_SIZE) {
+            int readLength = stream.read(buffer, length, CHUNK_SIZE - length);
+            if (readLength < 0) {
+                endReached = true;
+                break;
+            }
+            length += readLength;
+        }
+
+        if (length > 0) {
+            final int chunkLength = length;
+            invokeAndWait(() -> {
+                if (cancelled) {
+                    return;
+                }
+                data.insert(data.getDataSize(), buffer, 0, chunkLength);
+                loadedSize += chunkLength;
+                for (LoadListener listener : loadListeners) {
+                    listener.dataLoaded(loadedSize, fileSize);
+                }
+            });
+        }
+
+        return !cancelled && !endReached;
+    }
+
+    /**
+     * Closes file and reports end of loading.
+     */
+    public void finish() {
+        if (stream != null) {
+            try {
+                stream.close();
+            } catch (IOException ex) {
+                // Nothing to do with file which failed to close
+            }
+            stream = null;
+        }
+        finished = true;
+        final boolean completed = endReached && !cancelled && loadError == null;
+        SwingUtilities.invokeLater(() -> {
+            for (LoadListener listener : loadListeners) {
+                listener.loadFinished(completed);
+            }
+        });
+    }
+
+    public void addLoadListener(LoadListener listener) {
+        loadListeners.add(listener);
+    }
+
+    public void removeLoadListener(LoadListener listener) {
+        loadListeners.remove(listener);
+    }
+
+    private void invokeAndWait(Runnable runnable) throws IOException {
+        if (SwingUtilities.isEventDispatchThread()) {
+            runnable.run();
+            return;
+        }
+
+        try {
+            SwingUtilities.invokeAndWait(runnable);
+        } catch (InterruptedException ex) {
+            cancelled = true;
+            Thread.currentThread().interrupt();
+        } catch (InvocationTargetException ex) {
+            throw new IOException("Unable to append loaded data", ex.getCause());
+        }
+    }
+
+    /**
+     * Listener for loading progress.
+     * <p>
+     * Methods are called in event dispatch thread.
+     */
+    public interface LoadListener {
+
+        /**
+         * Reports that chunk of data was appended.
+         *
+         * @param loadedSize size of loaded data
+         * @param fileSize size of file
+         */
+        void dataLoaded(long loadedSize, long fileSize);
+
+        /**
+         * Reports end of loading.
+         * <p>
+         * Error of failed loading is available from loader.
+         *
+         * @param completed true if whole file was loaded
+         */
+        void loadFinished(boolean completed);
+    }
+}
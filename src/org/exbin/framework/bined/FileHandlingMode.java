@@ -27,6 +27,11 @@ public enum FileHandlingMode {
      * File is handled using delta changes.
      */
     DELTA,
+    /**
+     * File is mapped to memory read-only, switched to delta mode on first
+     * edit.
+     */
+    MAPPED,
     /**
      * IntelliJ native file wrapper.
      */
@@ -0,0 +1,337 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.auxiliary.binary_data.ByteArrayData;
+import org.exbin.auxiliary.binary_data.OutOfBoundsException;
+
+/**
+ * Read-only binary data of file mapped to memory.
+ * <p>
+ * File is mapped lazily in windows of limited size as single mapping cannot
+ * exceed 2GB. Only limited count of windows is kept mapped, the oldest window
+ * is released when another one is needed, so that files of any size can be
+ * accessed without exhausting address space. Released windows are unmapped
+ * by garbage collector, but all mappings are unmapped explicitly on dispose
+ * so that file can be rewritten right after that.
+ */
+@ParametersAreNonnullByDefault
+public class MappedFileData implements BinaryData {
+
+    private static final int WINDOW_SHIFT = 28;
+    private static final long WINDOW_SIZE = 1L << WINDOW_SHIFT;
+    private static final long WINDOW_MASK = WINDOW_SIZE - 1;
+    public static final int DEFAULT_MAXIMUM_WINDOWS = 8;
+    private static final int STREAM_BUFFER_SIZE = 65536;
+
+    private final File file;
+    private final RandomAccessFile randomAccessFile;
+    private final FileChannel channel;
+    private final long dataSize;
+    private final AtomicReferenceArray<MappedByteBuffer> windows;
+    private final Deque<Integer> mappedWindows = new ArrayDeque<>();
+    private final List<WeakReference<MappedByteBuffer>> releasedWindows = new ArrayList<>();
+    private final ReadWriteLock disposeLock = new ReentrantReadWriteLock();
+    private int maximumWindows = DEFAULT_MAXIMUM_WINDOWS;
+    private volatile boolean disposed = false;
+
+    public MappedFileData(File file) throws IOException {
+        this.file = file;
+        randomAccessFile = new RandomAccessFile(file, "r");
+        channel = randomAccessFile.getChannel();
+        try {
+            dataSize = channel.size();
+        } catch (IOException ex) {
+            randomAccessFile.close();
+            throw ex;
+        }
+        windows = new AtomicReferenceArray<>((int) ((dataSize + WINDOW_SIZE - 1) >> WINDOW_SHIFT));
+    }
+
+    @Nonnull
+    public File getFile() {
+        return file;
+    }
+
+    public int getMaximumWindows() {
+        return maximumWindows;
+    }
+
+    /**
+     * Sets maximum count of windows kept mapped at the same time.
+     *
+     * @param maximumWindows count of windows, at least one
+     */
+    public synchronized void setMaximumWindows(int maximumWindows) {
+        if (maximumWindows < 1) {
+            throw new IllegalArgumentException("At least one window is required");
+        }
+        this.maximumWindows = maximumWindows;
+        releaseExcessWindows();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return dataSize == 0;
+    }
+
+    @Override
+    public long getDataSize() {
+        return dataSize;
+    }
+
+    @Override
+    public byte getByte(long position) {
+        if (position < 0 || position >= dataSize) {
+            throw new OutOfBoundsException("Position " + position + " out of range 0-" + dataSize);
+        }
+        disposeLock.readLock().lock();
+        try {
+            return getWindow((int) (position >> WINDOW_SHIFT)).get((int) (position & WINDOW_MASK));
+        } finally {
+            disposeLock.readLock().unlock();
+        }
+    }
+
+    @Nonnull
+    @Override
+    public BinaryData copy() {
+        return copy(0, dataSize);
+    }
+
+    @Nonnull
+    @Override
+    public BinaryData copy(long startFrom, long length) {
+        if (length > Integer.MAX_VALUE) {
+            throw new OutOfMemoryError("Data too large to copy");
+        }
+        byte[] data = new byte[(int) length];
+        copyToArray(startFrom, data, 0, data.length);
+        return new ByteArrayData(data);
+    }
+
+    @Override
+    public void copyToArray(long startFrom, byte[] target, int offset, int length) {
+        if (startFrom < 0 || length < 0 || startFrom + length > dataSize) {
+            throw new OutOfBoundsException("Range " + startFrom + "+" + length + " out of range 0-" + dataSize);
+        }
+        long position = startFrom;
+        int targetOffset = offset;
+        int remaining = length;
+        disposeLock.readLock().lock();
+        try {
+            while (remaining > 0) {
+                MappedByteBuffer window = getWindow((int) (position >> WINDOW_SHIFT));
+                int windowOffset = (int) (position & WINDOW_MASK);
+                int copyLength = Math.min(remaining, window.capacity() - windowOffset);
+                // Duplicate keeps buffer position independent for concurrent readers
+                MappedByteBuffer source = (MappedByteBuffer) window.duplicate();
+                source.position(windowOffset);
+                source.get(target, targetOffset, copyLength);
+                position += copyLength;
+                targetOffset += copyLength;
+                remaining -= copyLength;
+            }
+        } finally {
+            disposeLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void saveToStream(OutputStream outputStream) throws IOException {
+        byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+        long position = 0;
+        while (position < dataSize) {
+            int length = (int) Math.min(buffer.length, dataSize - position);
+            copyToArray(position, buffer, 0, length);
+            outputStream.write(buffer, 0, length);
+            position += length;
+        }
+    }
+
+    @Nonnull
+    @Override
+    public InputStream getDataInputStream() {
+        return new InputStream() {
+            private long position = 0;
+
+            @Override
+            public int read() {
+                return position < dataSize ? getByte(position++) & 0xff : -1;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                if (length == 0) {
+                    return 0;
+                }
+                if (position >= dataSize) {
+                    return -1;
+                }
+                int readLength = (int) Math.min(length, dataSize - position);
+                copyToArray(position, buffer, offset, readLength);
+                position += readLength;
+                return readLength;
+            }
+
+            @Override
+            public long skip(long count) {
+                long skipped = Math.max(0, Math.min(count, dataSize - position));
+                position += skipped;
+                return skipped;
+            }
+
+            @Override
+            public int available() {
+                return (int) Math.min(Integer.MAX_VALUE, dataSize - position);
+            }
+        };
+    }
+
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    /**
+     * Unmaps all mapped windows and closes file.
+     * <p>
+     * Waits for running reads to finish, data cannot be read afterwards.
+     */
+    @Override
+    public void dispose() {
+        disposeLock.writeLock().lock();
+        try {
+            synchronized (this) {
+                if (disposed) {
+                    return;
+                }
+                disposed = true;
+                for (int i = 0; i < windows.length(); i++) {
+                    MappedByteBuffer window = windows.getAndSet(i, null);
+                    if (window != null) {
+                        unmap(window);
+                    }
+                }
+                mappedWindows.clear();
+                for (WeakReference<MappedByteBuffer> releasedWindow : releasedWindows) {
+                    MappedByteBuffer window = releasedWindow.get();
+                    if (window != null) {
+                        unmap(window);
+                    }
+                }
+                releasedWindows.clear();
+                try {
+                    randomAccessFile.close();
+                } catch (IOException ex) {
+                    // Nothing to do with file which failed to close
+                }
+            }
+        } finally {
+            disposeLock.writeLock().unlock();
+        }
+    }
+
+    @Nonnull
+    private MappedByteBuffer getWindow(int windowIndex) {
+        if (disposed) {
+            throw new IllegalStateException("Mapped file " + file.getPath() + " was already released");
+        }
+        MappedByteBuffer window = windows.get(windowIndex);
+        return window != null ? window : mapWindow(windowIndex);
+    }
+
+    @Nonnull
+    private synchronized MappedByteBuffer mapWindow(int windowIndex) {
+        MappedByteBuffer window = windows.get(windowIndex);
+        if (window != null) {
+            return window;
+        }
+
+        long windowStart = (long) windowIndex << WINDOW_SHIFT;
+        try {
+            window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(WINDOW_SIZE, dataSize - windowStart));
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unable to map file " + file.getPath(), ex);
+        }
+        windows.set(windowIndex, window);
+        mappedWindows.addLast(windowIndex);
+        releaseExcessWindows();
+        return window;
+    }
+
+    private void releaseExcessWindows() {
+        while (mappedWindows.size() > maximumWindows) {
+            // Readers still holding released window can keep using it safely,
+            // it's unmapped by garbage collector or on dispose at the latest
+            MappedByteBuffer window = windows.getAndSet(mappedWindows.removeFirst(), null);
+            releasedWindows.removeIf(releasedWindow -> releasedWindow.get() == null);
+            releasedWindows.add(new WeakReference<>(window));
+        }
+    }
+
+    /**
+     * Unmaps buffer immediately instead of waiting for garbage collector.
+     * <p>
+     * Buffer is left to garbage collector if runtime doesn't provide access to
+     * its cleaner.
+     *
+     * @param buffer mapped buffer
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            try {
+                Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                Field unsafeField = unsafeClass.getDeclaredField("theUnsafe");
+                unsafeField.setAccessible(true);
+                invokeCleaner.invoke(unsafeField.get(null), buffer);
+            } catch (NoSuchMethodException ex) {
+                // Java 8 exposes cleaner on buffer itself
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null) {
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            Logger.getLogger(MappedFileData.class.getName()).log(Level.FINE, "Unable to unmap buffer", ex);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.auxiliary.binary_data.EditableBinaryData;
+
+/**
+ * Editable document of file mapped to memory.
+ * <p>
+ * Data are read directly from mapped file until the first modification, which
+ * requests upgrade to editable data from handler before the modification is
+ * applied, releases mapping and performs modification and all further
+ * operations on upgraded data.
+ */
+@ParametersAreNonnullByDefault
+public class MappedFileDocument implements EditableBinaryData {
+
+    private final MappedFileData mappedData;
+    private final UpgradeHandler upgradeHandler;
+    private volatile EditableBinaryData upgradedData = null;
+
+    public MappedFileDocument(MappedFileData mappedData, UpgradeHandler upgradeHandler) {
+        this.mappedData = mappedData;
+        this.upgradeHandler = upgradeHandler;
+    }
+
+    @Nonnull
+    public File getFile() {
+        return mappedData.getFile();
+    }
+
+    /**
+     * Returns true if data were already upgraded to editable data.
+     *
+     * @return true if upgraded
+     */
+    public boolean isUpgraded() {
+        return upgradedData != null;
+    }
+
+    @Nullable
+    public EditableBinaryData getUpgradedData() {
+        return upgradedData;
+    }
+
+    @Nonnull
+    private BinaryData getData() {
+        return upgradedData != null ? upgradedData : mappedData;
+    }
+
+    @Nonnull
+    private EditableBinaryData getEditableData() {
+        if (upgradedData == null) {
+            upgradedData = upgradeHandler.upgradeData(this);
+            mappedData.dispose();
+        }
+        return upgradedData;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getData().isEmpty();
+    }
+
+    @Override
+    public long getDataSize() {
+        return getData().getDataSize();
+    }
+
+    @Override
+    public byte getByte(long position) {
+        return getData().getByte(position);
+    }
+
+    @Nonnull
+    @Override
+    public BinaryData copy() {
+        return getData().copy();
+    }
+
+    @Nonnull
+    @Override
+    public BinaryData copy(long startFrom, long length) {
+        return getData().copy(startFrom, length);
+    }
+
+    @Override
+    public void copyToArray(long startFrom, byte[] target, int offset, int length) {
+        getData().copyToArray(startFrom, target, offset, length);
+    }
+
+    @Override
+    public void saveToStream(OutputStream outputStream) throws IOException {
+        getData().saveToStream(outputStream);
+    }
+
+    @Nonnull
+    @Override
+    public InputStream getDataInputStream() {
+        return getData().getDataInputStream();
+    }
+
+    @Override
+    public void setDataSize(long size) {
+        getEditableData().setDataSize(size);
+    }
+
+    @Override
+    public void setByte(long position, byte value) {
+        getEditableData().setByte(position, value);
+    }
+
+    @Override
+    public void insertUninitialized(long startFrom, long length) {
+        getEditableData().insertUninitialized(startFrom, length);
+    }
+
+    @Override
+    public void insert(long startFrom, long length) {
+        getEditableData().insert(startFrom, length);
+    }
+
+    @Override
+    public void insert(long startFrom, byte[] insertedData) {
+        getEditableData().insert(startFrom, insertedData);
+    }
+
+    @Override
+    public void insert(long startFrom, byte[] insertedData, int insertedDataOffset, int insertedDataLength) {
+        getEditableData().insert(startFrom, insertedData, insertedDataOffset, insertedDataLength);
+    }
+
+    @Override
+    public void insert(long startFrom, BinaryData insertedData) {
+        getEditableData().insert(startFrom, insertedData);
+    }
+
+    @Override
+    public void insert(long startFrom, BinaryData insertedData, long insertedDataOffset, long insertedDataLength) {
+        getEditableData().insert(startFrom, insertedData, insertedDataOffset, insertedDataLength);
+    }
+
+    @Override
+    public long insert(long startFrom, InputStream inputStream, long maximumDataSize) throws IOException {
+        return getEditableData().insert(startFrom, inputStream, maximumDataSize);
+    }
+
+    @Override
+    public void replace(long targetPosition, BinaryData replacingData) {
+        getEditableData().replace(targetPosition, replacingData);
+    }
+
+    @Override
+    public void replace(long targetPosition, BinaryData replacingData, long startFrom, long length) {
+        getEditableData().replace(targetPosition, replacingData, startFrom, length);
+    }
+
+    @Override
+    public void replace(long targetPosition, byte[] replacingData) {
+        getEditableData().replace(targetPosition, replacingData);
+    }
+
+    @Override
+    public void replace(long targetPosition, byte[] replacingData, int replacingDataOffset, int length) {
+        getEditableData().replace(targetPosition, replacingData, replacingDataOffset, length);
+    }
+
+    @Override
+    public void fillData(long startFrom, long length) {
+        getEditableData().fillData(startFrom, length);
+    }
+
+    @Override
+    public void fillData(long startFrom, long length, byte fill) {
+        getEditableData().fillData(startFrom, length, fill);
+    }
+
+    @Override
+    public void remove(long startFrom, long length) {
+        getEditableData().remove(startFrom, length);
+    }
+
+    @Override
+    public void clear() {
+        getEditableData().clear();
+    }
+
+    @Override
+    public void loadFromStream(InputStream inputStream) throws IOException {
+        getEditableData().loadFromStream(inputStream);
+    }
+
+    @Nonnull
+    @Override
+    public OutputStream getDataOutputStream() {
+        return getEditableData().getDataOutputStream();
+    }
+
+    /**
+     * Disposes mapped data only, upgraded data are owned by upgrade handler.
+     */
+    @Override
+    public void dispose() {
+        mappedData.dispose();
+    }
+
+    /**
+     * Handler for upgrade of mapped data to editable data.
+     */
+    public interface UpgradeHandler {
+
+        /**
+         * Creates editable data with the same content as given document.
+         * <p>
+         * Called during modification of document, so handler must not change
+         * content of code area. Mapped data of document are released after
+         * upgrade.
+         *
+         * @param document mapped document
+         * @return editable data
+         */
+        @Nonnull
+        EditableBinaryData upgradeData(MappedFileDocument document);
+    }
+}
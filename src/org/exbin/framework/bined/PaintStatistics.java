@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Statistics of single frame painted by code area painter.
+ * <p>
+ * Times are in nanoseconds. Row background and row text times include time
+ * spent in color modifiers and data access of the rows.
+ */
+@Immutable
+public class PaintStatistics {
+
+    private final long paintTime;
+    private final long rowBackgroundTime;
+    private final long rowTextTime;
+    private final int rowsCount;
+    private final long bytesFetched;
+    private final long dataAccessTime;
+    private final long modifierCallsCount;
+    private final long modifierTime;
+
+    public PaintStatistics(long paintTime, long rowBackgroundTime, long rowTextTime, int rowsCount, long bytesFetched, long dataAccessTime, long modifierCallsCount, long modifierTime) {
+        this.paintTime = paintTime;
+        this.rowBackgroundTime = rowBackgroundTime;
+        this.rowTextTime = rowTextTime;
+        this.rowsCount = rowsCount;
+        this.bytesFetched = bytesFetched;
+        this.dataAccessTime = dataAccessTime;
+        this.modifierCallsCount = modifierCallsCount;
+        this.modifierTime = modifierTime;
+    }
+
+    /**
+     * Returns total time of painting of the component.
+     *
+     * @return time in nanoseconds
+     */
+    public long getPaintTime() {
+        return paintTime;
+    }
+
+    public long getRowBackgroundTime() {
+        return rowBackgroundTime;
+    }
+
+    public long getRowTextTime() {
+        return rowTextTime;
+    }
+
+    /**
+     * Returns count of rows for which colors were prepared.
+     *
+     * @return count of rows
+     */
+    public int getRowsCount() {
+        return rowsCount;
+    }
+
+    /**
+     * Returns count of bytes copied from data for color modifiers.
+     *
+     * @return count of bytes
+     */
+    public long getBytesFetched() {
+        return bytesFetched;
+    }
+
+    public long getDataAccessTime() {
+        return dataAccessTime;
+    }
+
+    /**
+     * Returns count of calls of color modifiers, row color modifiers are
+     * counted once per row.
+     *
+     * @return count of calls
+     */
+    public long getModifierCallsCount() {
+        return modifierCallsCount;
+    }
+
+    public long getModifierTime() {
+        return modifierTime;
+    }
+
+    @Override
+    public String toString() {
+        return "PaintStatistics{paintTime=" + paintTime + ", rowBackgroundTime=" + rowBackgroundTime + ", rowTextTime=" + rowTextTime
+                + ", rowsCount=" + rowsCount + ", bytesFetched=" + bytesFetched + ", dataAccessTime=" + dataAccessTime
+                + ", modifierCallsCount=" + modifierCallsCount + ", modifierTime=" + modifierTime + "}";
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.exbin.auxiliary.binary_data.BinaryData;
+
+/**
+ * Read only binary data wrapper serializing access to source data.
+ * <p>
+ * Paged and delta data keep internal caches and file positions which are
+ * not safe for concurrent access, so background workers read through this
+ * wrapper in large blocks. Access is synchronized on source data, so that
+ * workers using separate wrappers of the same data don't interfere.
+ */
+@ParametersAreNonnullByDefault
+public class SynchronizedBinaryData implements BinaryData {
+
+    private final BinaryData data;
+    private final long dataSize;
+
+    public SynchronizedBinaryData(BinaryData data) {
+        this.data = data;
+        dataSize = data.getDataSize();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return dataSize == 0;
+    }
+
+    @Override
+    public long getDataSize() {
+        return dataSize;
+    }
+
+    @Override
+    public byte getByte(long position) {
+        synchronized (data) {
+            return data.getByte(position);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public BinaryData copy() {
+        synchronized (data) {
+            return data.copy();
+        }
+    }
+
+    @Nonnull
+    @Override
+    public BinaryData copy(long startFrom, long length) {
+        synchronized (data) {
+            return data.copy(startFrom, length);
+        }
+    }
+
+    @Override
+    public void copyToArray(long startFrom, byte[] target, int offset, int length) {
+        synchronized (data) {
+            data.copyToArray(startFrom, target, offset, length);
+        }
+    }
+
+    @Override
+    public void saveToStream(OutputStream outputStream) throws IOException {
+        synchronized (data) {
+            data.saveToStream(outputStream);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public InputStream getDataInputStream() {
+        // Each read is performed as single synchronized block copy
+        return new InputStream() {
+            private long position = 0;
+
+            @Override
+            public int read() {
+                return position < dataSize ? getByte(position++) & 0xff : -1;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                if (length == 0) {
+                    return 0;
+                }
+                if (position >= dataSize) {
+                    return -1;
+                }
+                int readLength = (int) Math.min(length, dataSize - position);
+                copyToArray(position, buffer, offset, readLength);
+                position += readLength;
+                return readLength;
+            }
+
+            @Override
+            public long skip(long count) {
+                long skipped = Math.max(0, Math.min(count, dataSize - position));
+                position += skipped;
+                return skipped;
+            }
+
+            @Override
+            public int available() {
+                return (int) Math.min(Integer.MAX_VALUE, dataSize - position);
+            }
+        };
+    }
+
+    @Override
+    public void dispose() {
+    }
+}
@@ -16,7 +16,10 @@
 package org.exbin.framework.bined.bookmarks;
 
 import java.awt.Color;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import org.exbin.bined.CodeAreaSection;
@@ -27,10 +30,13 @@ import org.exbin.framework.bined.bookmarks.model.BookmarkRecord;
  * Bookmarks position color modifier.
  */
 @ParametersAreNonnullByDefault
-public class BookmarksPositionColorModifier implements BinEdCodeAreaPainter.PositionColorModifier {
+public class BookmarksPositionColorModifier implements BinEdCodeAreaPainter.RowColorModifier {
 
     private final List<BookmarkRecord> records;
     private final ColorCache colorCache = new ColorCache();
+    private long[] segmentStarts = null;
+    private long[] segmentEnds = null;
+    private Color[] segmentColors = null;
 
     public BookmarksPositionColorModifier(List<BookmarkRecord> records) {
         this.records = records;
@@ -41,22 +47,22 @@ public class BookmarksPositionColorModifier implements BinEdCodeAreaPainter.Posi
     public Color getPositionBackgroundColor(long rowDataPosition, int byteOnRow, int charOnRow, CodeAreaSection section, boolean unprintables) {
         long dataPosition = rowDataPosition + byteOnRow;
         if (colorCache.start < 0 || colorCache.start > dataPosition || (colorCache.end >= 0 && colorCache.end < dataPosition)) {
-            colorCache.fullRange();
-            for (BookmarkRecord record : records) {
-                if (record.isEmpty()) {
-                    continue;
-                }
+            if (segmentStarts == null) {
+                buildSegments();
+            }
 
-                long startPosition = record.getStartPosition();
-                long endPosition = startPosition + record.getLength() - 1;
-                if (startPosition <= dataPosition && endPosition >= dataPosition) {
-                    colorCache.start = startPosition;
-                    colorCache.end = endPosition;
-                    colorCache.color = record.getColor();
-                } else if (startPosition > dataPosition && startPosition > colorCache.start && (startPosition <= colorCache.end || colorCache.end == -1)) {
-                    colorCache.end = startPosition - 1;
-                } else if (endPosition < dataPosition && endPosition >= colorCache.start && (endPosition <= colorCache.end || colorCache.end == -1)) {
-                    colorCache.start = endPosition + 1;
+            int index = findSegment(dataPosition);
+            if (index >= 0 && segmentEnds[index] >= dataPosition) {
+                colorCache.start = segmentStarts[index];
+                colorCache.end = segmentEnds[index];
+                colorCache.color = segmentColors[index];
+            } else {
+                colorCache.fullRange();
+                if (index >= 0) {
+                    colorCache.start = segmentEnds[index] + 1;
+                }
+                if (index + 1 < segmentStarts.length) {
+                    colorCache.end = segmentStarts[index + 1] - 1;
                 }
             }
         }
@@ -64,6 +70,24 @@ public class BookmarksPositionColorModifier implements BinEdCodeAreaPainter.Posi
         return colorCache.color;
     }
 
+    @Override
+    public void collectRowColors(long rowDataPosition, byte[] rowData, int rowDataLength, BinEdCodeAreaPainter.RowColorSpans spans) {
+        if (segmentStarts == null) {
+            buildSegments();
+        }
+
+        long rowEndPosition = rowDataPosition + spans.getBytesPerRow();
+        int index = Math.max(findSegment(rowDataPosition), 0);
+        while (index < segmentStarts.length && segmentStarts[index] < rowEndPosition) {
+            if (segmentEnds[index] >= rowDataPosition) {
+                int startByte = (int) (Math.max(segmentStarts[index], rowDataPosition) - rowDataPosition);
+                int endByte = (int) (Math.min(segmentEnds[index] + 1, rowEndPosition) - rowDataPosition);
+                spans.setBackgroundColor(startByte, endByte, segmentColors[index]);
+            }
+            index++;
+        }
+    }
+
     @Nullable
     @Override
     public Color getPositionTextColor(long rowDataPosition, int byteOnRow, int charOnRow, CodeAreaSection section, boolean unprintables) {
@@ -77,6 +101,93 @@ public class BookmarksPositionColorModifier implements BinEdCodeAreaPainter.Posi
 
     public void notifyBookmarksChanged() {
         colorCache.clear();
+        segmentStarts = null;
+        segmentEnds = null;
+        segmentColors = null;
+    }
+
+    /**
+     * Returns index of the last segment starting at or before given position.
+     *
+     * @param position data position
+     * @return segment index or -1 if all segments start after position
+     */
+    private int findSegment(long position) {
+        int low = 0;
+        int high = segmentStarts.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (segmentStarts[middle] <= position) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low - 1;
+    }
+
+    /**
+     * Flattens bookmark records into sorted disjoint colored segments.
+     * <p>
+     * For overlapping records the last record in the list wins, which matches
+     * order in which records were previously processed.
+     */
+    private void buildSegments() {
+        List<long[]> boundaries = new ArrayList<>();
+        for (int index = 0; index < records.size(); index++) {
+            BookmarkRecord record = records.get(index);
+            if (record.isEmpty() || record.getLength() <= 0) {
+                continue;
+            }
+
+            long startPosition = record.getStartPosition();
+            boundaries.add(new long[]{startPosition, index, 1});
+            boundaries.add(new long[]{startPosition + record.getLength(), index, 0});
+        }
+        boundaries.sort((first, second) -> Long.compare(first[0], second[0]));
+
+        List<Long> starts = new ArrayList<>();
+        List<Long> ends = new ArrayList<>();
+        List<Color> colors = new ArrayList<>();
+        TreeSet<Integer> activeRecords = new TreeSet<>();
+        int boundaryIndex = 0;
+        while (boundaryIndex < boundaries.size()) {
+            long position = boundaries.get(boundaryIndex)[0];
+            while (boundaryIndex < boundaries.size() && boundaries.get(boundaryIndex)[0] == position) {
+                long[] boundary = boundaries.get(boundaryIndex);
+                if (boundary[2] == 1) {
+                    activeRecords.add((int) boundary[1]);
+                } else {
+                    activeRecords.remove((int) boundary[1]);
+                }
+                boundaryIndex++;
+            }
+
+            if (activeRecords.isEmpty()) {
+                continue;
+            }
+
+            long endPosition = boundaries.get(boundaryIndex)[0] - 1;
+            Color color = records.get(activeRecords.last()).getColor();
+            int last = starts.size() - 1;
+            if (last >= 0 && ends.get(last) == position - 1 && Objects.equals(colors.get(last), color)) {
+                ends.set(last, endPosition);
+            } else {
+                starts.add(position);
+                ends.add(endPosition);
+                colors.add(color);
+            }
+        }
+
+        int segmentsCount = starts.size();
+        segmentStarts = new long[segmentsCount];
+        segmentEnds = new long[segmentsCount];
+        segmentColors = new Color[segmentsCount];
+        for (int index = 0; index < segmentsCount; index++) {
+            segmentStarts[index] = starts.get(index);
+            segmentEnds[index] = ends.get(index);
+            segmentColors[index] = colors.get(index);
+        }
     }
 
     private static class ColorCache {
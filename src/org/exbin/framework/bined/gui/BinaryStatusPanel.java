@@ -24,6 +24,7 @@ import java.awt.datatransfer.Clipboard;
 import java.awt.datatransfer.StringSelection;
 import java.awt.event.MouseEvent;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import javax.swing.JLabel;
 import javax.swing.SwingConstants;
@@ -38,6 +39,7 @@ import org.exbin.framework.editor.text.TextEncodingStatusApi;
 import org.exbin.framework.utils.LanguageUtils;
 import org.exbin.framework.utils.WindowUtils;
 import org.exbin.framework.bined.BinaryStatusApi;
+import org.exbin.framework.bined.PaintStatistics;
 import org.exbin.framework.bined.options.StatusOptions;
 import org.exbin.framework.bined.options.impl.StatusOptionsImpl;
 import org.exbin.framework.bined.preferences.StatusPreferences;
@@ -66,9 +68,11 @@ public class BinaryStatusPanel extends javax.swing.JPanel implements BinaryStatu
     private SelectionRange selectionRange;
     private long documentSize;
     private long initialDocumentSize;
+    private boolean partiallyLoaded = false;
 
     public BinaryStatusPanel() {
         initComponents();
+        paintTimeLabel.setVisible(false);
     }
 
     public void loadFromPreferences(StatusPreferences statusParameters) {
@@ -164,9 +168,11 @@ public class BinaryStatusPanel extends javax.swing.JPanel implements BinaryStatu
         memoryModePopupMenu = new javax.swing.JPopupMenu();
         deltaMemoryModeRadioButtonMenuItem = new javax.swing.JRadioButtonMenuItem();
         ramMemoryModeRadioButtonMenuItem = new javax.swing.JRadioButtonMenuItem();
+        mappedMemoryModeRadioButtonMenuItem = new javax.swing.JRadioButtonMenuItem();
         memoryModeButtonGroup = new javax.swing.ButtonGroup();
         documentSizeModeButtonGroup = new javax.swing.ButtonGroup();
         cursorPositionModeButtonGroup = new javax.swing.ButtonGroup();
+        paintTimeLabel = new javax.swing.JLabel();
         encodingLabel = new EncodingLabel();
         documentSizeLabel = new javax.swing.JLabel();
         cursorPositionLabel = new javax.swing.JLabel();
@@ -321,8 +327,22 @@ public class BinaryStatusPanel extends javax.swing.JPanel implements BinaryStatu
         });
         memoryModePopupMenu.add(ramMemoryModeRadioButtonMenuItem);
 
+        memoryModeButtonGroup.add(mappedMemoryModeRadioButtonMenuItem);
+        mappedMemoryModeRadioButtonMenuItem.setText(resourceBundle.getString("mappedMemoryModeRadioButtonMenuItem.text")); // NOI18N
+        mappedMemoryModeRadioButtonMenuItem.setName("mappedMemoryModeRadioButtonMenuItem"); // NOI18N
+        mappedMemoryModeRadioButtonMenuItem.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                mappedMemoryModeRadioButtonMenuItemActionPerformed(evt);
+            }
+        });
+        memoryModePopupMenu.add(mappedMemoryModeRadioButtonMenuItem);
+
         setName("Form"); // NOI18N
 
+        paintTimeLabel.setHorizontalAlignment(javax.swing.SwingConstants.CENTER);
+        paintTimeLabel.setToolTipText(resourceBundle.getString("paintTimeLabel.toolTipText")); // NOI18N
+        paintTimeLabel.setBorder(javax.swing.BorderFactory.createEtchedBorder());
+
         encodingLabel.setHorizontalAlignment(javax.swing.SwingConstants.CENTER);
         encodingLabel.setText(resourceBundle.getString("encodingLabel.text")); // NOI18N
         encodingLabel.setToolTipText(resourceBundle.getString("encodingLabel.toolTipText")); // NOI18N
@@ -378,6 +398,8 @@ public class BinaryStatusPanel extends javax.swing.JPanel implements BinaryStatu
             layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
             .addGroup(javax.swing.GroupLayout.Alignment.TRAILING, layout.createSequentialGroup()
                 .addContainerGap(195, Short.MAX_VALUE)
+                .addComponent(paintTimeLabel, javax.swing.GroupLayout.PREFERRED_SIZE, 64, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addGap(0, 0, 0)
                 .addComponent(encodingLabel, javax.swing.GroupLayout.PREFERRED_SIZE, 148, javax.swing.GroupLayout.PREFERRED_SIZE)
                 .addGap(0, 0, 0)
                 .addComponent(documentSizeLabel, javax.swing.GroupLayout.PREFERRED_SIZE, 168, javax.swing.GroupLayout.PREFERRED_SIZE)
@@ -395,6 +417,7 @@ public class BinaryStatusPanel extends javax.swing.JPanel implements BinaryStatu
             .addComponent(memoryModeLabel, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
             .addComponent(cursorPositionLabel, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
             .addComponent(encodingLabel, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+            .addComponent(paintTimeLabel, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
         );
     }// </editor-fold>//GEN-END:initComponents
 
@@ -460,6 +483,10 @@ public class BinaryStatusPanel extends javax.swing.JPanel implements BinaryStatu
         statusControlHandler.changeMemoryMode(MemoryMode.RAM_MEMORY);
     }//GEN-LAST:event_ramMemoryModeRadioButtonMenuItemActionPerformed
 
+    private void mappedMemoryModeRadioButtonMenuItemActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_mappedMemoryModeRadioButtonMenuItemActionPerformed
+        statusControlHandler.changeMemoryMode(MemoryMode.MAPPED);
+    }//GEN-LAST:event_mappedMemoryModeRadioButtonMenuItemActionPerformed
+
     private void cursorPositionShowOffsetCheckBoxMenuItemActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_cursorPositionShowOffsetCheckBoxMenuItemActionPerformed
         cursorPositionFormat.setShowOffset(cursorPositionShowOffsetCheckBoxMenuItem.isSelected());
         updateCaretPosition();
@@ -544,11 +571,13 @@ public class BinaryStatusPanel extends javax.swing.JPanel implements BinaryStatu
     private javax.swing.JRadioButtonMenuItem hexadecimalDocumentSizeModeRadioButtonMenuItem;
     private javax.swing.JPopupMenu.Separator jSeparator1;
     private javax.swing.JPopupMenu.Separator jSeparator2;
+    private javax.swing.JRadioButtonMenuItem mappedMemoryModeRadioButtonMenuItem;
     private javax.swing.ButtonGroup memoryModeButtonGroup;
     private javax.swing.JLabel memoryModeLabel;
     private javax.swing.JPopupMenu memoryModePopupMenu;
     private javax.swing.JRadioButtonMenuItem octalCursorPositionModeRadioButtonMenuItem;
     private javax.swing.JRadioButtonMenuItem octalDocumentSizeModeRadioButtonMenuItem;
+    private javax.swing.JLabel paintTimeLabel;
     private javax.swing.JMenuItem positionCopyMenuItem;
     private javax.swing.JMenuItem positionGoToMenuItem;
     private javax.swing.JPopupMenu positionPopupMenu;
@@ -579,6 +608,18 @@ public class BinaryStatusPanel extends javax.swing.JPanel implements BinaryStatu
         updateDocumentSizeToolTip();
     }
 
+    /**
+     * Marks document as partially loaded file, which is read-only and cannot
+     * be saved.
+     *
+     * @param partiallyLoaded true if file was not fully loaded
+     */
+    public void setPartiallyLoaded(boolean partiallyLoaded) {
+        this.partiallyLoaded = partiallyLoaded;
+        updateDocumentSize();
+        updateDocumentSizeToolTip();
+    }
+
     @Nonnull
     @Override
     public String getEncoding() {
@@ -633,13 +674,45 @@ public class BinaryStatusPanel extends javax.swing.JPanel implements BinaryStatu
         boolean enabled = memoryMode != MemoryMode.READ_ONLY;
         deltaMemoryModeRadioButtonMenuItem.setEnabled(enabled);
         ramMemoryModeRadioButtonMenuItem.setEnabled(enabled);
+        mappedMemoryModeRadioButtonMenuItem.setEnabled(enabled);
         if (memoryMode == MemoryMode.DELTA_MODE) {
             deltaMemoryModeRadioButtonMenuItem.setSelected(true);
+        } else if (memoryMode == MemoryMode.MAPPED) {
+            mappedMemoryModeRadioButtonMenuItem.setSelected(true);
         } else {
             ramMemoryModeRadioButtonMenuItem.setSelected(true);
         }
     }
 
+    /**
+     * Shows statistics of the last painted frame of code area.
+     *
+     * @param paintStatistics paint statistics or null to hide them
+     */
+    public void setPaintStatistics(@Nullable PaintStatistics paintStatistics) {
+        if (paintStatistics == null) {
+            paintTimeLabel.setVisible(false);
+            return;
+        }
+
+        paintTimeLabel.setText(String.format(resourceBundle.getString("paintTime.text"), nanosToMillis(paintStatistics.getPaintTime())));
+        StringBuilder builder = new StringBuilder();
+        builder.append("<html><body>");
+        builder.append(resourceBundle.getString("paintTimeLabel.toolTipText")).append(BR_TAG);
+        builder.append(String.format(resourceBundle.getString("paintStatistics.rowBackground"), nanosToMillis(paintStatistics.getRowBackgroundTime()))).append(BR_TAG);
+        builder.append(String.format(resourceBundle.getString("paintStatistics.rowText"), nanosToMillis(paintStatistics.getRowTextTime()))).append(BR_TAG);
+        builder.append(String.format(resourceBundle.getString("paintStatistics.rows"), paintStatistics.getRowsCount())).append(BR_TAG);
+        builder.append(String.format(resourceBundle.getString("paintStatistics.dataAccess"), paintStatistics.getBytesFetched(), nanosToMillis(paintStatistics.getDataAccessTime()))).append(BR_TAG);
+        builder.append(String.format(resourceBundle.getString("paintStatistics.modifiers"), paintStatistics.getModifierCallsCount(), nanosToMillis(paintStatistics.getModifierTime())));
+        builder.append("</body></html>");
+        paintTimeLabel.setToolTipText(builder.toString());
+        paintTimeLabel.setVisible(true);
+    }
+
+    private static double nanosToMillis(long nanos) {
+        return nanos / 1000000.0;
+    }
+
     private void updateCaretPosition() {
         if (caretPosition == null) {
             cursorPositionLabel.setText("-");
@@ -720,7 +793,11 @@ public class BinaryStatusPanel extends javax.swing.JPanel implements BinaryStatu
                 }
             }
 
-            documentSizeLabel.setText(labelBuilder.toString());
+            if (partiallyLoaded) {
+                documentSizeLabel.setText(String.format(resourceBundle.getString("documentSize.partial"), labelBuilder.toString()));
+            } else {
+                documentSizeLabel.setText(labelBuilder.toString());
+            }
         }
     }
 
@@ -731,6 +808,9 @@ public class BinaryStatusPanel extends javax.swing.JPanel implements BinaryStatu
 
         StringBuilder builder = new StringBuilder();
         builder.append("<html><body>");
+        if (partiallyLoaded) {
+            builder.append(resourceBundle.getString("documentSize.partialToolTipText")).append(BR_TAG).append(BR_TAG);
+        }
         if (selectionRange != null && !selectionRange.isEmpty()) {
             long length = selectionRange.getLength();
             builder.append(resourceBundle.getString("selectionLengthLabel.toolTipText")).append(BR_TAG);
@@ -26,7 +26,7 @@ import org.exbin.framework.utils.UiUtils;
  * Basic values inspector position color modifier.
  */
 @ParametersAreNonnullByDefault
-public class BasicValuesPositionColorModifier implements BinEdCodeAreaPainter.PositionColorModifier {
+public class BasicValuesPositionColorModifier implements BinEdCodeAreaPainter.RowColorModifier {
 
     private long position = -1;
     private long length;
@@ -49,6 +49,18 @@ public class BasicValuesPositionColorModifier implements BinEdCodeAreaPainter.Po
         return null;
     }
 
+    @Override
+    public void collectRowColors(long rowDataPosition, byte[] rowData, int rowDataLength, BinEdCodeAreaPainter.RowColorSpans spans) {
+        if (position >= 0) {
+            long rowEndPosition = rowDataPosition + spans.getBytesPerRow();
+            if (position < rowEndPosition && position + length > rowDataPosition) {
+                int startByte = (int) (Math.max(position, rowDataPosition) - rowDataPosition);
+                int endByte = (int) (Math.min(position + length, rowEndPosition) - rowDataPosition);
+                spans.setBackgroundColor(startByte, endByte, color);
+            }
+        }
+    }
+
     @Nullable
     @Override
     public Color getPositionTextColor(long rowDataPosition, int byteOnRow, int charOnRow, CodeAreaSection section, boolean unprintables) {
@@ -32,6 +32,7 @@ import org.exbin.bined.extended.color.CodeAreaUnprintablesColorType;
 import org.exbin.bined.highlight.swing.color.CodeAreaColorizationColorType;
 import org.exbin.bined.highlight.swing.color.CodeAreaMatchColorType;
 import org.exbin.bined.swing.extended.color.ExtendedCodeAreaColorProfile;
+import org.exbin.framework.bined.ByteClassColorType;
 
 /**
  * Table model for Color profile panel.
@@ -73,6 +74,13 @@ public class ColorProfileTableModel implements TableModel {
 
         rows.add(new ColorRow("Unprintable characters text color", CodeAreaUnprintablesColorType.UNPRINTABLES_COLOR));
         rows.add(new ColorRow("Unprintable characters background", CodeAreaUnprintablesColorType.UNPRINTABLES_BACKGROUND));
+
+        rows.add(new ColorRow("Zero byte text color", ByteClassColorType.ZERO_COLOR));
+        rows.add(new ColorRow("Printable ASCII text color", ByteClassColorType.PRINTABLE_COLOR));
+        rows.add(new ColorRow("Whitespace text color", ByteClassColorType.WHITESPACE_COLOR));
+        rows.add(new ColorRow("Control byte text color", ByteClassColorType.CONTROL_COLOR));
+        rows.add(new ColorRow("High-bit byte text color", ByteClassColorType.HIGH_BIT_COLOR));
+        rows.add(new ColorRow("0xFF byte text color", ByteClassColorType.FF_COLOR));
     }
 
     @Nullable
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.objectdata;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Bounded least recently used cache of data pages with sequential read-ahead.
+ * <p>
+ * When page following the previously requested page is missing, given count
+ * of next pages is loaded together with it.
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public class PageCache {
+
+    public static final int DEFAULT_MAXIMUM_PAGES = 64;
+    public static final int DEFAULT_READ_AHEAD_PAGES = 4;
+
+    private final PageLoader pageLoader;
+    private final LinkedHashMap<Long, byte[]> pages = new LinkedHashMap<Long, byte[]>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+            return size() > maximumPages;
+        }
+    };
+    private int maximumPages;
+    private int readAheadPages;
+    private long lastPageIndex = -1;
+    private byte[] lastPage = null;
+    private long hitsCount = 0;
+    private long missesCount = 0;
+
+    public PageCache(PageLoader pageLoader) {
+        this(pageLoader, DEFAULT_MAXIMUM_PAGES, DEFAULT_READ_AHEAD_PAGES);
+    }
+
+    /**
+     * Creates cache.
+     *
+     * @param pageLoader loader of pages
+     * @param maximumPages maximum count of cached pages
+     * @param readAheadPages count of pages loaded ahead on sequential access
+     */
+    public PageCache(PageLoader pageLoader, int maximumPages, int readAheadPages) {
+        this.pageLoader = pageLoader;
+        this.maximumPages = Math.max(maximumPages, 1);
+        this.readAheadPages = Math.max(readAheadPages, 0);
+    }
+
+    /**
+     * Returns page of given index loading it if not cached.
+     *
+     * @param pageIndex page index
+     * @return page data or null if page is not available
+     */
+    @Nullable
+    public synchronized byte[] getPage(long pageIndex) {
+        if (pageIndex == lastPageIndex) {
+            hitsCount++;
+            return lastPage;
+        }
+
+        byte[] page = pages.get(pageIndex);
+        if (page != null) {
+            hitsCount++;
+        } else {
+            missesCount++;
+            boolean sequential = pageIndex == lastPageIndex + 1;
+            page = pageLoader.loadPage(pageIndex);
+            if (page == null) {
+                return null;
+            }
+
+            pages.put(pageIndex, page);
+            if (sequential && readAheadPages > 0) {
+                readAhead(pageIndex + 1);
+            }
+        }
+
+        lastPageIndex = pageIndex;
+        lastPage = page;
+        return page;
+    }
+
+    private void readAhead(long firstPageIndex) {
+        int count = Math.min(readAheadPages, maximumPages - 1);
+        for (long pageIndex = firstPageIndex; pageIndex < firstPageIndex + count; pageIndex++) {
+            if (pages.containsKey(pageIndex)) {
+                continue;
+            }
+
+            byte[] page = pageLoader.loadPage(pageIndex);
+            if (page == null) {
+                break;
+            }
+            pages.put(pageIndex, page);
+        }
+    }
+
+    public synchronized int getMaximumPages() {
+        return maximumPages;
+    }
+
+    /**
+     * Sets maximum count of cached pages, excessive pages are dropped.
+     *
+     * @param maximumPages count of pages, at least one page is kept
+     */
+    public synchronized void setMaximumPages(int maximumPages) {
+        this.maximumPages = Math.max(maximumPages, 1);
+        while (pages.size() > this.maximumPages) {
+            Long eldest = pages.keySet().iterator().next();
+            pages.remove(eldest);
+        }
+    }
+
+    public synchronized int getReadAheadPages() {
+        return readAheadPages;
+    }
+
+    public synchronized void setReadAheadPages(int readAheadPages) {
+        this.readAheadPages = Math.max(readAheadPages, 0);
+    }
+
+    /**
+     * Returns count of page requests served from cache.
+     *
+     * @return count of hits
+     */
+    public synchronized long getHitsCount() {
+        return hitsCount;
+    }
+
+    /**
+     * Returns count of page requests which required loading of page.
+     * <p>
+     * Pages loaded by read-ahead are not counted.
+     *
+     * @return count of misses
+     */
+    public synchronized long getMissesCount() {
+        return missesCount;
+    }
+
+    public synchronized void resetStatistics() {
+        hitsCount = 0;
+        missesCount = 0;
+    }
+
+    public synchronized void clear() {
+        pages.clear();
+        lastPageIndex = -1;
+        lastPage = null;
+    }
+
+    /**
+     * Loader of pages for cache.
+     */
+    public interface PageLoader {
+
+        /**
+         * Loads page of given index.
+         *
+         * @param pageIndex page index
+         * @return page data or null if page is not available
+         */
+        @Nullable
+        byte[] loadPage(long pageIndex);
+    }
+}
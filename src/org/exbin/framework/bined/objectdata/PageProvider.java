@@ -15,6 +15,7 @@
  */
 package org.exbin.framework.bined.objectdata;
 
+import java.nio.ByteBuffer;
 import javax.annotation.Nonnull;
 
 /**
@@ -25,4 +26,65 @@ public interface PageProvider {
     byte[] getPage(long pageIndex);
 
     long getDocumentSize();
+
+    /**
+     * Returns size of pages provided by this provider.
+     *
+     * @return page size in bytes
+     */
+    default int getPageSize() {
+        return PageProviderBinaryData.PAGE_SIZE;
+    }
+
+    /**
+     * Copies range of data to given array.
+     * <p>
+     * Default implementation copies data page by page, providers should
+     * override it to copy whole range in single pass.
+     *
+     * @param position start position
+     * @param target target array
+     * @param offset offset in target array
+     * @param length length of range
+     */
+    default void copyToArray(long position, byte[] target, int offset, int length) {
+        int pageSize = getPageSize();
+        while (length > 0) {
+            byte[] page = getPage(position / pageSize);
+            int pageOffset = (int) (position % pageSize);
+            int copyLength = Math.min(length, page.length - pageOffset);
+            if (copyLength <= 0) {
+                throw new IndexOutOfBoundsException("Requested data out of bounds");
+            }
+
+            System.arraycopy(page, pageOffset, target, offset, copyLength);
+            position += copyLength;
+            offset += copyLength;
+            length -= copyLength;
+        }
+    }
+
+    /**
+     * Copies range of data to given buffer at its current position.
+     *
+     * @param position start position
+     * @param target target buffer
+     * @param length length of range
+     */
+    default void copyToBuffer(long position, ByteBuffer target, int length) {
+        if (target.hasArray()) {
+            copyToArray(position, target.array(), target.arrayOffset() + target.position(), length);
+            target.position(target.position() + length);
+            return;
+        }
+
+        byte[] buffer = new byte[Math.min(length, getPageSize())];
+        while (length > 0) {
+            int copyLength = Math.min(length, buffer.length);
+            copyToArray(position, buffer, 0, copyLength);
+            target.put(buffer, 0, copyLength);
+            position += copyLength;
+            length -= copyLength;
+        }
+    }
 }
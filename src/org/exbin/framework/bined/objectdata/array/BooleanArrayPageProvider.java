@@ -28,19 +28,31 @@ import javax.annotation.ParametersAreNonnullByDefault;
 public class BooleanArrayPageProvider implements PageProvider {
 
     private final boolean[] arrayRef;
+    private final int pageSize;
 
     public BooleanArrayPageProvider(boolean[] arrayRef) {
+        this(arrayRef, PageProviderBinaryData.PAGE_SIZE);
+    }
+
+    /**
+     * Creates provider with given page size.
+     *
+     * @param arrayRef source
+     * @param pageSize page size in bytes, multiple of value size
+     */
+    public BooleanArrayPageProvider(boolean[] arrayRef, int pageSize) {
         this.arrayRef = arrayRef;
+        this.pageSize = pageSize;
     }
 
     @Nonnull
     @Override
     public byte[] getPage(long pageIndex) {
-        int startPos = (int) (pageIndex * PageProviderBinaryData.PAGE_SIZE * 8);
-        int length = PageProviderBinaryData.PAGE_SIZE * 8;
-        long documentSize = getDocumentSize() * 8;
-        if (documentSize - startPos < PageProviderBinaryData.PAGE_SIZE * 8) {
-            length = (int) (documentSize - startPos);
+        int startPos = (int) (pageIndex * pageSize * 8);
+        int length = pageSize * 8;
+        int valuesCount = arrayRef.length;
+        if (valuesCount - startPos < pageSize * 8) {
+            length = valuesCount - startPos;
         }
         byte[] result = new byte[(length + 7) / 8];
         int bitMask = 0x80;
@@ -66,4 +78,25 @@ public class BooleanArrayPageProvider implements PageProvider {
     public long getDocumentSize() {
         return (arrayRef.length + 7) / 8;
     }
+
+    @Override
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    @Override
+    public void copyToArray(long position, byte[] target, int offset, int length) {
+        int valuesCount = arrayRef.length;
+        int index = (int) (position * 8);
+        for (int i = 0; i < length; i++) {
+            int value = 0;
+            for (int bitMask = 0x80; bitMask > 0 && index < valuesCount; bitMask >>= 1) {
+                if (arrayRef[index]) {
+                    value |= bitMask;
+                }
+                index++;
+            }
+            target[offset + i] = (byte) value;
+        }
+    }
 }
@@ -28,16 +28,28 @@ import javax.annotation.ParametersAreNonnullByDefault;
 public class BoxedByteArrayPageProvider implements PageProvider {
 
     private final Byte[] arrayRef;
+    private final int pageSize;
 
     public BoxedByteArrayPageProvider(Byte[] arrayRef) {
+        this(arrayRef, PageProviderBinaryData.PAGE_SIZE);
+    }
+
+    /**
+     * Creates provider with given page size.
+     *
+     * @param arrayRef source
+     * @param pageSize page size in bytes, multiple of value size
+     */
+    public BoxedByteArrayPageProvider(Byte[] arrayRef, int pageSize) {
         this.arrayRef = arrayRef;
+        this.pageSize = pageSize;
     }
 
     @Nonnull
     @Override
     public byte[] getPage(long pageIndex) {
-        int startPos = (int) (pageIndex * PageProviderBinaryData.PAGE_SIZE);
-        int length = Math.min(arrayRef.length - startPos, PageProviderBinaryData.PAGE_SIZE);
+        int startPos = (int) (pageIndex * pageSize);
+        int length = Math.min(arrayRef.length - startPos, pageSize);
         byte[] result = new byte[length];
         for (int i = 0; i < length; i++) {
             result[i] = arrayRef[startPos + i];
@@ -50,4 +62,17 @@ public class BoxedByteArrayPageProvider implements PageProvider {
     public long getDocumentSize() {
         return arrayRef.length;
     }
+
+    @Override
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    @Override
+    public void copyToArray(long position, byte[] target, int offset, int length) {
+        int index = (int) position;
+        for (int i = 0; i < length; i++) {
+            target[offset + i] = arrayRef[index + i];
+        }
+    }
 }
@@ -28,17 +28,29 @@ import javax.annotation.ParametersAreNonnullByDefault;
 public class BoxedCharArrayPageProvider implements PageProvider {
 
     private final Character[] arrayRef;
+    private final int pageSize;
 
     public BoxedCharArrayPageProvider(Character[] arrayRef) {
+        this(arrayRef, PageProviderBinaryData.PAGE_SIZE);
+    }
+
+    /**
+     * Creates provider with given page size.
+     *
+     * @param arrayRef source
+     * @param pageSize page size in bytes, multiple of value size
+     */
+    public BoxedCharArrayPageProvider(Character[] arrayRef, int pageSize) {
         this.arrayRef = arrayRef;
+        this.pageSize = pageSize;
     }
 
     @Nonnull
     @Override
     public byte[] getPage(long pageIndex) {
-        int pageSize = PageProviderBinaryData.PAGE_SIZE / 2;
-        int startPos = (int) (pageIndex * pageSize);
-        int length = Math.min(arrayRef.length - startPos, pageSize);
+        int pageValues = pageSize / 2;
+        int startPos = (int) (pageIndex * pageValues);
+        int length = Math.min(arrayRef.length - startPos, pageValues);
         byte[] result = new byte[length * 2];
         for (int i = 0; i < length; i++) {
             int value = (int) (arrayRef[startPos + i]);
@@ -54,4 +66,24 @@ public class BoxedCharArrayPageProvider implements PageProvider {
     public long getDocumentSize() {
         return arrayRef.length * 2L;
     }
+
+    @Override
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    @Override
+    public void copyToArray(long position, byte[] target, int offset, int length) {
+        int index = (int) (position / 2);
+        int valueOffset = (int) (position % 2);
+        int end = offset + length;
+        while (offset < end) {
+            int value = arrayRef[index];
+            for (; valueOffset < 2 && offset < end; valueOffset++) {
+                target[offset++] = (byte) (value >> ((1 - valueOffset) * 8));
+            }
+            valueOffset = 0;
+            index++;
+        }
+    }
 }
@@ -32,17 +32,29 @@ public class BoxedDoubleArrayPageProvider implements PageProvider {
     private final ByteBuffer byteBuffer = ByteBuffer.wrap(valuesCache);
 
     private final Double[] arrayRef;
+    private final int pageSize;
 
     public BoxedDoubleArrayPageProvider(Double[] arrayRef) {
+        this(arrayRef, PageProviderBinaryData.PAGE_SIZE);
+    }
+
+    /**
+     * Creates provider with given page size.
+     *
+     * @param arrayRef source
+     * @param pageSize page size in bytes, multiple of value size
+     */
+    public BoxedDoubleArrayPageProvider(Double[] arrayRef, int pageSize) {
         this.arrayRef = arrayRef;
+        this.pageSize = pageSize;
     }
 
     @Nonnull
     @Override
     public byte[] getPage(long pageIndex) {
-        int pageSize = PageProviderBinaryData.PAGE_SIZE / 8;
-        int startPos = (int) (pageIndex * pageSize);
-        int length = Math.min(arrayRef.length - startPos, pageSize);
+        int pageValues = pageSize / 8;
+        int startPos = (int) (pageIndex * pageValues);
+        int length = Math.min(arrayRef.length - startPos, pageValues);
         byte[] result = new byte[length * 8];
         for (int i = 0; i < length; i++) {
             double value = arrayRef[startPos + i];
@@ -59,4 +71,24 @@ public class BoxedDoubleArrayPageProvider implements PageProvider {
     public long getDocumentSize() {
         return arrayRef.length * 8L;
     }
+
+    @Override
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    @Override
+    public void copyToArray(long position, byte[] target, int offset, int length) {
+        int index = (int) (position / 8);
+        int valueOffset = (int) (position % 8);
+        int end = offset + length;
+        while (offset < end) {
+            long value = Double.doubleToRawLongBits(arrayRef[index]);
+            for (; valueOffset < 8 && offset < end; valueOffset++) {
+                target[offset++] = (byte) (value >> ((7 - valueOffset) * 8));
+            }
+            valueOffset = 0;
+            index++;
+        }
+    }
 }
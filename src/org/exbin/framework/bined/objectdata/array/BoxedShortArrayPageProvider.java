@@ -28,17 +28,29 @@ import javax.annotation.ParametersAreNonnullByDefault;
 public class BoxedShortArrayPageProvider implements PageProvider {
 
     private final Short[] arrayRef;
+    private final int pageSize;
 
     public BoxedShortArrayPageProvider(Short[] arrayRef) {
+        this(arrayRef, PageProviderBinaryData.PAGE_SIZE);
+    }
+
+    /**
+     * Creates provider with given page size.
+     *
+     * @param arrayRef source
+     * @param pageSize page size in bytes, multiple of value size
+     */
+    public BoxedShortArrayPageProvider(Short[] arrayRef, int pageSize) {
         this.arrayRef = arrayRef;
+        this.pageSize = pageSize;
     }
 
     @Nonnull
     @Override
     public byte[] getPage(long pageIndex) {
-        int pageSize = PageProviderBinaryData.PAGE_SIZE / 2;
-        int startPos = (int) (pageIndex * pageSize);
-        int length = Math.min(arrayRef.length - startPos, pageSize);
+        int pageValues = pageSize / 2;
+        int startPos = (int) (pageIndex * pageValues);
+        int length = Math.min(arrayRef.length - startPos, pageValues);
         byte[] result = new byte[length * 2];
         for (int i = 0; i < length; i++) {
             short value = arrayRef[startPos + i];
@@ -53,4 +65,24 @@ public class BoxedShortArrayPageProvider implements PageProvider {
     public long getDocumentSize() {
         return arrayRef.length * 2L;
     }
+
+    @Override
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    @Override
+    public void copyToArray(long position, byte[] target, int offset, int length) {
+        int index = (int) (position / 2);
+        int valueOffset = (int) (position % 2);
+        int end = offset + length;
+        while (offset < end) {
+            short value = arrayRef[index];
+            for (; valueOffset < 2 && offset < end; valueOffset++) {
+                target[offset++] = (byte) (value >> ((1 - valueOffset) * 8));
+            }
+            valueOffset = 0;
+            index++;
+        }
+    }
 }
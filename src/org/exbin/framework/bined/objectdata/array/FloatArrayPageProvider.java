@@ -32,17 +32,29 @@ public class FloatArrayPageProvider implements PageProvider {
     private final ByteBuffer byteBuffer = ByteBuffer.wrap(valuesCache);
 
     private final float[] arrayRef;
+    private final int pageSize;
 
     public FloatArrayPageProvider(float[] arrayRef) {
+        this(arrayRef, PageProviderBinaryData.PAGE_SIZE);
+    }
+
+    /**
+     * Creates provider with given page size.
+     *
+     * @param arrayRef source
+     * @param pageSize page size in bytes, multiple of value size
+     */
+    public FloatArrayPageProvider(float[] arrayRef, int pageSize) {
         this.arrayRef = arrayRef;
+        this.pageSize = pageSize;
     }
 
     @Nonnull
     @Override
     public byte[] getPage(long pageIndex) {
-        int pageSize = PageProviderBinaryData.PAGE_SIZE / 4;
-        int startPos = (int) (pageIndex * pageSize);
-        int length = Math.min(arrayRef.length - startPos, pageSize);
+        int pageValues = pageSize / 4;
+        int startPos = (int) (pageIndex * pageValues);
+        int length = Math.min(arrayRef.length - startPos, pageValues);
         byte[] result = new byte[length * 4];
         for (int i = 0; i < length; i++) {
             float value = arrayRef[startPos + i];
@@ -59,4 +71,24 @@ public class FloatArrayPageProvider implements PageProvider {
     public long getDocumentSize() {
         return arrayRef.length * 4L;
     }
+
+    @Override
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    @Override
+    public void copyToArray(long position, byte[] target, int offset, int length) {
+        int index = (int) (position / 4);
+        int valueOffset = (int) (position % 4);
+        int end = offset + length;
+        while (offset < end) {
+            int value = Float.floatToRawIntBits(arrayRef[index]);
+            for (; valueOffset < 4 && offset < end; valueOffset++) {
+                target[offset++] = (byte) (value >> ((3 - valueOffset) * 8));
+            }
+            valueOffset = 0;
+            index++;
+        }
+    }
 }
@@ -28,17 +28,29 @@ import javax.annotation.ParametersAreNonnullByDefault;
 public class IntegerArrayPageProvider implements PageProvider {
 
     private final int[] arrayRef;
+    private final int pageSize;
 
     public IntegerArrayPageProvider(int[] arrayRef) {
+        this(arrayRef, PageProviderBinaryData.PAGE_SIZE);
+    }
+
+    /**
+     * Creates provider with given page size.
+     *
+     * @param arrayRef source
+     * @param pageSize page size in bytes, multiple of value size
+     */
+    public IntegerArrayPageProvider(int[] arrayRef, int pageSize) {
         this.arrayRef = arrayRef;
+        this.pageSize = pageSize;
     }
 
     @Nonnull
     @Override
     public byte[] getPage(long pageIndex) {
-        int pageSize = PageProviderBinaryData.PAGE_SIZE / 4;
-        int startPos = (int) (pageIndex * pageSize);
-        int length = Math.min(arrayRef.length - startPos, pageSize);
+        int pageValues = pageSize / 4;
+        int startPos = (int) (pageIndex * pageValues);
+        int length = Math.min(arrayRef.length - startPos, pageValues);
         byte[] result = new byte[length * 4];
         for (int i = 0; i < length; i++) {
             int value = arrayRef[startPos + i];
@@ -56,4 +68,24 @@ public class IntegerArrayPageProvider implements PageProvider {
     public long getDocumentSize() {
         return arrayRef.length * 4L;
     }
+
+    @Override
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    @Override
+    public void copyToArray(long position, byte[] target, int offset, int length) {
+        int index = (int) (position / 4);
+        int valueOffset = (int) (position % 4);
+        int end = offset + length;
+        while (offset < end) {
+            int value = arrayRef[index];
+            for (; valueOffset < 4 && offset < end; valueOffset++) {
+                target[offset++] = (byte) (value >> ((3 - valueOffset) * 8));
+            }
+            valueOffset = 0;
+            index++;
+        }
+    }
 }
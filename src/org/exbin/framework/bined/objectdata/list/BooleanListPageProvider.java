@@ -29,19 +29,31 @@ import java.util.List;
 public class BooleanListPageProvider implements PageProvider {
 
     private final List<Boolean> listRef;
+    private final int pageSize;
 
     public BooleanListPageProvider(List<Boolean> listRef) {
+        this(listRef, PageProviderBinaryData.PAGE_SIZE);
+    }
+
+    /**
+     * Creates provider with given page size.
+     *
+     * @param listRef source
+     * @param pageSize page size in bytes, multiple of value size
+     */
+    public BooleanListPageProvider(List<Boolean> listRef, int pageSize) {
         this.listRef = listRef;
+        this.pageSize = pageSize;
     }
 
     @Nonnull
     @Override
     public byte[] getPage(long pageIndex) {
-        int startPos = (int) (pageIndex * PageProviderBinaryData.PAGE_SIZE * 8);
-        int length = PageProviderBinaryData.PAGE_SIZE * 8;
-        long documentSize = getDocumentSize() * 8;
-        if (documentSize - startPos < PageProviderBinaryData.PAGE_SIZE * 8) {
-            length = (int) (documentSize - startPos);
+        int startPos = (int) (pageIndex * pageSize * 8);
+        int length = pageSize * 8;
+        int valuesCount = listRef.size();
+        if (valuesCount - startPos < pageSize * 8) {
+            length = valuesCount - startPos;
         }
         byte[] result = new byte[(length + 7) / 8];
         int bitMask = 0x80;
@@ -67,4 +79,25 @@ public class BooleanListPageProvider implements PageProvider {
     public long getDocumentSize() {
         return (listRef.size() + 7) / 8;
     }
+
+    @Override
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    @Override
+    public void copyToArray(long position, byte[] target, int offset, int length) {
+        int valuesCount = listRef.size();
+        int index = (int) (position * 8);
+        for (int i = 0; i < length; i++) {
+            int value = 0;
+            for (int bitMask = 0x80; bitMask > 0 && index < valuesCount; bitMask >>= 1) {
+                if (listRef.get(index)) {
+                    value |= bitMask;
+                }
+                index++;
+            }
+            target[offset + i] = (byte) value;
+        }
+    }
 }
@@ -29,16 +29,28 @@ import java.util.List;
 public class ByteListPageProvider implements PageProvider {
 
     private final List<Byte> listRef;
+    private final int pageSize;
 
     public ByteListPageProvider(List<Byte> listRef) {
+        this(listRef, PageProviderBinaryData.PAGE_SIZE);
+    }
+
+    /**
+     * Creates provider with given page size.
+     *
+     * @param listRef source
+     * @param pageSize page size in bytes, multiple of value size
+     */
+    public ByteListPageProvider(List<Byte> listRef, int pageSize) {
         this.listRef = listRef;
+        this.pageSize = pageSize;
     }
 
     @Nonnull
     @Override
     public byte[] getPage(long pageIndex) {
-        int startPos = (int) (pageIndex * PageProviderBinaryData.PAGE_SIZE);
-        int length = Math.min(listRef.size() - startPos, PageProviderBinaryData.PAGE_SIZE);
+        int startPos = (int) (pageIndex * pageSize);
+        int length = Math.min(listRef.size() - startPos, pageSize);
         byte[] result = new byte[length];
         for (int i = 0; i < length; i++) {
             result[i] = listRef.get(startPos + i);
@@ -51,4 +63,17 @@ public class ByteListPageProvider implements PageProvider {
     public long getDocumentSize() {
         return listRef.size();
     }
+
+    @Override
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    @Override
+    public void copyToArray(long position, byte[] target, int offset, int length) {
+        int index = (int) position;
+        for (int i = 0; i < length; i++) {
+            target[offset + i] = listRef.get(index + i);
+        }
+    }
 }
@@ -29,17 +29,29 @@ import java.util.List;
 public class CharListPageProvider implements PageProvider {
 
     private final List<Character> listRef;
+    private final int pageSize;
 
     public CharListPageProvider(List<Character> listRef) {
+        this(listRef, PageProviderBinaryData.PAGE_SIZE);
+    }
+
+    /**
+     * Creates provider with given page size.
+     *
+     * @param listRef source
+     * @param pageSize page size in bytes, multiple of value size
+     */
+    public CharListPageProvider(List<Character> listRef, int pageSize) {
         this.listRef = listRef;
+        this.pageSize = pageSize;
     }
 
     @Nonnull
     @Override
     public byte[] getPage(long pageIndex) {
-        int pageSize = PageProviderBinaryData.PAGE_SIZE / 2;
-        int startPos = (int) (pageIndex * pageSize);
-        int length = Math.min(listRef.size() - startPos, pageSize);
+        int pageValues = pageSize / 2;
+        int startPos = (int) (pageIndex * pageValues);
+        int length = Math.min(listRef.size() - startPos, pageValues);
         byte[] result = new byte[length * 2];
         for (int i = 0; i < length; i++) {
             int value = (int) (listRef.get(startPos + i));
@@ -55,4 +67,24 @@ public class CharListPageProvider implements PageProvider {
     public long getDocumentSize() {
         return listRef.size() * 2L;
     }
+
+    @Override
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    @Override
+    public void copyToArray(long position, byte[] target, int offset, int length) {
+        int index = (int) (position / 2);
+        int valueOffset = (int) (position % 2);
+        int end = offset + length;
+        while (offset < end) {
+            int value = listRef.get(index);
+            for (; valueOffset < 2 && offset < end; valueOffset++) {
+                target[offset++] = (byte) (value >> ((1 - valueOffset) * 8));
+            }
+            valueOffset = 0;
+            index++;
+        }
+    }
 }
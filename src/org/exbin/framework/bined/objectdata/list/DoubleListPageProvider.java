@@ -33,17 +33,29 @@ public class DoubleListPageProvider implements PageProvider {
     private final ByteBuffer byteBuffer = ByteBuffer.wrap(valuesCache);
 
     private final List<Double> listRef;
+    private final int pageSize;
 
     public DoubleListPageProvider(List<Double> listRef) {
+        this(listRef, PageProviderBinaryData.PAGE_SIZE);
+    }
+
+    /**
+     * Creates provider with given page size.
+     *
+     * @param listRef source
+     * @param pageSize page size in bytes, multiple of value size
+     */
+    public DoubleListPageProvider(List<Double> listRef, int pageSize) {
         this.listRef = listRef;
+        this.pageSize = pageSize;
     }
 
     @Nonnull
     @Override
     public byte[] getPage(long pageIndex) {
-        int pageSize = PageProviderBinaryData.PAGE_SIZE / 8;
-        int startPos = (int) (pageIndex * pageSize);
-        int length = Math.min(listRef.size() - startPos, pageSize);
+        int pageValues = pageSize / 8;
+        int startPos = (int) (pageIndex * pageValues);
+        int length = Math.min(listRef.size() - startPos, pageValues);
         byte[] result = new byte[length * 8];
         for (int i = 0; i < length; i++) {
             double value = listRef.get(startPos + i);
@@ -60,4 +72,24 @@ public class DoubleListPageProvider implements PageProvider {
     public long getDocumentSize() {
         return listRef.size() * 8L;
     }
+
+    @Override
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    @Override
+    public void copyToArray(long position, byte[] target, int offset, int length) {
+        int index = (int) (position / 8);
+        int valueOffset = (int) (position % 8);
+        int end = offset + length;
+        while (offset < end) {
+            long value = Double.doubleToRawLongBits(listRef.get(index));
+            for (; valueOffset < 8 && offset < end; valueOffset++) {
+                target[offset++] = (byte) (value >> ((7 - valueOffset) * 8));
+            }
+            valueOffset = 0;
+            index++;
+        }
+    }
 }
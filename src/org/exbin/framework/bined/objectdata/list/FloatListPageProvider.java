@@ -33,17 +33,29 @@ public class FloatListPageProvider implements PageProvider {
     private final ByteBuffer byteBuffer = ByteBuffer.wrap(valuesCache);
 
     private final List<Float> listRef;
+    private final int pageSize;
 
     public FloatListPageProvider(List<Float> listRef) {
+        this(listRef, PageProviderBinaryData.PAGE_SIZE);
+    }
+
+    /**
+     * Creates provider with given page size.
+     *
+     * @param listRef source
+     * @param pageSize page size in bytes, multiple of value size
+     */
+    public FloatListPageProvider(List<Float> listRef, int pageSize) {
         this.listRef = listRef;
+        this.pageSize = pageSize;
     }
 
     @Nonnull
     @Override
     public byte[] getPage(long pageIndex) {
-        int pageSize = PageProviderBinaryData.PAGE_SIZE / 4;
-        int startPos = (int) (pageIndex * pageSize);
-        int length = Math.min(listRef.size() - startPos, pageSize);
+        int pageValues = pageSize / 4;
+        int startPos = (int) (pageIndex * pageValues);
+        int length = Math.min(listRef.size() - startPos, pageValues);
         byte[] result = new byte[length * 4];
         for (int i = 0; i < length; i++) {
             float value = listRef.get(startPos + i);
@@ -60,4 +72,24 @@ public class FloatListPageProvider implements PageProvider {
     public long getDocumentSize() {
         return listRef.size() * 4L;
     }
+
+    @Override
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    @Override
+    public void copyToArray(long position, byte[] target, int offset, int length) {
+        int index = (int) (position / 4);
+        int valueOffset = (int) (position % 4);
+        int end = offset + length;
+        while (offset < end) {
+            int value = Float.floatToRawIntBits(listRef.get(index));
+            for (; valueOffset < 4 && offset < end; valueOffset++) {
+                target[offset++] = (byte) (value >> ((3 - valueOffset) * 8));
+            }
+            valueOffset = 0;
+            index++;
+        }
+    }
 }
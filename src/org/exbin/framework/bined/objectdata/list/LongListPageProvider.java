@@ -32,23 +32,35 @@ public class LongListPageProvider implements PageProvider {
     public static final BigInteger BIG_INTEGER_BYTE_MASK = BigInteger.valueOf(255);
 
     private final List<Long> listRef;
+    private final int pageSize;
 
     public LongListPageProvider(List<Long> listRef) {
+        this(listRef, PageProviderBinaryData.PAGE_SIZE);
+    }
+
+    /**
+     * Creates provider with given page size.
+     *
+     * @param listRef source
+     * @param pageSize page size in bytes, multiple of value size
+     */
+    public LongListPageProvider(List<Long> listRef, int pageSize) {
         this.listRef = listRef;
+        this.pageSize = pageSize;
     }
 
     @Nonnull
     @Override
     public byte[] getPage(long pageIndex) {
-        int pageSize = PageProviderBinaryData.PAGE_SIZE / 8;
-        int startPos = (int) (pageIndex * pageSize);
-        int length = Math.min(listRef.size() - startPos, pageSize);
+        int pageValues = pageSize / 8;
+        int startPos = (int) (pageIndex * pageValues);
+        int length = Math.min(listRef.size() - startPos, pageValues);
         byte[] result = new byte[length * 8];
         for (int i = 0; i < length; i++) {
             long value = listRef.get(startPos + i);
 
             BigInteger bigInteger = BigInteger.valueOf(value);
-            for (int bit = 0; bit < 7; bit++) {
+            for (int bit = 0; bit < 8; bit++) {
                 BigInteger nextByte = bigInteger.and(BIG_INTEGER_BYTE_MASK);
                 result[i * 8 + 7 - bit] = nextByte.byteValue();
                 bigInteger = bigInteger.shiftRight(8);
@@ -62,4 +74,24 @@ public class LongListPageProvider implements PageProvider {
     public long getDocumentSize() {
         return listRef.size() * 8L;
     }
+
+    @Override
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    @Override
+    public void copyToArray(long position, byte[] target, int offset, int length) {
+        int index = (int) (position / 8);
+        int valueOffset = (int) (position % 8);
+        int end = offset + length;
+        while (offset < end) {
+            long value = listRef.get(index);
+            for (; valueOffset < 8 && offset < end; valueOffset++) {
+                target[offset++] = (byte) (value >> ((7 - valueOffset) * 8));
+            }
+            valueOffset = 0;
+            index++;
+        }
+    }
 }
@@ -29,17 +29,28 @@ import java.nio.ByteBuffer;
 public class ByteBufferPageProvider implements PageProvider {
 
     private final ByteBuffer byteBuffer;
+    private final int pageSize;
     private int documentSize;
 
     public ByteBufferPageProvider(ByteBuffer byteBuffer) {
+        this(byteBuffer, PageProviderBinaryData.PAGE_SIZE);
+    }
+
+    /**
+     * Creates provider with given page size.
+     *
+     * @param byteBuffer source
+     * @param pageSize page size in bytes, multiple of value size
+     */
+    public ByteBufferPageProvider(ByteBuffer byteBuffer, int pageSize) {
         this.byteBuffer = byteBuffer;
+        this.pageSize = pageSize;
         documentSize = byteBuffer.remaining();
     }
 
     @Nonnull
     @Override
     public byte[] getPage(long pageIndex) {
-        int pageSize = PageProviderBinaryData.PAGE_SIZE;
         int startPos = (int) (pageIndex * pageSize);
         int length = Math.min(documentSize - startPos, pageSize);
         byte[] result = new byte[length];
@@ -52,4 +63,23 @@ public class ByteBufferPageProvider implements PageProvider {
     public long getDocumentSize() {
         return documentSize;
     }
+
+    @Override
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    @Override
+    public void copyToArray(long position, byte[] target, int offset, int length) {
+        byteBuffer.position((int) position);
+        byteBuffer.get(target, offset, length);
+    }
+
+    @Override
+    public void copyToBuffer(long position, ByteBuffer target, int length) {
+        ByteBuffer source = byteBuffer.duplicate();
+        source.position((int) position);
+        source.limit((int) position + length);
+        target.put(source);
+    }
 }
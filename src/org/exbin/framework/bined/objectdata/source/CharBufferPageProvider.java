@@ -29,19 +29,31 @@ import java.nio.CharBuffer;
 public class CharBufferPageProvider implements PageProvider {
 
     private final CharBuffer charBuffer;
+    private final int pageSize;
     private int documentSize;
 
     public CharBufferPageProvider(CharBuffer charBuffer) {
+        this(charBuffer, PageProviderBinaryData.PAGE_SIZE);
+    }
+
+    /**
+     * Creates provider with given page size.
+     *
+     * @param charBuffer source
+     * @param pageSize page size in bytes, multiple of value size
+     */
+    public CharBufferPageProvider(CharBuffer charBuffer, int pageSize) {
         this.charBuffer = charBuffer;
+        this.pageSize = pageSize;
         documentSize = charBuffer.remaining() * 2;
     }
 
     @Nonnull
     @Override
     public byte[] getPage(long pageIndex) {
-        int pageSize = PageProviderBinaryData.PAGE_SIZE / 2;
-        int startPos = (int) (pageIndex * pageSize);
-        int length = Math.min((documentSize / 2) - startPos, pageSize);
+        int pageValues = pageSize / 2;
+        int startPos = (int) (pageIndex * pageValues);
+        int length = Math.min((documentSize / 2) - startPos, pageValues);
         char[] chars = new char[length];
         charBuffer.position(startPos);
         charBuffer.get(chars, 0, length);
@@ -58,4 +70,24 @@ public class CharBufferPageProvider implements PageProvider {
     public long getDocumentSize() {
         return documentSize;
     }
+
+    @Override
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    @Override
+    public void copyToArray(long position, byte[] target, int offset, int length) {
+        int index = (int) (position / 2);
+        int valueOffset = (int) (position % 2);
+        int end = offset + length;
+        while (offset < end) {
+            int value = charBuffer.get(index);
+            for (; valueOffset < 2 && offset < end; valueOffset++) {
+                target[offset++] = (byte) (value >> ((1 - valueOffset) * 8));
+            }
+            valueOffset = 0;
+            index++;
+        }
+    }
 }
@@ -30,10 +30,22 @@ import javax.annotation.ParametersAreNonnullByDefault;
 public class ReaderPageProvider implements PageProvider {
 
     private final ReaderProvider readerProvider;
+    private final int pageSize;
     private int documentSize;
 
     public ReaderPageProvider(ReaderProvider readerProvider) {
+        this(readerProvider, PageProviderBinaryData.PAGE_SIZE);
+    }
+
+    /**
+     * Creates provider with given page size.
+     *
+     * @param readerProvider source
+     * @param pageSize page size in bytes, multiple of value size
+     */
+    public ReaderPageProvider(ReaderProvider readerProvider, int pageSize) {
         this.readerProvider = readerProvider;
+        this.pageSize = pageSize;
         
         Reader reader = readerProvider.getReader();
 
@@ -54,9 +66,9 @@ public class ReaderPageProvider implements PageProvider {
     @Override
     public byte[] getPage(long pageIndex) {
         Reader reader = readerProvider.getReader();
-        int pageSize = PageProviderBinaryData.PAGE_SIZE / 2;
-        int startPos = (int) (pageIndex * pageSize);
-        int length = Math.min(documentSize - startPos, pageSize);
+        int pageValues = pageSize / 2;
+        int startPos = (int) (pageIndex * pageValues);
+        int length = Math.min(documentSize - startPos, pageValues);
 
         long skipped;
         while (startPos > 0) {
@@ -99,6 +111,11 @@ public class ReaderPageProvider implements PageProvider {
     public long getDocumentSize() {
         return documentSize * 2;
     }
+
+    @Override
+    public int getPageSize() {
+        return pageSize;
+    }
     
     public interface ReaderProvider {
         Reader getReader();
@@ -42,4 +42,14 @@ public interface EditorOptions {
 
     void setTabKeyHandlingMode(TabKeyHandlingMode tabKeyHandlingMode);
 
+    /**
+     * Returns true if persistent n-gram index should be used for search in
+     * large files.
+     *
+     * @return true if search indexing is enabled
+     */
+    boolean isSearchIndexing();
+
+    void setSearchIndexing(boolean searchIndexing);
+
 }
@@ -69,6 +69,7 @@ public class EditorOptionsPanel extends javax.swing.JPanel implements SettingsCo
         options.setFileHandlingMode(FileHandlingMode.values()[fileHandlingModeComboBox.getSelectedIndex()]);
         options.setEnterKeyHandlingMode(EnterKeyHandlingMode.values()[enterKeyHandlingModeComboBox.getSelectedIndex()]);
         options.setTabKeyHandlingMode(TabKeyHandlingMode.values()[tabKeyHandlingModeComboBox.getSelectedIndex()]);
+        options.setSearchIndexing(searchIndexingCheckBox.isSelected());
     }
 
     @Override
@@ -76,6 +77,7 @@ public class EditorOptionsPanel extends javax.swing.JPanel implements SettingsCo
         fileHandlingModeComboBox.setSelectedIndex(options.getFileHandlingMode().ordinal());
         enterKeyHandlingModeComboBox.setSelectedIndex(options.getEnterKeyHandlingMode().ordinal());
         tabKeyHandlingModeComboBox.setSelectedIndex(options.getTabKeyHandlingMode().ordinal());
+        searchIndexingCheckBox.setSelected(options.isSearchIndexing());
     }
 
     /**
@@ -93,6 +95,7 @@ public class EditorOptionsPanel extends javax.swing.JPanel implements SettingsCo
         enterKeyHandlingModeComboBox = new javax.swing.JComboBox<>();
         tabKeyHandlingModeLabel = new javax.swing.JLabel();
         tabKeyHandlingModeComboBox = new javax.swing.JComboBox<>();
+        searchIndexingCheckBox = new javax.swing.JCheckBox();
 
         fileHandlingModeLabel.setText(resourceBundle.getString("fileHandlingModeLabel.text")); // NOI18N
 
@@ -100,6 +103,8 @@ public class EditorOptionsPanel extends javax.swing.JPanel implements SettingsCo
 
         tabKeyHandlingModeLabel.setText(resourceBundle.getString("tabKeyHandlingModeLabel.text")); // NOI18N
 
+        searchIndexingCheckBox.setText(resourceBundle.getString("searchIndexingCheckBox.text")); // NOI18N
+
         javax.swing.GroupLayout layout = new javax.swing.GroupLayout(this);
         this.setLayout(layout);
         layout.setHorizontalGroup(
@@ -114,7 +119,8 @@ public class EditorOptionsPanel extends javax.swing.JPanel implements SettingsCo
                         .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
                             .addComponent(fileHandlingModeLabel)
                             .addComponent(enterKeyHandlingModeLabel)
-                            .addComponent(tabKeyHandlingModeLabel))
+                            .addComponent(tabKeyHandlingModeLabel)
+                            .addComponent(searchIndexingCheckBox))
                         .addGap(0, 0, Short.MAX_VALUE)))
                 .addContainerGap())
         );
@@ -133,6 +139,8 @@ public class EditorOptionsPanel extends javax.swing.JPanel implements SettingsCo
                 .addComponent(tabKeyHandlingModeLabel)
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                 .addComponent(tabKeyHandlingModeComboBox, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                .addComponent(searchIndexingCheckBox)
                 .addContainerGap(javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
         );
     }// </editor-fold>//GEN-END:initComponents
@@ -151,6 +159,7 @@ public class EditorOptionsPanel extends javax.swing.JPanel implements SettingsCo
     private javax.swing.JLabel enterKeyHandlingModeLabel;
     private javax.swing.JComboBox<String> fileHandlingModeComboBox;
     private javax.swing.JLabel fileHandlingModeLabel;
+    private javax.swing.JCheckBox searchIndexingCheckBox;
     private javax.swing.JComboBox<String> tabKeyHandlingModeComboBox;
     private javax.swing.JLabel tabKeyHandlingModeLabel;
     // End of variables declaration//GEN-END:variables
@@ -33,6 +33,7 @@ public class EditorOptionsImpl implements OptionsData, EditorOptions {
     private FileHandlingMode fileHandlingMode = FileHandlingMode.DELTA;
     private EnterKeyHandlingMode enterKeyHandlingMode = EnterKeyHandlingMode.PLATFORM_SPECIFIC;
     private TabKeyHandlingMode tabKeyHandlingMode = TabKeyHandlingMode.PLATFORM_SPECIFIC;
+    private boolean searchIndexing = false;
 
     @Nonnull
     @Override
@@ -67,21 +68,34 @@ public class EditorOptionsImpl implements OptionsData, EditorOptions {
         this.tabKeyHandlingMode = tabKeyHandlingMode;
     }
 
+    @Override
+    public boolean isSearchIndexing() {
+        return searchIndexing;
+    }
+
+    @Override
+    public void setSearchIndexing(boolean searchIndexing) {
+        this.searchIndexing = searchIndexing;
+    }
+
     public void loadFromPreferences(EditorPreferences preferences) {
         fileHandlingMode = preferences.getFileHandlingMode();
         enterKeyHandlingMode = preferences.getEnterKeyHandlingMode();
         tabKeyHandlingMode = preferences.getTabKeyHandlingMode();
+        searchIndexing = preferences.isSearchIndexing();
     }
 
     public void saveToPreferences(EditorPreferences preferences) {
         preferences.setFileHandlingMode(fileHandlingMode);
         preferences.setEnterKeyHandlingMode(enterKeyHandlingMode);
         preferences.setTabKeyHandlingMode(tabKeyHandlingMode);
+        preferences.setSearchIndexing(searchIndexing);
     }
 
     public void setOptions(EditorOptionsImpl editorOptions) {
         fileHandlingMode = editorOptions.fileHandlingMode;
         enterKeyHandlingMode = editorOptions.enterKeyHandlingMode;
         tabKeyHandlingMode = editorOptions.tabKeyHandlingMode;
+        searchIndexing = editorOptions.searchIndexing;
     }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.overview;
+
+import java.awt.BorderLayout;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.swing.JPanel;
+import org.exbin.bined.swing.extended.ExtCodeArea;
+import org.exbin.framework.api.XBApplication;
+import org.exbin.framework.bined.gui.BinEdComponentPanel;
+import org.exbin.framework.bined.overview.gui.DataOverviewPanel;
+import org.exbin.framework.bined.preferences.BinaryEditorPreferences;
+
+/**
+ * BinEd component data overview strip.
+ */
+@ParametersAreNonnullByDefault
+public class BinEdComponentOverview implements BinEdComponentPanel.BinEdComponentExtension {
+
+    private BinEdComponentPanel componentPanel;
+    private DataOverview dataOverview;
+    private DataOverviewPanel overviewPanel;
+    private JPanel codeAreaPanel;
+    private boolean overviewVisible = false;
+
+    @Override
+    public void onCreate(BinEdComponentPanel componentPanel) {
+        this.componentPanel = componentPanel;
+        ExtCodeArea codeArea = componentPanel.getCodeArea();
+
+        dataOverview = new DataOverview(codeArea);
+        overviewPanel = new DataOverviewPanel();
+        overviewPanel.setModel(dataOverview.getModel());
+        overviewPanel.setPosition(codeArea.getDataPosition());
+        overviewPanel.setControl((long position) -> {
+            codeArea.setCaretPosition(position);
+            codeArea.centerOnCursor();
+        });
+        dataOverview.setUpdateListener(new DataOverview.UpdateListener() {
+            @Override
+            public void modelUpdated() {
+                overviewPanel.modelUpdated();
+            }
+
+            @Override
+            public void blocksUpdated(int[] blocks) {
+                overviewPanel.blocksUpdated(blocks);
+            }
+        });
+        codeArea.addCaretMovedListener(caretPosition -> overviewPanel.setPosition(caretPosition.getDataPosition()));
+
+        // Overview is placed next to code area, independently of other extensions
+        componentPanel.remove(codeArea);
+        codeAreaPanel = new JPanel(new BorderLayout());
+        codeAreaPanel.add(codeArea, BorderLayout.CENTER);
+        componentPanel.add(codeAreaPanel, BorderLayout.CENTER);
+    }
+
+    @Override
+    public void setApplication(XBApplication application) {
+    }
+
+    @Override
+    public void onInitFromPreferences(BinaryEditorPreferences preferences) {
+        setShowOverview(preferences.getDataOverviewPreferences().isShowDataOverview());
+    }
+
+    @Override
+    public void onDataChange() {
+    }
+
+    @Override
+    public void onUndoHandlerChange() {
+    }
+
+    @Override
+    public void onClose() {
+        dataOverview.dispose();
+    }
+
+    public void setShowOverview(boolean show) {
+        if (overviewVisible != show) {
+            if (show) {
+                codeAreaPanel.add(overviewPanel, BorderLayout.EAST);
+            } else {
+                codeAreaPanel.remove(overviewPanel);
+            }
+            codeAreaPanel.revalidate();
+            overviewVisible = show;
+            dataOverview.setEnabled(show);
+        }
+    }
+
+    public boolean isShowOverview() {
+        return overviewVisible;
+    }
+
+    @Nonnull
+    public DataOverview getDataOverview() {
+        return dataOverview;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.overview;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.swing.SwingUtilities;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.bined.DataChangedListener;
+import org.exbin.bined.swing.extended.ExtCodeArea;
+import org.exbin.framework.bined.DataEditTracker;
+import org.exbin.framework.bined.SynchronizedBinaryData;
+
+/**
+ * Data overview computing statistics of blocks of code area data.
+ * <p>
+ * Dirty blocks are computed in batches by background worker, which reads
+ * data through synchronized wrapper. Data are edited in event dispatch
+ * thread, so results of batch are discarded if data were changed while the
+ * batch was computed.
+ */
+@ParametersAreNonnullByDefault
+public class DataOverview {
+
+    private static final int BATCH_DATA_SIZE = 1024 * 1024;
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Data overview worker");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private final ExtCodeArea codeArea;
+    private final DataOverviewModel model = new DataOverviewModel();
+    private final DataEditTracker editTracker;
+    private final DataChangedListener dataChangedListener = this::dataChanged;
+    private UpdateListener updateListener = null;
+    private volatile long dataChangesCount = 0;
+    private boolean computing = false;
+    private boolean enabled = false;
+
+    public DataOverview(ExtCodeArea codeArea) {
+        this.codeArea = codeArea;
+        editTracker = new DataEditTracker(codeArea);
+        model.reset(codeArea.getDataSize());
+        codeArea.addDataChangedListener(dataChangedListener);
+    }
+
+    @Nonnull
+    public DataOverviewModel getModel() {
+        return model;
+    }
+
+    public void setUpdateListener(@Nullable UpdateListener updateListener) {
+        this.updateListener = updateListener;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables computation of statistics.
+     *
+     * @param enabled true to compute dirty blocks
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (enabled) {
+            scheduleComputation();
+        }
+    }
+
+    /**
+     * Stops computation and releases code area.
+     */
+    public void dispose() {
+        enabled = false;
+        codeArea.removeDataChangedListener(dataChangedListener);
+    }
+
+    private void dataChanged() {
+        DataEditTracker.DataEdit edit = editTracker.dataChanged();
+        dataChangesCount++;
+        long dataSize = codeArea.getDataSize();
+        if (edit == null) {
+            model.reset(dataSize);
+        } else {
+            model.dataEdited(edit, dataSize);
+        }
+        notifyUpdated();
+        scheduleComputation();
+    }
+
+    private void scheduleComputation() {
+        if (computing || !enabled) {
+            return;
+        }
+
+        int blockSize = model.getBlockSize();
+        int batchBlocksCount = Math.max(1, BATCH_DATA_SIZE / blockSize);
+        int[] blocks = new int[batchBlocksCount];
+        int blocksCount = 0;
+        int block = model.nextDirtyBlock(0);
+        while (block >= 0 && blocksCount < batchBlocksCount) {
+            blocks[blocksCount++] = block;
+            block = model.nextDirtyBlock(block + 1);
+        }
+        if (blocksCount == 0) {
+            return;
+        }
+
+        computing = true;
+        int[] batchBlocks = Arrays.copyOf(blocks, blocksCount);
+        BinaryData data = new SynchronizedBinaryData(codeArea.getContentData());
+        long batchDataChangesCount = dataChangesCount;
+        EXECUTOR.execute(() -> {
+            byte[] statistics = computeStatistics(data, blockSize, batchBlocks, batchDataChangesCount);
+            SwingUtilities.invokeLater(() -> {
+                computing = false;
+                if (statistics != null && dataChangesCount == batchDataChangesCount) {
+                    model.setStatistics(batchBlocks, statistics);
+                    if (updateListener != null) {
+                        updateListener.blocksUpdated(batchBlocks);
+                    }
+                }
+                scheduleComputation();
+            });
+        });
+    }
+
+    /**
+     * Computes statistics of blocks in background thread.
+     *
+     * @return statistics or null if data were changed meanwhile
+     */
+    @Nullable
+    private byte[] computeStatistics(BinaryData data, int blockSize, int[] blocks, long batchDataChangesCount) {
+        long dataSize = data.getDataSize();
+        byte[] statistics = new byte[blocks.length * DataOverviewModel.STATISTICS_LENGTH];
+        byte[] blockData = new byte[blockSize];
+        int[] histogram = new int[256];
+        try {
+            for (int i = 0; i < blocks.length; i++) {
+                if (dataChangesCount != batchDataChangesCount) {
+                    return null;
+                }
+
+                long blockPosition = (long) blocks[i] * blockSize;
+                int blockLength = (int) Math.min(blockSize, dataSize - blockPosition);
+                data.copyToArray(blockPosition, blockData, 0, blockLength);
+                DataOverviewModel.computeStatistics(blockData, blockLength, histogram, statistics, i * DataOverviewModel.STATISTICS_LENGTH);
+            }
+        } catch (RuntimeException ex) {
+            if (dataChangesCount == batchDataChangesCount) {
+                throw ex;
+            }
+            // Data were modified during read
+            return null;
+        }
+        return statistics;
+    }
+
+    private void notifyUpdated() {
+        if (updateListener != null) {
+            updateListener.modelUpdated();
+        }
+    }
+
+    /**
+     * Listener for updates of overview model.
+     */
+    public interface UpdateListener {
+
+        /**
+         * Reports change of whole model.
+         */
+        void modelUpdated();
+
+        /**
+         * Reports computed statistics of blocks.
+         *
+         * @param blocks block indexes
+         */
+        void blocksUpdated(int[] blocks);
+    }
+}
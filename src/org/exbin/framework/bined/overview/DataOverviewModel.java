@@ -0,0 +1,250 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.overview;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.exbin.framework.bined.ByteClassColorType;
+import org.exbin.framework.bined.DataEditTracker;
+
+/**
+ * Statistics of fixed size blocks of data for data overview.
+ * <p>
+ * For each block entropy and densities of byte classes are stored, scaled
+ * to byte values. Blocks are marked dirty until their statistics are
+ * computed. Model is expected to be accessed from event dispatch thread
+ * only.
+ */
+@ParametersAreNonnullByDefault
+public class DataOverviewModel {
+
+    public static final int MINIMUM_BLOCK_SIZE = 64 * 1024;
+    public static final int MAXIMUM_BLOCKS_COUNT = 1 << 20;
+    public static final int CLASSES_COUNT = ByteClassColorType.values().length;
+    /**
+     * Length of statistics record of single block: entropy followed by
+     * densities of byte classes.
+     */
+    public static final int STATISTICS_LENGTH = 1 + CLASSES_COUNT;
+
+    private static final int MAXIMUM_VALUE = 255;
+    private static final int[] VALUE_CLASSES = new int[256];
+
+    static {
+        for (int value = 0; value < VALUE_CLASSES.length; value++) {
+            VALUE_CLASSES[value] = ByteClassColorType.forValue(value).ordinal();
+        }
+    }
+
+    private long dataSize = 0;
+    private int blockSize = MINIMUM_BLOCK_SIZE;
+    private int blocksCount = 0;
+    private byte[] statistics = new byte[0];
+    private BitSet dirtyBlocks = new BitSet();
+
+    public long getDataSize() {
+        return dataSize;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public int getBlocksCount() {
+        return blocksCount;
+    }
+
+    public boolean isBlockComputed(int block) {
+        return !dirtyBlocks.get(block);
+    }
+
+    /**
+     * Returns entropy of block.
+     *
+     * @param block block index
+     * @return entropy in range 0 to 1
+     */
+    public float getEntropy(int block) {
+        return (statistics[block * STATISTICS_LENGTH] & 0xff) / (float) MAXIMUM_VALUE;
+    }
+
+    /**
+     * Returns density of byte class in block.
+     *
+     * @param block block index
+     * @param colorType byte class
+     * @return density in range 0 to 1
+     */
+    public float getClassDensity(int block, ByteClassColorType colorType) {
+        return (statistics[block * STATISTICS_LENGTH + 1 + colorType.ordinal()] & 0xff) / (float) MAXIMUM_VALUE;
+    }
+
+    /**
+     * Returns index of the first dirty block at or after given block.
+     *
+     * @param fromBlock block index
+     * @return block index or -1 if there is no dirty block
+     */
+    public int nextDirtyBlock(int fromBlock) {
+        int block = dirtyBlocks.nextSetBit(fromBlock);
+        return block < blocksCount ? block : -1;
+    }
+
+    /**
+     * Resets model to data of given size with all blocks dirty.
+     *
+     * @param dataSize data size
+     */
+    public void reset(long dataSize) {
+        this.dataSize = dataSize;
+        blockSize = computeBlockSize(dataSize);
+        blocksCount = computeBlocksCount(dataSize, blockSize);
+        statistics = new byte[blocksCount * STATISTICS_LENGTH];
+        dirtyBlocks = new BitSet(blocksCount);
+        dirtyBlocks.set(0, blocksCount);
+    }
+
+    /**
+     * Updates model after edit of data.
+     * <p>
+     * Blocks touched by edit are marked dirty. Statistics of blocks after
+     * edited range are moved in place by the count of whole blocks closest to
+     * the change of data size, so their boundaries can differ from computed
+     * range by less than one block, which is below resolution of overview.
+     *
+     * @param edit performed edit
+     * @param dataSize data size after edit
+     */
+    public void dataEdited(DataEditTracker.DataEdit edit, long dataSize) {
+        if (computeBlockSize(dataSize) != blockSize) {
+            reset(dataSize);
+            return;
+        }
+
+        long sizeDifference = edit.getInsertedLength() - edit.getRemovedLength();
+        int firstBlock = (int) (edit.getPosition() / blockSize);
+        int lastRemovedBlock = (int) ((edit.getPosition() + Math.max(edit.getRemovedLength(), 1) - 1) / blockSize);
+        int lastInsertedBlock = (int) ((edit.getPosition() + Math.max(edit.getInsertedLength(), 1) - 1) / blockSize);
+        int blocksShift = (int) Math.round(sizeDifference / (double) blockSize);
+
+        int newBlocksCount = computeBlocksCount(dataSize, blockSize);
+        ensureCapacity(newBlocksCount);
+        if (sizeDifference == 0) {
+            markDirty(firstBlock, lastRemovedBlock + 1);
+        } else {
+            int fromBlock = Math.max(lastRemovedBlock + 1, lastInsertedBlock + 1 - blocksShift);
+            int targetBlock = fromBlock + blocksShift;
+            // Last blocks can be partial when data size changes
+            int movedBlocks = Math.max(Math.min(blocksCount - 1 - fromBlock, newBlocksCount - 1 - targetBlock), 0);
+            moveBlocks(fromBlock, targetBlock, movedBlocks);
+            markDirty(Math.min(firstBlock, newBlocksCount), targetBlock);
+            markDirty(targetBlock + movedBlocks, newBlocksCount);
+        }
+
+        this.dataSize = dataSize;
+        blocksCount = newBlocksCount;
+    }
+
+    /**
+     * Stores computed statistics of blocks.
+     *
+     * @param blocks block indexes
+     * @param blocksStatistics statistics records of blocks in the same order
+     */
+    public void setStatistics(int[] blocks, byte[] blocksStatistics) {
+        for (int i = 0; i < blocks.length; i++) {
+            int block = blocks[i];
+            if (block < blocksCount) {
+                System.arraycopy(blocksStatistics, i * STATISTICS_LENGTH, statistics, block * STATISTICS_LENGTH, STATISTICS_LENGTH);
+                dirtyBlocks.clear(block);
+            }
+        }
+    }
+
+    /**
+     * Computes statistics record of block data.
+     *
+     * @param data block data
+     * @param length length of block data
+     * @param histogram histogram buffer of 256 counters
+     * @param target target for statistics record
+     * @param offset offset in target
+     */
+    public static void computeStatistics(byte[] data, int length, int[] histogram, byte[] target, int offset) {
+        Arrays.fill(histogram, 0);
+        for (int i = 0; i < length; i++) {
+            histogram[data[i] & 0xff]++;
+        }
+
+        int[] classCounts = new int[CLASSES_COUNT];
+        double entropy = 0;
+        for (int value = 0; value < histogram.length; value++) {
+            int count = histogram[value];
+            if (count > 0) {
+                double probability = count / (double) length;
+                entropy -= probability * Math.log(probability);
+                classCounts[VALUE_CLASSES[value]] += count;
+            }
+        }
+
+        entropy = entropy / Math.log(256);
+        target[offset] = (byte) Math.round(Math.min(entropy, 1) * MAXIMUM_VALUE);
+        for (int classIndex = 0; classIndex < CLASSES_COUNT; classIndex++) {
+            target[offset + 1 + classIndex] = length == 0 ? 0 : (byte) Math.round(classCounts[classIndex] * (double) MAXIMUM_VALUE / length);
+        }
+    }
+
+    private void ensureCapacity(int requiredBlocksCount) {
+        if (statistics.length < requiredBlocksCount * STATISTICS_LENGTH) {
+            // Spare capacity for data growing by further edits
+            int capacity = requiredBlocksCount + requiredBlocksCount / 8 + 1;
+            statistics = Arrays.copyOf(statistics, capacity * STATISTICS_LENGTH);
+        }
+    }
+
+    private void moveBlocks(int fromBlock, int targetBlock, int count) {
+        if (count == 0 || fromBlock == targetBlock) {
+            return;
+        }
+
+        System.arraycopy(statistics, fromBlock * STATISTICS_LENGTH, statistics, targetBlock * STATISTICS_LENGTH, count * STATISTICS_LENGTH);
+        // Dirty state is moved in direction which doesn't overwrite unmoved blocks
+        boolean forward = targetBlock < fromBlock;
+        for (int i = 0; i < count; i++) {
+            int offset = forward ? i : count - 1 - i;
+            dirtyBlocks.set(targetBlock + offset, dirtyBlocks.get(fromBlock + offset));
+        }
+    }
+
+    private void markDirty(int fromBlock, int toBlock) {
+        if (fromBlock < toBlock) {
+            dirtyBlocks.set(fromBlock, toBlock);
+        }
+    }
+
+    private static int computeBlockSize(long dataSize) {
+        int size = MINIMUM_BLOCK_SIZE;
+        while (dataSize / size >= MAXIMUM_BLOCKS_COUNT) {
+            size *= 2;
+        }
+        return size;
+    }
+
+    private static int computeBlocksCount(long dataSize, int blockSize) {
+        return (int) ((dataSize + blockSize - 1) / blockSize);
+    }
+}
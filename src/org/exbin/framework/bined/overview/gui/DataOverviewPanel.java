@@ -0,0 +1,301 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.overview.gui;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.ResourceBundle;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.swing.ButtonGroup;
+import javax.swing.JComponent;
+import javax.swing.JPopupMenu;
+import javax.swing.JRadioButtonMenuItem;
+import javax.swing.SwingUtilities;
+import org.exbin.framework.bined.ByteClassColorType;
+import org.exbin.framework.bined.overview.DataOverviewModel;
+import org.exbin.framework.utils.LanguageUtils;
+
+/**
+ * Vertical strip showing overview of whole data.
+ * <p>
+ * Each pixel row shows average entropy or byte classes density of blocks it
+ * covers. Rendered strip is cached as image, only rows covering updated
+ * blocks are rendered again when statistics of blocks are computed.
+ */
+@ParametersAreNonnullByDefault
+public class DataOverviewPanel extends JComponent {
+
+    private static final long serialVersionUID = 1L;
+    private static final int STRIP_WIDTH = 16;
+    private static final Color UNCOMPUTED_COLOR = new Color(128, 128, 128);
+    private static final Color POSITION_COLOR = Color.RED;
+    private static final Color[] CLASS_COLORS = new Color[DataOverviewModel.CLASSES_COUNT];
+
+    static {
+        CLASS_COLORS[ByteClassColorType.ZERO_COLOR.ordinal()] = new Color(32, 32, 32);
+        CLASS_COLORS[ByteClassColorType.PRINTABLE_COLOR.ordinal()] = new Color(64, 128, 255);
+        CLASS_COLORS[ByteClassColorType.WHITESPACE_COLOR.ordinal()] = new Color(128, 224, 255);
+        CLASS_COLORS[ByteClassColorType.CONTROL_COLOR.ordinal()] = new Color(64, 192, 64);
+        CLASS_COLORS[ByteClassColorType.HIGH_BIT_COLOR.ordinal()] = new Color(255, 160, 32);
+        CLASS_COLORS[ByteClassColorType.FF_COLOR.ordinal()] = new Color(255, 255, 255);
+    }
+
+    private final ResourceBundle resourceBundle = LanguageUtils.getResourceBundleByClass(DataOverviewPanel.class);
+
+    private DataOverviewModel model = null;
+    private Control control = null;
+    private OverviewMode overviewMode = OverviewMode.ENTROPY;
+    private long position = -1;
+    private BufferedImage stripImage = null;
+
+    public DataOverviewPanel() {
+        init();
+    }
+
+    private void init() {
+        setPreferredSize(new Dimension(STRIP_WIDTH, 0));
+        setToolTipText(resourceBundle.getString("overview.toolTipText"));
+
+        MouseAdapter mouseAdapter = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                if (SwingUtilities.isLeftMouseButton(e)) {
+                    goToPoint(e.getY());
+                }
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (SwingUtilities.isLeftMouseButton(e)) {
+                    goToPoint(e.getY());
+                }
+            }
+        };
+        addMouseListener(mouseAdapter);
+        addMouseMotionListener(mouseAdapter);
+
+        JPopupMenu popupMenu = new JPopupMenu();
+        ButtonGroup modeButtonGroup = new ButtonGroup();
+        for (OverviewMode mode : OverviewMode.values()) {
+            JRadioButtonMenuItem modeMenuItem = new JRadioButtonMenuItem(resourceBundle.getString(mode.getResourceKey()));
+            modeMenuItem.setSelected(mode == overviewMode);
+            modeMenuItem.addActionListener(e -> setOverviewMode(mode));
+            modeButtonGroup.add(modeMenuItem);
+            popupMenu.add(modeMenuItem);
+        }
+        setComponentPopupMenu(popupMenu);
+    }
+
+    public void setModel(@Nullable DataOverviewModel model) {
+        this.model = model;
+        modelUpdated();
+    }
+
+    public void setControl(Control control) {
+        this.control = control;
+    }
+
+    @Nonnull
+    public OverviewMode getOverviewMode() {
+        return overviewMode;
+    }
+
+    public void setOverviewMode(OverviewMode overviewMode) {
+        this.overviewMode = overviewMode;
+        modelUpdated();
+    }
+
+    /**
+     * Sets position marked in overview.
+     *
+     * @param position data position or -1 for none
+     */
+    public void setPosition(long position) {
+        if (this.position != position) {
+            this.position = position;
+            repaint();
+        }
+    }
+
+    /**
+     * Invalidates rendered strip.
+     */
+    public void modelUpdated() {
+        stripImage = null;
+        repaint();
+    }
+
+    /**
+     * Renders again rows of cached strip covering given blocks.
+     *
+     * @param blocks updated block indexes
+     */
+    public void blocksUpdated(int[] blocks) {
+        int blocksCount = model == null ? 0 : model.getBlocksCount();
+        if (stripImage == null || blocksCount == 0 || blocks.length == 0) {
+            repaint();
+            return;
+        }
+
+        int height = stripImage.getHeight();
+        int fromY = height;
+        int toY = -1;
+        for (int block : blocks) {
+            // Neighbouring rows are included to cover rounding of row ranges
+            fromY = Math.min(fromY, Math.max(0, (int) ((long) block * height / blocksCount) - 1));
+            toY = Math.max(toY, Math.min(height - 1, (int) ((long) (block + 1) * height / blocksCount) + 1));
+        }
+        Graphics g = stripImage.getGraphics();
+        renderRows(g, fromY, toY, stripImage.getWidth(), height, blocksCount);
+        g.dispose();
+        repaint(0, fromY, getWidth(), toY - fromY + 1);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+
+        if (stripImage == null || stripImage.getWidth() != width || stripImage.getHeight() != height) {
+            stripImage = renderStrip(width, height);
+        }
+        g.drawImage(stripImage, 0, 0, null);
+
+        if (model != null && position >= 0 && model.getDataSize() > 0) {
+            int y = (int) (position * height / model.getDataSize());
+            g.setColor(POSITION_COLOR);
+            g.fillRect(0, Math.min(y, height - 2), width, 2);
+        }
+    }
+
+    @Nonnull
+    private BufferedImage renderStrip(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics g = image.getGraphics();
+        g.setColor(getBackground() != null ? getBackground() : UNCOMPUTED_COLOR);
+        g.fillRect(0, 0, width, height);
+        int blocksCount = model == null ? 0 : model.getBlocksCount();
+        if (blocksCount == 0) {
+            g.dispose();
+            return image;
+        }
+
+        renderRows(g, 0, height - 1, width, height, blocksCount);
+        g.dispose();
+        return image;
+    }
+
+    private void renderRows(Graphics g, int fromY, int toY, int width, int height, int blocksCount) {
+        for (int y = fromY; y <= toY; y++) {
+            int fromBlock = (int) ((long) y * blocksCount / height);
+            int toBlock = Math.max(fromBlock + 1, (int) ((long) (y + 1) * blocksCount / height));
+            g.setColor(computeColor(fromBlock, toBlock));
+            g.drawLine(0, y, width - 1, y);
+        }
+    }
+
+    @Nonnull
+    private Color computeColor(int fromBlock, int toBlock) {
+        int computedCount = 0;
+        if (overviewMode == OverviewMode.ENTROPY) {
+            float entropy = 0;
+            for (int block = fromBlock; block < toBlock; block++) {
+                if (model.isBlockComputed(block)) {
+                    entropy += model.getEntropy(block);
+                    computedCount++;
+                }
+            }
+            if (computedCount == 0) {
+                return UNCOMPUTED_COLOR;
+            }
+
+            return getEntropyColor(entropy / computedCount);
+        }
+
+        float red = 0;
+        float green = 0;
+        float blue = 0;
+        ByteClassColorType[] colorTypes = ByteClassColorType.values();
+        for (int block = fromBlock; block < toBlock; block++) {
+            if (model.isBlockComputed(block)) {
+                for (ByteClassColorType colorType : colorTypes) {
+                    float density = model.getClassDensity(block, colorType);
+                    Color classColor = CLASS_COLORS[colorType.ordinal()];
+                    red += classColor.getRed() * density;
+                    green += classColor.getGreen() * density;
+                    blue += classColor.getBlue() * density;
+                }
+                computedCount++;
+            }
+        }
+        if (computedCount == 0) {
+            return UNCOMPUTED_COLOR;
+        }
+
+        return new Color(Math.min(255, (int) (red / computedCount)), Math.min(255, (int) (green / computedCount)), Math.min(255, (int) (blue / computedCount)));
+    }
+
+    /**
+     * Returns color for entropy going from dark blue for low entropy over
+     * green to red for random data.
+     */
+    @Nonnull
+    private static Color getEntropyColor(float entropy) {
+        float hue = (1 - entropy) * 0.66f;
+        float brightness = 0.25f + entropy * 0.75f;
+        return Color.getHSBColor(hue, 0.9f, brightness);
+    }
+
+    private void goToPoint(int y) {
+        if (control == null || model == null || model.getDataSize() == 0) {
+            return;
+        }
+
+        int height = getHeight();
+        long dataPosition = (long) (Math.max(0, Math.min(y, height - 1)) / (double) height * model.getDataSize());
+        control.goToPosition(dataPosition);
+    }
+
+    public enum OverviewMode {
+        ENTROPY("overviewMode.entropy"),
+        BYTE_CLASSES("overviewMode.byteClasses");
+
+        private final String resourceKey;
+
+        private OverviewMode(String resourceKey) {
+            this.resourceKey = resourceKey;
+        }
+
+        @Nonnull
+        private String getResourceKey() {
+            return resourceKey;
+        }
+    }
+
+    public interface Control {
+
+        void goToPosition(long position);
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.overview.preferences;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.exbin.framework.api.Preferences;
+
+/**
+ * Data overview preferences.
+ */
+@ParametersAreNonnullByDefault
+public class DataOverviewPreferences {
+
+    public static final String PREFERENCES_SHOW_DATA_OVERVIEW = "showDataOverview";
+
+    private final Preferences preferences;
+
+    public DataOverviewPreferences(Preferences preferences) {
+        this.preferences = preferences;
+    }
+
+    /**
+     * Returns true if data overview should be shown.
+     * <p>
+     * Overview is hidden by default as it scans whole data in background.
+     *
+     * @return true to show overview
+     */
+    public boolean isShowDataOverview() {
+        return preferences.getBoolean(PREFERENCES_SHOW_DATA_OVERVIEW, false);
+    }
+
+    public void setShowDataOverview(boolean show) {
+        preferences.putBoolean(PREFERENCES_SHOW_DATA_OVERVIEW, show);
+    }
+}
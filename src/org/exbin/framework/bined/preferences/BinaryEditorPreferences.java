@@ -29,6 +29,7 @@ import org.exbin.bined.swing.extended.layout.ExtendedCodeAreaDecorations;
 import org.exbin.bined.swing.extended.theme.ExtendedCodeAreaThemeProfile;
 import org.exbin.framework.bined.FileHandlingMode;
 import org.exbin.framework.bined.inspector.preferences.DataInspectorPreferences;
+import org.exbin.framework.bined.overview.preferences.DataOverviewPreferences;
 import org.exbin.framework.editor.text.preferences.TextEncodingPreferences;
 import org.exbin.framework.editor.text.preferences.TextFontPreferences;
 import org.exbin.xbup.core.util.StringUtils;
@@ -51,6 +52,7 @@ public class BinaryEditorPreferences {
     private final TextEncodingPreferences encodingPreferences;
     private final TextFontPreferences fontPreferences;
     private final DataInspectorPreferences dataInspectorPreferences;
+    private final DataOverviewPreferences dataOverviewPreferences;
     private final CodeAreaLayoutPreferences layoutPreferences;
     private final CodeAreaThemePreferences themePreferences;
     private final CodeAreaColorPreferences colorPreferences;
@@ -65,6 +67,7 @@ public class BinaryEditorPreferences {
         encodingPreferences = new TextEncodingPreferences(preferences);
         fontPreferences = new TextFontPreferences(preferences);
         dataInspectorPreferences = new DataInspectorPreferences(preferences);
+        dataOverviewPreferences = new DataOverviewPreferences(preferences);
         layoutPreferences = new CodeAreaLayoutPreferences(preferences);
         themePreferences = new CodeAreaThemePreferences(preferences);
         colorPreferences = new CodeAreaColorPreferences(preferences);
@@ -123,6 +126,11 @@ public class BinaryEditorPreferences {
         return dataInspectorPreferences;
     }
 
+    @Nonnull
+    public DataOverviewPreferences getDataOverviewPreferences() {
+        return dataOverviewPreferences;
+    }
+
     @Nonnull
     public CodeAreaLayoutPreferences getLayoutPreferences() {
         return layoutPreferences;
@@ -29,6 +29,7 @@ import org.exbin.bined.extended.color.CodeAreaUnprintablesColorType;
 import org.exbin.bined.highlight.swing.color.CodeAreaColorizationColorType;
 import org.exbin.bined.highlight.swing.color.CodeAreaMatchColorType;
 import org.exbin.bined.swing.extended.color.ExtendedCodeAreaColorProfile;
+import org.exbin.framework.bined.ByteClassColorType;
 import org.exbin.framework.bined.options.CodeAreaColorOptions;
 
 /**
@@ -67,6 +68,13 @@ public class CodeAreaColorPreferences implements CodeAreaColorOptions {
     public static final String UNPRINTABLES_COLOR = "unprintablesColor";
     public static final String UNPRINTABLES_BACKGROUND = "unprintablesBackground";
 
+    public static final String BYTE_CLASS_ZERO_COLOR = "byteClass.zeroColor";
+    public static final String BYTE_CLASS_PRINTABLE_COLOR = "byteClass.printableColor";
+    public static final String BYTE_CLASS_WHITESPACE_COLOR = "byteClass.whitespaceColor";
+    public static final String BYTE_CLASS_CONTROL_COLOR = "byteClass.controlColor";
+    public static final String BYTE_CLASS_HIGH_BIT_COLOR = "byteClass.highBitColor";
+    public static final String BYTE_CLASS_FF_COLOR = "byteClass.ffColor";
+
     private final Preferences preferences;
 
     public CodeAreaColorPreferences(Preferences preferences) {
@@ -136,6 +144,13 @@ public class CodeAreaColorPreferences implements CodeAreaColorOptions {
         colorProfile.setColor(CodeAreaUnprintablesColorType.UNPRINTABLES_COLOR, textAsColor(preferences.get(colorProfilePrefix + UNPRINTABLES_COLOR)));
         colorProfile.setColor(CodeAreaUnprintablesColorType.UNPRINTABLES_BACKGROUND, textAsColor(preferences.get(colorProfilePrefix + UNPRINTABLES_BACKGROUND)));
 
+        colorProfile.setColor(ByteClassColorType.ZERO_COLOR, textAsColor(preferences.get(colorProfilePrefix + BYTE_CLASS_ZERO_COLOR)));
+        colorProfile.setColor(ByteClassColorType.PRINTABLE_COLOR, textAsColor(preferences.get(colorProfilePrefix + BYTE_CLASS_PRINTABLE_COLOR)));
+        colorProfile.setColor(ByteClassColorType.WHITESPACE_COLOR, textAsColor(preferences.get(colorProfilePrefix + BYTE_CLASS_WHITESPACE_COLOR)));
+        colorProfile.setColor(ByteClassColorType.CONTROL_COLOR, textAsColor(preferences.get(colorProfilePrefix + BYTE_CLASS_CONTROL_COLOR)));
+        colorProfile.setColor(ByteClassColorType.HIGH_BIT_COLOR, textAsColor(preferences.get(colorProfilePrefix + BYTE_CLASS_HIGH_BIT_COLOR)));
+        colorProfile.setColor(ByteClassColorType.FF_COLOR, textAsColor(preferences.get(colorProfilePrefix + BYTE_CLASS_FF_COLOR)));
+
         return colorProfile;
     }
 
@@ -167,6 +182,13 @@ public class CodeAreaColorPreferences implements CodeAreaColorOptions {
 
         preferences.put(colorProfilePrefix + UNPRINTABLES_COLOR, colorAsText(colorProfile.getColor(CodeAreaUnprintablesColorType.UNPRINTABLES_COLOR)));
         preferences.put(colorProfilePrefix + UNPRINTABLES_BACKGROUND, colorAsText(colorProfile.getColor(CodeAreaUnprintablesColorType.UNPRINTABLES_BACKGROUND)));
+
+        preferences.put(colorProfilePrefix + BYTE_CLASS_ZERO_COLOR, colorAsText(colorProfile.getColor(ByteClassColorType.ZERO_COLOR)));
+        preferences.put(colorProfilePrefix + BYTE_CLASS_PRINTABLE_COLOR, colorAsText(colorProfile.getColor(ByteClassColorType.PRINTABLE_COLOR)));
+        preferences.put(colorProfilePrefix + BYTE_CLASS_WHITESPACE_COLOR, colorAsText(colorProfile.getColor(ByteClassColorType.WHITESPACE_COLOR)));
+        preferences.put(colorProfilePrefix + BYTE_CLASS_CONTROL_COLOR, colorAsText(colorProfile.getColor(ByteClassColorType.CONTROL_COLOR)));
+        preferences.put(colorProfilePrefix + BYTE_CLASS_HIGH_BIT_COLOR, colorAsText(colorProfile.getColor(ByteClassColorType.HIGH_BIT_COLOR)));
+        preferences.put(colorProfilePrefix + BYTE_CLASS_FF_COLOR, colorAsText(colorProfile.getColor(ByteClassColorType.FF_COLOR)));
     }
 
     @Override
@@ -197,6 +219,13 @@ public class CodeAreaColorPreferences implements CodeAreaColorOptions {
 
         preferences.remove(colorProfilePrefix + UNPRINTABLES_COLOR);
         preferences.remove(colorProfilePrefix + UNPRINTABLES_BACKGROUND);
+
+        preferences.remove(colorProfilePrefix + BYTE_CLASS_ZERO_COLOR);
+        preferences.remove(colorProfilePrefix + BYTE_CLASS_PRINTABLE_COLOR);
+        preferences.remove(colorProfilePrefix + BYTE_CLASS_WHITESPACE_COLOR);
+        preferences.remove(colorProfilePrefix + BYTE_CLASS_CONTROL_COLOR);
+        preferences.remove(colorProfilePrefix + BYTE_CLASS_HIGH_BIT_COLOR);
+        preferences.remove(colorProfilePrefix + BYTE_CLASS_FF_COLOR);
     }
 
     /**
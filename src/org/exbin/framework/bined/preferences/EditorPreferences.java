@@ -34,6 +34,7 @@ public class EditorPreferences implements EditorOptions {
     public static final String PREFERENCES_FILE_HANDLING_MODE = "fileHandlingMode";
     public static final String PREFERENCES_ENTER_KEY_HANDLING_MODE = "enterKeyHandlingMode";
     public static final String PREFERENCES_TAB_KEY_HANDLING_MODE = "tabKeyHandlingMode";
+    public static final String PREFERENCES_SEARCH_INDEXING = "searchIndexing";
 
     private final Preferences preferences;
 
@@ -89,4 +90,14 @@ public class EditorPreferences implements EditorOptions {
     public void setTabKeyHandlingMode(TabKeyHandlingMode tabKeyHandlingMode) {
         preferences.put(PREFERENCES_TAB_KEY_HANDLING_MODE, tabKeyHandlingMode.name());
     }
+
+    @Override
+    public boolean isSearchIndexing() {
+        return preferences.getBoolean(PREFERENCES_SEARCH_INDEXING, false);
+    }
+
+    @Override
+    public void setSearchIndexing(boolean searchIndexing) {
+        preferences.putBoolean(PREFERENCES_SEARCH_INDEXING, searchIndexing);
+    }
 }
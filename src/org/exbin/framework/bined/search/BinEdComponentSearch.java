@@ -17,6 +17,7 @@ package org.exbin.framework.bined.search;
 
 import java.awt.BorderLayout;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import org.exbin.bined.swing.extended.ExtCodeArea;
 import org.exbin.framework.api.XBApplication;
@@ -25,6 +26,7 @@ import org.exbin.framework.bined.gui.BinEdComponentPanel;
 import org.exbin.framework.bined.handler.CodeAreaPopupMenuHandler;
 import org.exbin.framework.bined.preferences.BinaryEditorPreferences;
 import org.exbin.framework.bined.search.gui.BinarySearchPanel;
+import org.exbin.framework.bined.search.index.SearchIndexCache;
 import org.exbin.framework.bined.search.service.BinarySearchService;
 import org.exbin.framework.bined.search.service.impl.BinarySearchServiceImpl;
 
@@ -36,7 +38,7 @@ public class BinEdComponentSearch implements BinEdComponentPanel.BinEdComponentE
 
     private BinEdComponentPanel componentPanel;
     private final BinarySearch binarySearch = new BinarySearch();
-    private BinarySearchService binarySearchService;
+    private BinarySearchServiceImpl binarySearchService;
     private boolean binarySearchPanelVisible = false;
     private XBApplication application;
 
@@ -67,6 +69,8 @@ public class BinEdComponentSearch implements BinEdComponentPanel.BinEdComponentE
 
     @Override
     public void onInitFromPreferences(BinaryEditorPreferences preferences) {
+        boolean searchIndexing = preferences.getEditorPreferences().isSearchIndexing();
+        binarySearchService.setSearchIndexCache(searchIndexing ? SearchIndexCache.getDefault() : null);
     }
 
     @Override
@@ -113,6 +117,10 @@ public class BinEdComponentSearch implements BinEdComponentPanel.BinEdComponentE
         binarySearch.getPanel().setCodeAreaPopupMenuHandler(codeAreaPopupMenuHandler);
     }
 
+    public void setBookmarkRangesProvider(@Nullable BinarySearch.SearchRangesProvider bookmarkRangesProvider) {
+        binarySearch.setBookmarkRangesProvider(bookmarkRangesProvider);
+    }
+
     @Override
     public void setApplication(XBApplication application) {
         this.application = application;
@@ -18,6 +18,7 @@ package org.exbin.framework.bined.search;
 import java.awt.Dialog;
 import java.awt.Dialog.ModalityType;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.ResourceBundle;
 
@@ -25,6 +26,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 
 import org.exbin.auxiliary.binary_data.ByteArrayEditableData;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
@@ -55,6 +57,8 @@ public class BinarySearch {
 
     private SearchOperation currentSearchOperation = SearchOperation.FIND;
     private SearchParameters.SearchDirection currentSearchDirection = SearchParameters.SearchDirection.FORWARD;
+    private SearchParameters.SearchScope currentSearchScope = SearchParameters.SearchScope.ALL;
+    private List<SearchRange> currentSearchRanges = Collections.emptyList();
     private final SearchParameters currentSearchParameters = new SearchParameters();
     private final ReplaceParameters currentReplaceParameters = new ReplaceParameters();
     private FoundMatches foundMatches = new FoundMatches();
@@ -64,6 +68,7 @@ public class BinarySearch {
 
     private CodeAreaPopupMenuHandler codeAreaPopupMenuHandler;
     private PanelClosingListener panelClosingListener = null;
+    private SearchRangesProvider bookmarkRangesProvider = null;
     private BinarySearchService binarySearchService;
     private final BinarySearchService.SearchStatusListener searchStatusListener;
     private final BinarySearchPanel binarySearchPanel = new BinarySearchPanel();
@@ -86,7 +91,7 @@ public class BinarySearch {
                         break;
                     default:
                         binarySearchPanel.setInfoLabel(
-                                java.text.MessageFormat.format(resourceBundle.getString("searchStatus.foundMatches"), foundMatches.getMatchPosition() + 1, foundMatches.getMatchesCount())
+                                java.text.MessageFormat.format(resourceBundle.getString(foundMatches.isTruncated() ? "searchStatus.tooManyMatches" : "searchStatus.foundMatches"), foundMatches.getMatchPosition() + 1, foundMatches.getMatchesCount())
                         );
                         break;
                 }
@@ -100,6 +105,35 @@ public class BinarySearch {
                 updateMatchStatus();
             }
 
+            @Override
+            public void setReplaceStatus(int replacedCount) {
+                binarySearchPanel.setInfoLabel(java.text.MessageFormat.format(resourceBundle.getString("replaceStatus.replaced"), replacedCount));
+                BinarySearch.this.foundMatches = new BinarySearchService.FoundMatches();
+                updateMatchStatus();
+            }
+
+            @Override
+            public void setReplaceAbortedStatus() {
+                binarySearchPanel.setInfoLabel(resourceBundle.getString("replaceStatus.aborted"));
+                BinarySearch.this.foundMatches = new BinarySearchService.FoundMatches();
+                updateMatchStatus();
+            }
+
+            @Override
+            public void setProgress(double progress) {
+                SwingUtilities.invokeLater(() -> {
+                    if (foundMatches.getMatchesCount() == 0) {
+                        binarySearchPanel.setInfoLabel(java.text.MessageFormat.format(resourceBundle.getString("searchStatus.searching"), (int) (progress * 100)));
+                    }
+                });
+            }
+
+            @Override
+            public boolean isCancelled() {
+                // Search thread is interrupted when search is cancelled or superseded
+                return Thread.currentThread().isInterrupted();
+            }
+
             private void updateMatchStatus() {
                 int matchesCount = foundMatches.getMatchesCount();
                 int matchPosition = foundMatches.getMatchPosition();
@@ -165,39 +199,34 @@ public class BinarySearch {
                 SearchCondition condition = currentSearchParameters.getCondition();
                 SearchCondition updatedSearchCondition = binarySearchPanel.getSearchParameters().getCondition();
 
-                switch (updatedSearchCondition.getSearchMode()) {
-                    case TEXT: {
-                        String searchText = updatedSearchCondition.getSearchText();
-                        if (searchText.isEmpty()) {
-                            condition.setSearchText(searchText);
-                            clearSearch();
-                            return;
-                        }
+                if (updatedSearchCondition.getSearchMode().isTextInput()) {
+                    String searchText = updatedSearchCondition.getSearchText();
+                    if (searchText.isEmpty()) {
+                        condition.setSearchText(searchText);
+                        clearSearch();
+                        return;
+                    }
 
-                        if (searchText.equals(condition.getSearchText())) {
-                            return;
-                        }
+                    if (searchText.equals(condition.getSearchText())) {
+                        return;
+                    }
 
-                        condition.setSearchText(searchText);
-                        break;
+                    condition.setSearchText(searchText);
+                } else {
+                    EditableBinaryData searchData = (EditableBinaryData) updatedSearchCondition.getBinaryData();
+                    if (searchData == null || searchData.isEmpty()) {
+                        condition.setBinaryData(null);
+                        clearSearch();
+                        return;
                     }
-                    case BINARY: {
-                        EditableBinaryData searchData = (EditableBinaryData) updatedSearchCondition.getBinaryData();
-                        if (searchData == null || searchData.isEmpty()) {
-                            condition.setBinaryData(null);
-                            clearSearch();
-                            return;
-                        }
-
-                        if (searchData.equals(condition.getBinaryData())) {
-                            return;
-                        }
-
-                        ByteArrayEditableData data = new ByteArrayEditableData();
-                        data.insert(0, searchData);
-                        condition.setBinaryData(data);
-                        break;
+
+                    if (searchData.equals(condition.getBinaryData())) {
+                        return;
                     }
+
+                    ByteArrayEditableData data = new ByteArrayEditableData();
+                    data.insert(0, searchData);
+                    condition.setBinaryData(data);
                 }
                 BinarySearch.this.invokeSearch(SearchOperation.FIND, DEFAULT_DELAY);
             }
@@ -221,6 +250,7 @@ public class BinarySearch {
                     public SearchCondition multilineEdit(SearchCondition condition) {
                         final BinaryMultilinePanel multilinePanel = new BinaryMultilinePanel();
                         multilinePanel.setCodeAreaPopupMenuHandler(codeAreaPopupMenuHandler);
+                        multilinePanel.setSearchHistory(searchHistory);
                         multilinePanel.setCondition(condition);
                         DefaultControlPanel controlPanel = new DefaultControlPanel();
                         JPanel dialogPanel = WindowUtils.createDialogPanel(multilinePanel, controlPanel);
@@ -253,6 +283,8 @@ public class BinarySearch {
                         SearchParameters dialogSearchParameters = findBinaryPanel.getSearchParameters();
                         dialogSearchParameters.setFromParameters(dialogSearchParameters);
                         currentSearchDirection = dialogSearchParameters.getSearchDirection();
+                        currentSearchScope = dialogSearchParameters.getSearchScope();
+                        currentSearchRanges = dialogSearchParameters.getSearchRanges();
 
                         ReplaceParameters dialogReplaceParameters = new ReplaceParameters();
                         dialogReplaceParameters.setFromParameters(findBinaryPanel.getReplaceParameters());
@@ -275,6 +307,8 @@ public class BinarySearch {
 
             @Override
             public void close() {
+                currentSearchScope = SearchParameters.SearchScope.ALL;
+                currentSearchRanges = Collections.emptyList();
                 if (panelClosingListener != null) {
                     clearSearch();
                     panelClosingListener.closed();
@@ -298,6 +332,10 @@ public class BinarySearch {
         this.panelClosingListener = panelClosingListener;
     }
 
+    public void setBookmarkRangesProvider(@Nullable SearchRangesProvider bookmarkRangesProvider) {
+        this.bookmarkRangesProvider = bookmarkRangesProvider;
+    }
+
     public void setCodeAreaPopupMenuHandler(CodeAreaPopupMenuHandler codeAreaPopupMenuHandler) {
         this.codeAreaPopupMenuHandler = codeAreaPopupMenuHandler;
         binarySearchPanel.setCodeAreaPopupMenuHandler(codeAreaPopupMenuHandler);
@@ -328,10 +366,29 @@ public class BinarySearch {
         invokeSearchThread.delay = delay;
         currentSearchOperation = searchOperation;
         currentSearchParameters.setFromParameters(searchParameters);
+        currentSearchParameters.setSearchScope(currentSearchScope);
+        currentSearchParameters.setSearchRanges(getScopeRanges());
         currentReplaceParameters.setFromParameters(replaceParameters);
         invokeSearchThread.start();
     }
 
+    /**
+     * Returns ranges of current search scope.
+     * <p>
+     * Selection is resolved by search service at time of search.
+     */
+    @Nonnull
+    private List<SearchRange> getScopeRanges() {
+        switch (currentSearchScope) {
+            case BOOKMARKS:
+                return bookmarkRangesProvider == null ? Collections.emptyList() : bookmarkRangesProvider.getSearchRanges();
+            case RANGE:
+                return currentSearchRanges;
+            default:
+                return Collections.emptyList();
+        }
+    }
+
     public void cancelSearch() {
         if (invokeSearchThread != null) {
             invokeSearchThread.interrupt();
@@ -400,6 +457,11 @@ public class BinarySearch {
                 case REPLACE:
                     binarySearchService.performReplace(currentSearchParameters, currentReplaceParameters);
                     break;
+                case REPLACE_ALL:
+                    // Replacement must not be repeated on data change
+                    currentSearchOperation = SearchOperation.FIND;
+                    binarySearchService.performReplaceAll(currentSearchParameters, currentReplaceParameters, searchStatusListener);
+                    break;
                 default:
                     throw new UnsupportedOperationException("Not supported yet.");
             }
@@ -411,6 +473,15 @@ public class BinarySearch {
         void closed();
     }
 
+    /**
+     * Provider of ranges to restrict search to.
+     */
+    public interface SearchRangesProvider {
+
+        @Nonnull
+        List<SearchRange> getSearchRanges();
+    }
+
     private enum SearchOperation {
         FIND,
         FIND_AGAIN,
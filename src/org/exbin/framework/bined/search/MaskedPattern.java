@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.search;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * Binary pattern with don't-care nibbles.
+ * <p>
+ * Pattern is written as hexadecimal digits where each nibble can be replaced
+ * by question mark, for example {@code 4D 5A ?? ?? 50 45} or {@code 0x?F}.
+ * Whitespace and {@code 0x} prefixes are ignored.
+ */
+@ParametersAreNonnullByDefault
+public class MaskedPattern {
+
+    public static final char WILDCARD_CHAR = '?';
+
+    private final byte[] values;
+    private final byte[] masks;
+
+    public MaskedPattern(byte[] values, byte[] masks) {
+        if (values.length != masks.length) {
+            throw new IllegalArgumentException("Values and masks must have the same length");
+        }
+        this.values = values;
+        this.masks = masks;
+    }
+
+    /**
+     * Parses pattern from its textual form.
+     *
+     * @param text pattern text
+     * @return masked pattern
+     * @throws IllegalArgumentException if text is not valid pattern
+     */
+    @Nonnull
+    public static MaskedPattern parse(String text) {
+        String digits = text.replaceAll("0[xX]", "").replaceAll("\\s", "");
+        if (digits.isEmpty() || digits.length() % 2 != 0) {
+            throw new IllegalArgumentException("Pattern must consist of whole bytes: " + text);
+        }
+
+        int length = digits.length() / 2;
+        byte[] values = new byte[length];
+        byte[] masks = new byte[length];
+        for (int i = 0; i < length; i++) {
+            int value = 0;
+            int mask = 0;
+            for (int nibble = 0; nibble < 2; nibble++) {
+                char digit = digits.charAt(i * 2 + nibble);
+                value <<= 4;
+                mask <<= 4;
+                if (digit != WILDCARD_CHAR) {
+                    int digitValue = Character.digit(digit, 16);
+                    if (digitValue < 0) {
+                        throw new IllegalArgumentException("Invalid pattern character '" + digit + "': " + text);
+                    }
+                    value |= digitValue;
+                    mask |= 0xf;
+                }
+            }
+            values[i] = (byte) value;
+            masks[i] = (byte) mask;
+        }
+
+        return new MaskedPattern(values, masks);
+    }
+
+    /**
+     * Returns true if given text is valid pattern.
+     *
+     * @param text pattern text
+     * @return true if valid
+     */
+    public static boolean isValid(String text) {
+        try {
+            parse(text);
+            return true;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    public int getLength() {
+        return values.length;
+    }
+
+    /**
+     * Returns pattern values with don't-care bits cleared.
+     *
+     * @return values
+     */
+    @Nonnull
+    public byte[] getValues() {
+        return values;
+    }
+
+    /**
+     * Returns masks with bits set for bits which have to match.
+     *
+     * @return masks
+     */
+    @Nonnull
+    public byte[] getMasks() {
+        return masks;
+    }
+
+    /**
+     * Returns true if every match of this pattern is also match of given
+     * pattern.
+     *
+     * @param pattern previous pattern
+     * @return true if this pattern is narrower
+     */
+    public boolean isRefinementOf(MaskedPattern pattern) {
+        if (values.length < pattern.values.length) {
+            return false;
+        }
+        for (int i = 0; i < pattern.values.length; i++) {
+            byte previousMask = pattern.masks[i];
+            if ((masks[i] & previousMask) != previousMask || (values[i] & previousMask) != pattern.values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean matches(int offset, byte value) {
+        return (value & masks[offset]) == values[offset];
+    }
+}
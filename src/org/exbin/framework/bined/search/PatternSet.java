@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.search;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.exbin.auxiliary.binary_data.BinaryData;
+
+/**
+ * Set of exact patterns searched for at once.
+ * <p>
+ * Patterns are written as hexadecimal bytes or as text in double quotes,
+ * separated by new lines or by vertical bar, for example
+ * {@code 4D 5A | "PK" | 7F 45 4C 46}. Lines starting with # are comments.
+ * Index of pattern is its order in the set.
+ */
+@ParametersAreNonnullByDefault
+public class PatternSet {
+
+    public static final char SEPARATOR_CHAR = '|';
+    public static final char QUOTE_CHAR = '"';
+    public static final char COMMENT_CHAR = '#';
+    private static final String SEPARATOR = " " + SEPARATOR_CHAR + " ";
+
+    private final List<byte[]> patterns;
+
+    public PatternSet(List<byte[]> patterns) {
+        this.patterns = Collections.unmodifiableList(patterns);
+    }
+
+    /**
+     * Parses pattern set from its textual form.
+     *
+     * @param text pattern set text
+     * @param charset charset for text patterns
+     * @return pattern set
+     * @throws IllegalArgumentException if text is not valid pattern set
+     */
+    @Nonnull
+    public static PatternSet parse(String text, Charset charset) {
+        List<byte[]> patterns = new ArrayList<>();
+        for (String entry : splitEntries(text)) {
+            byte[] pattern;
+            if (entry.charAt(0) == QUOTE_CHAR) {
+                if (entry.length() < 3 || entry.charAt(entry.length() - 1) != QUOTE_CHAR) {
+                    throw new IllegalArgumentException("Invalid text pattern: " + entry);
+                }
+                pattern = entry.substring(1, entry.length() - 1).getBytes(charset);
+            } else {
+                pattern = parseHex(entry);
+            }
+            patterns.add(pattern);
+        }
+
+        if (patterns.isEmpty()) {
+            throw new IllegalArgumentException("Pattern set is empty");
+        }
+        return new PatternSet(patterns);
+    }
+
+    /**
+     * Splits text to pattern entries ignoring comments and empty entries.
+     *
+     * @param text pattern set text
+     * @return list of entries
+     */
+    @Nonnull
+    public static List<String> splitEntries(String text) {
+        List<String> entries = new ArrayList<>();
+        StringBuilder entry = new StringBuilder();
+        boolean quoted = false;
+        boolean comment = false;
+        boolean lineBlank = true;
+        for (int i = 0; i <= text.length(); i++) {
+            char character = i < text.length() ? text.charAt(i) : '\n';
+            if (character == '\n' || character == '\r') {
+                quoted = false;
+                comment = false;
+                lineBlank = true;
+                addEntry(entries, entry);
+                continue;
+            }
+            if (comment) {
+                continue;
+            }
+
+            if (character == QUOTE_CHAR) {
+                quoted = !quoted;
+            } else if (!quoted) {
+                if (character == SEPARATOR_CHAR) {
+                    lineBlank = false;
+                    addEntry(entries, entry);
+                    continue;
+                }
+                if (character == COMMENT_CHAR && lineBlank) {
+                    comment = true;
+                    continue;
+                }
+            }
+            if (!Character.isWhitespace(character)) {
+                lineBlank = false;
+            }
+            entry.append(character);
+        }
+
+        return entries;
+    }
+
+    /**
+     * Creates pattern set text from exact search conditions.
+     * <p>
+     * Conditions which cannot be used as exact pattern are skipped.
+     *
+     * @param conditions search conditions, for example search history
+     * @return pattern set text
+     */
+    @Nonnull
+    public static String fromConditions(List<SearchCondition> conditions) {
+        Set<String> entries = new LinkedHashSet<>();
+        for (SearchCondition condition : conditions) {
+            switch (condition.getSearchMode()) {
+                case TEXT: {
+                    String text = condition.getSearchText();
+                    if (!text.isEmpty() && text.indexOf(QUOTE_CHAR) < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                        entries.add(QUOTE_CHAR + text + QUOTE_CHAR);
+                    }
+                    break;
+                }
+                case BINARY: {
+                    BinaryData data = condition.getBinaryData();
+                    if (data != null && !data.isEmpty()) {
+                        byte[] pattern = new byte[(int) data.getDataSize()];
+                        data.copyToArray(0, pattern, 0, pattern.length);
+                        entries.add(toHex(pattern));
+                    }
+                    break;
+                }
+                case PATTERN_SET: {
+                    entries.addAll(splitEntries(condition.getSearchText()));
+                    break;
+                }
+                default:
+                    // Other conditions are not exact patterns
+            }
+        }
+
+        return joinEntries(new ArrayList<>(entries));
+    }
+
+    /**
+     * Joins pattern entries to single line text.
+     *
+     * @param entries entries
+     * @return pattern set text
+     */
+    @Nonnull
+    public static String joinEntries(List<String> entries) {
+        return String.join(SEPARATOR, entries);
+    }
+
+    public int getPatternsCount() {
+        return patterns.size();
+    }
+
+    @Nonnull
+    public byte[] getPattern(int index) {
+        return patterns.get(index);
+    }
+
+    @Nonnull
+    public List<byte[]> getPatterns() {
+        return patterns;
+    }
+
+    private static void addEntry(List<String> entries, StringBuilder entry) {
+        String value = entry.toString().trim();
+        if (!value.isEmpty()) {
+            entries.add(value);
+        }
+        entry.setLength(0);
+    }
+
+    @Nonnull
+    private static byte[] parseHex(String entry) {
+        String digits = entry.replaceAll("0[xX]", "").replaceAll("\\s", "");
+        if (digits.isEmpty() || digits.length() % 2 != 0) {
+            throw new IllegalArgumentException("Pattern must consist of whole bytes: " + entry);
+        }
+
+        byte[] pattern = new byte[digits.length() / 2];
+        for (int i = 0; i < pattern.length; i++) {
+            int high = Character.digit(digits.charAt(i * 2), 16);
+            int low = Character.digit(digits.charAt(i * 2 + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new IllegalArgumentException("Invalid hexadecimal pattern: " + entry);
+            }
+            pattern[i] = (byte) ((high << 4) | low);
+        }
+        return pattern;
+    }
+
+    @Nonnull
+    private static String toHex(byte[] pattern) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < pattern.length; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            builder.append(Character.toUpperCase(Character.forDigit((pattern[i] >> 4) & 0xf, 16)));
+            builder.append(Character.toUpperCase(Character.forDigit(pattern[i] & 0xf, 16)));
+        }
+        return builder.toString();
+    }
+}
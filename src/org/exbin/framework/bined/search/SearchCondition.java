@@ -22,7 +22,6 @@ import javax.annotation.ParametersAreNonnullByDefault;
 import org.exbin.auxiliary.binary_data.BinaryData;
 import org.exbin.auxiliary.binary_data.ByteArrayEditableData;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
-import org.exbin.bined.CodeAreaUtils;
 
 /**
  * Parameters for action to search for occurrences of text or data.
@@ -79,15 +78,55 @@ public class SearchCondition {
     }
 
     public boolean isEmpty() {
+        if (searchMode.isTextInput()) {
+            return searchText == null || searchText.isEmpty();
+        }
+        return binaryData == null || binaryData.isEmpty();
+    }
+
+    /**
+     * Returns true if this condition extends given condition so that every
+     * match of this condition is also match of given condition.
+     * <p>
+     * It applies when text, data or masked pattern gets longer and previous
+     * one is its prefix.
+     *
+     * @param condition previous condition
+     * @return true if matches can be found by filtering previous matches
+     */
+    public boolean isRefinementOf(SearchCondition condition) {
+        if (searchMode != condition.searchMode || condition.isEmpty()) {
+            return false;
+        }
+
         switch (searchMode) {
-            case TEXT: {
-                return searchText == null || searchText.isEmpty();
-            }
+            case TEXT:
+                return searchText.startsWith(condition.searchText);
             case BINARY: {
-                return binaryData == null || binaryData.isEmpty();
+                long previousSize = condition.binaryData.getDataSize();
+                if (binaryData == null || binaryData.getDataSize() < previousSize) {
+                    return false;
+                }
+                for (long position = 0; position < previousSize; position++) {
+                    if (binaryData.getByte(position) != condition.binaryData.getByte(position)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            case MASKED: {
+                MaskedPattern pattern;
+                MaskedPattern previousPattern;
+                try {
+                    pattern = MaskedPattern.parse(searchText);
+                    previousPattern = MaskedPattern.parse(condition.searchText);
+                } catch (IllegalArgumentException ex) {
+                    return false;
+                }
+                return pattern.isRefinementOf(previousPattern);
             }
             default:
-                throw CodeAreaUtils.getInvalidTypeException(searchMode);
+                return false;
         }
     }
 
@@ -112,7 +151,7 @@ public class SearchCondition {
         if (this.searchMode != other.searchMode) {
             return false;
         }
-        if (searchMode == SearchMode.TEXT) {
+        if (searchMode.isTextInput()) {
             return Objects.equals(this.searchText, other.searchText);
         } else {
             return Objects.equals(this.binaryData, other.binaryData);
@@ -127,6 +166,37 @@ public class SearchCondition {
     }
 
     public enum SearchMode {
-        TEXT, BINARY
+        TEXT, BINARY,
+        /**
+         * Binary pattern with don't-care nibbles entered as text.
+         *
+         * @see MaskedPattern
+         */
+        MASKED,
+        /**
+         * Set of exact patterns entered as text.
+         *
+         * @see PatternSet
+         */
+        PATTERN_SET,
+        /**
+         * Regular expression matching bytes entered as text.
+         */
+        REGEX,
+        /**
+         * Numeric value or range of values entered as text.
+         *
+         * @see ValuePattern
+         */
+        VALUE;
+
+        /**
+         * Returns true if condition for this mode is entered as text.
+         *
+         * @return true for text input
+         */
+        public boolean isTextInput() {
+            return this != BINARY;
+        }
     }
 }
@@ -0,0 +1,355 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.search;
+
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * Compact store of search matches ordered by position.
+ * <p>
+ * Matches are kept in primitive arrays, lengths are stored per match only
+ * when matches of different lengths are present and pattern indexes only
+ * when matches of multiple patterns are present. Matches can be added to
+ * both ends to support backward search.
+ * <p>
+ * Searches stop adding matches when store is full, so that memory used by
+ * huge count of matches is limited.
+ */
+@ParametersAreNonnullByDefault
+public class SearchMatchStore {
+
+    public static final int MAXIMUM_MATCHES_COUNT = 4 * 1024 * 1024;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] positions = new long[INITIAL_CAPACITY];
+    private int[] lengths = null;
+    private int[] patternIndexes = null;
+    private int commonLength = -1;
+    private int maxLength = 0;
+    private int head = INITIAL_CAPACITY / 2;
+    private int size = 0;
+
+    public SearchMatchStore() {
+    }
+
+    /**
+     * This is copy constructor.
+     *
+     * @param source source store
+     */
+    public SearchMatchStore(SearchMatchStore source) {
+        this(source, 0, source.size);
+    }
+
+    private SearchMatchStore(SearchMatchStore source, int fromIndex, int toIndex) {
+        int from = source.head + fromIndex;
+        int to = source.head + toIndex;
+        positions = Arrays.copyOfRange(source.positions, from, to);
+        if (source.lengths != null) {
+            lengths = Arrays.copyOfRange(source.lengths, from, to);
+        }
+        if (source.patternIndexes != null) {
+            patternIndexes = Arrays.copyOfRange(source.patternIndexes, from, to);
+        }
+        commonLength = source.commonLength;
+        maxLength = source.maxLength;
+        head = 0;
+        size = toIndex - fromIndex;
+    }
+
+    public int getMatchesCount() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns true if maximum count of matches was reached.
+     *
+     * @return true if no more matches should be added
+     */
+    public boolean isFull() {
+        return size >= MAXIMUM_MATCHES_COUNT;
+    }
+
+    public long getPosition(int index) {
+        checkIndex(index);
+        return positions[head + index];
+    }
+
+    public long getLength(int index) {
+        checkIndex(index);
+        return lengths == null ? commonLength : lengths[head + index];
+    }
+
+    /**
+     * Returns index of pattern which produced match.
+     *
+     * @param index match index
+     * @return pattern index, 0 for single pattern search
+     */
+    public int getPatternIndex(int index) {
+        checkIndex(index);
+        return patternIndexes == null ? 0 : patternIndexes[head + index];
+    }
+
+    /**
+     * Returns true if matches of more than one pattern are stored.
+     *
+     * @return true if pattern indexes are present
+     */
+    public boolean hasPatternIndexes() {
+        return patternIndexes != null;
+    }
+
+    /**
+     * Returns maximum length of stored match.
+     *
+     * @return length in bytes
+     */
+    public int getMaximumLength() {
+        return maxLength;
+    }
+
+    /**
+     * Appends match which has to be positioned after all stored matches.
+     *
+     * @param position match position
+     * @param length match length
+     */
+    public void addLast(long position, long length) {
+        addLast(position, length, 0);
+    }
+
+    /**
+     * Appends match of given pattern which has to be positioned after all
+     * stored matches.
+     *
+     * @param position match position
+     * @param length match length
+     * @param patternIndex pattern index
+     */
+    public void addLast(long position, long length, int patternIndex) {
+        if (head + size == positions.length) {
+            grow();
+        }
+        int index = head + size;
+        positions[index] = position;
+        storeLength(index, length);
+        storePatternIndex(index, patternIndex);
+        size++;
+    }
+
+    /**
+     * Prepends match which has to be positioned before all stored matches.
+     *
+     * @param position match position
+     * @param length match length
+     */
+    public void addFirst(long position, long length) {
+        addFirst(position, length, 0);
+    }
+
+    /**
+     * Prepends match of given pattern which has to be positioned before all
+     * stored matches.
+     *
+     * @param position match position
+     * @param length match length
+     * @param patternIndex pattern index
+     */
+    public void addFirst(long position, long length, int patternIndex) {
+        if (head == 0) {
+            grow();
+        }
+        head--;
+        positions[head] = position;
+        storeLength(head, length);
+        storePatternIndex(head, patternIndex);
+        size++;
+    }
+
+    /**
+     * Appends all matches of given store positioned after all stored matches.
+     *
+     * @param matches appended matches
+     */
+    public void addAllLast(SearchMatchStore matches) {
+        for (int index = 0; index < matches.size; index++) {
+            addLast(matches.getPosition(index), matches.getLength(index), matches.getPatternIndex(index));
+        }
+    }
+
+    /**
+     * Prepends all matches of given store positioned before all stored
+     * matches.
+     *
+     * @param matches prepended matches
+     */
+    public void addAllFirst(SearchMatchStore matches) {
+        for (int index = matches.size - 1; index >= 0; index--) {
+            addFirst(matches.getPosition(index), matches.getLength(index), matches.getPatternIndex(index));
+        }
+    }
+
+    /**
+     * Creates copy of matches updated after edit of data.
+     * <p>
+     * Matches starting in given range are replaced by given matches and
+     * matches starting at or after end of range are shifted by given offset.
+     *
+     * @param startPosition start position of replaced range
+     * @param endPosition end position of replaced range before edit
+     * @param offset shift of positions after range
+     * @param replacement matches in range after edit
+     * @return updated matches
+     */
+    @Nonnull
+    public SearchMatchStore copyWithEdit(long startPosition, long endPosition, long offset, SearchMatchStore replacement) {
+        int fromIndex = findNextMatch(startPosition);
+        int toIndex = findNextMatch(endPosition);
+        SearchMatchStore result = new SearchMatchStore();
+        for (int index = 0; index < fromIndex; index++) {
+            result.addLast(getPosition(index), getLength(index), getPatternIndex(index));
+        }
+        for (int index = 0; index < replacement.size; index++) {
+            result.addLast(replacement.getPosition(index), replacement.getLength(index), replacement.getPatternIndex(index));
+        }
+        for (int index = toIndex; index < size; index++) {
+            result.addLast(getPosition(index) + offset, getLength(index), getPatternIndex(index));
+        }
+        return result;
+    }
+
+    /**
+     * Returns index of match covering given position.
+     *
+     * @param position data position
+     * @return match index or -1 if position is not covered by any match
+     */
+    public int findMatchAt(long position) {
+        int index = findNextMatch(position + 1) - 1;
+        while (index >= 0) {
+            long matchPosition = positions[head + index];
+            if (position >= matchPosition + maxLength) {
+                break;
+            }
+            if (position < matchPosition + getLength(index)) {
+                return index;
+            }
+            index--;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns index of first match starting at or after given position.
+     *
+     * @param position data position
+     * @return match index or matches count if there is no such match
+     */
+    public int findNextMatch(long position) {
+        int low = head;
+        int high = head + size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (positions[middle] < position) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low - head;
+    }
+
+    @Nonnull
+    public SearchMatchStore copy() {
+        return new SearchMatchStore(this);
+    }
+
+    /**
+     * Creates copy of range of matches.
+     *
+     * @param fromIndex index of first copied match
+     * @param toIndex index after last copied match
+     * @return copy of matches
+     */
+    @Nonnull
+    public SearchMatchStore copy(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range " + fromIndex + "-" + toIndex + " out of range 0-" + size);
+        }
+        return new SearchMatchStore(this, fromIndex, toIndex);
+    }
+
+    private void storeLength(int index, long length) {
+        int matchLength = (int) length;
+        if (matchLength > maxLength) {
+            maxLength = matchLength;
+        }
+        if (lengths == null) {
+            if (commonLength == -1 || commonLength == matchLength) {
+                commonLength = matchLength;
+                return;
+            }
+
+            lengths = new int[positions.length];
+            Arrays.fill(lengths, commonLength);
+        }
+        lengths[index] = matchLength;
+    }
+
+    private void storePatternIndex(int index, int patternIndex) {
+        if (patternIndexes == null) {
+            if (patternIndex == 0) {
+                return;
+            }
+
+            patternIndexes = new int[positions.length];
+        }
+        patternIndexes[index] = patternIndex;
+    }
+
+    private void grow() {
+        int capacity = positions.length + (positions.length >> 1) + INITIAL_CAPACITY;
+        int newHead = (capacity - size) / 2;
+        long[] newPositions = new long[capacity];
+        System.arraycopy(positions, head, newPositions, newHead, size);
+        positions = newPositions;
+        if (lengths != null) {
+            int[] newLengths = new int[capacity];
+            System.arraycopy(lengths, head, newLengths, newHead, size);
+            lengths = newLengths;
+        }
+        if (patternIndexes != null) {
+            int[] newIndexes = new int[capacity];
+            System.arraycopy(patternIndexes, head, newIndexes, newHead, size);
+            patternIndexes = newIndexes;
+        }
+        head = newHead;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Match index " + index + " out of range 0-" + size);
+        }
+    }
+}
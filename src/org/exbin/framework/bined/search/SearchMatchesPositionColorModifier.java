@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.search;
+
+import java.awt.Color;
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.exbin.bined.CodeAreaSection;
+import org.exbin.bined.highlight.swing.color.CodeAreaMatchColorType;
+import org.exbin.bined.highlight.swing.extended.ExtendedHighlightCodeAreaPainter;
+import org.exbin.framework.bined.BinEdCodeAreaPainter;
+
+/**
+ * Search matches position color modifier.
+ * <p>
+ * Matches of pattern set are highlighted with color derived from the match
+ * color by shifting hue according to pattern index.
+ */
+@ParametersAreNonnullByDefault
+public class SearchMatchesPositionColorModifier implements BinEdCodeAreaPainter.RowColorModifier {
+
+    private static final float PATTERN_HUE_STEP = 0.618034f;
+    private static final float PATTERN_MIN_SATURATION = 0.35f;
+
+    private final ExtendedHighlightCodeAreaPainter painter;
+    private SearchMatchStore matches = new SearchMatchStore();
+    private int currentMatchIndex = -1;
+    private Color matchColor;
+    private Color currentMatchColor;
+    private Color[] patternColors = new Color[0];
+
+    private long cachedStart = -1;
+    private long cachedEnd = -1;
+    private int cachedMatchIndex = -1;
+
+    public SearchMatchesPositionColorModifier(ExtendedHighlightCodeAreaPainter painter) {
+        this.painter = painter;
+        resetColors();
+    }
+
+    @Nullable
+    @Override
+    public Color getPositionBackgroundColor(long rowDataPosition, int byteOnRow, int charOnRow, CodeAreaSection section, boolean unprintables) {
+        if (matches.isEmpty()) {
+            return null;
+        }
+
+        long dataPosition = rowDataPosition + byteOnRow;
+        if (dataPosition < cachedStart || dataPosition >= cachedEnd) {
+            cacheMatchAt(dataPosition);
+        }
+
+        if (cachedMatchIndex < 0) {
+            return null;
+        }
+
+        if (cachedMatchIndex == currentMatchIndex) {
+            return currentMatchColor;
+        }
+
+        return matches.hasPatternIndexes() ? getPatternColor(matches.getPatternIndex(cachedMatchIndex)) : matchColor;
+    }
+
+    @Override
+    public void collectRowColors(long rowDataPosition, byte[] rowData, int rowDataLength, BinEdCodeAreaPainter.RowColorSpans spans) {
+        if (matches.isEmpty()) {
+            return;
+        }
+
+        long rowEndPosition = rowDataPosition + spans.getBytesPerRow();
+        int index = matches.findNextMatch(rowDataPosition - matches.getMaximumLength() + 1);
+        int endIndex = matches.findNextMatch(rowEndPosition);
+        for (; index < endIndex; index++) {
+            long matchPosition = matches.getPosition(index);
+            long matchEnd = matchPosition + matches.getLength(index);
+            if (matchEnd <= rowDataPosition) {
+                continue;
+            }
+
+            Color color;
+            if (index == currentMatchIndex) {
+                color = currentMatchColor;
+            } else {
+                color = matches.hasPatternIndexes() ? getPatternColor(matches.getPatternIndex(index)) : matchColor;
+            }
+            int startByte = (int) (Math.max(matchPosition, rowDataPosition) - rowDataPosition);
+            int endByte = (int) (Math.min(matchEnd, rowEndPosition) - rowDataPosition);
+            spans.setBackgroundColor(startByte, endByte, color);
+        }
+    }
+
+    @Nullable
+    @Override
+    public Color getPositionTextColor(long rowDataPosition, int byteOnRow, int charOnRow, CodeAreaSection section, boolean unprintables) {
+        return null;
+    }
+
+    @Override
+    public void resetColors() {
+        Color color = painter.getColorsProfile().getColor(CodeAreaMatchColorType.MATCH_BACKGROUND);
+        matchColor = color != null ? color : painter.getFoundMatchesBackgroundColor();
+        color = painter.getColorsProfile().getColor(CodeAreaMatchColorType.ACTIVE_MATCH_BACKGROUND);
+        currentMatchColor = color != null ? color : painter.getCurrentMatchBackgroundColor();
+        patternColors = new Color[0];
+    }
+
+    public void setMatches(SearchMatchStore matches, int currentMatchIndex) {
+        this.matches = matches;
+        this.currentMatchIndex = currentMatchIndex;
+        clearCache();
+    }
+
+    public void setCurrentMatchIndex(int currentMatchIndex) {
+        this.currentMatchIndex = currentMatchIndex;
+    }
+
+    public void clearMatches() {
+        setMatches(new SearchMatchStore(), -1);
+    }
+
+    @Nonnull
+    private Color getPatternColor(int patternIndex) {
+        if (patternIndex == 0) {
+            return matchColor;
+        }
+
+        if (patternIndex >= patternColors.length) {
+            patternColors = Arrays.copyOf(patternColors, patternIndex + 1);
+        }
+        Color color = patternColors[patternIndex];
+        if (color == null) {
+            float[] hsb = Color.RGBtoHSB(matchColor.getRed(), matchColor.getGreen(), matchColor.getBlue(), null);
+            float hue = (hsb[0] + patternIndex * PATTERN_HUE_STEP) % 1f;
+            color = Color.getHSBColor(hue, Math.max(hsb[1], PATTERN_MIN_SATURATION), hsb[2]);
+            patternColors[patternIndex] = color;
+        }
+        return color;
+    }
+
+    /**
+     * Caches range of positions sharing the same match state.
+     */
+    private void cacheMatchAt(long dataPosition) {
+        cachedMatchIndex = matches.findMatchAt(dataPosition);
+        if (cachedMatchIndex >= 0) {
+            cachedStart = dataPosition;
+            cachedEnd = dataPosition + 1;
+        } else {
+            int nextIndex = matches.findNextMatch(dataPosition);
+            cachedStart = dataPosition;
+            cachedEnd = nextIndex < matches.getMatchesCount() ? matches.getPosition(nextIndex) : Long.MAX_VALUE;
+        }
+    }
+
+    private void clearCache() {
+        cachedStart = -1;
+        cachedEnd = -1;
+        cachedMatchIndex = -1;
+    }
+}
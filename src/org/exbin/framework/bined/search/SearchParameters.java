@@ -15,6 +15,9 @@
  */
 package org.exbin.framework.bined.search;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
 
@@ -30,6 +33,8 @@ public class SearchParameters {
     private boolean matchCase = true;
     private MatchMode matchMode = MatchMode.MULTIPLE;
     private SearchDirection searchDirection = SearchDirection.FORWARD;
+    private SearchScope searchScope = SearchScope.ALL;
+    private List<SearchRange> searchRanges = Collections.emptyList();
 
     public SearchParameters() {
     }
@@ -85,6 +90,29 @@ public class SearchParameters {
         this.searchDirection = searchDirection;
     }
 
+    @Nonnull
+    public SearchScope getSearchScope() {
+        return searchScope;
+    }
+
+    public void setSearchScope(SearchScope searchScope) {
+        this.searchScope = searchScope;
+    }
+
+    /**
+     * Returns ranges to search in for scopes other than whole data.
+     *
+     * @return list of ranges
+     */
+    @Nonnull
+    public List<SearchRange> getSearchRanges() {
+        return searchRanges;
+    }
+
+    public void setSearchRanges(List<SearchRange> searchRanges) {
+        this.searchRanges = Collections.unmodifiableList(new ArrayList<>(searchRanges));
+    }
+
     public void setFromParameters(SearchParameters searchParameters) {
         condition = searchParameters.getCondition();
         startPosition = searchParameters.getStartPosition();
@@ -92,12 +120,33 @@ public class SearchParameters {
         matchCase = searchParameters.isMatchCase();
         matchMode = searchParameters.getMatchMode();
         searchDirection = searchParameters.getSearchDirection();
+        searchScope = searchParameters.getSearchScope();
+        searchRanges = searchParameters.getSearchRanges();
     }
 
     public enum SearchDirection {
         FORWARD, BACKWARD
     }
 
+    public enum SearchScope {
+        /**
+         * Whole data.
+         */
+        ALL,
+        /**
+         * Current selection, resolved when search starts.
+         */
+        SELECTION,
+        /**
+         * Ranges of bookmarks.
+         */
+        BOOKMARKS,
+        /**
+         * Explicit range given by start position and length.
+         */
+        RANGE
+    }
+
     public enum MatchMode {
         SINGLE, MULTIPLE;
         
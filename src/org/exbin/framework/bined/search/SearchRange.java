@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.search;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * Range of data to search in.
+ */
+@ParametersAreNonnullByDefault
+public class SearchRange {
+
+    private final long startPosition;
+    private final long length;
+
+    public SearchRange(long startPosition, long length) {
+        if (startPosition < 0 || length < 0) {
+            throw new IllegalArgumentException("Invalid search range " + startPosition + " with length " + length);
+        }
+        this.startPosition = startPosition;
+        this.length = length;
+    }
+
+    public long getStartPosition() {
+        return startPosition;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public long getEndPosition() {
+        return startPosition + length;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(startPosition) * 31 + Long.hashCode(length);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        final SearchRange other = (SearchRange) obj;
+        return startPosition == other.startPosition && length == other.length;
+    }
+}
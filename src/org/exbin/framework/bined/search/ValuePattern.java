@@ -0,0 +1,303 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.search;
+
+import java.math.BigInteger;
+import java.nio.ByteOrder;
+import java.util.Locale;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * Numeric value or range of values of given type.
+ * <p>
+ * Types correspond to basic values shown in data inspector. Pattern is
+ * written as type name optionally preceded by {@code signed} or
+ * {@code unsigned} and followed by {@code le} or {@code be} byte order,
+ * then value or inclusive range of values separated by {@code ..}, for
+ * example {@code float le 0.99..1.01}, {@code int le 1000..2000} or
+ * {@code unsigned word 0xfffe}. Values are signed and big endian by
+ * default.
+ */
+@ParametersAreNonnullByDefault
+public class ValuePattern {
+
+    public static final String RANGE_SEPARATOR = "..";
+
+    private final ValueType valueType;
+    private final boolean signed;
+    private final ByteOrder byteOrder;
+    private final long minimum;
+    private final long maximum;
+    private final double minimumValue;
+    private final double maximumValue;
+
+    /**
+     * Creates pattern for range of integer values.
+     *
+     * @param valueType integer value type
+     * @param signed true for signed values
+     * @param byteOrder byte order
+     * @param minimum minimum value
+     * @param maximum maximum value, compared as unsigned for unsigned long
+     */
+    public ValuePattern(ValueType valueType, boolean signed, ByteOrder byteOrder, long minimum, long maximum) {
+        if (valueType.isFloatingPoint()) {
+            throw new IllegalArgumentException("Integer value type expected");
+        }
+        this.valueType = valueType;
+        this.signed = signed;
+        this.byteOrder = byteOrder;
+        this.minimum = minimum;
+        this.maximum = maximum;
+        minimumValue = 0;
+        maximumValue = 0;
+    }
+
+    /**
+     * Creates pattern for range of floating point values.
+     *
+     * @param valueType floating point value type
+     * @param byteOrder byte order
+     * @param minimumValue minimum value
+     * @param maximumValue maximum value
+     */
+    public ValuePattern(ValueType valueType, ByteOrder byteOrder, double minimumValue, double maximumValue) {
+        if (!valueType.isFloatingPoint()) {
+            throw new IllegalArgumentException("Floating point value type expected");
+        }
+        this.valueType = valueType;
+        this.signed = true;
+        this.byteOrder = byteOrder;
+        this.minimumValue = minimumValue;
+        this.maximumValue = maximumValue;
+        minimum = 0;
+        maximum = 0;
+    }
+
+    /**
+     * Parses pattern from its textual form.
+     *
+     * @param text pattern text
+     * @return value pattern
+     * @throws IllegalArgumentException if text is not valid pattern
+     */
+    @Nonnull
+    public static ValuePattern parse(String text) {
+        String[] tokens = text.trim().split("\\s+", -1);
+        int tokenIndex = 0;
+        Boolean signed = null;
+        if (tokenIndex < tokens.length && ("signed".equalsIgnoreCase(tokens[tokenIndex]) || "unsigned".equalsIgnoreCase(tokens[tokenIndex]))) {
+            signed = "signed".equalsIgnoreCase(tokens[tokenIndex]);
+            tokenIndex++;
+        }
+
+        if (tokenIndex == tokens.length) {
+            throw new IllegalArgumentException("Missing value type: " + text);
+        }
+        ValueType valueType = ValueType.forName(tokens[tokenIndex]);
+        if (valueType == null) {
+            throw new IllegalArgumentException("Unknown value type '" + tokens[tokenIndex] + "': " + text);
+        }
+        tokenIndex++;
+        if (signed != null && valueType.isFloatingPoint()) {
+            throw new IllegalArgumentException("Signedness cannot be specified for floating point value: " + text);
+        }
+
+        ByteOrder byteOrder = ByteOrder.BIG_ENDIAN;
+        if (tokenIndex < tokens.length && ("le".equalsIgnoreCase(tokens[tokenIndex]) || "be".equalsIgnoreCase(tokens[tokenIndex]))) {
+            byteOrder = "le".equalsIgnoreCase(tokens[tokenIndex]) ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+            tokenIndex++;
+        }
+
+        StringBuilder valueText = new StringBuilder();
+        for (; tokenIndex < tokens.length; tokenIndex++) {
+            valueText.append(tokens[tokenIndex]);
+        }
+        String rangeText = valueText.toString();
+        if (rangeText.isEmpty()) {
+            throw new IllegalArgumentException("Missing value: " + text);
+        }
+        int separatorIndex = rangeText.indexOf(RANGE_SEPARATOR);
+        String minimumText = separatorIndex < 0 ? rangeText : rangeText.substring(0, separatorIndex);
+        String maximumText = separatorIndex < 0 ? rangeText : rangeText.substring(separatorIndex + RANGE_SEPARATOR.length());
+
+        if (valueType.isFloatingPoint()) {
+            double minimumValue = parseFloatingValue(valueType, minimumText, text);
+            double maximumValue = parseFloatingValue(valueType, maximumText, text);
+            if (minimumValue > maximumValue) {
+                throw new IllegalArgumentException("Empty range of values: " + text);
+            }
+            return new ValuePattern(valueType, byteOrder, minimumValue, maximumValue);
+        }
+
+        boolean signedValue = signed == null || signed;
+        BigInteger lowerBound = signedValue ? BigInteger.ONE.shiftLeft(valueType.getSize() * 8 - 1).negate() : BigInteger.ZERO;
+        BigInteger upperBound = (signedValue ? BigInteger.ONE.shiftLeft(valueType.getSize() * 8 - 1) : BigInteger.ONE.shiftLeft(valueType.getSize() * 8)).subtract(BigInteger.ONE);
+        BigInteger minimum = parseIntegerValue(minimumText, text);
+        BigInteger maximum = parseIntegerValue(maximumText, text);
+        if (minimum.compareTo(maximum) > 0 || minimum.compareTo(upperBound) > 0 || maximum.compareTo(lowerBound) < 0) {
+            throw new IllegalArgumentException("Empty range of values: " + text);
+        }
+        minimum = minimum.max(lowerBound);
+        maximum = maximum.min(upperBound);
+        return new ValuePattern(valueType, signedValue, byteOrder, minimum.longValue(), maximum.longValue());
+    }
+
+    /**
+     * Returns true if given text is valid pattern.
+     *
+     * @param text pattern text
+     * @return true if valid
+     */
+    public static boolean isValid(String text) {
+        try {
+            parse(text);
+            return true;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    @Nonnull
+    public ValueType getValueType() {
+        return valueType;
+    }
+
+    public boolean isSigned() {
+        return signed;
+    }
+
+    @Nonnull
+    public ByteOrder getByteOrder() {
+        return byteOrder;
+    }
+
+    /**
+     * Returns length of value in bytes.
+     *
+     * @return length
+     */
+    public int getLength() {
+        return valueType.getSize();
+    }
+
+    /**
+     * Returns true if given integer value decoded as signed or unsigned
+     * according to this pattern is in range.
+     *
+     * @param value decoded value
+     * @return true if matches
+     */
+    public boolean matches(long value) {
+        if (!signed && valueType == ValueType.LONG) {
+            return Long.compareUnsigned(value, minimum) >= 0 && Long.compareUnsigned(value, maximum) <= 0;
+        }
+        return value >= minimum && value <= maximum;
+    }
+
+    /**
+     * Returns true if given floating point value is in range.
+     *
+     * @param value decoded value
+     * @return true if matches
+     */
+    public boolean matches(double value) {
+        return value >= minimumValue && value <= maximumValue;
+    }
+
+    private static double parseFloatingValue(ValueType valueType, String valueText, String text) {
+        try {
+            double value = valueType == ValueType.FLOAT ? Float.parseFloat(valueText) : Double.parseDouble(valueText);
+            if (Double.isNaN(value)) {
+                throw new IllegalArgumentException("Value cannot be NaN: " + text);
+            }
+            return value;
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid value '" + valueText + "': " + text, ex);
+        }
+    }
+
+    @Nonnull
+    private static BigInteger parseIntegerValue(String valueText, String text) {
+        String digits = valueText;
+        boolean negative = false;
+        if (digits.startsWith("-") || digits.startsWith("+")) {
+            negative = digits.charAt(0) == '-';
+            digits = digits.substring(1);
+        }
+        int radix = 10;
+        if (digits.startsWith("0x") || digits.startsWith("0X")) {
+            radix = 16;
+            digits = digits.substring(2);
+        }
+        if (digits.isEmpty() || digits.startsWith("-") || digits.startsWith("+")) {
+            throw new IllegalArgumentException("Invalid value '" + valueText + "': " + text);
+        }
+
+        try {
+            BigInteger value = new BigInteger(digits, radix);
+            return negative ? value.negate() : value;
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid value '" + valueText + "': " + text, ex);
+        }
+    }
+
+    /**
+     * Type of numeric value.
+     */
+    public enum ValueType {
+        BYTE(1, "byte"),
+        WORD(2, "word"),
+        INTEGER(4, "int"),
+        LONG(8, "long"),
+        FLOAT(4, "float"),
+        DOUBLE(8, "double");
+
+        private final int size;
+        private final String name;
+
+        private ValueType(int size, String name) {
+            this.size = size;
+            this.name = name;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        @Nonnull
+        public String getName() {
+            return name;
+        }
+
+        public boolean isFloatingPoint() {
+            return this == FLOAT || this == DOUBLE;
+        }
+
+        @Nullable
+        private static ValueType forName(String name) {
+            String lowerCaseName = name.toLowerCase(Locale.ROOT);
+            for (ValueType valueType : values()) {
+                if (valueType.name.equals(lowerCaseName)) {
+                    return valueType;
+                }
+            }
+            return null;
+        }
+    }
+}
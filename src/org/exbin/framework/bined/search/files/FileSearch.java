@@ -0,0 +1,270 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.search.files;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.exbin.framework.bined.MappedFileData;
+import org.exbin.framework.bined.search.SearchParameters;
+import org.exbin.framework.bined.search.service.SearchMatcher;
+import org.exbin.framework.bined.search.service.impl.BinarySearchServiceImpl;
+
+/**
+ * Search for matches of condition in multiple files.
+ * <p>
+ * Files are mapped to memory read-only and searched on bounded pool of
+ * threads. Results are reported to listener as they are found from search
+ * threads.
+ */
+@ParametersAreNonnullByDefault
+public class FileSearch {
+
+    public static final int PREVIEW_LENGTH = 16;
+    public static final int DEFAULT_MAXIMUM_FILE_RESULTS = 10000;
+    private static final long SEARCH_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    private final SearchParameters searchParameters = new SearchParameters();
+    private final Charset charset;
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    private int threadsCount = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private int maximumFileResults = DEFAULT_MAXIMUM_FILE_RESULTS;
+
+    public FileSearch(SearchParameters searchParameters, Charset charset) {
+        this.searchParameters.setFromParameters(searchParameters);
+        this.charset = charset;
+    }
+
+    public int getThreadsCount() {
+        return threadsCount;
+    }
+
+    public void setThreadsCount(int threadsCount) {
+        if (threadsCount < 1) {
+            throw new IllegalArgumentException("Invalid threads count " + threadsCount);
+        }
+        this.threadsCount = threadsCount;
+    }
+
+    public int getMaximumFileResults() {
+        return maximumFileResults;
+    }
+
+    /**
+     * Sets limit of results reported for single file.
+     * <p>
+     * Files with more matches are reported as truncated.
+     *
+     * @param maximumFileResults maximum count of results
+     */
+    public void setMaximumFileResults(int maximumFileResults) {
+        this.maximumFileResults = maximumFileResults;
+    }
+
+    /**
+     * Searches given files.
+     * <p>
+     * Method blocks until all files are processed or search is cancelled.
+     *
+     * @param files files to search
+     * @param listener search listener
+     * @throws IllegalArgumentException if condition is not valid
+     */
+    public void search(Collection<File> files, FileSearchListener listener) {
+        SearchMatcher matcher = BinarySearchServiceImpl.createMatcher(searchParameters, charset);
+        int filesCount = files.size();
+        AtomicInteger processedCount = new AtomicInteger();
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threadsCount, runnable -> {
+            Thread thread = new Thread(runnable, "FileSearch-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (File file : files) {
+            executor.execute(() -> {
+                if (cancelled.get()) {
+                    return;
+                }
+
+                try {
+                    searchFile(matcher.createCopy(), file, listener);
+                } catch (RuntimeException | InternalError ex) {
+                    // Access to mapped file which was truncated meanwhile fails with internal error
+                    listener.fileFailed(file, ex);
+                } finally {
+                    listener.fileProcessed(file, processedCount.incrementAndGet(), filesCount);
+                }
+            });
+        }
+        executor.shutdown();
+
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                if (cancelled.get()) {
+                    executor.shutdownNow();
+                }
+            }
+        } catch (InterruptedException ex) {
+            cancel();
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Cancels running search.
+     */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    private void searchFile(SearchMatcher matcher, File file, FileSearchListener listener) {
+        MappedFileData data;
+        try {
+            data = new MappedFileData(file);
+        } catch (IOException ex) {
+            listener.fileFailed(file, ex);
+            return;
+        }
+
+        try {
+            searchData(matcher, file, data, listener);
+        } finally {
+            data.dispose();
+        }
+    }
+
+    private void searchData(SearchMatcher matcher, File file, MappedFileData data, FileSearchListener listener) {
+        long dataSize = data.getDataSize();
+        long overlap = Math.max(matcher.getMaximumMatchLength() - 1, 0);
+        int resultsCount = 0;
+        long chunkStart = 0;
+        long position = 0;
+        while (chunkStart < dataSize && !cancelled.get()) {
+            long chunkEnd = Math.min(dataSize, chunkStart + SEARCH_CHUNK_SIZE);
+            long searchEnd = Math.min(dataSize, chunkEnd + overlap);
+            // Search continues after previous match which may end in next chunk
+            position = Math.max(position, chunkStart);
+            while (position < chunkEnd && !cancelled.get()) {
+                long matchPosition = matcher.findNext(data, position, searchEnd);
+                if (matchPosition < 0 || matchPosition >= chunkEnd) {
+                    break;
+                }
+
+                if (resultsCount == maximumFileResults) {
+                    listener.resultsTruncated(file, resultsCount);
+                    return;
+                }
+
+                byte[] preview = new byte[(int) Math.min(PREVIEW_LENGTH, dataSize - matchPosition)];
+                data.copyToArray(matchPosition, preview, 0, preview.length);
+                listener.resultFound(new FileSearchResult(file, matchPosition, matcher.getMatchLength(), preview));
+                resultsCount++;
+                position = matcher.isOverlappingMatches() ? matchPosition + 1 : matchPosition + Math.max(matcher.getMatchLength(), 1);
+            }
+            chunkStart = chunkEnd;
+        }
+    }
+
+    /**
+     * Returns regular files of given files and folders, folders are
+     * traversed recursively.
+     *
+     * @param roots files and folders
+     * @return list of files
+     */
+    @Nonnull
+    public static List<File> collectFiles(Collection<File> roots) {
+        Set<File> files = new LinkedHashSet<>();
+        for (File root : roots) {
+            if (root.isFile()) {
+                files.add(root);
+            } else if (root.isDirectory()) {
+                try {
+                    Files.walkFileTree(root.toPath(), new SimpleFileVisitor<Path>() {
+                        @Override
+                        public FileVisitResult visitFile(Path path, BasicFileAttributes attributes) {
+                            if (attributes.isRegularFile()) {
+                                files.add(path.toFile());
+                            }
+                            return FileVisitResult.CONTINUE;
+                        }
+
+                        @Override
+                        public FileVisitResult visitFileFailed(Path path, IOException ex) {
+                            return FileVisitResult.CONTINUE;
+                        }
+                    });
+                } catch (IOException ex) {
+                    // Skip folders which cannot be traversed
+                }
+            }
+        }
+        return new ArrayList<>(files);
+    }
+
+    /**
+     * Listener for search in files.
+     * <p>
+     * Methods are called from search threads.
+     */
+    public interface FileSearchListener {
+
+        void resultFound(FileSearchResult result);
+
+        /**
+         * Reports that file contains more matches than maximum count of
+         * results reported for single file.
+         *
+         * @param file file
+         * @param resultsCount count of reported results
+         */
+        void resultsTruncated(File file, int resultsCount);
+
+        /**
+         * Reports that file was processed, called also when search of file
+         * failed.
+         *
+         * @param file file
+         * @param processedCount count of processed files
+         * @param filesCount count of all files
+         */
+        void fileProcessed(File file, int processedCount, int filesCount);
+
+        void fileFailed(File file, Throwable exception);
+    }
+}
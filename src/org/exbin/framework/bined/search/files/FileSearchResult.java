@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.search.files;
+
+import java.io.File;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * Match found by search in files.
+ */
+@ParametersAreNonnullByDefault
+public class FileSearchResult {
+
+    private final File file;
+    private final long position;
+    private final long length;
+    private final byte[] preview;
+
+    public FileSearchResult(File file, long position, long length, byte[] preview) {
+        this.file = file;
+        this.position = position;
+        this.length = length;
+        this.preview = preview;
+    }
+
+    @Nonnull
+    public File getFile() {
+        return file;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Returns data of file starting at match position.
+     *
+     * @return preview bytes, shorter than preview length at end of file
+     */
+    @Nonnull
+    public byte[] getPreview() {
+        return preview;
+    }
+}
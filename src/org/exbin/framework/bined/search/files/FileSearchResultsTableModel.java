@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.search.files;
+
+import java.io.File;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.swing.table.AbstractTableModel;
+import org.exbin.framework.utils.LanguageUtils;
+
+/**
+ * Table model for results of search in files.
+ */
+@ParametersAreNonnullByDefault
+public class FileSearchResultsTableModel extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+
+    private final java.util.ResourceBundle resourceBundle = LanguageUtils.getResourceBundleByClass(FileSearchResultsTableModel.class);
+    private final List<FileSearchResult> records = new ArrayList<>();
+    private final Set<File> truncatedFiles = new HashSet<>();
+    private int maximumFileResults = FileSearch.DEFAULT_MAXIMUM_FILE_RESULTS;
+
+    private final String[] columnNames;
+    private final Class<?>[] columnTypes = new Class<?>[]{
+        java.lang.String.class, java.lang.Long.class, java.lang.String.class, java.lang.String.class
+    };
+
+    public FileSearchResultsTableModel() {
+        columnNames = new String[]{
+            resourceBundle.getString("fileSearchResultsTableModel.file"),
+            resourceBundle.getString("fileSearchResultsTableModel.position"),
+            resourceBundle.getString("fileSearchResultsTableModel.hexPreview"),
+            resourceBundle.getString("fileSearchResultsTableModel.textPreview")
+        };
+    }
+
+    @Nonnull
+    public FileSearchResult getRecord(int rowIndex) {
+        return records.get(rowIndex);
+    }
+
+    public void addRecords(List<FileSearchResult> addedRecords) {
+        if (addedRecords.isEmpty()) {
+            return;
+        }
+
+        int firstRow = records.size();
+        records.addAll(addedRecords);
+        fireTableRowsInserted(firstRow, records.size() - 1);
+    }
+
+    /**
+     * Marks file which contains more matches than shown.
+     *
+     * @param file file
+     * @param maximumFileResults count of shown matches
+     */
+    public void addTruncatedFile(File file, int maximumFileResults) {
+        this.maximumFileResults = maximumFileResults;
+        if (truncatedFiles.add(file)) {
+            fireTableDataChanged();
+        }
+    }
+
+    public void clear() {
+        records.clear();
+        truncatedFiles.clear();
+        fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+        return records.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Nonnull
+    @Override
+    public String getColumnName(int columnIndex) {
+        return columnNames[columnIndex];
+    }
+
+    @Nonnull
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        return columnTypes[columnIndex];
+    }
+
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        return false;
+    }
+
+    @Nullable
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        FileSearchResult record = records.get(rowIndex);
+        switch (columnIndex) {
+            case 0: {
+                File file = record.getFile();
+                if (truncatedFiles.contains(file)) {
+                    return MessageFormat.format(resourceBundle.getString("fileSearchResultsTableModel.truncatedFile"), file.getPath(), maximumFileResults);
+                }
+                return file.getPath();
+            }
+            case 1: {
+                return record.getPosition();
+            }
+            case 2: {
+                return getHexPreview(record.getPreview());
+            }
+            case 3: {
+                return getTextPreview(record.getPreview());
+            }
+            default:
+                return null;
+        }
+    }
+
+    @Nonnull
+    private static String getHexPreview(byte[] preview) {
+        StringBuilder builder = new StringBuilder(preview.length * 3);
+        for (byte value : preview) {
+            if (builder.length() > 0) {
+                builder.append(' ');
+            }
+            builder.append(Character.forDigit((value >> 4) & 0xf, 16)).append(Character.forDigit(value & 0xf, 16));
+        }
+        return builder.toString();
+    }
+
+    @Nonnull
+    private static String getTextPreview(byte[] preview) {
+        StringBuilder builder = new StringBuilder(preview.length);
+        for (byte value : preview) {
+            int code = value & 0xff;
+            builder.append(code >= 0x20 && code < 0x7f ? (char) code : '.');
+        }
+        return builder.toString();
+    }
+}
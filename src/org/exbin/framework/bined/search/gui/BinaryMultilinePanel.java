@@ -18,15 +18,26 @@ package org.exbin.framework.bined.search.gui;
 import org.exbin.framework.bined.search.SearchCondition;
 import java.awt.BorderLayout;
 import java.awt.Component;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.ResourceBundle;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
+import javax.swing.JButton;
+import javax.swing.JFileChooser;
 import javax.swing.JPopupMenu;
 import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
+import javax.swing.JToolBar;
 import javax.swing.JViewport;
 import org.exbin.bined.swing.extended.ExtCodeArea;
 import org.exbin.framework.bined.handler.CodeAreaPopupMenuHandler;
+import org.exbin.framework.bined.search.PatternSet;
 import org.exbin.framework.utils.LanguageUtils;
 import org.exbin.framework.utils.WindowUtils;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
@@ -46,6 +57,7 @@ public class BinaryMultilinePanel extends javax.swing.JPanel {
     private JScrollPane scrollPane;
     private ExtCodeArea codeArea;
     private CodeAreaPopupMenuHandler codeAreaPopupMenuHandler;
+    private List<SearchCondition> searchHistory = new ArrayList<>();
 
     public BinaryMultilinePanel() {
         initComponents();
@@ -87,7 +99,9 @@ public class BinaryMultilinePanel extends javax.swing.JPanel {
 
     @Nonnull
     public SearchCondition getCondition() {
-        if (condition.getSearchMode() == SearchCondition.SearchMode.TEXT) {
+        if (condition.getSearchMode() == SearchCondition.SearchMode.PATTERN_SET) {
+            condition.setSearchText(PatternSet.joinEntries(PatternSet.splitEntries(textArea.getText())));
+        } else if (condition.getSearchMode().isTextInput()) {
             condition.setSearchText(textArea.getText());
         } else {
             condition.setBinaryData((EditableBinaryData) codeArea.getContentData());
@@ -98,7 +112,7 @@ public class BinaryMultilinePanel extends javax.swing.JPanel {
 
     public void setCondition(SearchCondition condition) {
         this.condition = condition;
-        if (condition.getSearchMode() == SearchCondition.SearchMode.TEXT) {
+        if (condition.getSearchMode().isTextInput()) {
             scrollPane = new javax.swing.JScrollPane();
             textArea = new javax.swing.JTextArea();
             textArea.setColumns(20);
@@ -106,7 +120,12 @@ public class BinaryMultilinePanel extends javax.swing.JPanel {
             textArea.setName("textArea"); // NOI18N
             scrollPane.setViewportView(textArea);
 
-            textArea.setText(condition.getSearchText());
+            if (condition.getSearchMode() == SearchCondition.SearchMode.PATTERN_SET) {
+                textArea.setText(String.join("\n", PatternSet.splitEntries(condition.getSearchText())));
+                add(createPatternSetToolBar(), BorderLayout.NORTH);
+            } else {
+                textArea.setText(condition.getSearchText());
+            }
             add(scrollPane, BorderLayout.CENTER);
         } else {
             codeArea = new ExtCodeArea();
@@ -120,6 +139,54 @@ public class BinaryMultilinePanel extends javax.swing.JPanel {
         revalidate();
     }
 
+    /**
+     * Sets search history used as source of patterns for pattern set.
+     *
+     * @param searchHistory search history
+     */
+    public void setSearchHistory(List<SearchCondition> searchHistory) {
+        this.searchHistory = searchHistory;
+    }
+
+    @Nonnull
+    private JToolBar createPatternSetToolBar() {
+        JToolBar toolBar = new JToolBar();
+        toolBar.setFloatable(false);
+        JButton loadFromFileButton = new JButton(resourceBundle.getString("loadFromFileButton.text"));
+        loadFromFileButton.setToolTipText(resourceBundle.getString("loadFromFileButton.toolTipText"));
+        loadFromFileButton.addActionListener(event -> loadPatternsFromFile());
+        toolBar.add(loadFromFileButton);
+        JButton loadFromHistoryButton = new JButton(resourceBundle.getString("loadFromHistoryButton.text"));
+        loadFromHistoryButton.setToolTipText(resourceBundle.getString("loadFromHistoryButton.toolTipText"));
+        loadFromHistoryButton.addActionListener(event -> appendPatterns(PatternSet.fromConditions(searchHistory)));
+        toolBar.add(loadFromHistoryButton);
+        return toolBar;
+    }
+
+    private void loadPatternsFromFile() {
+        JFileChooser fileChooser = new JFileChooser();
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        try {
+            byte[] content = Files.readAllBytes(fileChooser.getSelectedFile().toPath());
+            appendPatterns(new String(content, StandardCharsets.UTF_8));
+        } catch (IOException ex) {
+            Logger.getLogger(BinaryMultilinePanel.class.getName()).log(Level.SEVERE, null, ex);
+        }
+    }
+
+    private void appendPatterns(String patternSetText) {
+        List<String> entries = new ArrayList<>(PatternSet.splitEntries(textArea.getText()));
+        for (String entry : PatternSet.splitEntries(patternSetText)) {
+            if (!entries.contains(entry)) {
+                entries.add(entry);
+            }
+        }
+        textArea.setText(String.join("\n", entries));
+    }
+
     public void setCodeAreaPopupMenuHandler(CodeAreaPopupMenuHandler codeAreaPopupMenuHandler) {
         this.codeAreaPopupMenuHandler = codeAreaPopupMenuHandler;
         if (codeArea != null) {
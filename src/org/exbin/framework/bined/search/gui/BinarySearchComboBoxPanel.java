@@ -106,15 +106,10 @@ public class BinarySearchComboBoxPanel extends JPanel {
 
     @Nonnull
     public SearchCondition getItem() {
-        switch (item.getSearchMode()) {
-            case TEXT: {
-                item.setSearchText(textField.getText());
-                break;
-            }
-            case BINARY: {
-                item.setBinaryData((EditableBinaryData) codeArea.getContentData());
-                break;
-            }
+        if (item.getSearchMode().isTextInput()) {
+            item.setSearchText(textField.getText());
+        } else {
+            item.setBinaryData((EditableBinaryData) codeArea.getContentData());
         }
 
         return item;
@@ -125,46 +120,36 @@ public class BinarySearchComboBoxPanel extends JPanel {
             item = new SearchCondition();
         }
         this.item.setSearchMode(item.getSearchMode());
-        switch (item.getSearchMode()) {
-            case TEXT: {
-                this.item.setSearchText(item.getSearchText());
-                this.item.setBinaryData(null);
-                runningUpdate = true;
-                textField.setText(item.getSearchText());
-                runningUpdate = false;
-                CardLayout layout = (CardLayout) getLayout();
-                layout.show(this, TEXT_MODE);
-                revalidate();
-                break;
-            }
-            case BINARY: {
-                this.item.setSearchText("");
-                ByteArrayEditableData data = new ByteArrayEditableData();
-                if (item.getBinaryData() != null) {
-                    data.insert(0, item.getBinaryData());
-                }
-                this.item.setBinaryData(data);
-                runningUpdate = true;
-                codeArea.setContentData(data);
-                runningUpdate = false;
-                CardLayout layout = (CardLayout) getLayout();
-                layout.show(this, BINARY_MODE);
-                revalidate();
-                break;
+        if (item.getSearchMode().isTextInput()) {
+            this.item.setSearchText(item.getSearchText());
+            this.item.setBinaryData(null);
+            runningUpdate = true;
+            textField.setText(item.getSearchText());
+            runningUpdate = false;
+            CardLayout layout = (CardLayout) getLayout();
+            layout.show(this, TEXT_MODE);
+            revalidate();
+        } else {
+            this.item.setSearchText("");
+            ByteArrayEditableData data = new ByteArrayEditableData();
+            if (item.getBinaryData() != null) {
+                data.insert(0, item.getBinaryData());
             }
+            this.item.setBinaryData(data);
+            runningUpdate = true;
+            codeArea.setContentData(data);
+            runningUpdate = false;
+            CardLayout layout = (CardLayout) getLayout();
+            layout.show(this, BINARY_MODE);
+            revalidate();
         }
     }
 
     public void selectAll() {
-        switch (item.getSearchMode()) {
-            case TEXT: {
-                textField.selectAll();
-                break;
-            }
-            case BINARY: {
-                codeArea.selectAll();
-                break;
-            }
+        if (item.getSearchMode().isTextInput()) {
+            textField.selectAll();
+        } else {
+            codeArea.selectAll();
         }
     }
 
@@ -186,15 +171,10 @@ public class BinarySearchComboBoxPanel extends JPanel {
     @Override
     public void requestFocus() {
         super.requestFocus();
-        switch (item.getSearchMode()) {
-            case TEXT: {
-                textField.requestFocus();
-                break;
-            }
-            case BINARY: {
-                codeArea.requestFocus();
-                break;
-            }
+        if (item.getSearchMode().isTextInput()) {
+            textField.requestFocus();
+        } else {
+            codeArea.requestFocus();
         }
     }
 
@@ -231,20 +211,15 @@ public class BinarySearchComboBoxPanel extends JPanel {
     }
 
     public void clear() {
-        switch (item.getSearchMode()) {
-            case TEXT: {
-                String text = textField.getText();
-                if (!"".equals(text)) {
-                    textField.setText("");
-                }
-                break;
+        if (item.getSearchMode().isTextInput()) {
+            String text = textField.getText();
+            if (!"".equals(text)) {
+                textField.setText("");
             }
-            case BINARY: {
-                EditableBinaryData contentData = (EditableBinaryData) codeArea.getContentData();
-                if (!contentData.isEmpty()) {
-                    contentData.clear();
-                }
-                break;
+        } else {
+            EditableBinaryData contentData = (EditableBinaryData) codeArea.getContentData();
+            if (!contentData.isEmpty()) {
+                contentData.clear();
             }
         }
     }
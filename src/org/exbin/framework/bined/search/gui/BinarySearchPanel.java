@@ -119,7 +119,7 @@ public class BinarySearchPanel extends javax.swing.JPanel {
                     return panel;
                 }
 
-                if (value.getSearchMode() == SearchCondition.SearchMode.TEXT) {
+                if (value.getSearchMode().isTextInput()) {
                     return listCellRenderer.getListCellRendererComponent(list, value.getSearchText(), index, isSelected, cellHasFocus);
                 } else {
                     searchCodeArea.setContentData(value.getBinaryData());
@@ -199,7 +199,7 @@ public class BinarySearchPanel extends javax.swing.JPanel {
                     return panel;
                 }
 
-                if (value.getSearchMode() == SearchCondition.SearchMode.TEXT) {
+                if (value.getSearchMode().isTextInput()) {
                     return listCellRenderer.getListCellRendererComponent(list, value.getSearchText(), index, isSelected, cellHasFocus);
                 } else {
                     searchCodeArea.setContentData(value.getBinaryData());
@@ -643,10 +643,29 @@ public class BinarySearchPanel extends javax.swing.JPanel {
 
     private void findTypeButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_findTypeButtonActionPerformed
         SearchCondition condition = findComboBoxEditorComponent.getItem();
-        if (condition.getSearchMode() == SearchCondition.SearchMode.TEXT) {
-            condition.setSearchMode(SearchCondition.SearchMode.BINARY);
-        } else {
-            condition.setSearchMode(SearchCondition.SearchMode.TEXT);
+        switch (condition.getSearchMode()) {
+            case TEXT: {
+                condition.setSearchMode(SearchCondition.SearchMode.BINARY);
+                break;
+            }
+            case BINARY: {
+                condition.setSearchMode(SearchCondition.SearchMode.MASKED);
+                break;
+            }
+            case MASKED: {
+                condition.setSearchMode(SearchCondition.SearchMode.PATTERN_SET);
+                break;
+            }
+            case PATTERN_SET: {
+                condition.setSearchMode(SearchCondition.SearchMode.REGEX);
+                break;
+            }
+            case REGEX: {
+                condition.setSearchMode(SearchCondition.SearchMode.VALUE);
+                break;
+            }
+            default:
+                condition.setSearchMode(SearchCondition.SearchMode.TEXT);
         }
 
         findComboBoxEditorComponent.setItem(condition);
@@ -659,13 +678,33 @@ public class BinarySearchPanel extends javax.swing.JPanel {
 
     public void updateFindStatus() {
         SearchCondition condition = findComboBoxEditorComponent.getItem();
-        if (condition.getSearchMode() == SearchCondition.SearchMode.TEXT) {
-            findTypeButton.setText(resourceBundle.getString("inputType.text"));
-            matchCaseToggleButton.setEnabled(true);
-        } else {
-            findTypeButton.setText(resourceBundle.getString("inputType.binary"));
-            matchCaseToggleButton.setEnabled(false);
+        switch (condition.getSearchMode()) {
+            case TEXT: {
+                findTypeButton.setText(resourceBundle.getString("inputType.text"));
+                break;
+            }
+            case BINARY: {
+                findTypeButton.setText(resourceBundle.getString("inputType.binary"));
+                break;
+            }
+            case MASKED: {
+                findTypeButton.setText(resourceBundle.getString("inputType.masked"));
+                break;
+            }
+            case PATTERN_SET: {
+                findTypeButton.setText(resourceBundle.getString("inputType.patternSet"));
+                break;
+            }
+            case REGEX: {
+                findTypeButton.setText(resourceBundle.getString("inputType.regex"));
+                break;
+            }
+            case VALUE: {
+                findTypeButton.setText(resourceBundle.getString("inputType.value"));
+                break;
+            }
         }
+        matchCaseToggleButton.setEnabled(condition.getSearchMode() == SearchCondition.SearchMode.TEXT);
     }
 
     private void updateReplaceStatus() {
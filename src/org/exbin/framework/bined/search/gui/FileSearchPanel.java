@@ -0,0 +1,378 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.search.gui;
+
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.swing.Timer;
+import org.exbin.framework.bined.search.SearchCondition;
+import org.exbin.framework.bined.search.SearchParameters;
+import org.exbin.framework.bined.search.files.FileSearchResult;
+import org.exbin.framework.bined.search.files.FileSearchResultsTableModel;
+import org.exbin.framework.utils.LanguageUtils;
+import org.exbin.framework.utils.WindowUtils;
+
+/**
+ * Panel for search in multiple files with table of results.
+ */
+@ParametersAreNonnullByDefault
+public class FileSearchPanel extends javax.swing.JPanel {
+
+    private static final long serialVersionUID = 1L;
+    private static final int RESULTS_UPDATE_INTERVAL = 200;
+
+    private final ResourceBundle resourceBundle = LanguageUtils.getResourceBundleByClass(FileSearchPanel.class);
+    private final FileSearchResultsTableModel resultsTableModel = new FileSearchResultsTableModel();
+    private final Queue<FileSearchResult> pendingResults = new ConcurrentLinkedQueue<>();
+    private final Queue<TruncatedFile> pendingTruncatedFiles = new ConcurrentLinkedQueue<>();
+    private final Timer resultsTimer = new Timer(RESULTS_UPDATE_INTERVAL, (event) -> flushResults());
+    private List<File> searchRoots = new ArrayList<>();
+    private Control control = null;
+
+    public FileSearchPanel() {
+        initComponents();
+        init();
+    }
+
+    private void init() {
+        resultsTable.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent event) {
+                if (event.getClickCount() == 2 && control != null) {
+                    int row = resultsTable.rowAtPoint(event.getPoint());
+                    if (row >= 0) {
+                        control.openResult(resultsTableModel.getRecord(resultsTable.convertRowIndexToModel(row)));
+                    }
+                }
+            }
+        });
+        updateSearchStatus();
+        setSearchRunning(false);
+    }
+
+    @Nonnull
+    public ResourceBundle getResourceBundle() {
+        return resourceBundle;
+    }
+
+    public void setControl(Control control) {
+        this.control = control;
+    }
+
+    /**
+     * This method is called from within the constructor to initialize the form.
+     * WARNING: Do NOT modify this code. The content of this method is always
+     * regenerated by the Form Editor.
+     */
+    @SuppressWarnings("unchecked")
+    // <editor-fold defaultstate="collapsed" desc="Generated Code">//GEN-BEGIN:initComponents
+    private void initComponents() {
+
+        searchPanel = new javax.swing.JPanel();
+        findLabel = new javax.swing.JLabel();
+        searchTypeButton = new javax.swing.JButton();
+        conditionPanel = new org.exbin.framework.bined.search.gui.BinarySearchComboBoxPanel();
+        searchButton = new javax.swing.JButton();
+        stopButton = new javax.swing.JButton();
+        matchCaseCheckBox = new javax.swing.JCheckBox();
+        rootsLabel = new javax.swing.JLabel();
+        resultsScrollPane = new javax.swing.JScrollPane();
+        resultsTable = new javax.swing.JTable();
+        statusLabel = new javax.swing.JLabel();
+
+        setLayout(new java.awt.BorderLayout());
+
+        findLabel.setText(resourceBundle.getString("findLabel.text")); // NOI18N
+
+        searchTypeButton.setText(resourceBundle.getString("searchTypeButton.text")); // NOI18N
+        searchTypeButton.setToolTipText(resourceBundle.getString("searchTypeButton.toolTipText")); // NOI18N
+        searchTypeButton.setFocusable(false);
+        searchTypeButton.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                searchTypeButtonActionPerformed(evt);
+            }
+        });
+
+        searchButton.setText(resourceBundle.getString("searchButton.text")); // NOI18N
+        searchButton.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                searchButtonActionPerformed(evt);
+            }
+        });
+
+        stopButton.setText(resourceBundle.getString("stopButton.text")); // NOI18N
+        stopButton.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                stopButtonActionPerformed(evt);
+            }
+        });
+
+        matchCaseCheckBox.setText(resourceBundle.getString("matchCaseCheckBox.text")); // NOI18N
+
+        javax.swing.GroupLayout searchPanelLayout = new javax.swing.GroupLayout(searchPanel);
+        searchPanel.setLayout(searchPanelLayout);
+        searchPanelLayout.setHorizontalGroup(
+            searchPanelLayout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+            .addGroup(searchPanelLayout.createSequentialGroup()
+                .addContainerGap()
+                .addGroup(searchPanelLayout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+                    .addGroup(searchPanelLayout.createSequentialGroup()
+                        .addComponent(findLabel)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                        .addComponent(searchTypeButton)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                        .addComponent(conditionPanel, javax.swing.GroupLayout.DEFAULT_SIZE, 300, Short.MAX_VALUE)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                        .addComponent(searchButton)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                        .addComponent(stopButton))
+                    .addGroup(searchPanelLayout.createSequentialGroup()
+                        .addComponent(matchCaseCheckBox)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                        .addComponent(rootsLabel, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)))
+                .addContainerGap())
+        );
+        searchPanelLayout.setVerticalGroup(
+            searchPanelLayout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+            .addGroup(searchPanelLayout.createSequentialGroup()
+                .addContainerGap()
+                .addGroup(searchPanelLayout.createParallelGroup(javax.swing.GroupLayout.Alignment.CENTER)
+                    .addComponent(findLabel)
+                    .addComponent(searchTypeButton)
+                    .addComponent(conditionPanel, javax.swing.GroupLayout.PREFERRED_SIZE, 30, javax.swing.GroupLayout.PREFERRED_SIZE)
+                    .addComponent(searchButton)
+                    .addComponent(stopButton))
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addGroup(searchPanelLayout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
+                    .addComponent(matchCaseCheckBox)
+                    .addComponent(rootsLabel))
+                .addContainerGap())
+        );
+
+        add(searchPanel, java.awt.BorderLayout.PAGE_START);
+
+        resultsTable.setAutoCreateRowSorter(true);
+        resultsTable.setModel(resultsTableModel);
+        resultsScrollPane.setViewportView(resultsTable);
+
+        add(resultsScrollPane, java.awt.BorderLayout.CENTER);
+
+        statusLabel.setBorder(javax.swing.BorderFactory.createEmptyBorder(2, 6, 2, 6));
+        add(statusLabel, java.awt.BorderLayout.PAGE_END);
+    }// </editor-fold>//GEN-END:initComponents
+
+    private void searchTypeButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_searchTypeButtonActionPerformed
+        SearchCondition condition = conditionPanel.getItem();
+        switch (condition.getSearchMode()) {
+            case TEXT: {
+                condition.setSearchMode(SearchCondition.SearchMode.BINARY);
+                break;
+            }
+            case BINARY: {
+                condition.setSearchMode(SearchCondition.SearchMode.MASKED);
+                break;
+            }
+            case MASKED: {
+                condition.setSearchMode(SearchCondition.SearchMode.PATTERN_SET);
+                break;
+            }
+            case PATTERN_SET: {
+                condition.setSearchMode(SearchCondition.SearchMode.REGEX);
+                break;
+            }
+            case REGEX: {
+                condition.setSearchMode(SearchCondition.SearchMode.VALUE);
+                break;
+            }
+            default:
+                condition.setSearchMode(SearchCondition.SearchMode.TEXT);
+        }
+        conditionPanel.setItem(condition);
+        updateSearchStatus();
+    }//GEN-LAST:event_searchTypeButtonActionPerformed
+
+    private void searchButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_searchButtonActionPerformed
+        if (control != null) {
+            control.performSearch(getSearchParameters(), searchRoots);
+        }
+    }//GEN-LAST:event_searchButtonActionPerformed
+
+    private void stopButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_stopButtonActionPerformed
+        if (control != null) {
+            control.cancelSearch();
+        }
+    }//GEN-LAST:event_stopButtonActionPerformed
+
+    private void updateSearchStatus() {
+        SearchCondition condition = conditionPanel.getItem();
+        switch (condition.getSearchMode()) {
+            case TEXT: {
+                searchTypeButton.setText("T");
+                break;
+            }
+            case BINARY: {
+                searchTypeButton.setText("B");
+                break;
+            }
+            case MASKED: {
+                searchTypeButton.setText("M");
+                break;
+            }
+            case PATTERN_SET: {
+                searchTypeButton.setText("P");
+                break;
+            }
+            case REGEX: {
+                searchTypeButton.setText("R");
+                break;
+            }
+            case VALUE: {
+                searchTypeButton.setText("V");
+                break;
+            }
+        }
+        matchCaseCheckBox.setEnabled(condition.getSearchMode() == SearchCondition.SearchMode.TEXT);
+    }
+
+    @Nonnull
+    public SearchParameters getSearchParameters() {
+        SearchParameters searchParameters = new SearchParameters();
+        searchParameters.setCondition(new SearchCondition(conditionPanel.getItem()));
+        searchParameters.setMatchCase(matchCaseCheckBox.isSelected());
+        return searchParameters;
+    }
+
+    /**
+     * Sets files and folders to search in.
+     *
+     * @param searchRoots files and folders
+     */
+    public void setSearchRoots(List<File> searchRoots) {
+        this.searchRoots = new ArrayList<>(searchRoots);
+        rootsLabel.setText(java.text.MessageFormat.format(resourceBundle.getString("rootsLabel.text"), searchRoots.size()));
+        rootsLabel.setToolTipText(searchRoots.isEmpty() ? null : searchRoots.get(0).getPath() + (searchRoots.size() > 1 ? ", ..." : ""));
+    }
+
+    /**
+     * Switches panel between running and idle search.
+     * <p>
+     * Results found while search runs are added to table periodically.
+     *
+     * @param running true if search is running
+     */
+    public void setSearchRunning(boolean running) {
+        searchButton.setEnabled(!running);
+        stopButton.setEnabled(running);
+        if (running) {
+            pendingResults.clear();
+            pendingTruncatedFiles.clear();
+            resultsTableModel.clear();
+            resultsTimer.start();
+        } else {
+            resultsTimer.stop();
+            flushResults();
+        }
+    }
+
+    /**
+     * Adds search result, can be called from any thread.
+     *
+     * @param result search result
+     */
+    public void addResult(FileSearchResult result) {
+        pendingResults.add(result);
+    }
+
+    /**
+     * Marks file with more matches than reported results, can be called from
+     * any thread.
+     *
+     * @param file file
+     * @param resultsCount count of reported results
+     */
+    public void addTruncatedFile(File file, int resultsCount) {
+        pendingTruncatedFiles.add(new TruncatedFile(file, resultsCount));
+    }
+
+    public void setStatus(String status) {
+        statusLabel.setText(status);
+    }
+
+    private void flushResults() {
+        List<FileSearchResult> results = new ArrayList<>();
+        FileSearchResult result;
+        while ((result = pendingResults.poll()) != null) {
+            results.add(result);
+        }
+        resultsTableModel.addRecords(results);
+        TruncatedFile truncatedFile;
+        while ((truncatedFile = pendingTruncatedFiles.poll()) != null) {
+            resultsTableModel.addTruncatedFile(truncatedFile.file, truncatedFile.resultsCount);
+        }
+    }
+
+    /**
+     * Test method for this panel.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        WindowUtils.invokeDialog(new FileSearchPanel());
+    }
+
+    // Variables declaration - do not modify//GEN-BEGIN:variables
+    private org.exbin.framework.bined.search.gui.BinarySearchComboBoxPanel conditionPanel;
+    private javax.swing.JLabel findLabel;
+    private javax.swing.JCheckBox matchCaseCheckBox;
+    private javax.swing.JScrollPane resultsScrollPane;
+    private javax.swing.JTable resultsTable;
+    private javax.swing.JLabel rootsLabel;
+    private javax.swing.JButton searchButton;
+    private javax.swing.JPanel searchPanel;
+    private javax.swing.JButton searchTypeButton;
+    private javax.swing.JLabel statusLabel;
+    private javax.swing.JButton stopButton;
+    // End of variables declaration//GEN-END:variables
+
+    @ParametersAreNonnullByDefault
+    private static class TruncatedFile {
+
+        private final File file;
+        private final int resultsCount;
+
+        TruncatedFile(File file, int resultsCount) {
+            this.file = file;
+            this.resultsCount = resultsCount;
+        }
+    }
+
+    public interface Control {
+
+        void performSearch(SearchParameters searchParameters, List<File> searchRoots);
+
+        void cancelSearch();
+
+        void openResult(FileSearchResult result);
+    }
+}
@@ -19,11 +19,13 @@ import org.exbin.framework.bined.search.ReplaceParameters;
 import org.exbin.framework.bined.search.SearchCondition;
 import org.exbin.framework.bined.search.SearchParameters;
 import org.exbin.framework.bined.search.SearchHistoryModel;
+import org.exbin.framework.bined.search.SearchRange;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.event.ActionListener;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.ResourceBundle;
@@ -31,6 +33,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import javax.swing.ComboBoxEditor;
+import javax.swing.DefaultComboBoxModel;
 import javax.swing.DefaultListCellRenderer;
 import javax.swing.JList;
 import javax.swing.JPanel;
@@ -74,6 +77,14 @@ public class FindBinaryPanel extends javax.swing.JPanel {
     }
 
     private void init() {
+        DefaultComboBoxModel<String> scopeComboBoxModel = new DefaultComboBoxModel<>();
+        scopeComboBoxModel.addElement(resourceBundle.getString("searchScope.all"));
+        scopeComboBoxModel.addElement(resourceBundle.getString("searchScope.selection"));
+        scopeComboBoxModel.addElement(resourceBundle.getString("searchScope.bookmarks"));
+        scopeComboBoxModel.addElement(resourceBundle.getString("searchScope.range"));
+        scopeComboBox.setModel(scopeComboBoxModel);
+        updateScopeStatus();
+
         {
             ExtendedCodeAreaLayoutProfile layoutProfile = Objects.requireNonNull(findCodeArea.getLayoutProfile());
             layoutProfile.setShowHeader(false);
@@ -102,7 +113,7 @@ public class FindBinaryPanel extends javax.swing.JPanel {
                     return emptyPanel;
                 }
 
-                if (value.getSearchMode() == SearchCondition.SearchMode.TEXT) {
+                if (value.getSearchMode().isTextInput()) {
                     return listCellRenderer.getListCellRendererComponent(list, value.getSearchText(), index, isSelected, cellHasFocus);
                 } else {
                     findCodeArea.setContentData(value.getBinaryData());
@@ -180,7 +191,7 @@ public class FindBinaryPanel extends javax.swing.JPanel {
                     return emptyPanel;
                 }
 
-                if (value.getSearchMode() == SearchCondition.SearchMode.TEXT) {
+                if (value.getSearchMode().isTextInput()) {
                     return listCellRenderer.getListCellRendererComponent(list, value.getSearchText(), index, isSelected, cellHasFocus);
                 } else {
                     replaceCodeArea.setContentData(value.getBinaryData());
@@ -256,6 +267,12 @@ public class FindBinaryPanel extends javax.swing.JPanel {
         matchCaseCheckBox = new javax.swing.JCheckBox();
         multipleMatchesCheckBox = new javax.swing.JCheckBox();
         searchBackwardCheckBox = new javax.swing.JCheckBox();
+        scopeLabel = new javax.swing.JLabel();
+        scopeComboBox = new javax.swing.JComboBox<>();
+        rangeStartLabel = new javax.swing.JLabel();
+        rangeStartTextField = new javax.swing.JTextField();
+        rangeLengthLabel = new javax.swing.JLabel();
+        rangeLengthTextField = new javax.swing.JTextField();
         replacePanel = new javax.swing.JPanel();
         performReplaceCheckBox = new javax.swing.JCheckBox();
         replaceLabel = new javax.swing.JLabel();
@@ -301,6 +318,22 @@ public class FindBinaryPanel extends javax.swing.JPanel {
 
         searchBackwardCheckBox.setText(resourceBundle.getString("searchBackwardCheckBox.text")); // NOI18N
 
+        scopeLabel.setText(resourceBundle.getString("scopeLabel.text")); // NOI18N
+
+        scopeComboBox.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                scopeComboBoxActionPerformed(evt);
+            }
+        });
+
+        rangeStartLabel.setText(resourceBundle.getString("rangeStartLabel.text")); // NOI18N
+
+        rangeStartTextField.setToolTipText(resourceBundle.getString("rangeStartTextField.toolTipText")); // NOI18N
+
+        rangeLengthLabel.setText(resourceBundle.getString("rangeLengthLabel.text")); // NOI18N
+
+        rangeLengthTextField.setToolTipText(resourceBundle.getString("rangeLengthTextField.toolTipText")); // NOI18N
+
         javax.swing.GroupLayout findPanelLayout = new javax.swing.GroupLayout(findPanel);
         findPanel.setLayout(findPanelLayout);
         findPanelLayout.setHorizontalGroup(
@@ -320,7 +353,19 @@ public class FindBinaryPanel extends javax.swing.JPanel {
                     .addGroup(findPanelLayout.createSequentialGroup()
                         .addComponent(findLabel)
                         .addGap(0, 0, Short.MAX_VALUE))
-                    .addComponent(searchBackwardCheckBox, javax.swing.GroupLayout.DEFAULT_SIZE, 378, Short.MAX_VALUE))
+                    .addComponent(searchBackwardCheckBox, javax.swing.GroupLayout.DEFAULT_SIZE, 378, Short.MAX_VALUE)
+                    .addGroup(findPanelLayout.createSequentialGroup()
+                        .addComponent(scopeLabel)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                        .addComponent(scopeComboBox, 0, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
+                    .addGroup(findPanelLayout.createSequentialGroup()
+                        .addComponent(rangeStartLabel)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                        .addComponent(rangeStartTextField, javax.swing.GroupLayout.DEFAULT_SIZE, 120, Short.MAX_VALUE)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                        .addComponent(rangeLengthLabel)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                        .addComponent(rangeLengthTextField, javax.swing.GroupLayout.DEFAULT_SIZE, 120, Short.MAX_VALUE)))
                 .addContainerGap())
         );
         findPanelLayout.setVerticalGroup(
@@ -341,6 +386,16 @@ public class FindBinaryPanel extends javax.swing.JPanel {
                 .addComponent(multipleMatchesCheckBox)
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                 .addComponent(searchBackwardCheckBox)
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                .addGroup(findPanelLayout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
+                    .addComponent(scopeLabel)
+                    .addComponent(scopeComboBox, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE))
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                .addGroup(findPanelLayout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
+                    .addComponent(rangeStartLabel)
+                    .addComponent(rangeStartTextField, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                    .addComponent(rangeLengthLabel)
+                    .addComponent(rangeLengthTextField, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE))
                 .addContainerGap(javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
         );
 
@@ -435,10 +490,29 @@ public class FindBinaryPanel extends javax.swing.JPanel {
 
     private void searchTypeButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_searchTypeButtonActionPerformed
         SearchCondition condition = (SearchCondition) findComboBoxEditor.getItem();
-        if (condition.getSearchMode() == SearchCondition.SearchMode.TEXT) {
-            condition.setSearchMode(SearchCondition.SearchMode.BINARY);
-        } else {
-            condition.setSearchMode(SearchCondition.SearchMode.TEXT);
+        switch (condition.getSearchMode()) {
+            case TEXT: {
+                condition.setSearchMode(SearchCondition.SearchMode.BINARY);
+                break;
+            }
+            case BINARY: {
+                condition.setSearchMode(SearchCondition.SearchMode.MASKED);
+                break;
+            }
+            case MASKED: {
+                condition.setSearchMode(SearchCondition.SearchMode.PATTERN_SET);
+                break;
+            }
+            case PATTERN_SET: {
+                condition.setSearchMode(SearchCondition.SearchMode.REGEX);
+                break;
+            }
+            case REGEX: {
+                condition.setSearchMode(SearchCondition.SearchMode.VALUE);
+                break;
+            }
+            default:
+                condition.setSearchMode(SearchCondition.SearchMode.TEXT);
         }
         findComboBoxEditor.setItem(condition);
         findComboBox.setEditor(findComboBoxEditor);
@@ -450,6 +524,10 @@ public class FindBinaryPanel extends javax.swing.JPanel {
         updateReplaceEnablement();
     }//GEN-LAST:event_performReplaceCheckBoxActionPerformed
 
+    private void scopeComboBoxActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_scopeComboBoxActionPerformed
+        updateScopeStatus();
+    }//GEN-LAST:event_scopeComboBoxActionPerformed
+
     private void replaceTypeButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_replaceTypeButtonActionPerformed
         SearchCondition condition = (SearchCondition) replaceComboBoxEditor.getItem();
         if (condition.getSearchMode() == SearchCondition.SearchMode.TEXT) {
@@ -474,13 +552,41 @@ public class FindBinaryPanel extends javax.swing.JPanel {
 
     private void updateFindStatus() {
         SearchCondition condition = (SearchCondition) findComboBoxEditor.getItem();
-        if (condition.getSearchMode() == SearchCondition.SearchMode.TEXT) {
-            searchTypeButton.setText("T");
-            matchCaseCheckBox.setEnabled(true);
-        } else {
-            searchTypeButton.setText("B");
-            matchCaseCheckBox.setEnabled(false);
+        switch (condition.getSearchMode()) {
+            case TEXT: {
+                searchTypeButton.setText("T");
+                break;
+            }
+            case BINARY: {
+                searchTypeButton.setText("B");
+                break;
+            }
+            case MASKED: {
+                searchTypeButton.setText("M");
+                break;
+            }
+            case PATTERN_SET: {
+                searchTypeButton.setText("P");
+                break;
+            }
+            case REGEX: {
+                searchTypeButton.setText("R");
+                break;
+            }
+            case VALUE: {
+                searchTypeButton.setText("V");
+                break;
+            }
         }
+        matchCaseCheckBox.setEnabled(condition.getSearchMode() == SearchCondition.SearchMode.TEXT);
+    }
+
+    private void updateScopeStatus() {
+        boolean rangeScope = scopeComboBox.getSelectedIndex() == SearchParameters.SearchScope.RANGE.ordinal();
+        rangeStartLabel.setEnabled(rangeScope);
+        rangeStartTextField.setEnabled(rangeScope);
+        rangeLengthLabel.setEnabled(rangeScope);
+        rangeLengthTextField.setEnabled(rangeScope);
     }
 
     private void updateReplaceStatus() {
@@ -509,12 +615,18 @@ public class FindBinaryPanel extends javax.swing.JPanel {
     private javax.swing.JCheckBox matchCaseCheckBox;
     private javax.swing.JCheckBox multipleMatchesCheckBox;
     private javax.swing.JCheckBox performReplaceCheckBox;
+    private javax.swing.JLabel rangeLengthLabel;
+    private javax.swing.JTextField rangeLengthTextField;
+    private javax.swing.JLabel rangeStartLabel;
+    private javax.swing.JTextField rangeStartTextField;
     private javax.swing.JCheckBox replaceAllMatchesCheckBox;
     private javax.swing.JComboBox<SearchCondition> replaceComboBox;
     private javax.swing.JLabel replaceLabel;
     private javax.swing.JButton replaceMultilineButton;
     private javax.swing.JPanel replacePanel;
     private javax.swing.JButton replaceTypeButton;
+    private javax.swing.JComboBox<String> scopeComboBox;
+    private javax.swing.JLabel scopeLabel;
     private javax.swing.JCheckBox searchBackwardCheckBox;
     private javax.swing.JCheckBox searchFromCursorCheckBox;
     private javax.swing.JButton searchTypeButton;
@@ -541,6 +653,13 @@ public class FindBinaryPanel extends javax.swing.JPanel {
         result.setMatchCase(matchCaseCheckBox.isSelected());
         result.setMatchMode(SearchParameters.MatchMode.fromBoolean(multipleMatchesCheckBox.isSelected()));
         result.setSearchDirection(searchBackwardCheckBox.isSelected() ? SearchParameters.SearchDirection.BACKWARD : SearchParameters.SearchDirection.FORWARD);
+        SearchParameters.SearchScope searchScope = SearchParameters.SearchScope.values()[scopeComboBox.getSelectedIndex()];
+        result.setSearchScope(searchScope);
+        if (searchScope == SearchParameters.SearchScope.RANGE) {
+            long rangeStart = parsePosition(rangeStartTextField.getText());
+            long rangeLength = parsePosition(rangeLengthTextField.getText());
+            result.setSearchRanges(rangeStart >= 0 && rangeLength >= 0 ? Collections.singletonList(new SearchRange(rangeStart, rangeLength)) : Collections.emptyList());
+        }
         return result;
     }
 
@@ -549,6 +668,13 @@ public class FindBinaryPanel extends javax.swing.JPanel {
         matchCaseCheckBox.setSelected(parameters.isMatchCase());
         multipleMatchesCheckBox.setSelected(parameters.getMatchMode() == SearchParameters.MatchMode.MULTIPLE);
         searchBackwardCheckBox.setSelected(parameters.getSearchDirection() == SearchParameters.SearchDirection.BACKWARD);
+        scopeComboBox.setSelectedIndex(parameters.getSearchScope().ordinal());
+        List<SearchRange> searchRanges = parameters.getSearchRanges();
+        if (parameters.getSearchScope() == SearchParameters.SearchScope.RANGE && !searchRanges.isEmpty()) {
+            rangeStartTextField.setText(String.valueOf(searchRanges.get(0).getStartPosition()));
+            rangeLengthTextField.setText(String.valueOf(searchRanges.get(0).getLength()));
+        }
+        updateScopeStatus();
         findComboBoxEditorComponent.setItem(parameters.getCondition());
         findComboBox.setEditor(findComboBoxEditor);
         findComboBox.repaint();
@@ -595,6 +721,22 @@ public class FindBinaryPanel extends javax.swing.JPanel {
         }
     }
 
+    /**
+     * Parses decimal or hexadecimal position prefixed with 0x.
+     *
+     * @param text position text
+     * @return position or -1 if invalid
+     */
+    private static long parsePosition(String text) {
+        String value = text.trim();
+        try {
+            long position = value.startsWith("0x") || value.startsWith("0X") ? Long.parseLong(value.substring(2), 16) : Long.parseLong(value);
+            return position < 0 ? -1 : position;
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
     private void updateReplaceEnablement() {
         boolean replaceEnabled = performReplaceCheckBox.isSelected();
         replaceTypeButton.setEnabled(replaceEnabled);
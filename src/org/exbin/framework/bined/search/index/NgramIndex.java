@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.search.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * On-disk index of 3-byte grams present in blocks of file.
+ * <p>
+ * For each block of file there is bitmap of hashed grams starting in the
+ * block or shortly after it, so that all grams of match starting in block
+ * up to overlap length are present in its bitmap. Bitmaps are stored
+ * transposed for groups of 64 blocks, so lookup of single gram reads one
+ * word per group. Blocks which contain all grams of pattern are candidates
+ * for match, other blocks cannot contain match.
+ */
+@ParametersAreNonnullByDefault
+public class NgramIndex {
+
+    public static final int GRAM_LENGTH = 3;
+    public static final int BLOCK_SIZE = 1024 * 1024;
+    public static final int OVERLAP = 256;
+
+    private static final int MAGIC = 0x42494e47;
+    private static final int VERSION = 1;
+    private static final int HASH_BITS = 19;
+    private static final int HEADER_SIZE = 40;
+    private static final int GROUP_BLOCKS = 64;
+    private static final int MAXIMUM_LOOKUP_GRAMS = 16;
+
+    private final File indexFile;
+    private final long fileSize;
+    private final long lastModified;
+    private final long blocksCount;
+
+    private NgramIndex(File indexFile, long fileSize, long lastModified, long blocksCount) {
+        this.indexFile = indexFile;
+        this.fileSize = fileSize;
+        this.lastModified = lastModified;
+        this.blocksCount = blocksCount;
+    }
+
+    /**
+     * Opens existing index file.
+     *
+     * @param indexFile index file
+     * @return index or null if file is not valid index
+     */
+    @Nullable
+    public static NgramIndex open(File indexFile) {
+        try (RandomAccessFile file = new RandomAccessFile(indexFile, "r")) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            file.getChannel().read(header, 0);
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION
+                    || header.getInt() != BLOCK_SIZE || header.getInt() != HASH_BITS) {
+                return null;
+            }
+
+            long fileSize = header.getLong();
+            long lastModified = header.getLong();
+            long blocksCount = header.getLong();
+            if (blocksCount != getBlocksCount(fileSize) || file.length() != getIndexSize(blocksCount)) {
+                return null;
+            }
+
+            return new NgramIndex(indexFile, fileSize, lastModified, blocksCount);
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Builds index of given file.
+     *
+     * @param sourceFile indexed file
+     * @param indexFile target index file
+     * @param cancelled flag for cancellation of build
+     * @return true if index was built
+     * @throws IOException if reading or writing fails
+     */
+    public static boolean build(File sourceFile, File indexFile, AtomicBoolean cancelled) throws IOException {
+        long lastModified = sourceFile.lastModified();
+        try (FileChannel source = FileChannel.open(sourceFile.toPath(), StandardOpenOption.READ);
+                FileChannel target = FileChannel.open(indexFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long fileSize = source.size();
+            long blocksCount = getBlocksCount(fileSize);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(BLOCK_SIZE).putInt(HASH_BITS);
+            header.putLong(fileSize).putLong(lastModified).putLong(blocksCount);
+            header.flip();
+            target.write(header, 0);
+
+            long[] words = new long[1 << HASH_BITS];
+            ByteBuffer wordsBuffer = ByteBuffer.allocateDirect(words.length * 8).order(ByteOrder.LITTLE_ENDIAN);
+            ByteBuffer blockBuffer = ByteBuffer.allocate(BLOCK_SIZE + OVERLAP + GRAM_LENGTH - 1);
+            byte[] block = blockBuffer.array();
+            long targetPosition = HEADER_SIZE;
+            for (long groupStart = 0; groupStart < blocksCount; groupStart += GROUP_BLOCKS) {
+                Arrays.fill(words, 0);
+                int groupBlocks = (int) Math.min(GROUP_BLOCKS, blocksCount - groupStart);
+                for (int blockIndex = 0; blockIndex < groupBlocks; blockIndex++) {
+                    if (cancelled.get()) {
+                        return false;
+                    }
+
+                    long blockPosition = (groupStart + blockIndex) * BLOCK_SIZE;
+                    blockBuffer.clear();
+                    while (blockBuffer.hasRemaining()) {
+                        if (source.read(blockBuffer, blockPosition + blockBuffer.position()) < 0) {
+                            break;
+                        }
+                    }
+
+                    int length = blockBuffer.position();
+                    long bit = 1L << blockIndex;
+                    int gram = ((block[0] & 0xff) << 8) | (length > 1 ? block[1] & 0xff : 0);
+                    for (int i = GRAM_LENGTH - 1; i < length; i++) {
+                        gram = ((gram << 8) | (block[i] & 0xff)) & 0xffffff;
+                        words[hash(gram)] |= bit;
+                    }
+                }
+
+                wordsBuffer.clear();
+                wordsBuffer.asLongBuffer().put(words);
+                while (wordsBuffer.hasRemaining()) {
+                    targetPosition += target.write(wordsBuffer, targetPosition);
+                }
+            }
+        }
+
+        if (sourceFile.lastModified() != lastModified) {
+            // File was modified during indexing
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if index is valid for current state of given file.
+     *
+     * @param file indexed file
+     * @return true if valid
+     */
+    public boolean isValidFor(File file) {
+        return file.length() == fileSize && file.lastModified() == lastModified;
+    }
+
+    @Nonnull
+    public File getIndexFile() {
+        return indexFile;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public long getBlocksCount() {
+        return blocksCount;
+    }
+
+    /**
+     * Finds blocks which can contain matches of given pattern starting in
+     * them.
+     *
+     * @param pattern searched pattern, at least gram length long
+     * @return set of indexes of candidate blocks
+     * @throws IOException if reading of index fails
+     */
+    @Nonnull
+    public BitSet findCandidateBlocks(byte[] pattern) throws IOException {
+        int[] hashes = getPatternHashes(pattern);
+        BitSet candidates = new BitSet();
+        ByteBuffer word = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+            for (long groupStart = 0; groupStart < blocksCount; groupStart += GROUP_BLOCKS) {
+                long groupPosition = HEADER_SIZE + (groupStart / GROUP_BLOCKS) * (8L << HASH_BITS);
+                long groupCandidates = -1L;
+                for (int hash : hashes) {
+                    word.clear();
+                    while (word.hasRemaining()) {
+                        if (channel.read(word, groupPosition + hash * 8L + word.position()) < 0) {
+                            throw new IOException("Unexpected end of index file");
+                        }
+                    }
+                    groupCandidates &= word.getLong(0);
+                    if (groupCandidates == 0) {
+                        break;
+                    }
+                }
+
+                while (groupCandidates != 0) {
+                    int blockIndex = Long.numberOfTrailingZeros(groupCandidates);
+                    candidates.set((int) (groupStart + blockIndex));
+                    groupCandidates &= groupCandidates - 1;
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns distinct hashes of grams of pattern up to overlap length.
+     */
+    @Nonnull
+    private static int[] getPatternHashes(byte[] pattern) {
+        if (pattern.length < GRAM_LENGTH) {
+            throw new IllegalArgumentException("Pattern is shorter than gram");
+        }
+
+        int gramsCount = Math.min(pattern.length - GRAM_LENGTH + 1, OVERLAP + 1);
+        int step = Math.max(1, gramsCount / MAXIMUM_LOOKUP_GRAMS);
+        int[] hashes = new int[Math.min(gramsCount, MAXIMUM_LOOKUP_GRAMS)];
+        int hashesCount = 0;
+        for (int offset = 0; offset < gramsCount && hashesCount < hashes.length; offset += step) {
+            int gram = ((pattern[offset] & 0xff) << 16) | ((pattern[offset + 1] & 0xff) << 8) | (pattern[offset + 2] & 0xff);
+            int hash = hash(gram);
+            boolean present = false;
+            for (int i = 0; i < hashesCount; i++) {
+                present |= hashes[i] == hash;
+            }
+            if (!present) {
+                hashes[hashesCount++] = hash;
+            }
+        }
+        return Arrays.copyOf(hashes, hashesCount);
+    }
+
+    private static int hash(int gram) {
+        return (gram * 0x9e3779b1) >>> (32 - HASH_BITS);
+    }
+
+    private static long getBlocksCount(long fileSize) {
+        return (fileSize + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    }
+
+    private static long getIndexSize(long blocksCount) {
+        long groupsCount = (blocksCount + GROUP_BLOCKS - 1) / GROUP_BLOCKS;
+        return HEADER_SIZE + groupsCount * (8L << HASH_BITS);
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.search.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * Cache of n-gram indexes of large files stored in user directory.
+ * <p>
+ * Indexes are identified by path of indexed file and validated against its
+ * size and modification time. Missing or stale indexes are built in
+ * background and least recently used indexes are removed when total size
+ * of cache exceeds limit.
+ */
+@ParametersAreNonnullByDefault
+public class SearchIndexCache {
+
+    public static final long DEFAULT_MINIMUM_FILE_SIZE = 64 * 1024 * 1024;
+    public static final long DEFAULT_MAXIMUM_CACHE_SIZE = 2L * 1024 * 1024 * 1024;
+    private static final String INDEX_FILE_EXTENSION = ".ngi";
+
+    private static SearchIndexCache defaultCache = null;
+
+    private final File cacheDirectory;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Search index builder");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private final Map<File, AtomicBoolean> pendingBuilds = new HashMap<>();
+    private long minimumFileSize = DEFAULT_MINIMUM_FILE_SIZE;
+    private long maximumCacheSize = DEFAULT_MAXIMUM_CACHE_SIZE;
+
+    public SearchIndexCache(File cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * Returns cache stored in user home directory.
+     *
+     * @return default cache
+     */
+    @Nonnull
+    public static synchronized SearchIndexCache getDefault() {
+        if (defaultCache == null) {
+            defaultCache = new SearchIndexCache(new File(System.getProperty("user.home"), ".bined" + File.separator + "search-index"));
+        }
+        return defaultCache;
+    }
+
+    public long getMinimumFileSize() {
+        return minimumFileSize;
+    }
+
+    public void setMinimumFileSize(long minimumFileSize) {
+        this.minimumFileSize = minimumFileSize;
+    }
+
+    public long getMaximumCacheSize() {
+        return maximumCacheSize;
+    }
+
+    public void setMaximumCacheSize(long maximumCacheSize) {
+        this.maximumCacheSize = maximumCacheSize;
+    }
+
+    /**
+     * Returns valid index of given file.
+     * <p>
+     * If index is missing or stale, its build is scheduled in background.
+     *
+     * @param file indexed file
+     * @return index or null if not available yet
+     */
+    @Nullable
+    public NgramIndex getIndex(File file) {
+        if (!file.isFile() || file.length() < minimumFileSize) {
+            return null;
+        }
+
+        File indexFile = getIndexFile(file);
+        if (indexFile.isFile()) {
+            NgramIndex index = NgramIndex.open(indexFile);
+            if (index != null && index.isValidFor(file)) {
+                indexFile.setLastModified(System.currentTimeMillis());
+                return index;
+            }
+        }
+
+        scheduleBuild(file, indexFile);
+        return null;
+    }
+
+    /**
+     * Cancels pending builds of indexes.
+     */
+    public void cancelBuilds() {
+        synchronized (pendingBuilds) {
+            for (AtomicBoolean cancelled : pendingBuilds.values()) {
+                cancelled.set(true);
+            }
+        }
+    }
+
+    private void scheduleBuild(File file, File indexFile) {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        synchronized (pendingBuilds) {
+            if (pendingBuilds.containsKey(indexFile)) {
+                return;
+            }
+            pendingBuilds.put(indexFile, cancelled);
+        }
+
+        executor.execute(() -> {
+            File tempFile = new File(indexFile.getPath() + ".tmp");
+            try {
+                if (!cacheDirectory.isDirectory() && !cacheDirectory.mkdirs()) {
+                    throw new IOException("Unable to create index directory " + cacheDirectory);
+                }
+                if (NgramIndex.build(file, tempFile, cancelled)) {
+                    Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    evictIndexes(indexFile);
+                }
+            } catch (IOException ex) {
+                Logger.getLogger(SearchIndexCache.class.getName()).log(Level.WARNING, "Search index build failed", ex);
+            } finally {
+                tempFile.delete();
+                synchronized (pendingBuilds) {
+                    pendingBuilds.remove(indexFile);
+                }
+            }
+        });
+    }
+
+    /**
+     * Removes least recently used indexes over size limit.
+     */
+    private void evictIndexes(File keptIndexFile) {
+        File[] indexFiles = cacheDirectory.listFiles((directory, name) -> name.endsWith(INDEX_FILE_EXTENSION));
+        if (indexFiles == null) {
+            return;
+        }
+
+        Arrays.sort(indexFiles, Comparator.comparingLong(File::lastModified).reversed());
+        long totalSize = 0;
+        for (File indexFile : indexFiles) {
+            totalSize += indexFile.length();
+            if (totalSize > maximumCacheSize && !indexFile.equals(keptIndexFile)) {
+                indexFile.delete();
+            }
+        }
+    }
+
+    @Nonnull
+    private File getIndexFile(File file) {
+        String path;
+        try {
+            path = file.getCanonicalPath();
+        } catch (IOException ex) {
+            path = file.getAbsolutePath();
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest(path.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder();
+            for (byte value : hash) {
+                name.append(String.format("%02x", value & 0xff));
+            }
+            return new File(cacheDirectory, name.toString() + INDEX_FILE_EXTENSION);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
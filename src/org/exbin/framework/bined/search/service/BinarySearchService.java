@@ -34,6 +34,15 @@ public interface BinarySearchService {
 
     void performReplace(SearchParameters searchParameters, ReplaceParameters replaceParameters);
 
+    /**
+     * Replaces all matches in single pass recorded as single undo step.
+     *
+     * @param searchParameters search parameters
+     * @param replaceParameters replace parameters
+     * @param searchStatusListener search status listener
+     */
+    void performReplaceAll(SearchParameters searchParameters, ReplaceParameters replaceParameters, SearchStatusListener searchStatusListener);
+
     @Nonnull
     SearchParameters getLastSearchParameters();
 
@@ -45,12 +54,40 @@ public interface BinarySearchService {
         void setStatus(FoundMatches foundMatches, SearchParameters.MatchMode matchMode);
 
         void clearStatus();
+
+        /**
+         * Reports finished replacement of all matches.
+         *
+         * @param replacedCount count of replaced matches
+         */
+        void setReplaceStatus(int replacedCount);
+
+        /**
+         * Reports replacement of all matches not performed as data were
+         * repeatedly modified while it was prepared.
+         */
+        void setReplaceAbortedStatus();
+
+        /**
+         * Reports progress of running search.
+         *
+         * @param progress fraction of processed data in range 0 to 1
+         */
+        void setProgress(double progress);
+
+        /**
+         * Returns true if running search should be terminated.
+         *
+         * @return true if cancelled
+         */
+        boolean isCancelled();
     }
 
     public static class FoundMatches {
 
         private int matchesCount;
         private int matchPosition;
+        private boolean truncated;
 
         public FoundMatches() {
             matchesCount = 0;
@@ -58,12 +95,24 @@ public interface BinarySearchService {
         }
 
         public FoundMatches(int matchesCount, int matchPosition) {
+            this(matchesCount, matchPosition, false);
+        }
+
+        /**
+         * Creates found matches status.
+         *
+         * @param matchesCount count of matches
+         * @param matchPosition index of current match
+         * @param truncated true if search stopped at maximum count of matches
+         */
+        public FoundMatches(int matchesCount, int matchPosition, boolean truncated) {
             if (matchPosition >= matchesCount) {
                 throw new IllegalStateException("Match position is out of range");
             }
 
             this.matchesCount = matchesCount;
             this.matchPosition = matchPosition;
+            this.truncated = truncated;
         }
 
         public int getMatchesCount() {
@@ -74,6 +123,10 @@ public interface BinarySearchService {
             return matchPosition;
         }
 
+        public boolean isTruncated() {
+            return truncated;
+        }
+
         public void setMatchesCount(int matchesCount) {
             this.matchesCount = matchesCount;
         }
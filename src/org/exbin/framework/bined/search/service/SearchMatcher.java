@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.search.service;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.exbin.auxiliary.binary_data.BinaryData;
+
+/**
+ * Matching engine for searching occurrences of condition in binary data.
+ */
+@ParametersAreNonnullByDefault
+public interface SearchMatcher {
+
+    /**
+     * Finds first match starting at or after given position.
+     *
+     * @param data searched data
+     * @param position position to start search at
+     * @param endPosition position where whole match has to end before
+     * @return position of match or -1 if not found
+     */
+    long findNext(BinaryData data, long position, long endPosition);
+
+    /**
+     * Finds last match starting at or before given position.
+     *
+     * @param data searched data
+     * @param position position to start backward search at
+     * @param startPosition lowest position where match can start
+     * @param endPosition position where whole match has to end before
+     * @return position of match or -1 if not found
+     */
+    long findPrevious(BinaryData data, long position, long startPosition, long endPosition);
+
+    /**
+     * Returns length of the last found match.
+     *
+     * @return length in bytes
+     */
+    long getMatchLength();
+
+    /**
+     * Returns index of pattern of the last found match.
+     *
+     * @return pattern index, 0 for single pattern matchers
+     */
+    int getMatchPatternIndex();
+
+    /**
+     * Returns maximum length of match this matcher can produce.
+     * <p>
+     * It's used as overlap when searched data are processed in segments.
+     *
+     * @return length in bytes
+     */
+    long getMaximumMatchLength();
+
+    /**
+     * Returns true if found matches can overlap, so that search for next
+     * match continues right after start of previous match.
+     * <p>
+     * Otherwise search continues after end of previous match.
+     *
+     * @return true for overlapping matches
+     */
+    default boolean isOverlappingMatches() {
+        return true;
+    }
+
+    /**
+     * Creates independent matcher for the same condition.
+     * <p>
+     * Matchers keep state of the last search, so each thread needs its own.
+     *
+     * @return new matcher
+     */
+    @Nonnull
+    SearchMatcher createCopy();
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.search.service.impl;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.framework.bined.search.PatternSet;
+import org.exbin.framework.bined.search.service.SearchMatcher;
+
+/**
+ * Multiple pattern matcher using Aho-Corasick automaton.
+ * <p>
+ * All patterns are found in single pass over data. When multiple patterns
+ * match at the same position, the longest one is reported. Backward search
+ * uses automaton built from reversed patterns.
+ */
+@ParametersAreNonnullByDefault
+public class AhoCorasickSearchMatcher implements SearchMatcher {
+
+    private final Automaton forwardAutomaton;
+    private final Automaton backwardAutomaton;
+    private final int[] patternLengths;
+    private final int maxPatternLength;
+    private final SearchDataBuffer dataBuffer;
+    private int matchPatternIndex = -1;
+
+    public AhoCorasickSearchMatcher(PatternSet patternSet) {
+        List<byte[]> patterns = patternSet.getPatterns();
+        if (patterns.isEmpty()) {
+            throw new IllegalArgumentException("Pattern set cannot be empty");
+        }
+
+        patternLengths = new int[patterns.size()];
+        int maxLength = 0;
+        for (int i = 0; i < patternLengths.length; i++) {
+            int length = patterns.get(i).length;
+            if (length == 0) {
+                throw new IllegalArgumentException("Search pattern cannot be empty");
+            }
+            patternLengths[i] = length;
+            maxLength = Math.max(maxLength, length);
+        }
+        maxPatternLength = maxLength;
+        forwardAutomaton = new Automaton(patterns, false);
+        backwardAutomaton = new Automaton(patterns, true);
+        dataBuffer = new SearchDataBuffer(maxPatternLength);
+    }
+
+    private AhoCorasickSearchMatcher(AhoCorasickSearchMatcher source) {
+        forwardAutomaton = source.forwardAutomaton;
+        backwardAutomaton = source.backwardAutomaton;
+        patternLengths = source.patternLengths;
+        maxPatternLength = source.maxPatternLength;
+        dataBuffer = new SearchDataBuffer(maxPatternLength);
+    }
+
+    @Override
+    public long findNext(BinaryData data, long position, long endPosition) {
+        long limit = Math.min(endPosition, data.getDataSize());
+        if (position < 0) {
+            position = 0;
+        }
+
+        int[] transitions = forwardAutomaton.transitions;
+        int[] outputs = forwardAutomaton.outputs;
+        int state = 0;
+        long matchPosition = -1;
+        int matchIndex = -1;
+        while (position < limit) {
+            int length = dataBuffer.loadForward(data, position, limit);
+            byte[] buffer = dataBuffer.getBuffer();
+            for (int offset = 0; offset < length; offset++) {
+                state = transitions[(state << 8) | (buffer[offset] & 0xff)];
+                int patternIndex = outputs[state];
+                long endPositionOfMatch = position + offset;
+                if (patternIndex >= 0) {
+                    long startPosition = endPositionOfMatch - patternLengths[patternIndex] + 1;
+                    // Later match with the same start is longer
+                    if (matchPosition < 0 || startPosition <= matchPosition) {
+                        matchPosition = startPosition;
+                        matchIndex = patternIndex;
+                    }
+                }
+                if (matchPosition >= 0 && endPositionOfMatch >= matchPosition + maxPatternLength - 1) {
+                    matchPatternIndex = matchIndex;
+                    return matchPosition;
+                }
+            }
+            position += length;
+        }
+
+        matchPatternIndex = matchIndex;
+        return matchPosition;
+    }
+
+    @Override
+    public long findPrevious(BinaryData data, long position, long startPosition, long endPosition) {
+        long limit = Math.min(endPosition, data.getDataSize());
+        if (startPosition < 0) {
+            startPosition = 0;
+        }
+        if (position < startPosition) {
+            return -1;
+        }
+
+        int[] transitions = backwardAutomaton.transitions;
+        int[] outputs = backwardAutomaton.outputs;
+        int state = 0;
+        long scanPosition = Math.min(limit, position + maxPatternLength);
+        while (scanPosition > startPosition) {
+            int length = dataBuffer.loadBackward(data, startPosition, scanPosition);
+            byte[] buffer = dataBuffer.getBuffer();
+            long bufferStart = dataBuffer.getBufferStart();
+            for (int offset = length - 1; offset >= 0; offset--) {
+                state = transitions[(state << 8) | (buffer[offset] & 0xff)];
+                int patternIndex = outputs[state];
+                if (patternIndex >= 0 && bufferStart + offset <= position) {
+                    matchPatternIndex = patternIndex;
+                    return bufferStart + offset;
+                }
+            }
+            scanPosition = bufferStart;
+        }
+
+        return -1;
+    }
+
+    @Override
+    public long getMatchLength() {
+        return matchPatternIndex >= 0 ? patternLengths[matchPatternIndex] : 0;
+    }
+
+    @Override
+    public int getMatchPatternIndex() {
+        return matchPatternIndex;
+    }
+
+    @Override
+    public long getMaximumMatchLength() {
+        return maxPatternLength;
+    }
+
+    @Nonnull
+    @Override
+    public SearchMatcher createCopy() {
+        return new AhoCorasickSearchMatcher(this);
+    }
+
+    /**
+     * Deterministic automaton with transitions for all byte values.
+     * <p>
+     * Output of each state is index of the longest pattern ending in it.
+     */
+    private static class Automaton {
+
+        private final int[] transitions;
+        private final int[] outputs;
+
+        Automaton(List<byte[]> patterns, boolean reversed) {
+            int maxStates = 1;
+            for (byte[] pattern : patterns) {
+                maxStates += pattern.length;
+            }
+
+            int[] trie = new int[maxStates << 8];
+            Arrays.fill(trie, -1);
+            int[] stateOutputs = new int[maxStates];
+            Arrays.fill(stateOutputs, -1);
+            int statesCount = 1;
+            for (int patternIndex = 0; patternIndex < patterns.size(); patternIndex++) {
+                byte[] pattern = patterns.get(patternIndex);
+                int state = 0;
+                for (int i = 0; i < pattern.length; i++) {
+                    int value = pattern[reversed ? pattern.length - 1 - i : i] & 0xff;
+                    int next = trie[(state << 8) | value];
+                    if (next < 0) {
+                        next = statesCount++;
+                        trie[(state << 8) | value] = next;
+                    }
+                    state = next;
+                }
+                if (stateOutputs[state] < 0) {
+                    stateOutputs[state] = patternIndex;
+                }
+            }
+
+            transitions = Arrays.copyOf(trie, statesCount << 8);
+            outputs = Arrays.copyOf(stateOutputs, statesCount);
+            int[] failures = new int[statesCount];
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int value = 0; value < 256; value++) {
+                int next = transitions[value];
+                if (next < 0) {
+                    transitions[value] = 0;
+                } else {
+                    failures[next] = 0;
+                    queue.add(next);
+                }
+            }
+
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                if (outputs[state] < 0) {
+                    outputs[state] = outputs[failures[state]];
+                }
+                int failureBase = failures[state] << 8;
+                for (int value = 0; value < 256; value++) {
+                    int index = (state << 8) | value;
+                    int next = transitions[index];
+                    if (next < 0) {
+                        transitions[index] = transitions[failureBase | value];
+                    } else {
+                        failures[next] = transitions[failureBase | value];
+                        queue.add(next);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -15,24 +15,70 @@
  */
 package org.exbin.framework.bined.search.service.impl;
 
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
 import java.util.ArrayList;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
-import org.exbin.bined.highlight.swing.extended.ExtendedHighlightNonAsciiCodeAreaPainter;
+import javax.swing.SwingUtilities;
 import org.exbin.bined.swing.extended.ExtCodeArea;
+import org.exbin.framework.bined.BinEdCodeAreaPainter;
+import org.exbin.framework.bined.DataEditTracker;
+import org.exbin.framework.bined.SynchronizedBinaryData;
+import org.exbin.framework.bined.search.MaskedPattern;
+import org.exbin.framework.bined.search.PatternSet;
 import org.exbin.framework.bined.search.ReplaceParameters;
 import org.exbin.framework.bined.search.SearchCondition;
+import org.exbin.framework.bined.search.SearchMatchStore;
+import org.exbin.framework.bined.search.SearchMatchesPositionColorModifier;
 import org.exbin.framework.bined.search.SearchParameters;
+import org.exbin.framework.bined.search.SearchRange;
+import org.exbin.framework.bined.search.ValuePattern;
+import org.exbin.framework.bined.search.index.NgramIndex;
+import org.exbin.framework.bined.search.index.SearchIndexCache;
 import org.exbin.framework.bined.search.service.BinarySearchService;
+import org.exbin.framework.bined.search.service.SearchMatcher;
 import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.auxiliary.binary_data.ByteArrayData;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
-import org.exbin.bined.CharsetStreamTranslator;
+import org.exbin.auxiliary.binary_data.delta.DataSegment;
+import org.exbin.auxiliary.binary_data.delta.DeltaDocument;
+import org.exbin.auxiliary.binary_data.delta.FileDataSource;
+import org.exbin.auxiliary.binary_data.delta.FileSegment;
+import org.exbin.auxiliary.binary_data.paged.PagedData;
+import org.exbin.bined.operation.BinaryDataOperationException;
+import org.exbin.bined.operation.swing.CodeAreaOperationCommandHandler;
+import org.exbin.bined.operation.swing.command.CodeAreaCommand;
+import org.exbin.bined.operation.swing.command.CodeAreaCommandType;
+import org.exbin.bined.swing.CodeAreaCommandHandler;
+import org.exbin.bined.swing.CodeAreaCore;
+import org.exbin.bined.capability.CaretCapable;
+import org.exbin.bined.capability.ScrollingCapable;
 import org.exbin.bined.CodeAreaUtils;
-import org.exbin.bined.highlight.swing.extended.ExtendedHighlightCodeAreaPainter;
+import org.exbin.bined.SelectionRange;
 
 /**
  * Binary search service.
@@ -40,278 +86,705 @@ import org.exbin.bined.highlight.swing.extended.ExtendedHighlightCodeAreaPainter
 @ParametersAreNonnullByDefault
 public class BinarySearchServiceImpl implements BinarySearchService {
 
-    private static final int MAX_MATCHES_COUNT = 100;
+    private static final int SEARCH_CHUNK_SIZE = 4 * 1024 * 1024;
+    private static final long PUBLISH_INTERVAL = 250;
+    private static final long PARALLEL_SEARCH_THRESHOLD = 64 * 1024 * 1024;
+    private static final long PARALLEL_SEGMENT_SIZE = 8 * 1024 * 1024;
+    private static final int REFINE_CHECK_INTERVAL = 4096;
+    private static final int REPLACE_CHECK_INTERVAL = 4096;
+    private static final int REPLACE_ATTEMPTS = 3;
+    private static final long LOCAL_UPDATE_LIMIT = 1024 * 1024;
+    private static final long VERIFY_LIMIT = 16 * 1024 * 1024;
     private final ExtCodeArea codeArea;
     private final SearchParameters lastSearchParameters = new SearchParameters();
+    private final SearchMatchesPositionColorModifier matchesColorModifier;
+    private SearchMatchStore matches = new SearchMatchStore();
+    private boolean matchesTruncated = false;
+    private MatchesPublisher activePublisher = null;
+    private int currentMatchIndex = -1;
+    private volatile CompletedSearch completedSearch = null;
+    private volatile long dataChangesCount = 0;
+    private final DataEditTracker editTracker;
+    private MatchesState matchesState = null;
+    private SearchIndexCache searchIndexCache = null;
 
     public BinarySearchServiceImpl(ExtCodeArea codeArea) {
         this.codeArea = codeArea;
+        BinEdCodeAreaPainter painter = (BinEdCodeAreaPainter) codeArea.getPainter();
+        matchesColorModifier = new SearchMatchesPositionColorModifier(painter);
+        painter.addPriorityColorModifier(matchesColorModifier);
+        editTracker = new DataEditTracker(codeArea);
+        codeArea.addDataChangedListener(() -> {
+            CompletedSearch previousSearch = completedSearch;
+            completedSearch = null;
+            dataChangesCount++;
+            updateMatches(editTracker.dataChanged(), previousSearch);
+        });
     }
 
     @Override
     public void performFind(SearchParameters searchParameters, SearchStatusListener searchStatusListener) {
-        ExtendedHighlightNonAsciiCodeAreaPainter painter = (ExtendedHighlightNonAsciiCodeAreaPainter) codeArea.getPainter();
         SearchCondition condition = searchParameters.getCondition();
         searchStatusListener.clearStatus();
         if (condition.isEmpty()) {
-            painter.clearMatches();
+            clearMatches();
             codeArea.repaint();
             return;
         }
 
-        long position;
+        searchParameters.setStartPosition(getSearchStartPosition(searchParameters));
+        resolveSearchRanges(searchParameters);
+
+        if (refineMatches(searchParameters, searchStatusListener)) {
+            return;
+        }
+        search(searchParameters, searchStatusListener);
+    }
+
+    /**
+     * Returns position where search starts for given direction.
+     */
+    private long getSearchStartPosition(SearchParameters searchParameters) {
+        // Scoped search always covers whole ranges
+        boolean fromCursor = searchParameters.isSearchFromCursor() && searchParameters.getSearchScope() == SearchParameters.SearchScope.ALL;
         switch (searchParameters.getSearchDirection()) {
             case FORWARD: {
-                if (searchParameters.isSearchFromCursor()) {
-                    position = codeArea.getCaretPosition().getDataPosition();
-                } else {
-                    position = 0;
+                if (fromCursor) {
+                    return codeArea.getCaretPosition().getDataPosition();
                 }
-                break;
+
+                return 0;
             }
             case BACKWARD: {
-                if (searchParameters.isSearchFromCursor()) {
-                    position = codeArea.getCaretPosition().getDataPosition() - 1;
-                } else {
-                    long searchDataSize;
-                    switch (condition.getSearchMode()) {
-                        case TEXT: {
-                            searchDataSize = condition.getSearchText().length();
-                            break;
-                        }
-                        case BINARY: {
-                            searchDataSize = condition.getBinaryData().getDataSize();
-                            break;
-                        }
-                        default:
-                            throw CodeAreaUtils.getInvalidTypeException(condition.getSearchMode());
-                    }
-                    position = codeArea.getDataSize() - searchDataSize;
+                if (fromCursor) {
+                    return codeArea.getCaretPosition().getDataPosition() - 1;
                 }
-                break;
+
+                // Matchers align start position to the length of the match
+                return codeArea.getDataSize() - 1;
             }
             default:
                 throw CodeAreaUtils.getInvalidTypeException(searchParameters.getSearchDirection());
         }
-        searchParameters.setStartPosition(position);
+    }
 
-        switch (condition.getSearchMode()) {
-            case TEXT: {
-                searchForText(searchParameters, searchStatusListener);
-                break;
+    /**
+     * Sets current selection as search ranges for selection scope.
+     */
+    private void resolveSearchRanges(SearchParameters searchParameters) {
+        if (searchParameters.getSearchScope() == SearchParameters.SearchScope.SELECTION) {
+            SelectionRange selection = codeArea.getSelection();
+            searchParameters.setSearchRanges(selection.isEmpty()
+                    ? Collections.emptyList()
+                    : Collections.singletonList(new SearchRange(selection.getFirst(), selection.getLength())));
+        }
+    }
+
+    /**
+     * Finds matches by filtering matches of previous completed search.
+     * <p>
+     * It's possible when condition was only extended, for example by typing
+     * another character, so that every new match is also previous match.
+     *
+     * @return true if search was performed
+     */
+    private boolean refineMatches(SearchParameters searchParameters, SearchStatusListener searchStatusListener) {
+        CompletedSearch previousSearch = completedSearch;
+        BinaryData data = codeArea.getContentData();
+        if (previousSearch == null || !previousSearch.isRefinedBy(searchParameters, codeArea.getCharset(), data)) {
+            return false;
+        }
+
+        SearchMatcher matcher;
+        try {
+            matcher = createMatcher(searchParameters);
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+
+        lastSearchParameters.setFromParameters(searchParameters);
+        SearchMatchStore foundMatches = filterMatches(previousSearch.matches, matcher, data, getMatchRanges(searchParameters, data.getDataSize()), searchStatusListener);
+        if (foundMatches == null) {
+            return true;
+        }
+
+        publishMatches(foundMatches, matcher, searchParameters, true, true, searchStatusListener);
+        return true;
+    }
+
+    /**
+     * Returns matches of given matcher out of previous matches in given
+     * ranges.
+     *
+     * @return found matches or null if cancelled
+     */
+    @Nullable
+    private static SearchMatchStore filterMatches(SearchMatchStore previousMatches, SearchMatcher matcher, BinaryData data, List<MatchRange> matchRanges, SearchStatusListener searchStatusListener) {
+        long maximumLength = matcher.getMaximumMatchLength();
+        int totalCount = 0;
+        for (MatchRange matchRange : matchRanges) {
+            totalCount += previousMatches.findNextMatch(matchRange.startsEnd) - previousMatches.findNextMatch(matchRange.startsStart);
+        }
+
+        SearchMatchStore foundMatches = new SearchMatchStore();
+        int processedCount = 0;
+        for (MatchRange matchRange : matchRanges) {
+            int firstIndex = previousMatches.findNextMatch(matchRange.startsStart);
+            int endIndex = previousMatches.findNextMatch(matchRange.startsEnd);
+            for (int index = firstIndex; index < endIndex; index++) {
+                if (processedCount % REFINE_CHECK_INTERVAL == 0) {
+                    if (searchStatusListener.isCancelled()) {
+                        return null;
+                    }
+                    searchStatusListener.setProgress((double) processedCount / totalCount);
+                }
+                processedCount++;
+
+                long position = previousMatches.getPosition(index);
+                if (matcher.findNext(data, position, Math.min(matchRange.endLimit, position + maximumLength)) == position) {
+                    foundMatches.addLast(position, matcher.getMatchLength(), matcher.getMatchPatternIndex());
+                    if (foundMatches.isFull()) {
+                        return foundMatches;
+                    }
+                }
             }
+        }
+        return foundMatches;
+    }
+
+    private void search(SearchParameters searchParameters, SearchStatusListener searchStatusListener) {
+        SearchMatcher matcher;
+        try {
+            matcher = createMatcher(searchParameters);
+        } catch (IllegalArgumentException ex) {
+            publishInvalidCondition(searchParameters, searchStatusListener);
+            return;
+        }
+
+        searchWithMatcher(matcher, searchParameters, searchStatusListener);
+    }
+
+    @Nonnull
+    private SearchMatcher createMatcher(SearchParameters searchParameters) {
+        return createMatcher(searchParameters, codeArea.getCharset());
+    }
+
+    /**
+     * Creates matching engine for search condition.
+     *
+     * @param searchParameters search parameters
+     * @param charset charset for text conditions
+     * @return search matcher
+     * @throws IllegalArgumentException if condition is not valid
+     */
+    @Nonnull
+    public static SearchMatcher createMatcher(SearchParameters searchParameters, Charset charset) {
+        SearchCondition condition = searchParameters.getCondition();
+        switch (condition.getSearchMode()) {
+            case TEXT:
+                return createTextMatcher(condition.getSearchText(), charset, searchParameters.isMatchCase());
             case BINARY: {
-                searchForBinaryData(searchParameters, searchStatusListener);
-                break;
+                BinaryData searchData = Objects.requireNonNull(condition.getBinaryData());
+                byte[] pattern = new byte[(int) searchData.getDataSize()];
+                searchData.copyToArray(0, pattern, 0, pattern.length);
+                return new HorspoolSearchMatcher(pattern);
             }
+            case MASKED:
+                return new MaskedSearchMatcher(MaskedPattern.parse(condition.getSearchText()));
+            case PATTERN_SET:
+                return new AhoCorasickSearchMatcher(PatternSet.parse(condition.getSearchText(), charset));
+            case REGEX:
+                return new ByteRegexSearchMatcher(ByteRegexParser.parse(condition.getSearchText(), charset));
+            case VALUE:
+                return new ValueSearchMatcher(ValuePattern.parse(condition.getSearchText()));
             default:
                 throw CodeAreaUtils.getInvalidTypeException(condition.getSearchMode());
         }
     }
 
     /**
-     * Performs search by binary data.
+     * Reports condition which cannot be parsed as search without matches.
      */
-    private void searchForBinaryData(SearchParameters searchParameters, SearchStatusListener searchStatusListener) {
-        ExtendedHighlightNonAsciiCodeAreaPainter painter = (ExtendedHighlightNonAsciiCodeAreaPainter) codeArea.getPainter();
-        SearchCondition condition = searchParameters.getCondition();
-        long position = searchParameters.getStartPosition();
+    private void publishInvalidCondition(SearchParameters searchParameters, SearchStatusListener searchStatusListener) {
+        lastSearchParameters.setFromParameters(searchParameters);
+        publishMatches(new SearchMatchStore(), null, searchParameters, true, false, searchStatusListener);
+    }
 
-        BinaryData searchData = condition.getBinaryData();
-        long searchDataSize = searchData.getDataSize();
+    /**
+     * Performs search using given matching engine.
+     * <p>
+     * Data are processed in chunks so that search can be cancelled, progress
+     * reported and found matches are published to painter as they are found.
+     * Only searched ranges are read.
+     */
+    private void searchWithMatcher(SearchMatcher matcher, SearchParameters searchParameters, SearchStatusListener searchStatusListener) {
         BinaryData data = codeArea.getContentData();
-
-        List<ExtendedHighlightNonAsciiCodeAreaPainter.SearchMatch> foundMatches = new ArrayList<>();
-
         long dataSize = data.getDataSize();
-        while (position >= 0 && position <= dataSize - searchDataSize) {
-            int matchLength = 0;
-            while (matchLength < searchDataSize) {
-                if (data.getByte(position + matchLength) != searchData.getByte(matchLength)) {
-                    break;
+        boolean backward = searchParameters.getSearchDirection() == SearchParameters.SearchDirection.BACKWARD;
+        boolean singleMatch = searchParameters.getMatchMode() == SearchParameters.MatchMode.SINGLE;
+        long overlap = Math.max(matcher.getMaximumMatchLength() - 1, 0);
+        List<MatchRange> matchRanges = getMatchRanges(searchParameters, dataSize);
+        long totalLength = 0;
+        for (MatchRange matchRange : matchRanges) {
+            totalLength += matchRange.getLength();
+        }
+        lastSearchParameters.setFromParameters(searchParameters);
+        if (!singleMatch && matchRanges.size() == 1 && matcher instanceof HorspoolSearchMatcher && data instanceof DeltaDocument
+                && ((HorspoolSearchMatcher) matcher).getPattern().length >= NgramIndex.GRAM_LENGTH
+                && searchWithIndex((HorspoolSearchMatcher) matcher, (DeltaDocument) data, matchRanges.get(0), searchParameters, searchStatusListener)) {
+            return;
+        }
+        if (!singleMatch && matchRanges.size() == 1 && totalLength >= PARALLEL_SEARCH_THRESHOLD) {
+            searchInParallel(matcher, matchRanges.get(0), searchParameters, searchStatusListener);
+            return;
+        }
+
+        SearchMatchStore foundMatches = new SearchMatchStore();
+        MatchesPublisher publisher = new MatchesPublisher(matcher, searchParameters, searchStatusListener);
+        boolean revealed = false;
+        long lastPublishTime = 0;
+        long processedLength = 0;
+        int rangesCount = matchRanges.size();
+        for (int rangeIndex = 0; rangeIndex < rangesCount; rangeIndex++) {
+            MatchRange matchRange = matchRanges.get(backward ? rangesCount - 1 - rangeIndex : rangeIndex);
+            long chunkPosition = backward ? matchRange.startsEnd - 1 : matchRange.startsStart;
+            long position = chunkPosition;
+            long backwardEndLimit = matchRange.endLimit;
+            while (backward ? chunkPosition >= matchRange.startsStart : chunkPosition < matchRange.startsEnd) {
+                if (searchStatusListener.isCancelled()) {
+                    return;
                 }
-                matchLength++;
-            }
 
-            if (matchLength == searchDataSize) {
-                ExtendedHighlightNonAsciiCodeAreaPainter.SearchMatch match = new ExtendedHighlightNonAsciiCodeAreaPainter.SearchMatch();
-                match.setPosition(position);
-                match.setLength(searchDataSize);
-                if (searchParameters.getSearchDirection() == SearchParameters.SearchDirection.BACKWARD) {
-                    foundMatches.add(0, match);
+                long chunkStart;
+                long chunkEnd;
+                if (backward) {
+                    chunkEnd = chunkPosition + 1;
+                    chunkStart = Math.max(matchRange.startsStart, chunkEnd - SEARCH_CHUNK_SIZE);
                 } else {
-                    foundMatches.add(match);
+                    chunkStart = chunkPosition;
+                    chunkEnd = Math.min(matchRange.startsEnd, chunkStart + SEARCH_CHUNK_SIZE);
                 }
 
-                if (foundMatches.size() == MAX_MATCHES_COUNT || searchParameters.getMatchMode() == SearchParameters.MatchMode.SINGLE) {
-                    break;
+                int chunkMatchesCount = 0;
+                // Search continues after previous match which may end in next chunk
+                position = backward ? Math.min(position, chunkEnd - 1) : Math.max(position, chunkStart);
+                while (position >= chunkStart && position < chunkEnd) {
+                    long matchPosition = backward
+                            ? matcher.findPrevious(data, position, chunkStart, backwardEndLimit)
+                            : matcher.findNext(data, position, Math.min(matchRange.endLimit, chunkEnd + overlap));
+                    if (matchPosition < 0 || matchPosition >= chunkEnd) {
+                        break;
+                    }
+
+                    if (backward) {
+                        foundMatches.addFirst(matchPosition, matcher.getMatchLength(), matcher.getMatchPatternIndex());
+                    } else {
+                        foundMatches.addLast(matchPosition, matcher.getMatchLength(), matcher.getMatchPatternIndex());
+                    }
+                    chunkMatchesCount++;
+
+                    if (singleMatch) {
+                        publisher.publish(foundMatches, true, true);
+                        return;
+                    }
+                    if (foundMatches.isFull()) {
+                        publisher.publish(foundMatches, !revealed, true);
+                        return;
+                    }
+
+                    if (matcher.isOverlappingMatches()) {
+                        position = backward ? matchPosition - 1 : matchPosition + 1;
+                    } else if (backward) {
+                        position = matchPosition - 1;
+                        backwardEndLimit = matchPosition;
+                    } else {
+                        position = matchPosition + Math.max(matcher.getMatchLength(), 1);
+                    }
+                }
+
+                chunkPosition = backward ? chunkStart - 1 : chunkEnd;
+                processedLength += chunkEnd - chunkStart;
+                long currentTime = System.currentTimeMillis();
+                if (chunkMatchesCount > 0 && (!revealed || currentTime - lastPublishTime >= PUBLISH_INTERVAL)) {
+                    publisher.publish(foundMatches, !revealed, false);
+                    revealed = true;
+                    lastPublishTime = currentTime;
                 }
+                searchStatusListener.setProgress((double) processedLength / totalLength);
             }
+        }
 
-            position++;
+        if (searchStatusListener.isCancelled()) {
+            return;
         }
+        publisher.publish(foundMatches, !revealed, true);
+    }
 
-        painter.setMatches(foundMatches);
-        if (!foundMatches.isEmpty()) {
-            if (searchParameters.getSearchDirection() == SearchParameters.SearchDirection.BACKWARD) {
-                painter.setCurrentMatchIndex(foundMatches.size() - 1);
-            } else {
-                painter.setCurrentMatchIndex(0);
+    /**
+     * Performs search using given matching engine in parallel.
+     * <p>
+     * Data are split to segments searched on fork-join pool and results are
+     * merged in order of segments as they are completed.
+     */
+    private void searchInParallel(SearchMatcher matcher, MatchRange matchRange, SearchParameters searchParameters, SearchStatusListener searchStatusListener) {
+        BinaryData data = new SynchronizedBinaryData(codeArea.getContentData());
+        boolean backward = searchParameters.getSearchDirection() == SearchParameters.SearchDirection.BACKWARD;
+        long rangeStart = matchRange.startsStart;
+        long rangeEnd = matchRange.startsEnd;
+        int segmentsCount = SegmentSearchTask.getSegmentsCount(rangeEnd - rangeStart, PARALLEL_SEGMENT_SIZE);
+        AtomicReferenceArray<SearchMatchStore> segmentMatches = new AtomicReferenceArray<>(segmentsCount);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        AtomicLong processedLength = new AtomicLong();
+        ForkJoinTask<Void> task = ForkJoinPool.commonPool().submit(new SegmentSearchTask(matcher, data, rangeStart, rangeEnd, matchRange.endLimit, PARALLEL_SEGMENT_SIZE, segmentMatches, cancelled, processedLength));
+
+        SearchMatchStore foundMatches = new SearchMatchStore();
+        MatchesPublisher publisher = new MatchesPublisher(matcher, searchParameters, searchStatusListener);
+        int mergedSegments = 0;
+        boolean overlapping = matcher.isOverlappingMatches();
+        long mergedLimit = backward ? Long.MAX_VALUE : -1;
+        boolean revealed = false;
+        boolean finished = false;
+        while (!finished) {
+            try {
+                task.get(PUBLISH_INTERVAL, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ex) {
+                // Publish partial results
+            } catch (InterruptedException ex) {
+                cancelled.set(true);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("Parallel search failed", ex.getCause());
+            }
+            if (searchStatusListener.isCancelled()) {
+                cancelled.set(true);
+                return;
+            }
+
+            finished = task.isDone();
+            int matchesCount = foundMatches.getMatchesCount();
+            while (mergedSegments < segmentsCount && !foundMatches.isFull()) {
+                SearchMatchStore matches = segmentMatches.get(backward ? segmentsCount - 1 - mergedSegments : mergedSegments);
+                if (matches == null) {
+                    break;
+                }
+
+                int segmentMatchesCount = matches.getMatchesCount();
+                for (int i = 0; i < segmentMatchesCount; i++) {
+                    int index = backward ? segmentMatchesCount - 1 - i : i;
+                    long position = matches.getPosition(index);
+                    long length = matches.getLength(index);
+                    if (!overlapping) {
+                        // Segments are searched independently, so match may overlap match of neighbouring segment
+                        if (backward ? position + length > mergedLimit : position < mergedLimit) {
+                            continue;
+                        }
+                        mergedLimit = backward ? position : position + Math.max(length, 1);
+                    }
+                    if (backward) {
+                        foundMatches.addFirst(position, length, matches.getPatternIndex(index));
+                    } else {
+                        foundMatches.addLast(position, length, matches.getPatternIndex(index));
+                    }
+                    if (foundMatches.isFull()) {
+                        break;
+                    }
+                }
+                mergedSegments++;
+            }
+            if (foundMatches.isFull() && !finished) {
+                // Remaining segments are not needed
+                cancelled.set(true);
+                finished = true;
+            }
+
+            if (!finished) {
+                if (foundMatches.getMatchesCount() > matchesCount) {
+                    publisher.publish(foundMatches, !revealed, false);
+                    revealed = true;
+                }
+                searchStatusListener.setProgress((double) processedLength.get() / (rangeEnd - rangeStart));
             }
-            ExtendedHighlightNonAsciiCodeAreaPainter.SearchMatch firstMatch = Objects.requireNonNull(painter.getCurrentMatch());
-            codeArea.revealPosition(firstMatch.getPosition(), 0, codeArea.getActiveSection());
         }
-        lastSearchParameters.setFromParameters(searchParameters);
-        searchStatusListener.setStatus(new FoundMatches(foundMatches.size(), foundMatches.isEmpty() ? -1 : painter.getCurrentMatchIndex()), searchParameters.getMatchMode());
-        codeArea.repaint();
+
+        publisher.publish(foundMatches, !revealed, true);
     }
 
     /**
-     * Performs search by text/characters.
+     * Performs search of all matches using n-gram index of file.
+     * <p>
+     * Only blocks of file which contain all grams of pattern are scanned in
+     * segments of document which map to original file. Other segments and
+     * boundaries between segments are scanned directly, so edited parts of
+     * document don't require rebuild of index.
+     *
+     * @return false if index is not available
      */
-    private void searchForText(SearchParameters searchParameters, SearchStatusListener searchStatusListener) {
-        ExtendedHighlightNonAsciiCodeAreaPainter painter = (ExtendedHighlightNonAsciiCodeAreaPainter) codeArea.getPainter();
-        SearchCondition condition = searchParameters.getCondition();
-
-        long position = searchParameters.getStartPosition();
-        String findText;
-        if (searchParameters.isMatchCase()) {
-            findText = condition.getSearchText();
-        } else {
-            findText = condition.getSearchText().toLowerCase();
+    private boolean searchWithIndex(HorspoolSearchMatcher matcher, DeltaDocument document, MatchRange matchRange, SearchParameters searchParameters, SearchStatusListener searchStatusListener) {
+        SearchIndexCache indexCache = searchIndexCache;
+        FileDataSource fileSource = document.getFileSource();
+        if (indexCache == null || fileSource == null) {
+            return false;
         }
-        long searchDataSize = findText.length();
-        BinaryData data = codeArea.getContentData();
 
-        List<ExtendedHighlightNonAsciiCodeAreaPainter.SearchMatch> foundMatches = new ArrayList<>();
+        NgramIndex index = indexCache.getIndex(fileSource.getFile());
+        if (index == null) {
+            return false;
+        }
 
-        Charset charset = codeArea.getCharset();
-        int maxBytesPerChar;
+        byte[] pattern = matcher.getPattern();
+        BitSet candidateBlocks;
         try {
-            CharsetEncoder encoder = charset.newEncoder();
-            maxBytesPerChar = (int) encoder.maxBytesPerChar();
-        } catch (UnsupportedOperationException ex) {
-            maxBytesPerChar = CharsetStreamTranslator.DEFAULT_MAX_BYTES_PER_CHAR;
+            candidateBlocks = index.findCandidateBlocks(pattern);
+        } catch (IOException ex) {
+            Logger.getLogger(BinarySearchServiceImpl.class.getName()).log(Level.WARNING, "Search index lookup failed", ex);
+            return false;
         }
-        byte[] charData = new byte[maxBytesPerChar];
-        long dataSize = data.getDataSize();
-        while (position >= 0 && position <= dataSize - searchDataSize) {
-            int matchCharLength = 0;
-            int matchLength = 0;
-            while (matchCharLength < searchDataSize) {
-                long searchPosition = position + matchLength;
-                int bytesToUse = maxBytesPerChar;
-                if (searchPosition + bytesToUse > dataSize) {
-                    bytesToUse = (int) (dataSize - searchPosition);
-                }
-                data.copyToArray(searchPosition, charData, 0, bytesToUse);
-                char singleChar = new String(charData, charset).charAt(0);
-                String singleCharString = String.valueOf(singleChar);
-                int characterLength = singleCharString.getBytes(charset).length;
-
-                if (searchParameters.isMatchCase()) {
-                    if (singleChar != findText.charAt(matchCharLength)) {
+
+        ScanRanges scanRanges = new ScanRanges(matchRange.startsStart, matchRange.startsEnd);
+        long segmentPosition = 0;
+        for (DataSegment segment : document.getSegments()) {
+            long segmentLength = segment.getLength();
+            if (segment instanceof FileSegment && ((FileSegment) segment).getSource() == fileSource) {
+                long fileStart = segment.getStartPosition();
+                // Matches starting before this offset lie completely in segment
+                long containedLength = Math.max(segmentLength - pattern.length + 1, 0);
+                long offset = 0;
+                while (offset < containedLength) {
+                    int block = candidateBlocks.nextSetBit((int) ((fileStart + offset) / NgramIndex.BLOCK_SIZE));
+                    if (block < 0) {
                         break;
                     }
-                } else if (singleCharString.toLowerCase().charAt(0) != findText.charAt(matchCharLength)) {
-                    break;
+
+                    long blockOffset = (long) block * NgramIndex.BLOCK_SIZE - fileStart;
+                    if (blockOffset >= containedLength) {
+                        break;
+                    }
+                    long scanStart = Math.max(offset, blockOffset);
+                    offset = Math.min(containedLength, blockOffset + NgramIndex.BLOCK_SIZE);
+                    scanRanges.add(segmentPosition + scanStart, segmentPosition + offset);
                 }
-                matchCharLength++;
-                matchLength += characterLength;
+                scanRanges.add(segmentPosition + containedLength, segmentPosition + segmentLength);
+            } else {
+                scanRanges.add(segmentPosition, segmentPosition + segmentLength);
             }
+            segmentPosition += segmentLength;
+        }
 
-            if (matchCharLength == findText.length()) {
-                ExtendedHighlightNonAsciiCodeAreaPainter.SearchMatch match = new ExtendedHighlightNonAsciiCodeAreaPainter.SearchMatch();
-                match.setPosition(position);
-                match.setLength(matchLength);
-                if (searchParameters.getSearchDirection() == SearchParameters.SearchDirection.BACKWARD) {
-                    foundMatches.add(0, match);
-                } else {
-                    foundMatches.add(match);
+        SearchMatchStore foundMatches = new SearchMatchStore();
+        MatchesPublisher publisher = new MatchesPublisher(matcher, searchParameters, searchStatusListener);
+        boolean revealed = false;
+        long lastPublishTime = 0;
+        long processedLength = 0;
+        long totalLength = Math.max(scanRanges.getTotalLength(), 1);
+        for (int rangeIndex = 0; rangeIndex < scanRanges.getRangesCount() && !foundMatches.isFull(); rangeIndex++) {
+            long scanStart = scanRanges.getStart(rangeIndex);
+            long scanEnd = scanRanges.getEnd(rangeIndex);
+            long endPosition = Math.min(matchRange.endLimit, scanEnd + pattern.length - 1);
+            long position = scanStart;
+            int rangeMatchesCount = 0;
+            while (position < scanEnd) {
+                if (searchStatusListener.isCancelled()) {
+                    return true;
                 }
 
-                if (foundMatches.size() == MAX_MATCHES_COUNT || searchParameters.getMatchMode() == SearchParameters.MatchMode.SINGLE) {
+                long matchPosition = matcher.findNext(document, position, Math.min(endPosition, position + SEARCH_CHUNK_SIZE + pattern.length - 1));
+                if (matchPosition < 0) {
+                    position = Math.min(scanEnd, position + SEARCH_CHUNK_SIZE);
+                    continue;
+                }
+                if (matchPosition >= scanEnd) {
                     break;
                 }
-            }
 
-            switch (searchParameters.getSearchDirection()) {
-                case FORWARD: {
-                    position++;
+                foundMatches.addLast(matchPosition, pattern.length);
+                rangeMatchesCount++;
+                if (foundMatches.isFull()) {
                     break;
                 }
-                case BACKWARD: {
-                    position--;
-                    break;
+                position = matchPosition + 1;
+            }
+            processedLength += scanEnd - scanStart;
+
+            long currentTime = System.currentTimeMillis();
+            if (rangeMatchesCount > 0 && (!revealed || currentTime - lastPublishTime >= PUBLISH_INTERVAL)) {
+                publisher.publish(foundMatches, !revealed, false);
+                revealed = true;
+                lastPublishTime = currentTime;
+            }
+            searchStatusListener.setProgress((double) processedLength / totalLength);
+        }
+
+        if (!searchStatusListener.isCancelled()) {
+            publisher.publish(foundMatches, !revealed, true);
+        }
+        return true;
+    }
+
+    /**
+     * Publishes matches found by single pass to painter and status.
+     *
+     * @param foundMatches found matches
+     * @param matcher matcher which found matches or null
+     * @param searchParameters search parameters
+     * @param reveal true to reveal first match
+     * @param complete true if search finished and all matches were found
+     * @param searchStatusListener search status listener
+     */
+    private void publishMatches(SearchMatchStore foundMatches, @Nullable SearchMatcher matcher, SearchParameters searchParameters, boolean reveal, boolean complete, SearchStatusListener searchStatusListener) {
+        new MatchesPublisher(matcher, searchParameters, searchStatusListener).publish(foundMatches, reveal, complete);
+    }
+
+    /**
+     * Creates matcher for text encoded once in given charset.
+     * <p>
+     * Case insensitive search uses all encodable case variants of each
+     * character. Decoding matcher is used when text cannot be matched on byte
+     * level, which is when charset is stateful or uses byte order mark, text
+     * is not encodable or case variants of character differ in length.
+     *
+     * @param text searched text
+     * @param charset charset
+     * @param matchCase true for case sensitive search
+     * @return search matcher
+     */
+    @Nonnull
+    public static SearchMatcher createTextMatcher(String text, Charset charset, boolean matchCase) {
+        if (!charset.canEncode()) {
+            return new DecodingTextSearchMatcher(text, charset, matchCase);
+        }
+
+        CharsetEncoder encoder = charset.newEncoder();
+        try {
+            byte[] encodedText = encodeText(encoder, text);
+            byte[] encodedTwice = encodeText(encoder, text + text);
+            if (encodedTwice.length != encodedText.length * 2
+                    || !Arrays.equals(encodedText, Arrays.copyOfRange(encodedTwice, encodedText.length, encodedTwice.length))) {
+                return new DecodingTextSearchMatcher(text, charset, matchCase);
+            }
+
+            int[] codePoints = text.codePoints().toArray();
+            byte[][][] alternatives = new byte[codePoints.length][][];
+            Map<Integer, byte[][]> segmentsCache = new HashMap<>();
+            boolean exact = true;
+            int offset = 0;
+            for (int i = 0; i < codePoints.length; i++) {
+                int codePoint = codePoints[i];
+                byte[][] segment = segmentsCache.get(codePoint);
+                if (segment == null) {
+                    List<Integer> variants = matchCase ? Collections.singletonList(codePoint) : getCaseVariants(codePoint, encoder);
+                    segment = new byte[variants.size()][];
+                    for (int j = 0; j < segment.length; j++) {
+                        segment[j] = encodeText(encoder, new String(Character.toChars(variants.get(j))));
+                        if (segment[j].length != segment[0].length) {
+                            return new DecodingTextSearchMatcher(text, charset, matchCase);
+                        }
+                    }
+                    segmentsCache.put(codePoint, segment);
+                }
+
+                // Character has to be encoded the same way as inside of the whole text
+                byte[] codePointData = segment[0];
+                if (offset + codePointData.length > encodedText.length
+                        || !Arrays.equals(codePointData, Arrays.copyOfRange(encodedText, offset, offset + codePointData.length))) {
+                    return new DecodingTextSearchMatcher(text, charset, matchCase);
                 }
-                default:
-                    throw CodeAreaUtils.getInvalidTypeException(searchParameters.getSearchDirection());
+                offset += codePointData.length;
+                alternatives[i] = segment;
+                exact &= segment.length == 1;
             }
+            if (offset != encodedText.length) {
+                return new DecodingTextSearchMatcher(text, charset, matchCase);
+            }
+
+            return exact ? new HorspoolSearchMatcher(encodedText) : new ByteClassSearchMatcher(alternatives);
+        } catch (CharacterCodingException ex) {
+            return new DecodingTextSearchMatcher(text, charset, matchCase);
         }
+    }
 
-        painter.setMatches(foundMatches);
-        if (!foundMatches.isEmpty()) {
-            if (searchParameters.getSearchDirection() == SearchParameters.SearchDirection.BACKWARD) {
-                painter.setCurrentMatchIndex(foundMatches.size() - 1);
-            } else {
-                painter.setCurrentMatchIndex(0);
+    @Nonnull
+    private static byte[] encodeText(CharsetEncoder encoder, String text) throws CharacterCodingException {
+        ByteBuffer buffer = encoder.encode(CharBuffer.wrap(text));
+        byte[] result = new byte[buffer.remaining()];
+        buffer.get(result);
+        return result;
+    }
+
+    /**
+     * Returns code points with the same lower case form encodable by given
+     * encoder, starting with code point itself.
+     */
+    @Nonnull
+    private static List<Integer> getCaseVariants(int codePoint, CharsetEncoder encoder) {
+        List<Integer> variants = new ArrayList<>();
+        variants.add(codePoint);
+        int lowerCase = Character.toLowerCase(codePoint);
+        int[] candidates = {lowerCase, Character.toUpperCase(codePoint), Character.toTitleCase(codePoint), Character.toUpperCase(lowerCase), Character.toTitleCase(lowerCase), getSpecialUpperCase(lowerCase)};
+        for (int variant : candidates) {
+            if (variant >= 0 && !variants.contains(variant) && Character.toLowerCase(variant) == lowerCase && encoder.canEncode(new String(Character.toChars(variant)))) {
+                variants.add(variant);
             }
-            ExtendedHighlightNonAsciiCodeAreaPainter.SearchMatch firstMatch = painter.getCurrentMatch();
-            codeArea.revealPosition(firstMatch.getPosition(), 0, codeArea.getActiveSection());
         }
-        lastSearchParameters.setFromParameters(searchParameters);
-        searchStatusListener.setStatus(new FoundMatches(foundMatches.size(), foundMatches.isEmpty() ? -1 : painter.getCurrentMatchIndex()), searchParameters.getMatchMode());
-        codeArea.repaint();
+        return variants;
+    }
+
+    /**
+     * Returns character with given lower case form which is not its upper or
+     * title case form, like kelvin sign for letter k.
+     *
+     * @return code point or -1 if there is no such character
+     */
+    private static int getSpecialUpperCase(int lowerCase) {
+        switch (lowerCase) {
+            case 0x0069:
+                return 0x0130;
+            case 0x006B:
+                return 0x212A;
+            case 0x00DF:
+                return 0x1E9E;
+            case 0x00E5:
+                return 0x212B;
+            case 0x03B8:
+                return 0x03F4;
+            case 0x03C9:
+                return 0x2126;
+            default:
+                return -1;
+        }
     }
 
     @Override
     public void setMatchPosition(int matchPosition) {
-        ExtendedHighlightNonAsciiCodeAreaPainter painter = (ExtendedHighlightNonAsciiCodeAreaPainter) codeArea.getPainter();
-        painter.setCurrentMatchIndex(matchPosition);
-        ExtendedHighlightNonAsciiCodeAreaPainter.SearchMatch currentMatch = painter.getCurrentMatch();
-        codeArea.revealPosition(currentMatch.getPosition(), 0, codeArea.getActiveSection());
+        currentMatchIndex = matchPosition;
+        matchesColorModifier.setCurrentMatchIndex(matchPosition);
+        codeArea.revealPosition(matches.getPosition(matchPosition), 0, codeArea.getActiveSection());
         codeArea.repaint();
     }
 
     @Override
     public void performFindAgain(SearchStatusListener searchStatusListener) {
-        ExtendedHighlightNonAsciiCodeAreaPainter painter = (ExtendedHighlightNonAsciiCodeAreaPainter) codeArea.getPainter();
-        List<ExtendedHighlightCodeAreaPainter.SearchMatch> foundMatches = painter.getMatches();
-        int matchesCount = foundMatches.size();
+        int matchesCount = matches.getMatchesCount();
         if (matchesCount > 0) {
             switch (lastSearchParameters.getMatchMode()) {
                 case MULTIPLE:
                     if (matchesCount > 1) {
-                        int currentMatchIndex = painter.getCurrentMatchIndex();
                         setMatchPosition(currentMatchIndex < matchesCount - 1 ? currentMatchIndex + 1 : 0);
-                        searchStatusListener.setStatus(new FoundMatches(foundMatches.size(), painter.getCurrentMatchIndex()), lastSearchParameters.getMatchMode());
+                        searchStatusListener.setStatus(new FoundMatches(matchesCount, currentMatchIndex, matchesTruncated), lastSearchParameters.getMatchMode());
                     }
 
                     break;
                 case SINGLE:
                     switch (lastSearchParameters.getSearchDirection()) {
                         case FORWARD:
-                            lastSearchParameters.setStartPosition(foundMatches.get(0).getPosition() + 1);
+                            lastSearchParameters.setStartPosition(matches.getPosition(0) + 1);
                             break;
                         case BACKWARD:
-                            ExtendedHighlightCodeAreaPainter.SearchMatch match = foundMatches.get(0);
-                            lastSearchParameters.setStartPosition(match.getPosition() - 1);
+                            lastSearchParameters.setStartPosition(matches.getPosition(0) - 1);
                             break;
                     }
 
-                    SearchCondition condition = lastSearchParameters.getCondition();
-                    switch (condition.getSearchMode()) {
-                        case TEXT: {
-                            searchForText(lastSearchParameters, searchStatusListener);
-                            break;
-                        }
-                        case BINARY: {
-                            searchForBinaryData(lastSearchParameters, searchStatusListener);
-                            break;
-                        }
-                        default:
-                            throw CodeAreaUtils.getInvalidTypeException(condition.getSearchMode());
-                    }
+                    search(lastSearchParameters, searchStatusListener);
                     break;
             }
         }
@@ -320,19 +793,339 @@ public class BinarySearchServiceImpl implements BinarySearchService {
     @Override
     public void performReplace(SearchParameters searchParameters, ReplaceParameters replaceParameters) {
         SearchCondition replaceCondition = replaceParameters.getCondition();
-        ExtendedHighlightNonAsciiCodeAreaPainter painter = (ExtendedHighlightNonAsciiCodeAreaPainter) codeArea.getPainter();
-        ExtendedHighlightNonAsciiCodeAreaPainter.SearchMatch currentMatch = painter.getCurrentMatch();
-        if (currentMatch != null) {
+        if (currentMatchIndex >= 0) {
+            long matchPosition = matches.getPosition(currentMatchIndex);
+            long matchLength = matches.getLength(currentMatchIndex);
+            BinaryData replacement = getReplacementData(replaceCondition);
             EditableBinaryData editableData = ((EditableBinaryData) codeArea.getContentData());
-            editableData.remove(currentMatch.getPosition(), currentMatch.getLength());
-            if (replaceCondition.getSearchMode() == SearchCondition.SearchMode.BINARY) {
-                editableData.insert(currentMatch.getPosition(), replaceCondition.getBinaryData());
+            editableData.remove(matchPosition, matchLength);
+            editableData.insert(matchPosition, replacement);
+            DataEditTracker.DataEdit edit = new DataEditTracker.DataEdit(matchPosition, matchLength, replacement.getDataSize());
+            editTracker.editPerformed(edit);
+            CompletedSearch previousSearch = completedSearch;
+            completedSearch = null;
+            SwingUtilities.invokeLater(() -> updateMatches(edit, previousSearch));
+        }
+    }
+
+    /**
+     * Updates matches after change of data.
+     * <p>
+     * For known edit, matches after edited range are shifted and only matches
+     * overlapping edited range are searched again, otherwise all matches are
+     * verified. Matches are cleared when it's not possible or too expensive.
+     *
+     * @param edit performed edit or null if unknown
+     * @param previousSearch completed search before edit
+     */
+    private void updateMatches(@Nullable DataEditTracker.DataEdit edit, @Nullable CompletedSearch previousSearch) {
+        MatchesState state = matchesState;
+        if (matches.isEmpty() || state == null) {
+            return;
+        }
+
+        BinaryData data = codeArea.getContentData();
+        SearchMatchStore updatedMatches = null;
+        long currentPosition = currentMatchIndex >= 0 ? matches.getPosition(currentMatchIndex) : 0;
+        if (state.matcher != null && data == state.data) {
+            if (edit != null) {
+                updatedMatches = updateMatchesForEdit(state, edit, data);
+                long position = edit.getPosition();
+                if (currentPosition >= position + edit.getRemovedLength()) {
+                    currentPosition += edit.getInsertedLength() - edit.getRemovedLength();
+                } else if (currentPosition >= position) {
+                    // Continue after edited match
+                    currentPosition = position + edit.getInsertedLength();
+                }
             } else {
-                editableData.insert(currentMatch.getPosition(), replaceCondition.getSearchText().getBytes(codeArea.getCharset()));
+                updatedMatches = verifyMatches(state, data);
             }
-            painter.getMatches().remove(currentMatch);
+        }
+
+        if (updatedMatches == null) {
+            clearMatches();
+            state.searchStatusListener.clearStatus();
             codeArea.repaint();
+            return;
+        }
+
+        int matchesCount = updatedMatches.getMatchesCount();
+        int matchIndex = matchesCount == 0 ? -1 : Math.min(updatedMatches.findNextMatch(currentPosition), matchesCount - 1);
+        matches = updatedMatches;
+        // Matches of running search cannot be appended to updated matches
+        activePublisher = null;
+        currentMatchIndex = matchIndex;
+        matchesColorModifier.setMatches(updatedMatches, matchIndex);
+        if (previousSearch != null && edit != null && previousSearch.isWholeData()) {
+            completedSearch = previousSearch.createUpdated(codeArea.getCharset(), data, updatedMatches);
         }
+        state.searchStatusListener.setStatus(new FoundMatches(matchesCount, matchIndex, matchesTruncated), state.matchMode);
+        codeArea.repaint();
+    }
+
+    /**
+     * Shifts matches after edit and searches for matches around edited range.
+     *
+     * @return updated matches or null if edited range is too large
+     */
+    @Nullable
+    private SearchMatchStore updateMatchesForEdit(MatchesState state, DataEditTracker.DataEdit edit, BinaryData data) {
+        SearchMatcher matcher = Objects.requireNonNull(state.matcher);
+        long maximumLength = Math.max(matcher.getMaximumMatchLength(), 1);
+        long position = edit.getPosition();
+        long removedEnd = position + edit.getRemovedLength();
+        long insertedEnd = position + edit.getInsertedLength();
+        long windowStart = Math.max(0, position - maximumLength + 1);
+        long windowEnd = Math.min(data.getDataSize(), insertedEnd + maximumLength - 1);
+        if (windowEnd - windowStart > LOCAL_UPDATE_LIMIT) {
+            return null;
+        }
+
+        SearchMatchStore windowMatches = new SearchMatchStore();
+        // Scope ranges are not tracked over edits, so no new matches are added
+        if (state.matchMode == SearchParameters.MatchMode.MULTIPLE && !state.scoped) {
+            long matchPosition = windowStart;
+            while (matchPosition < insertedEnd) {
+                matchPosition = matcher.findNext(data, matchPosition, windowEnd);
+                if (matchPosition < 0 || matchPosition >= insertedEnd) {
+                    break;
+                }
+
+                windowMatches.addLast(matchPosition, matcher.getMatchLength(), matcher.getMatchPatternIndex());
+                matchPosition++;
+            }
+        }
+
+        return matches.copyWithEdit(windowStart, removedEnd, insertedEnd - removedEnd, windowMatches);
+    }
+
+    /**
+     * Verifies that all matches still match.
+     *
+     * @return remaining matches or null if there is too many of them
+     */
+    @Nullable
+    private SearchMatchStore verifyMatches(MatchesState state, BinaryData data) {
+        SearchMatcher matcher = Objects.requireNonNull(state.matcher);
+        long maximumLength = matcher.getMaximumMatchLength();
+        int matchesCount = matches.getMatchesCount();
+        if (matchesCount * maximumLength > VERIFY_LIMIT) {
+            return null;
+        }
+
+        long dataSize = data.getDataSize();
+        SearchMatchStore verifiedMatches = new SearchMatchStore();
+        for (int index = 0; index < matchesCount; index++) {
+            long position = matches.getPosition(index);
+            if (position < dataSize && matcher.findNext(data, position, Math.min(dataSize, position + maximumLength)) == position) {
+                verifiedMatches.addLast(position, matcher.getMatchLength(), matcher.getMatchPatternIndex());
+            }
+        }
+        return verifiedMatches;
+    }
+
+    @Override
+    public void performReplaceAll(SearchParameters searchParameters, ReplaceParameters replaceParameters, SearchStatusListener searchStatusListener) {
+        SearchCondition condition = searchParameters.getCondition();
+        searchStatusListener.clearStatus();
+        if (condition.isEmpty()) {
+            return;
+        }
+
+        SearchMatcher matcher;
+        try {
+            matcher = createMatcher(searchParameters);
+        } catch (IllegalArgumentException ex) {
+            publishInvalidCondition(searchParameters, searchStatusListener);
+            return;
+        }
+
+        // Replacement is prepared again if data were modified before it was applied
+        for (int attempt = 0; attempt < REPLACE_ATTEMPTS; attempt++) {
+            if (replaceAll(matcher, searchParameters, replaceParameters, searchStatusListener)) {
+                return;
+            }
+        }
+        SwingUtilities.invokeLater(searchStatusListener::setReplaceAbortedStatus);
+    }
+
+    /**
+     * Prepares replaced data in background and applies them as single
+     * command.
+     *
+     * @return false if data were modified before replacement was applied
+     */
+    private boolean replaceAll(SearchMatcher matcher, SearchParameters searchParameters, ReplaceParameters replaceParameters, SearchStatusListener searchStatusListener) {
+        long initialDataChangesCount = dataChangesCount;
+        SearchParameters replaceSearchParameters = new SearchParameters();
+        replaceSearchParameters.setFromParameters(searchParameters);
+        replaceSearchParameters.setStartPosition(getSearchStartPosition(searchParameters));
+        replaceSearchParameters.setMatchMode(SearchParameters.MatchMode.MULTIPLE);
+        resolveSearchRanges(replaceSearchParameters);
+        lastSearchParameters.setFromParameters(replaceSearchParameters);
+        BinaryData contentData = codeArea.getContentData();
+        BinaryData data = new SynchronizedBinaryData(contentData);
+        List<MatchRange> matchRanges = getMatchRanges(replaceSearchParameters, data.getDataSize());
+        SearchMatchStore foundMatches;
+        CompletedSearch previousSearch = completedSearch;
+        if (previousSearch != null && previousSearch.isRefinedBy(replaceSearchParameters, codeArea.getCharset(), contentData)) {
+            foundMatches = filterMatches(previousSearch.matches, matcher, data, matchRanges, searchStatusListener);
+        } else {
+            foundMatches = collectMatches(matcher, data, matchRanges, searchStatusListener);
+        }
+        if (foundMatches == null) {
+            return true;
+        }
+        if (foundMatches.getMatchesCount() == 0 || foundMatches.isFull()) {
+            // Too many matches are only reported, partial replace is not performed
+            publishMatches(foundMatches, matcher, replaceSearchParameters, false, false, searchStatusListener);
+            return true;
+        }
+
+        // Whole span from the first to the last match is rewritten in single
+        // pass, original data are kept for undo
+        BinaryData replacementData = getReplacementData(replaceParameters.getCondition());
+        byte[] replacement = new byte[(int) replacementData.getDataSize()];
+        replacementData.copyToArray(0, replacement, 0, replacement.length);
+        int matchesCount = foundMatches.getMatchesCount();
+        long spanStart = foundMatches.getPosition(0);
+        long spanEnd = spanStart;
+        int replacedCount = 0;
+        DataBuilder replacedDataBuilder = new DataBuilder();
+        for (int index = 0; index < matchesCount; index++) {
+            if (index % REPLACE_CHECK_INTERVAL == 0) {
+                if (searchStatusListener.isCancelled() || dataChangesCount != initialDataChangesCount) {
+                    break;
+                }
+                searchStatusListener.setProgress((double) index / matchesCount);
+            }
+
+            long matchPosition = foundMatches.getPosition(index);
+            if (matchPosition < spanEnd) {
+                // Skip overlapping match
+                continue;
+            }
+
+            replacedDataBuilder.append(data, spanEnd, matchPosition - spanEnd);
+            replacedDataBuilder.append(replacement);
+            spanEnd = matchPosition + foundMatches.getLength(index);
+            replacedCount++;
+        }
+
+        if (searchStatusListener.isCancelled()) {
+            return true;
+        }
+        if (dataChangesCount != initialDataChangesCount) {
+            return false;
+        }
+
+        DataBuilder originalDataBuilder = new DataBuilder();
+        originalDataBuilder.append(data, spanStart, spanEnd - spanStart);
+        ReplaceAllCommand command = new ReplaceAllCommand(codeArea, editTracker, spanStart, originalDataBuilder.finish(), replacedDataBuilder.finish());
+        int finalReplacedCount = replacedCount;
+        AtomicBoolean applied = new AtomicBoolean();
+        try {
+            SwingUtilities.invokeAndWait(() -> {
+                if (searchStatusListener.isCancelled()) {
+                    applied.set(true);
+                    return;
+                }
+                if (dataChangesCount != initialDataChangesCount) {
+                    // Data were modified while replacement was prepared
+                    return;
+                }
+
+                applied.set(true);
+                try {
+                    CodeAreaCommandHandler commandHandler = codeArea.getCommandHandler();
+                    if (commandHandler instanceof CodeAreaOperationCommandHandler) {
+                        ((CodeAreaOperationCommandHandler) commandHandler).getUndoHandler().execute(command);
+                    } else {
+                        command.execute();
+                    }
+                } catch (BinaryDataOperationException ex) {
+                    Logger.getLogger(BinarySearchServiceImpl.class.getName()).log(Level.SEVERE, null, ex);
+                    return;
+                }
+
+                clearMatches();
+                searchStatusListener.setReplaceStatus(finalReplacedCount);
+                codeArea.repaint();
+            });
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return true;
+        } catch (InvocationTargetException ex) {
+            Logger.getLogger(BinarySearchServiceImpl.class.getName()).log(Level.SEVERE, null, ex.getCause());
+            return true;
+        }
+        return applied.get();
+    }
+
+    /**
+     * Finds all non-overlapping matches in given ranges.
+     *
+     * @return found matches or null if cancelled
+     */
+    @Nullable
+    private SearchMatchStore collectMatches(SearchMatcher matcher, BinaryData data, List<MatchRange> matchRanges, SearchStatusListener searchStatusListener) {
+        long totalLength = 0;
+        for (MatchRange matchRange : matchRanges) {
+            totalLength += matchRange.getLength();
+        }
+
+        SearchMatchStore foundMatches = new SearchMatchStore();
+        long processedLength = 0;
+        for (MatchRange matchRange : matchRanges) {
+            long position = matchRange.startsStart;
+            long checkPosition = position;
+            while (position < matchRange.startsEnd) {
+                if (position >= checkPosition) {
+                    if (searchStatusListener.isCancelled()) {
+                        return null;
+                    }
+                    searchStatusListener.setProgress((double) (processedLength + position - matchRange.startsStart) / totalLength);
+                    checkPosition = position + SEARCH_CHUNK_SIZE;
+                }
+
+                long matchPosition = matcher.findNext(data, position, matchRange.endLimit);
+                if (matchPosition < 0 || matchPosition >= matchRange.startsEnd) {
+                    break;
+                }
+
+                long matchLength = matcher.getMatchLength();
+                foundMatches.addLast(matchPosition, matchLength, matcher.getMatchPatternIndex());
+                if (foundMatches.isFull()) {
+                    return foundMatches;
+                }
+                position = matchPosition + Math.max(matchLength, 1);
+            }
+            processedLength += matchRange.getLength();
+        }
+        return foundMatches;
+    }
+
+    @Nonnull
+    private BinaryData getReplacementData(SearchCondition replaceCondition) {
+        if (replaceCondition.getSearchMode() == SearchCondition.SearchMode.BINARY) {
+            return Objects.requireNonNull(replaceCondition.getBinaryData());
+        }
+
+        return new ByteArrayData(replaceCondition.getSearchText().getBytes(codeArea.getCharset()));
+    }
+
+    @Nullable
+    public SearchIndexCache getSearchIndexCache() {
+        return searchIndexCache;
+    }
+
+    /**
+     * Sets cache of n-gram indexes used for search in large files.
+     *
+     * @param searchIndexCache index cache or null to disable indexed search
+     */
+    public void setSearchIndexCache(@Nullable SearchIndexCache searchIndexCache) {
+        this.searchIndexCache = searchIndexCache;
     }
 
     @Nonnull
@@ -343,7 +1136,408 @@ public class BinarySearchServiceImpl implements BinarySearchService {
 
     @Override
     public void clearMatches() {
-        ExtendedHighlightNonAsciiCodeAreaPainter painter = (ExtendedHighlightNonAsciiCodeAreaPainter) codeArea.getPainter();
-        painter.clearMatches();
+        matches = new SearchMatchStore();
+        matchesTruncated = false;
+        activePublisher = null;
+        currentMatchIndex = -1;
+        matchesState = null;
+        matchesColorModifier.clearMatches();
+    }
+
+    /**
+     * Returns ranges of data where matches can be found.
+     * <p>
+     * Ranges of scope are sorted and merged when overlapping or adjacent and
+     * limited to positions before or after start position according to
+     * search direction.
+     *
+     * @param searchParameters search parameters
+     * @param dataSize size of data
+     * @return list of ranges ordered by position
+     */
+    @Nonnull
+    private static List<MatchRange> getMatchRanges(SearchParameters searchParameters, long dataSize) {
+        List<SearchRange> scopeRanges = new ArrayList<>();
+        if (searchParameters.getSearchScope() == SearchParameters.SearchScope.ALL) {
+            scopeRanges.add(new SearchRange(0, dataSize));
+        } else {
+            scopeRanges.addAll(searchParameters.getSearchRanges());
+            scopeRanges.sort((range1, range2) -> Long.compare(range1.getStartPosition(), range2.getStartPosition()));
+        }
+
+        boolean backward = searchParameters.getSearchDirection() == SearchParameters.SearchDirection.BACKWARD;
+        long startPosition = searchParameters.getStartPosition();
+        List<MatchRange> matchRanges = new ArrayList<>();
+        long rangeStart = -1;
+        long rangeEnd = -1;
+        for (int index = 0; index <= scopeRanges.size(); index++) {
+            SearchRange scopeRange = index < scopeRanges.size() ? scopeRanges.get(index) : null;
+            if (scopeRange != null && rangeStart >= 0 && scopeRange.getStartPosition() <= rangeEnd) {
+                rangeEnd = Math.max(rangeEnd, Math.min(scopeRange.getEndPosition(), dataSize));
+                continue;
+            }
+
+            if (rangeStart >= 0) {
+                long startsStart = backward ? rangeStart : Math.max(rangeStart, startPosition);
+                long startsEnd = backward ? Math.min(rangeEnd, startPosition + 1) : rangeEnd;
+                if (startsStart < startsEnd) {
+                    matchRanges.add(new MatchRange(startsStart, startsEnd, rangeEnd));
+                }
+            }
+            if (scopeRange != null) {
+                rangeStart = Math.min(scopeRange.getStartPosition(), dataSize);
+                rangeEnd = Math.min(scopeRange.getEndPosition(), dataSize);
+            }
+        }
+        return matchRanges;
+    }
+
+    /**
+     * Range where matches can start and limit where they have to end.
+     */
+    private static class MatchRange {
+
+        private final long startsStart;
+        private final long startsEnd;
+        private final long endLimit;
+
+        MatchRange(long startsStart, long startsEnd, long endLimit) {
+            this.startsStart = startsStart;
+            this.startsEnd = startsEnd;
+            this.endLimit = endLimit;
+        }
+
+        long getLength() {
+            return startsEnd - startsStart;
+        }
+    }
+
+    /**
+     * Ordered ranges of positions to scan merged when adjacent.
+     */
+    @ParametersAreNonnullByDefault
+    private static class ScanRanges {
+
+        private final long rangeStart;
+        private final long rangeEnd;
+        private final List<long[]> ranges = new ArrayList<>();
+        private long totalLength = 0;
+
+        ScanRanges(long rangeStart, long rangeEnd) {
+            this.rangeStart = rangeStart;
+            this.rangeEnd = rangeEnd;
+        }
+
+        void add(long start, long end) {
+            start = Math.max(start, rangeStart);
+            end = Math.min(end, rangeEnd);
+            if (start >= end) {
+                return;
+            }
+
+            totalLength += end - start;
+            if (!ranges.isEmpty()) {
+                long[] lastRange = ranges.get(ranges.size() - 1);
+                if (lastRange[1] == start) {
+                    lastRange[1] = end;
+                    return;
+                }
+            }
+            ranges.add(new long[]{start, end});
+        }
+
+        int getRangesCount() {
+            return ranges.size();
+        }
+
+        long getStart(int index) {
+            return ranges.get(index)[0];
+        }
+
+        long getEnd(int index) {
+            return ranges.get(index)[1];
+        }
+
+        long getTotalLength() {
+            return totalLength;
+        }
+    }
+
+    /**
+     * Builder of data appending small pieces through block buffer.
+     */
+    @ParametersAreNonnullByDefault
+    private static class DataBuilder {
+
+        private final PagedData data = new PagedData();
+        private final byte[] block = new byte[SearchDataBuffer.DEFAULT_BLOCK_SIZE];
+        private int blockLength = 0;
+
+        void append(BinaryData source, long position, long length) {
+            while (length > 0) {
+                int copyLength = (int) Math.min(length, block.length - blockLength);
+                source.copyToArray(position, block, blockLength, copyLength);
+                blockLength += copyLength;
+                position += copyLength;
+                length -= copyLength;
+                if (blockLength == block.length) {
+                    flush();
+                }
+            }
+        }
+
+        void append(byte[] source) {
+            int offset = 0;
+            while (offset < source.length) {
+                int copyLength = Math.min(source.length - offset, block.length - blockLength);
+                System.arraycopy(source, offset, block, blockLength, copyLength);
+                blockLength += copyLength;
+                offset += copyLength;
+                if (blockLength == block.length) {
+                    flush();
+                }
+            }
+        }
+
+        @Nonnull
+        BinaryData finish() {
+            flush();
+            return data;
+        }
+
+        private void flush() {
+            data.insert(data.getDataSize(), block, 0, blockLength);
+            blockLength = 0;
+        }
+    }
+
+    /**
+     * Command replacing span of data with prepared data in single step.
+     */
+    @ParametersAreNonnullByDefault
+    private static class ReplaceAllCommand extends CodeAreaCommand {
+
+        private final DataEditTracker editTracker;
+        private final long position;
+        private final BinaryData originalData;
+        private final BinaryData replacedData;
+
+        ReplaceAllCommand(CodeAreaCore codeArea, DataEditTracker editTracker, long position, BinaryData originalData, BinaryData replacedData) {
+            super(codeArea);
+            this.editTracker = editTracker;
+            this.position = position;
+            this.originalData = originalData;
+            this.replacedData = replacedData;
+        }
+
+        @Nonnull
+        @Override
+        public CodeAreaCommandType getType() {
+            return CodeAreaCommandType.DATA_MODIFIED;
+        }
+
+        @Override
+        public void redo() throws BinaryDataOperationException {
+            swapData(originalData, replacedData);
+        }
+
+        @Override
+        public void undo() throws BinaryDataOperationException {
+            swapData(replacedData, originalData);
+        }
+
+        @Override
+        public boolean canUndo() {
+            return true;
+        }
+
+        private void swapData(BinaryData removedData, BinaryData insertedData) {
+            EditableBinaryData contentData = (EditableBinaryData) codeArea.getContentData();
+            contentData.remove(position, removedData.getDataSize());
+            contentData.insert(position, insertedData);
+            ((CaretCapable) codeArea).getCaret().setCaretPosition(position + insertedData.getDataSize(), 0);
+            ((ScrollingCapable) codeArea).revealCursor();
+            editTracker.expectEdit(new DataEditTracker.DataEdit(position, removedData.getDataSize(), insertedData.getDataSize()));
+            codeArea.notifyDataChanged();
+        }
+    }
+
+    /**
+     * Publisher of matches found by single search.
+     * <p>
+     * Search thread passes only matches found since previous publishing,
+     * which are appended to published matches in event dispatch thread.
+     */
+    @ParametersAreNonnullByDefault
+    private class MatchesPublisher {
+
+        private final SearchMatcher matcher;
+        private final SearchParameters searchParameters;
+        private final SearchStatusListener searchStatusListener;
+        private final boolean backward;
+        private int publishedCount = 0;
+
+        MatchesPublisher(@Nullable SearchMatcher matcher, SearchParameters searchParameters, SearchStatusListener searchStatusListener) {
+            this.matcher = matcher == null ? null : matcher.createCopy();
+            this.searchParameters = searchParameters;
+            this.searchStatusListener = searchStatusListener;
+            backward = searchParameters.getSearchDirection() == SearchParameters.SearchDirection.BACKWARD;
+        }
+
+        /**
+         * Publishes found matches to painter and status.
+         *
+         * @param foundMatches all matches found by search so far
+         * @param reveal true to reveal first match
+         * @param complete true if search finished
+         */
+        void publish(SearchMatchStore foundMatches, boolean reveal, boolean complete) {
+            int matchesCount = foundMatches.getMatchesCount();
+            // Matches are prepended during backward search
+            final SearchMatchStore newMatches = backward
+                    ? foundMatches.copy(0, matchesCount - publishedCount)
+                    : foundMatches.copy(publishedCount, matchesCount);
+            final boolean firstPublish = publishedCount == 0;
+            publishedCount = matchesCount;
+            final boolean truncated = foundMatches.isFull();
+            final BinaryData data = codeArea.getContentData();
+            final SearchParameters.MatchMode matchMode = searchParameters.getMatchMode();
+            final boolean scoped = searchParameters.getSearchScope() != SearchParameters.SearchScope.ALL;
+            final boolean completed = complete && !truncated && matchMode == SearchParameters.MatchMode.MULTIPLE;
+            final Charset charset = codeArea.getCharset();
+            SwingUtilities.invokeLater(() -> {
+                if (firstPublish) {
+                    matches = newMatches;
+                    activePublisher = this;
+                } else if (activePublisher != this) {
+                    // Matches were replaced meanwhile
+                    return;
+                } else if (backward) {
+                    matches.addAllFirst(newMatches);
+                } else {
+                    matches.addAllLast(newMatches);
+                }
+                matchesTruncated = truncated;
+                if (completed) {
+                    completedSearch = new CompletedSearch(searchParameters, charset, data, matches);
+                }
+
+                int matchIndex = -1;
+                int publishedMatchesCount = matches.getMatchesCount();
+                if (publishedMatchesCount > 0) {
+                    if (reveal || backward) {
+                        matchIndex = backward ? publishedMatchesCount - 1 : 0;
+                    } else {
+                        matchIndex = Math.min(Math.max(currentMatchIndex, 0), publishedMatchesCount - 1);
+                    }
+                }
+                currentMatchIndex = matchIndex;
+                matchesState = new MatchesState(matcher, data, matchMode, scoped, searchStatusListener);
+                matchesColorModifier.setMatches(matches, matchIndex);
+                if (reveal && matchIndex >= 0) {
+                    codeArea.revealPosition(matches.getPosition(matchIndex), 0, codeArea.getActiveSection());
+                }
+                searchStatusListener.setStatus(new FoundMatches(publishedMatchesCount, matchIndex, truncated), matchMode);
+                codeArea.repaint();
+            });
+        }
+    }
+
+    /**
+     * Matching state of published matches used to update them after edit.
+     */
+    @ParametersAreNonnullByDefault
+    private static class MatchesState {
+
+        private final SearchMatcher matcher;
+        private final BinaryData data;
+        private final SearchParameters.MatchMode matchMode;
+        private final boolean scoped;
+        private final SearchStatusListener searchStatusListener;
+
+        MatchesState(@Nullable SearchMatcher matcher, BinaryData data, SearchParameters.MatchMode matchMode, boolean scoped, SearchStatusListener searchStatusListener) {
+            this.matcher = matcher;
+            this.data = data;
+            this.matchMode = matchMode;
+            this.scoped = scoped;
+            this.searchStatusListener = searchStatusListener;
+        }
+    }
+
+    /**
+     * Record of search which finished with all matches found.
+     */
+    @ParametersAreNonnullByDefault
+    private static class CompletedSearch {
+
+        private final SearchParameters searchParameters = new SearchParameters();
+        private final Charset charset;
+        private final BinaryData data;
+        private final long dataSize;
+        private final SearchMatchStore matches;
+
+        CompletedSearch(SearchParameters searchParameters, Charset charset, BinaryData data, SearchMatchStore matches) {
+            this.searchParameters.setFromParameters(searchParameters);
+            this.searchParameters.setCondition(new SearchCondition(searchParameters.getCondition()));
+            this.charset = charset;
+            this.data = data;
+            dataSize = data.getDataSize();
+            this.matches = matches;
+        }
+
+        /**
+         * Returns true if search covered whole data.
+         */
+        boolean isWholeData() {
+            if (searchParameters.getSearchScope() != SearchParameters.SearchScope.ALL) {
+                return false;
+            }
+            List<MatchRange> matchRanges = getMatchRanges(searchParameters, dataSize);
+            return dataSize == 0 || (matchRanges.size() == 1 && matchRanges.get(0).startsStart == 0 && matchRanges.get(0).startsEnd == dataSize);
+        }
+
+        /**
+         * Creates record of the same whole data search for edited data.
+         */
+        @Nonnull
+        CompletedSearch createUpdated(Charset charset, BinaryData data, SearchMatchStore matches) {
+            SearchParameters updatedParameters = new SearchParameters();
+            updatedParameters.setFromParameters(searchParameters);
+            boolean backward = searchParameters.getSearchDirection() == SearchParameters.SearchDirection.BACKWARD;
+            updatedParameters.setStartPosition(backward ? data.getDataSize() - 1 : 0);
+            return new CompletedSearch(updatedParameters, charset, data, matches);
+        }
+
+        /**
+         * Returns true if search with given parameters finds subset of
+         * matches of this search in the same data.
+         */
+        boolean isRefinedBy(SearchParameters parameters, Charset charset, BinaryData data) {
+            return parameters.getMatchMode() == SearchParameters.MatchMode.MULTIPLE
+                    && data == this.data && data.getDataSize() == dataSize && charset.equals(this.charset)
+                    && parameters.isMatchCase() == searchParameters.isMatchCase()
+                    && isCoveredBy(getMatchRanges(parameters, dataSize), getMatchRanges(searchParameters, dataSize))
+                    && parameters.getCondition().isRefinementOf(searchParameters.getCondition());
+        }
+
+        /**
+         * Returns true if each range is inside of some of covering ranges.
+         */
+        private static boolean isCoveredBy(List<MatchRange> matchRanges, List<MatchRange> coveringRanges) {
+            int coveringIndex = 0;
+            for (MatchRange matchRange : matchRanges) {
+                while (coveringIndex < coveringRanges.size() && coveringRanges.get(coveringIndex).endLimit <= matchRange.startsStart) {
+                    coveringIndex++;
+                }
+                if (coveringIndex == coveringRanges.size()) {
+                    return false;
+                }
+                MatchRange coveringRange = coveringRanges.get(coveringIndex);
+                if (matchRange.startsStart < coveringRange.startsStart || matchRange.startsEnd > coveringRange.startsEnd || matchRange.endLimit > coveringRange.endLimit) {
+                    return false;
+                }
+            }
+            return true;
+        }
     }
 }
@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.search.service.impl;
+
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.framework.bined.search.service.SearchMatcher;
+
+/**
+ * Binary pattern matcher for sequence of segments with alternative values.
+ * <p>
+ * All alternatives of single segment must have the same length. Candidates
+ * are located using Horspool skip tables computed from set of allowed bytes
+ * at each position of pattern and then verified segment by segment.
+ */
+@ParametersAreNonnullByDefault
+public class ByteClassSearchMatcher implements SearchMatcher {
+
+    private final byte[][][] alternatives;
+    private final int[] segmentOffsets;
+    private final int patternLength;
+    private final long[][] byteClasses;
+    private final int[] forwardShifts = new int[256];
+    private final int[] backwardShifts = new int[256];
+    private final SearchDataBuffer dataBuffer;
+
+    /**
+     * Creates matcher for given segments.
+     *
+     * @param alternatives array of segments, each with array of alternative
+     * byte sequences of equal length
+     */
+    public ByteClassSearchMatcher(byte[][][] alternatives) {
+        this.alternatives = alternatives;
+        segmentOffsets = new int[alternatives.length];
+        int length = 0;
+        for (int segment = 0; segment < alternatives.length; segment++) {
+            byte[][] segmentAlternatives = alternatives[segment];
+            if (segmentAlternatives.length == 0) {
+                throw new IllegalArgumentException("Segment without alternatives");
+            }
+            int segmentLength = segmentAlternatives[0].length;
+            for (byte[] alternative : segmentAlternatives) {
+                if (alternative.length != segmentLength) {
+                    throw new IllegalArgumentException("Segment alternatives must have the same length");
+                }
+            }
+            segmentOffsets[segment] = length;
+            length += segmentLength;
+        }
+        if (length == 0) {
+            throw new IllegalArgumentException("Search pattern cannot be empty");
+        }
+        patternLength = length;
+
+        byteClasses = new long[patternLength][4];
+        for (int segment = 0; segment < alternatives.length; segment++) {
+            for (byte[] alternative : alternatives[segment]) {
+                for (int i = 0; i < alternative.length; i++) {
+                    int value = alternative[i] & 0xff;
+                    byteClasses[segmentOffsets[segment] + i][value >> 6] |= 1L << value;
+                }
+            }
+        }
+
+        Arrays.fill(forwardShifts, patternLength);
+        for (int i = 0; i < patternLength - 1; i++) {
+            for (int value = 0; value < 256; value++) {
+                if (isInClass(i, value)) {
+                    forwardShifts[value] = patternLength - 1 - i;
+                }
+            }
+        }
+        Arrays.fill(backwardShifts, patternLength);
+        for (int i = patternLength - 1; i > 0; i--) {
+            for (int value = 0; value < 256; value++) {
+                if (isInClass(i, value)) {
+                    backwardShifts[value] = i;
+                }
+            }
+        }
+        dataBuffer = new SearchDataBuffer(patternLength);
+    }
+
+    @Override
+    public long findNext(BinaryData data, long position, long endPosition) {
+        long limit = Math.min(endPosition, data.getDataSize());
+        if (position < 0) {
+            position = 0;
+        }
+
+        while (position + patternLength <= limit) {
+            int length = dataBuffer.loadForward(data, position, limit);
+            byte[] buffer = dataBuffer.getBuffer();
+            int offset = 0;
+            while (offset + patternLength <= length) {
+                int windowValue = buffer[offset + patternLength - 1] & 0xff;
+                if (isInClass(patternLength - 1, windowValue) && matchesAt(buffer, offset)) {
+                    return position + offset;
+                }
+                offset += forwardShifts[windowValue];
+            }
+            position += offset;
+        }
+
+        return -1;
+    }
+
+    @Override
+    public long findPrevious(BinaryData data, long position, long startPosition, long endPosition) {
+        long limit = Math.min(endPosition, data.getDataSize());
+        if (startPosition < 0) {
+            startPosition = 0;
+        }
+        if (position > limit - patternLength) {
+            position = limit - patternLength;
+        }
+
+        while (position >= startPosition) {
+            dataBuffer.loadBackward(data, startPosition, position + patternLength);
+            byte[] buffer = dataBuffer.getBuffer();
+            long bufferStart = dataBuffer.getBufferStart();
+            int offset = (int) (position - bufferStart);
+            while (offset >= 0) {
+                int windowValue = buffer[offset] & 0xff;
+                if (isInClass(0, windowValue) && matchesAt(buffer, offset)) {
+                    return bufferStart + offset;
+                }
+                offset -= backwardShifts[windowValue];
+            }
+            position = bufferStart + offset;
+        }
+
+        return -1;
+    }
+
+    @Override
+    public long getMatchLength() {
+        return patternLength;
+    }
+
+    @Override
+    public int getMatchPatternIndex() {
+        return 0;
+    }
+
+    @Override
+    public long getMaximumMatchLength() {
+        return patternLength;
+    }
+
+    @Nonnull
+    @Override
+    public SearchMatcher createCopy() {
+        return new ByteClassSearchMatcher(alternatives);
+    }
+
+    private boolean isInClass(int patternOffset, int value) {
+        return (byteClasses[patternOffset][value >> 6] & (1L << value)) != 0;
+    }
+
+    private boolean matchesAt(byte[] buffer, int offset) {
+        for (int segment = 0; segment < alternatives.length; segment++) {
+            int segmentOffset = offset + segmentOffsets[segment];
+            boolean matched = false;
+            for (byte[] alternative : alternatives[segment]) {
+                if (regionMatches(buffer, segmentOffset, alternative)) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean regionMatches(byte[] buffer, int offset, byte[] alternative) {
+        for (int i = 0; i < alternative.length; i++) {
+            if (buffer[offset + i] != alternative[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,561 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.search.service.impl;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * Parser of regular expressions matching bytes.
+ * <p>
+ * Supported are literals encoded using charset, escapes {@code \xHH},
+ * {@code \n}, {@code \r}, {@code \t}, {@code \f}, {@code \v}, {@code \0},
+ * ASCII classes {@code \d}, {@code \w}, {@code \s} and their negations, any
+ * byte {@code .}, byte classes {@code [...]}, groups, alternation and
+ * quantifiers {@code * + ? {n} {n,} {n,m}}. Lazy quantifiers are accepted,
+ * but matching always reports the longest match.
+ */
+@ParametersAreNonnullByDefault
+public class ByteRegexParser {
+
+    public static final int MAXIMUM_REPEAT = 65535;
+
+    private final String expression;
+    private final Charset charset;
+    private int position = 0;
+
+    private ByteRegexParser(String expression, Charset charset) {
+        this.expression = expression;
+        this.charset = charset;
+    }
+
+    /**
+     * Parses expression to syntax tree.
+     *
+     * @param expression regular expression
+     * @param charset charset for literal characters
+     * @return root node
+     * @throws IllegalArgumentException if expression is not valid
+     */
+    @Nonnull
+    public static Node parse(String expression, Charset charset) {
+        ByteRegexParser parser = new ByteRegexParser(expression, charset);
+        Node node = parser.parseAlternation();
+        if (parser.position < expression.length()) {
+            throw parser.createError("Unexpected character");
+        }
+        return node;
+    }
+
+    @Nonnull
+    private Node parseAlternation() {
+        List<Node> branches = new ArrayList<>();
+        branches.add(parseConcatenation());
+        while (position < expression.length() && expression.charAt(position) == '|') {
+            position++;
+            branches.add(parseConcatenation());
+        }
+        return branches.size() == 1 ? branches.get(0) : new Node(NodeType.ALTERNATION, branches);
+    }
+
+    @Nonnull
+    private Node parseConcatenation() {
+        List<Node> items = new ArrayList<>();
+        while (position < expression.length()) {
+            char character = expression.charAt(position);
+            if (character == '|' || character == ')') {
+                break;
+            }
+            items.add(parseRepeat());
+        }
+        return items.size() == 1 ? items.get(0) : new Node(NodeType.CONCATENATION, items);
+    }
+
+    @Nonnull
+    private Node parseRepeat() {
+        Node node = parseAtom();
+        while (position < expression.length()) {
+            char character = expression.charAt(position);
+            int min;
+            int max;
+            if (character == '*') {
+                min = 0;
+                max = -1;
+                position++;
+            } else if (character == '+') {
+                min = 1;
+                max = -1;
+                position++;
+            } else if (character == '?') {
+                min = 0;
+                max = 1;
+                position++;
+            } else if (character == '{') {
+                position++;
+                min = parseNumber();
+                max = min;
+                if (position < expression.length() && expression.charAt(position) == ',') {
+                    position++;
+                    max = position < expression.length() && expression.charAt(position) == '}' ? -1 : parseNumber();
+                }
+                if (position >= expression.length() || expression.charAt(position) != '}') {
+                    throw createError("Invalid repetition");
+                }
+                position++;
+                if (max >= 0 && max < min) {
+                    throw createError("Invalid repetition range");
+                }
+            } else {
+                break;
+            }
+
+            if (position < expression.length() && expression.charAt(position) == '?') {
+                // Lazy quantifier has the same meaning for longest match
+                position++;
+            }
+            node = new Node(node, min, max);
+        }
+        return node;
+    }
+
+    @Nonnull
+    private Node parseAtom() {
+        char character = expression.charAt(position);
+        switch (character) {
+            case '(': {
+                position++;
+                if (expression.startsWith("?:", position)) {
+                    position += 2;
+                }
+                Node node = parseAlternation();
+                if (position >= expression.length() || expression.charAt(position) != ')') {
+                    throw createError("Missing closing parenthesis");
+                }
+                position++;
+                return node;
+            }
+            case '[': {
+                position++;
+                return new Node(parseByteClass());
+            }
+            case '.': {
+                position++;
+                return new Node(createFullSet());
+            }
+            case '\\': {
+                position++;
+                long[] byteSet = parseClassEscape();
+                if (byteSet != null) {
+                    return new Node(byteSet);
+                }
+                return createLiteral(parseEscapedCharacter());
+            }
+            case '^':
+            case '$':
+                throw createError("Anchors are not supported");
+            case '*':
+            case '+':
+            case '?':
+            case '{':
+                throw createError("Nothing to repeat");
+            default: {
+                int codePoint = expression.codePointAt(position);
+                position += Character.charCount(codePoint);
+                return createLiteral(codePoint);
+            }
+        }
+    }
+
+    @Nonnull
+    private long[] parseByteClass() {
+        long[] byteSet = new long[4];
+        boolean negated = false;
+        if (position < expression.length() && expression.charAt(position) == '^') {
+            negated = true;
+            position++;
+        }
+
+        boolean first = true;
+        while (true) {
+            if (position >= expression.length()) {
+                throw createError("Missing closing bracket");
+            }
+            char character = expression.charAt(position);
+            if (character == ']' && !first) {
+                position++;
+                break;
+            }
+            first = false;
+
+            if (character == '\\' && position + 1 < expression.length() && expression.charAt(position + 1) != 'x') {
+                position++;
+                long[] classSet = parseClassEscape();
+                if (classSet != null) {
+                    for (int i = 0; i < 4; i++) {
+                        byteSet[i] |= classSet[i];
+                    }
+                    continue;
+                }
+                position--;
+            }
+
+            int from = parseClassByte();
+            int to = from;
+            if (position + 1 < expression.length() && expression.charAt(position) == '-' && expression.charAt(position + 1) != ']') {
+                position++;
+                to = parseClassByte();
+                if (to < from) {
+                    throw createError("Invalid byte range");
+                }
+            }
+            for (int value = from; value <= to; value++) {
+                byteSet[value >>> 6] |= 1L << value;
+            }
+        }
+
+        if (negated) {
+            for (int i = 0; i < 4; i++) {
+                byteSet[i] = ~byteSet[i];
+            }
+        }
+        return byteSet;
+    }
+
+    private int parseClassByte() {
+        char character = expression.charAt(position);
+        int codePoint;
+        if (character == '\\') {
+            position++;
+            if (position >= expression.length()) {
+                throw createError("Incomplete escape sequence");
+            }
+            if (expression.charAt(position) == 'x') {
+                position++;
+                return parseHexByte();
+            }
+            codePoint = parseEscapedCharacter();
+        } else {
+            codePoint = expression.codePointAt(position);
+            position += Character.charCount(codePoint);
+        }
+
+        byte[] bytes = new String(Character.toChars(codePoint)).getBytes(charset);
+        if (bytes.length != 1) {
+            throw createError("Character in byte class must be single byte");
+        }
+        return bytes[0] & 0xff;
+    }
+
+    /**
+     * Parses escape sequence for predefined class.
+     *
+     * @return byte set or null if escape is not class
+     */
+    @Nullable
+    private long[] parseClassEscape() {
+        if (position >= expression.length()) {
+            throw createError("Incomplete escape sequence");
+        }
+
+        char character = expression.charAt(position);
+        long[] byteSet;
+        switch (character) {
+            case 'd':
+            case 'D': {
+                byteSet = createRangeSet('0', '9');
+                break;
+            }
+            case 'w':
+            case 'W': {
+                byteSet = createRangeSet('0', '9');
+                addRange(byteSet, 'a', 'z');
+                addRange(byteSet, 'A', 'Z');
+                addRange(byteSet, '_', '_');
+                break;
+            }
+            case 's':
+            case 'S': {
+                byteSet = createRangeSet('\t', '\r');
+                addRange(byteSet, ' ', ' ');
+                break;
+            }
+            case 'x': {
+                position++;
+                int value = parseHexByte();
+                return createRangeSet(value, value);
+            }
+            default:
+                return null;
+        }
+
+        position++;
+        if (Character.isUpperCase(character)) {
+            for (int i = 0; i < 4; i++) {
+                byteSet[i] = ~byteSet[i];
+            }
+        }
+        return byteSet;
+    }
+
+    private int parseEscapedCharacter() {
+        char character = expression.charAt(position);
+        position++;
+        switch (character) {
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'f':
+                return '\f';
+            case 'v':
+                return 0x0b;
+            case '0':
+                return 0;
+            case 'u': {
+                if (position + 4 > expression.length()) {
+                    throw createError("Invalid unicode escape");
+                }
+                try {
+                    int value = Integer.parseInt(expression.substring(position, position + 4), 16);
+                    position += 4;
+                    return value;
+                } catch (NumberFormatException ex) {
+                    throw createError("Invalid unicode escape");
+                }
+            }
+            default: {
+                if (Character.isLetterOrDigit(character)) {
+                    throw createError("Unsupported escape sequence");
+                }
+                return character;
+            }
+        }
+    }
+
+    private int parseHexByte() {
+        if (position + 2 > expression.length()) {
+            throw createError("Invalid hexadecimal escape");
+        }
+        int high = Character.digit(expression.charAt(position), 16);
+        int low = Character.digit(expression.charAt(position + 1), 16);
+        if (high < 0 || low < 0) {
+            throw createError("Invalid hexadecimal escape");
+        }
+        position += 2;
+        return (high << 4) | low;
+    }
+
+    private int parseNumber() {
+        int start = position;
+        while (position < expression.length() && Character.isDigit(expression.charAt(position))) {
+            position++;
+        }
+        if (start == position || position - start > 5) {
+            throw createError("Invalid repetition count");
+        }
+        int value = Integer.parseInt(expression.substring(start, position));
+        if (value > MAXIMUM_REPEAT) {
+            throw createError("Repetition count is too large");
+        }
+        return value;
+    }
+
+    @Nonnull
+    private Node createLiteral(int codePoint) {
+        byte[] bytes = new String(Character.toChars(codePoint)).getBytes(charset);
+        if (bytes.length == 1) {
+            return new Node(createRangeSet(bytes[0] & 0xff, bytes[0] & 0xff));
+        }
+
+        List<Node> items = new ArrayList<>();
+        for (byte value : bytes) {
+            items.add(new Node(createRangeSet(value & 0xff, value & 0xff)));
+        }
+        return new Node(NodeType.CONCATENATION, items);
+    }
+
+    @Nonnull
+    private static long[] createFullSet() {
+        return new long[]{-1L, -1L, -1L, -1L};
+    }
+
+    @Nonnull
+    private static long[] createRangeSet(int from, int to) {
+        long[] byteSet = new long[4];
+        addRange(byteSet, from, to);
+        return byteSet;
+    }
+
+    private static void addRange(long[] byteSet, int from, int to) {
+        for (int value = from; value <= to; value++) {
+            byteSet[value >>> 6] |= 1L << value;
+        }
+    }
+
+    @Nonnull
+    private IllegalArgumentException createError(String message) {
+        return new IllegalArgumentException(message + " at position " + position + ": " + expression);
+    }
+
+    public enum NodeType {
+        BYTE_SET, CONCATENATION, ALTERNATION, REPEAT
+    }
+
+    /**
+     * Node of expression syntax tree.
+     */
+    @ParametersAreNonnullByDefault
+    public static class Node {
+
+        private final NodeType type;
+        private final long[] byteSet;
+        private final List<Node> children;
+        private final int min;
+        private final int max;
+
+        public Node(long[] byteSet) {
+            type = NodeType.BYTE_SET;
+            this.byteSet = byteSet;
+            children = Collections.emptyList();
+            min = 1;
+            max = 1;
+        }
+
+        public Node(NodeType type, List<Node> children) {
+            this.type = type;
+            byteSet = null;
+            this.children = children;
+            min = 1;
+            max = 1;
+        }
+
+        /**
+         * Creates repetition node.
+         *
+         * @param child repeated node
+         * @param min minimum count
+         * @param max maximum count or -1 for unbounded
+         */
+        public Node(Node child, int min, int max) {
+            type = NodeType.REPEAT;
+            byteSet = null;
+            children = Collections.singletonList(child);
+            this.min = min;
+            this.max = max;
+        }
+
+        @Nonnull
+        public NodeType getType() {
+            return type;
+        }
+
+        @Nullable
+        public long[] getByteSet() {
+            return byteSet;
+        }
+
+        @Nonnull
+        public List<Node> getChildren() {
+            return children;
+        }
+
+        public int getMin() {
+            return min;
+        }
+
+        public int getMax() {
+            return max;
+        }
+
+        /**
+         * Returns node matching reversed sequences.
+         *
+         * @return reversed node
+         */
+        @Nonnull
+        public Node reverse() {
+            switch (type) {
+                case BYTE_SET:
+                    return this;
+                case REPEAT:
+                    return new Node(children.get(0).reverse(), min, max);
+                default: {
+                    List<Node> reversed = new ArrayList<>();
+                    for (Node child : children) {
+                        reversed.add(child.reverse());
+                    }
+                    if (type == NodeType.CONCATENATION) {
+                        Collections.reverse(reversed);
+                    }
+                    return new Node(type, reversed);
+                }
+            }
+        }
+
+        /**
+         * Returns maximum length of matched sequence.
+         *
+         * @return length in bytes or -1 if unbounded
+         */
+        public long getMaximumLength() {
+            switch (type) {
+                case BYTE_SET:
+                    return 1;
+                case CONCATENATION: {
+                    long length = 0;
+                    for (Node child : children) {
+                        long childLength = child.getMaximumLength();
+                        if (childLength < 0) {
+                            return -1;
+                        }
+                        length += childLength;
+                    }
+                    return length;
+                }
+                case ALTERNATION: {
+                    long length = 0;
+                    for (Node child : children) {
+                        long childLength = child.getMaximumLength();
+                        if (childLength < 0) {
+                            return -1;
+                        }
+                        length = Math.max(length, childLength);
+                    }
+                    return length;
+                }
+                case REPEAT: {
+                    long childLength = children.get(0).getMaximumLength();
+                    if (childLength == 0 || max == 0) {
+                        return 0;
+                    }
+                    if (childLength < 0 || max < 0) {
+                        return -1;
+                    }
+                    return childLength * max;
+                }
+                default:
+                    throw new IllegalStateException("Unexpected node type " + type);
+            }
+        }
+    }
+}
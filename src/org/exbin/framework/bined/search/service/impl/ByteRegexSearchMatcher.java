@@ -0,0 +1,549 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.search.service.impl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.framework.bined.search.service.SearchMatcher;
+
+/**
+ * Regular expression matcher working on bytes.
+ * <p>
+ * Expression is compiled to nondeterministic automaton which is executed as
+ * lazily built deterministic automaton with bounded cache of states, so there
+ * is no backtracking. Forward search locates end of the earliest match in
+ * single pass, then finds leftmost start using reversed expression in single
+ * backward pass and resolves longest match from it in one forward pass.
+ * Backward search uses automaton of reversed expression. Length of match is
+ * limited to {@link #MAXIMUM_MATCH_LENGTH} for unbounded expressions.
+ */
+@ParametersAreNonnullByDefault
+public class ByteRegexSearchMatcher implements SearchMatcher {
+
+    public static final int MAXIMUM_MATCH_LENGTH = 65536;
+    private static final int MAXIMUM_NFA_STATES = 100000;
+    private static final int MAXIMUM_CACHED_STATES = 2048;
+    private static final int INITIAL_BLOCK_SIZE = 256;
+
+    private final Nfa forwardNfa;
+    private final Nfa backwardNfa;
+    private final int maximumMatchLength;
+    private final LazyDfa searchDfa;
+    private final LazyDfa matchDfa;
+    private final LazyDfa backwardSearchDfa;
+    private final SearchDataBuffer dataBuffer;
+    private final SearchDataBuffer matchBuffer;
+    private final SearchDataBuffer startBuffer;
+    private long matchLength = 0;
+
+    public ByteRegexSearchMatcher(ByteRegexParser.Node expression) {
+        this(new Nfa(expression), new Nfa(expression.reverse()), getMaximumMatchLength(expression));
+    }
+
+    private ByteRegexSearchMatcher(Nfa forwardNfa, Nfa backwardNfa, int maximumMatchLength) {
+        this.forwardNfa = forwardNfa;
+        this.backwardNfa = backwardNfa;
+        this.maximumMatchLength = maximumMatchLength;
+        searchDfa = new LazyDfa(forwardNfa, true);
+        matchDfa = new LazyDfa(forwardNfa, false);
+        backwardSearchDfa = new LazyDfa(backwardNfa, true);
+        dataBuffer = new SearchDataBuffer();
+        matchBuffer = new SearchDataBuffer();
+        startBuffer = new SearchDataBuffer();
+    }
+
+    private static int getMaximumMatchLength(ByteRegexParser.Node expression) {
+        long length = expression.getMaximumLength();
+        if (length == 0) {
+            throw new IllegalArgumentException("Expression matches only empty sequence");
+        }
+        return length < 0 || length > MAXIMUM_MATCH_LENGTH ? MAXIMUM_MATCH_LENGTH : (int) length;
+    }
+
+    @Override
+    public long findNext(BinaryData data, long position, long endPosition) {
+        long limit = Math.min(endPosition, data.getDataSize());
+        if (position < 0) {
+            position = 0;
+        }
+
+        matchBuffer.clear();
+        DfaState state = searchDfa.getInitialState();
+        long checkedPosition = position;
+        long scanPosition = position;
+        // Blocks grow gradually as consecutive matches can be near each other
+        int blockSize = INITIAL_BLOCK_SIZE;
+        while (scanPosition < limit) {
+            int length = dataBuffer.loadForward(data, scanPosition, Math.min(limit, scanPosition + blockSize));
+            blockSize = Math.min(blockSize * 2, SearchDataBuffer.DEFAULT_BLOCK_SIZE);
+            byte[] buffer = dataBuffer.getBuffer();
+            for (int offset = 0; offset < length; offset++) {
+                state = searchDfa.step(state, buffer[offset] & 0xff);
+                if (state.accepting) {
+                    // Leftmost match has to start in range of maximum length before earliest match end
+                    long matchEnd = scanPosition + offset;
+                    long start = Math.max(checkedPosition, matchEnd - maximumMatchLength + 1);
+                    long furthestEnd = getFurthestMatchEnd(data, state, matchEnd, limit);
+                    while ((start = findLeftmostStart(data, start, matchEnd, furthestEnd)) >= 0) {
+                        long matchLength = getLongestMatchLength(data, start, limit);
+                        if (matchLength > 0) {
+                            this.matchLength = matchLength;
+                            return start;
+                        }
+                        // Match exceeding maximum length only
+                        start++;
+                    }
+                    checkedPosition = matchEnd + 1;
+                }
+            }
+            scanPosition += length;
+        }
+
+        return -1;
+    }
+
+    @Override
+    public long findPrevious(BinaryData data, long position, long startPosition, long endPosition) {
+        long limit = Math.min(endPosition, data.getDataSize());
+        if (startPosition < 0) {
+            startPosition = 0;
+        }
+        if (position < startPosition) {
+            return -1;
+        }
+
+        matchBuffer.clear();
+        DfaState state = backwardSearchDfa.getInitialState();
+        long scanPosition = Math.min(limit, position + maximumMatchLength);
+        while (scanPosition > startPosition) {
+            dataBuffer.loadBackward(data, startPosition, scanPosition);
+            byte[] buffer = dataBuffer.getBuffer();
+            long bufferStart = dataBuffer.getBufferStart();
+            for (int offset = (int) (scanPosition - bufferStart) - 1; offset >= 0; offset--) {
+                state = backwardSearchDfa.step(state, buffer[offset] & 0xff);
+                long start = bufferStart + offset;
+                if (state.accepting && start <= position) {
+                    long matchLength = getLongestMatchLength(data, start, limit);
+                    if (matchLength > 0) {
+                        this.matchLength = matchLength;
+                        return start;
+                    }
+                }
+            }
+            scanPosition = bufferStart;
+        }
+
+        return -1;
+    }
+
+    @Override
+    public long getMatchLength() {
+        return matchLength;
+    }
+
+    @Override
+    public int getMatchPatternIndex() {
+        return 0;
+    }
+
+    @Override
+    public long getMaximumMatchLength() {
+        return maximumMatchLength;
+    }
+
+    /**
+     * Matches of expression don't overlap, as the longest match would be
+     * found again from each of its positions.
+     *
+     * @return false
+     */
+    @Override
+    public boolean isOverlappingMatches() {
+        return false;
+    }
+
+    @Nonnull
+    @Override
+    public SearchMatcher createCopy() {
+        return new ByteRegexSearchMatcher(forwardNfa, backwardNfa, maximumMatchLength);
+    }
+
+    /**
+     * Returns position after the furthest end of matches which started
+     * before or at given match end.
+     * <p>
+     * Match attempts of given search state are continued without starting new
+     * ones, so the scan stops as soon as all of them fail.
+     *
+     * @return end position
+     */
+    private long getFurthestMatchEnd(BinaryData data, DfaState searchState, long matchEnd, long limit) {
+        DfaState state = matchDfa.adopt(searchState);
+        long furthestEnd = matchEnd + 1;
+        long end = Math.min(limit, matchEnd + maximumMatchLength);
+        for (long position = matchEnd + 1; position < end; position++) {
+            state = matchDfa.step(state, getMatchByte(data, position, limit));
+            if (state.nfaStates.length == 0) {
+                break;
+            }
+            if (state.accepting) {
+                furthestEnd = position + 1;
+            }
+        }
+        return furthestEnd;
+    }
+
+    /**
+     * Returns leftmost position in given range where some match starts.
+     * <p>
+     * Reversed expression is executed backward in single pass from the
+     * furthest end of match starting in range.
+     *
+     * @return position or -1 if there is no match starting in range
+     */
+    private long findLeftmostStart(BinaryData data, long startPosition, long endPosition, long scanEnd) {
+        if (startPosition > endPosition) {
+            return -1;
+        }
+
+        DfaState state = backwardSearchDfa.getInitialState();
+        long leftmostStart = -1;
+        long scanPosition = scanEnd;
+        while (scanPosition > startPosition) {
+            startBuffer.loadBackward(data, startPosition, scanPosition);
+            byte[] buffer = startBuffer.getBuffer();
+            long bufferStart = startBuffer.getBufferStart();
+            for (int offset = (int) (scanPosition - bufferStart) - 1; offset >= 0; offset--) {
+                state = backwardSearchDfa.step(state, buffer[offset] & 0xff);
+                if (state.accepting && bufferStart + offset <= endPosition) {
+                    leftmostStart = bufferStart + offset;
+                }
+            }
+            scanPosition = bufferStart;
+        }
+        return leftmostStart;
+    }
+
+    /**
+     * Returns length of the longest match starting at given position.
+     *
+     * @return length or 0 if there is no match
+     */
+    private long getLongestMatchLength(BinaryData data, long start, long limit) {
+        DfaState state = matchDfa.getInitialState();
+        long end = Math.min(limit, start + maximumMatchLength);
+        long length = 0;
+        for (long position = start; position < end; position++) {
+            state = matchDfa.step(state, getMatchByte(data, position, limit));
+            if (state.nfaStates.length == 0) {
+                break;
+            }
+            if (state.accepting) {
+                length = position - start + 1;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Returns byte at given position, loading following data to match buffer
+     * in blocks growing while data are read sequentially.
+     *
+     * @return unsigned byte value
+     */
+    private int getMatchByte(BinaryData data, long position, long limit) {
+        if (!matchBuffer.contains(position)) {
+            int loadedLength = matchBuffer.getBufferLength();
+            int blockSize = position == matchBuffer.getBufferStart() + loadedLength
+                    ? Math.min(Math.max(loadedLength * 2, INITIAL_BLOCK_SIZE), SearchDataBuffer.DEFAULT_BLOCK_SIZE)
+                    : INITIAL_BLOCK_SIZE;
+            matchBuffer.loadForward(data, position, Math.min(limit, position + blockSize));
+        }
+        return matchBuffer.getBuffer()[(int) (position - matchBuffer.getBufferStart())] & 0xff;
+    }
+
+    /**
+     * Nondeterministic automaton over bytes.
+     */
+    private static class Nfa {
+
+        private static final int BYTE_SET = 0;
+        private static final int SPLIT = 1;
+        private static final int MATCH = 2;
+
+        private int[] types = new int[16];
+        private long[][] byteSets = new long[16][];
+        private int[] outs = new int[16];
+        private int[] alternativeOuts = new int[16];
+        private int statesCount = 0;
+        private final int matchState;
+        private final int startState;
+
+        Nfa(ByteRegexParser.Node expression) {
+            matchState = addState(MATCH, null, -1, -1);
+            startState = compile(expression, matchState);
+        }
+
+        private int compile(ByteRegexParser.Node node, int next) {
+            switch (node.getType()) {
+                case BYTE_SET:
+                    return addState(BYTE_SET, node.getByteSet(), next, -1);
+                case CONCATENATION: {
+                    for (int i = node.getChildren().size() - 1; i >= 0; i--) {
+                        next = compile(node.getChildren().get(i), next);
+                    }
+                    return next;
+                }
+                case ALTERNATION: {
+                    int state = compile(node.getChildren().get(node.getChildren().size() - 1), next);
+                    for (int i = node.getChildren().size() - 2; i >= 0; i--) {
+                        state = addState(SPLIT, null, compile(node.getChildren().get(i), next), state);
+                    }
+                    return state;
+                }
+                case REPEAT: {
+                    ByteRegexParser.Node child = node.getChildren().get(0);
+                    int state = next;
+                    if (node.getMax() < 0) {
+                        int loop = addState(SPLIT, null, -1, next);
+                        // Compilation of body can reallocate arrays
+                        int body = compile(child, loop);
+                        outs[loop] = body;
+                        state = loop;
+                    } else {
+                        for (int i = node.getMin(); i < node.getMax(); i++) {
+                            state = addState(SPLIT, null, compile(child, state), next);
+                        }
+                    }
+                    for (int i = 0; i < node.getMin(); i++) {
+                        state = compile(child, state);
+                    }
+                    return state;
+                }
+                default:
+                    throw new IllegalStateException("Unexpected node type " + node.getType());
+            }
+        }
+
+        private int addState(int type, long[] byteSet, int out, int alternativeOut) {
+            if (statesCount == MAXIMUM_NFA_STATES) {
+                throw new IllegalArgumentException("Expression is too complex");
+            }
+            if (statesCount == types.length) {
+                int capacity = types.length * 2;
+                types = Arrays.copyOf(types, capacity);
+                byteSets = Arrays.copyOf(byteSets, capacity);
+                outs = Arrays.copyOf(outs, capacity);
+                alternativeOuts = Arrays.copyOf(alternativeOuts, capacity);
+            }
+            types[statesCount] = type;
+            byteSets[statesCount] = byteSet;
+            outs[statesCount] = out;
+            alternativeOuts[statesCount] = alternativeOut;
+            return statesCount++;
+        }
+    }
+
+    /**
+     * State of deterministic automaton as set of byte consuming and match
+     * states of nondeterministic automaton.
+     */
+    private static class DfaState {
+
+        private final int[] nfaStates;
+        private final boolean accepting;
+        private final int generation;
+        private final DfaState[] transitions = new DfaState[256];
+
+        DfaState(int[] nfaStates, boolean accepting, int generation) {
+            this.nfaStates = nfaStates;
+            this.accepting = accepting;
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * Deterministic automaton built on demand.
+     * <p>
+     * Unanchored automaton starts new match attempt before each byte. States
+     * are cached up to limit after which cache is discarded.
+     */
+    private static class LazyDfa {
+
+        private final Nfa nfa;
+        private final boolean unanchored;
+        private final Map<StateKey, DfaState> cache = new HashMap<>();
+        private final int[] marks;
+        private final int[] stack;
+        private final int[] collected;
+        private int mark = 0;
+        private int generation = 0;
+        private DfaState initialState = null;
+
+        LazyDfa(Nfa nfa, boolean unanchored) {
+            this.nfa = nfa;
+            this.unanchored = unanchored;
+            marks = new int[nfa.statesCount];
+            stack = new int[nfa.statesCount];
+            collected = new int[nfa.statesCount];
+        }
+
+        @Nonnull
+        DfaState getInitialState() {
+            if (initialState == null || initialState.generation != generation) {
+                nextMark();
+                int count = addClosure(nfa.startState, 0);
+                int[] nfaStates = Arrays.copyOf(collected, count);
+                Arrays.sort(nfaStates);
+                initialState = intern(nfaStates);
+            }
+            return initialState;
+        }
+
+        /**
+         * Returns state of this automaton with the same match attempts as
+         * given state of other automaton over the same expression.
+         *
+         * @param state state of other automaton
+         * @return state of this automaton
+         */
+        @Nonnull
+        DfaState adopt(DfaState state) {
+            return intern(state.nfaStates);
+        }
+
+        @Nonnull
+        DfaState step(DfaState state, int value) {
+            DfaState next = state.transitions[value];
+            if (next != null && next.generation == generation) {
+                return next;
+            }
+
+            if (state.generation != generation) {
+                state = intern(state.nfaStates);
+            }
+            nextMark();
+            int count = 0;
+            for (int nfaState : state.nfaStates) {
+                long[] byteSet = nfa.byteSets[nfaState];
+                if (nfa.types[nfaState] == Nfa.BYTE_SET && ((byteSet[value >>> 6] >>> value) & 1) != 0) {
+                    count = addClosure(nfa.outs[nfaState], count);
+                }
+            }
+            boolean accepting = marks[nfa.matchState] == mark;
+            if (unanchored) {
+                count = addClosure(nfa.startState, count);
+            }
+            int[] nfaStates = Arrays.copyOf(collected, count);
+            Arrays.sort(nfaStates);
+            next = intern(nfaStates, accepting);
+            state.transitions[value] = next;
+            return next;
+        }
+
+        private int addClosure(int nfaState, int count) {
+            int stackSize = 0;
+            if (marks[nfaState] != mark) {
+                marks[nfaState] = mark;
+                stack[stackSize++] = nfaState;
+            }
+            while (stackSize > 0) {
+                int current = stack[--stackSize];
+                if (nfa.types[current] == Nfa.SPLIT) {
+                    int out = nfa.outs[current];
+                    if (marks[out] != mark) {
+                        marks[out] = mark;
+                        stack[stackSize++] = out;
+                    }
+                    out = nfa.alternativeOuts[current];
+                    if (marks[out] != mark) {
+                        marks[out] = mark;
+                        stack[stackSize++] = out;
+                    }
+                } else {
+                    collected[count++] = current;
+                }
+            }
+            return count;
+        }
+
+        @Nonnull
+        private DfaState intern(int[] nfaStates) {
+            boolean accepting = false;
+            for (int nfaState : nfaStates) {
+                if (nfaState == nfa.matchState) {
+                    accepting = true;
+                    break;
+                }
+            }
+            return intern(nfaStates, accepting && !unanchored);
+        }
+
+        @Nonnull
+        private DfaState intern(int[] nfaStates, boolean accepting) {
+            StateKey key = new StateKey(nfaStates, accepting);
+            DfaState state = cache.get(key);
+            if (state == null) {
+                if (cache.size() == MAXIMUM_CACHED_STATES) {
+                    cache.clear();
+                    generation++;
+                }
+                state = new DfaState(nfaStates, accepting, generation);
+                cache.put(key, state);
+            }
+            return state;
+        }
+
+        private void nextMark() {
+            mark++;
+            if (mark == 0) {
+                Arrays.fill(marks, 0);
+                mark = 1;
+            }
+        }
+    }
+
+    private static class StateKey {
+
+        private final int[] nfaStates;
+        private final boolean accepting;
+        private final int hash;
+
+        StateKey(int[] nfaStates, boolean accepting) {
+            this.nfaStates = nfaStates;
+            this.accepting = accepting;
+            hash = Arrays.hashCode(nfaStates) * 2 + (accepting ? 1 : 0);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof StateKey)) {
+                return false;
+            }
+            StateKey other = (StateKey) obj;
+            return accepting == other.accepting && Arrays.equals(nfaStates, other.nfaStates);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.search.service.impl;
+
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.bined.CharsetStreamTranslator;
+import org.exbin.framework.bined.search.service.SearchMatcher;
+
+/**
+ * Text matcher decoding characters at each searched position.
+ * <p>
+ * Slow fallback for charsets where text cannot be matched on byte level.
+ */
+@ParametersAreNonnullByDefault
+public class DecodingTextSearchMatcher implements SearchMatcher {
+
+    private final String findText;
+    private final boolean matchCase;
+    private final Charset charset;
+    private final int maxBytesPerChar;
+    private final byte[] charData;
+    private long matchLength;
+
+    public DecodingTextSearchMatcher(String text, Charset charset, boolean matchCase) {
+        this.findText = matchCase ? text : text.toLowerCase();
+        this.matchCase = matchCase;
+        this.charset = charset;
+        int bytesPerChar;
+        try {
+            CharsetEncoder encoder = charset.newEncoder();
+            bytesPerChar = (int) encoder.maxBytesPerChar();
+        } catch (UnsupportedOperationException ex) {
+            bytesPerChar = CharsetStreamTranslator.DEFAULT_MAX_BYTES_PER_CHAR;
+        }
+        maxBytesPerChar = bytesPerChar;
+        charData = new byte[maxBytesPerChar];
+    }
+
+    @Override
+    public long findNext(BinaryData data, long position, long endPosition) {
+        long limit = Math.min(endPosition, data.getDataSize());
+        for (long searchPosition = Math.max(position, 0); searchPosition + findText.length() <= limit; searchPosition++) {
+            if (matchesAt(data, searchPosition, limit)) {
+                return searchPosition;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public long findPrevious(BinaryData data, long position, long startPosition, long endPosition) {
+        long limit = Math.min(endPosition, data.getDataSize());
+        for (long searchPosition = Math.min(position, limit - findText.length()); searchPosition >= Math.max(startPosition, 0); searchPosition--) {
+            if (matchesAt(data, searchPosition, limit)) {
+                return searchPosition;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public long getMatchLength() {
+        return matchLength;
+    }
+
+    @Override
+    public int getMatchPatternIndex() {
+        return 0;
+    }
+
+    @Override
+    public long getMaximumMatchLength() {
+        return (long) findText.length() * maxBytesPerChar;
+    }
+
+    @Nonnull
+    @Override
+    public SearchMatcher createCopy() {
+        return new DecodingTextSearchMatcher(findText, charset, matchCase);
+    }
+
+    private boolean matchesAt(BinaryData data, long position, long limit) {
+        int matchCharLength = 0;
+        int length = 0;
+        while (matchCharLength < findText.length()) {
+            long searchPosition = position + length;
+            int bytesToUse = (int) Math.min(maxBytesPerChar, limit - searchPosition);
+            if (bytesToUse <= 0) {
+                return false;
+            }
+            data.copyToArray(searchPosition, charData, 0, bytesToUse);
+            String decoded = new String(charData, 0, bytesToUse, charset);
+            if (decoded.isEmpty()) {
+                return false;
+            }
+            char singleChar = decoded.charAt(0);
+            String singleCharString = String.valueOf(singleChar);
+            int characterLength = singleCharString.getBytes(charset).length;
+
+            if (matchCase) {
+                if (singleChar != findText.charAt(matchCharLength)) {
+                    return false;
+                }
+            } else if (singleCharString.toLowerCase().charAt(0) != findText.charAt(matchCharLength)) {
+                return false;
+            }
+            matchCharLength++;
+            length += characterLength;
+        }
+
+        matchLength = length;
+        return true;
+    }
+}
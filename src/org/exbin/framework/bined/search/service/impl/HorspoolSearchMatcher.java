@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.search.service.impl;
+
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.framework.bined.search.service.SearchMatcher;
+
+/**
+ * Exact binary pattern matcher using Boyer-Moore-Horspool skip tables.
+ * <p>
+ * Data are processed in blocks and both forward and backward searches are
+ * supported using table for the last and for the first byte of pattern.
+ */
+@ParametersAreNonnullByDefault
+public class HorspoolSearchMatcher implements SearchMatcher {
+
+    private final byte[] pattern;
+    private final int[] forwardShifts = new int[256];
+    private final int[] backwardShifts = new int[256];
+    private final SearchDataBuffer dataBuffer;
+
+    public HorspoolSearchMatcher(byte[] pattern) {
+        if (pattern.length == 0) {
+            throw new IllegalArgumentException("Search pattern cannot be empty");
+        }
+
+        this.pattern = pattern;
+        int patternLength = pattern.length;
+        Arrays.fill(forwardShifts, patternLength);
+        for (int i = 0; i < patternLength - 1; i++) {
+            forwardShifts[pattern[i] & 0xff] = patternLength - 1 - i;
+        }
+        Arrays.fill(backwardShifts, patternLength);
+        for (int i = patternLength - 1; i > 0; i--) {
+            backwardShifts[pattern[i] & 0xff] = i;
+        }
+        dataBuffer = new SearchDataBuffer(patternLength);
+    }
+
+    /**
+     * Returns searched pattern.
+     *
+     * @return pattern bytes
+     */
+    @Nonnull
+    public byte[] getPattern() {
+        return pattern;
+    }
+
+    @Override
+    public long findNext(BinaryData data, long position, long endPosition) {
+        int patternLength = pattern.length;
+        byte lastByte = pattern[patternLength - 1];
+        long limit = Math.min(endPosition, data.getDataSize());
+        if (position < 0) {
+            position = 0;
+        }
+
+        while (position + patternLength <= limit) {
+            int length = dataBuffer.loadForward(data, position, limit);
+            byte[] buffer = dataBuffer.getBuffer();
+            int offset = 0;
+            while (offset + patternLength <= length) {
+                byte windowByte = buffer[offset + patternLength - 1];
+                if (windowByte == lastByte && matchesAt(buffer, offset)) {
+                    return position + offset;
+                }
+                offset += forwardShifts[windowByte & 0xff];
+            }
+            position += offset;
+        }
+
+        return -1;
+    }
+
+    @Override
+    public long findPrevious(BinaryData data, long position, long startPosition, long endPosition) {
+        int patternLength = pattern.length;
+        byte firstByte = pattern[0];
+        long limit = Math.min(endPosition, data.getDataSize());
+        if (startPosition < 0) {
+            startPosition = 0;
+        }
+        if (position > limit - patternLength) {
+            position = limit - patternLength;
+        }
+
+        while (position >= startPosition) {
+            dataBuffer.loadBackward(data, startPosition, position + patternLength);
+            byte[] buffer = dataBuffer.getBuffer();
+            long bufferStart = dataBuffer.getBufferStart();
+            int offset = (int) (position - bufferStart);
+            while (offset >= 0) {
+                byte windowByte = buffer[offset];
+                if (windowByte == firstByte && matchesAt(buffer, offset)) {
+                    return bufferStart + offset;
+                }
+                offset -= backwardShifts[windowByte & 0xff];
+            }
+            position = bufferStart + offset;
+        }
+
+        return -1;
+    }
+
+    @Override
+    public long getMatchLength() {
+        return pattern.length;
+    }
+
+    @Override
+    public int getMatchPatternIndex() {
+        return 0;
+    }
+
+    @Override
+    public long getMaximumMatchLength() {
+        return pattern.length;
+    }
+
+    @Nonnull
+    @Override
+    public SearchMatcher createCopy() {
+        return new HorspoolSearchMatcher(pattern);
+    }
+
+    private boolean matchesAt(byte[] buffer, int offset) {
+        for (int i = 0; i < pattern.length; i++) {
+            if (buffer[offset + i] != pattern[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.search.service.impl;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.framework.bined.search.MaskedPattern;
+import org.exbin.framework.bined.search.service.SearchMatcher;
+
+/**
+ * Binary pattern matcher with don't-care bits.
+ * <p>
+ * Candidates are located using Horspool skip tables computed from bytes
+ * accepted at each position of pattern and verified by comparing 64-bit
+ * words of data against masked values.
+ */
+@ParametersAreNonnullByDefault
+public class MaskedSearchMatcher implements SearchMatcher {
+
+    private final MaskedPattern pattern;
+    private final int patternLength;
+    private final long[] wordValues;
+    private final long[] wordMasks;
+    private final int[] forwardShifts = new int[256];
+    private final int[] backwardShifts = new int[256];
+    private final SearchDataBuffer dataBuffer;
+    private final ByteBuffer wordBuffer;
+
+    public MaskedSearchMatcher(MaskedPattern pattern) {
+        this.pattern = pattern;
+        patternLength = pattern.getLength();
+        if (patternLength == 0) {
+            throw new IllegalArgumentException("Search pattern cannot be empty");
+        }
+
+        ByteBuffer valuesBuffer = ByteBuffer.wrap(pattern.getValues());
+        ByteBuffer masksBuffer = ByteBuffer.wrap(pattern.getMasks());
+        int wordsCount = patternLength / Long.BYTES;
+        wordValues = new long[wordsCount];
+        wordMasks = new long[wordsCount];
+        for (int i = 0; i < wordsCount; i++) {
+            wordValues[i] = valuesBuffer.getLong(i * Long.BYTES);
+            wordMasks[i] = masksBuffer.getLong(i * Long.BYTES);
+        }
+
+        Arrays.fill(forwardShifts, patternLength);
+        for (int i = 0; i < patternLength - 1; i++) {
+            for (int value = 0; value < 256; value++) {
+                if (pattern.matches(i, (byte) value)) {
+                    forwardShifts[value] = patternLength - 1 - i;
+                }
+            }
+        }
+        Arrays.fill(backwardShifts, patternLength);
+        for (int i = patternLength - 1; i > 0; i--) {
+            for (int value = 0; value < 256; value++) {
+                if (pattern.matches(i, (byte) value)) {
+                    backwardShifts[value] = i;
+                }
+            }
+        }
+        dataBuffer = new SearchDataBuffer(patternLength);
+        wordBuffer = ByteBuffer.wrap(dataBuffer.getBuffer());
+    }
+
+    @Override
+    public long findNext(BinaryData data, long position, long endPosition) {
+        long limit = Math.min(endPosition, data.getDataSize());
+        if (position < 0) {
+            position = 0;
+        }
+
+        while (position + patternLength <= limit) {
+            int length = dataBuffer.loadForward(data, position, limit);
+            byte[] buffer = dataBuffer.getBuffer();
+            int offset = 0;
+            while (offset + patternLength <= length) {
+                byte windowByte = buffer[offset + patternLength - 1];
+                if (pattern.matches(patternLength - 1, windowByte) && matchesAt(buffer, offset)) {
+                    return position + offset;
+                }
+                offset += forwardShifts[windowByte & 0xff];
+            }
+            position += offset;
+        }
+
+        return -1;
+    }
+
+    @Override
+    public long findPrevious(BinaryData data, long position, long startPosition, long endPosition) {
+        long limit = Math.min(endPosition, data.getDataSize());
+        if (startPosition < 0) {
+            startPosition = 0;
+        }
+        if (position > limit - patternLength) {
+            position = limit - patternLength;
+        }
+
+        while (position >= startPosition) {
+            dataBuffer.loadBackward(data, startPosition, position + patternLength);
+            byte[] buffer = dataBuffer.getBuffer();
+            long bufferStart = dataBuffer.getBufferStart();
+            int offset = (int) (position - bufferStart);
+            while (offset >= 0) {
+                byte windowByte = buffer[offset];
+                if (pattern.matches(0, windowByte) && matchesAt(buffer, offset)) {
+                    return bufferStart + offset;
+                }
+                offset -= backwardShifts[windowByte & 0xff];
+            }
+            position = bufferStart + offset;
+        }
+
+        return -1;
+    }
+
+    @Override
+    public long getMatchLength() {
+        return patternLength;
+    }
+
+    @Override
+    public int getMatchPatternIndex() {
+        return 0;
+    }
+
+    @Override
+    public long getMaximumMatchLength() {
+        return patternLength;
+    }
+
+    @Nonnull
+    @Override
+    public SearchMatcher createCopy() {
+        return new MaskedSearchMatcher(pattern);
+    }
+
+    private boolean matchesAt(byte[] buffer, int offset) {
+        for (int i = 0; i < wordValues.length; i++) {
+            if (((wordBuffer.getLong(offset + i * Long.BYTES) ^ wordValues[i]) & wordMasks[i]) != 0) {
+                return false;
+            }
+        }
+        for (int i = wordValues.length * Long.BYTES; i < patternLength; i++) {
+            if (!pattern.matches(i, buffer[offset + i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.search.service.impl;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.exbin.auxiliary.binary_data.BinaryData;
+
+/**
+ * Block buffer for reading searched data in large chunks.
+ */
+@ParametersAreNonnullByDefault
+public class SearchDataBuffer {
+
+    public static final int DEFAULT_BLOCK_SIZE = 65536;
+
+    private final byte[] buffer;
+    private long bufferStart = 0;
+    private int bufferLength = 0;
+
+    public SearchDataBuffer() {
+        this(0);
+    }
+
+    /**
+     * Creates buffer with capacity large enough for given pattern length.
+     *
+     * @param patternLength maximum length of searched pattern
+     */
+    public SearchDataBuffer(int patternLength) {
+        buffer = new byte[Math.max(DEFAULT_BLOCK_SIZE, patternLength * 2)];
+    }
+
+    /**
+     * Loads block of data starting at given position.
+     *
+     * @param data source data
+     * @param position start position
+     * @param endPosition end limit position
+     * @return length of loaded block
+     */
+    public int loadForward(BinaryData data, long position, long endPosition) {
+        int length = (int) Math.min(buffer.length, endPosition - position);
+        data.copyToArray(position, buffer, 0, length);
+        bufferStart = position;
+        bufferLength = length;
+        return length;
+    }
+
+    /**
+     * Loads block of data ending at given position.
+     *
+     * @param data source data
+     * @param startPosition start limit position
+     * @param endPosition end position
+     * @return length of loaded block
+     */
+    public int loadBackward(BinaryData data, long startPosition, long endPosition) {
+        long position = Math.max(startPosition, endPosition - buffer.length);
+        int length = (int) (endPosition - position);
+        data.copyToArray(position, buffer, 0, length);
+        bufferStart = position;
+        bufferLength = length;
+        return length;
+    }
+
+    /**
+     * Discards loaded data.
+     */
+    public void clear() {
+        bufferStart = 0;
+        bufferLength = 0;
+    }
+
+    /**
+     * Returns true if data at given position are loaded in buffer.
+     *
+     * @param position data position
+     * @return true if loaded
+     */
+    public boolean contains(long position) {
+        return position >= bufferStart && position < bufferStart + bufferLength;
+    }
+
+    @Nonnull
+    public byte[] getBuffer() {
+        return buffer;
+    }
+
+    public long getBufferStart() {
+        return bufferStart;
+    }
+
+    public int getBufferLength() {
+        return bufferLength;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.search.service.impl;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.framework.bined.search.SearchMatchStore;
+import org.exbin.framework.bined.search.service.SearchMatcher;
+
+/**
+ * Fork-join task searching range of segments of data.
+ * <p>
+ * Each segment is searched for matches starting inside of it, reading up to
+ * maximum match length minus one bytes over its end. Matches of segment are
+ * stored to slot of given index.
+ */
+@ParametersAreNonnullByDefault
+public class SegmentSearchTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final SearchMatcher matcher;
+    private final BinaryData data;
+    private final long rangeStart;
+    private final long rangeEnd;
+    private final long endLimit;
+    private final long segmentSize;
+    private final int firstSegment;
+    private final int lastSegment;
+    private final AtomicReferenceArray<SearchMatchStore> segmentMatches;
+    private final AtomicBoolean cancelled;
+    private final AtomicLong processedLength;
+
+    /**
+     * Creates task for all segments of given range.
+     *
+     * @param matcher template matcher, copied for each segment
+     * @param data searched data
+     * @param rangeStart first position where match can start
+     * @param rangeEnd position where matches cannot start anymore
+     * @param endLimit position where whole match has to end before
+     * @param segmentSize size of single segment
+     * @param segmentMatches slots for found matches, one per segment
+     * @param cancelled cancellation flag
+     * @param processedLength counter of processed data length
+     */
+    public SegmentSearchTask(SearchMatcher matcher, BinaryData data, long rangeStart, long rangeEnd, long endLimit, long segmentSize, AtomicReferenceArray<SearchMatchStore> segmentMatches, AtomicBoolean cancelled, AtomicLong processedLength) {
+        this(matcher, data, rangeStart, rangeEnd, endLimit, segmentSize, 0, segmentMatches.length() - 1, segmentMatches, cancelled, processedLength);
+    }
+
+    private SegmentSearchTask(SearchMatcher matcher, BinaryData data, long rangeStart, long rangeEnd, long endLimit, long segmentSize, int firstSegment, int lastSegment, AtomicReferenceArray<SearchMatchStore> segmentMatches, AtomicBoolean cancelled, AtomicLong processedLength) {
+        this.matcher = matcher;
+        this.data = data;
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+        this.endLimit = endLimit;
+        this.segmentSize = segmentSize;
+        this.firstSegment = firstSegment;
+        this.lastSegment = lastSegment;
+        this.segmentMatches = segmentMatches;
+        this.cancelled = cancelled;
+        this.processedLength = processedLength;
+    }
+
+    /**
+     * Returns count of segments needed to cover given range.
+     *
+     * @param rangeLength length of range
+     * @param segmentSize size of segment
+     * @return count of segments
+     */
+    public static int getSegmentsCount(long rangeLength, long segmentSize) {
+        return (int) ((rangeLength + segmentSize - 1) / segmentSize);
+    }
+
+    @Override
+    protected void compute() {
+        if (cancelled.get()) {
+            return;
+        }
+
+        if (firstSegment < lastSegment) {
+            int middleSegment = (firstSegment + lastSegment) >>> 1;
+            invokeAll(new SegmentSearchTask(matcher, data, rangeStart, rangeEnd, endLimit, segmentSize, firstSegment, middleSegment, segmentMatches, cancelled, processedLength),
+                    new SegmentSearchTask(matcher, data, rangeStart, rangeEnd, endLimit, segmentSize, middleSegment + 1, lastSegment, segmentMatches, cancelled, processedLength));
+            return;
+        }
+
+        SearchMatcher segmentMatcher = matcher.createCopy();
+        long overlap = Math.max(segmentMatcher.getMaximumMatchLength() - 1, 0);
+        long segmentStart = rangeStart + firstSegment * segmentSize;
+        long segmentEnd = Math.min(rangeEnd, segmentStart + segmentSize);
+        long searchEnd = Math.min(endLimit, segmentEnd + overlap);
+        SearchMatchStore matches = new SearchMatchStore();
+        long position = segmentStart;
+        while (position < segmentEnd && !cancelled.get() && !matches.isFull()) {
+            long matchPosition = segmentMatcher.findNext(data, position, searchEnd);
+            if (matchPosition < 0 || matchPosition >= segmentEnd) {
+                break;
+            }
+
+            matches.addLast(matchPosition, segmentMatcher.getMatchLength(), segmentMatcher.getMatchPatternIndex());
+            position = segmentMatcher.isOverlappingMatches() ? matchPosition + 1 : matchPosition + Math.max(segmentMatcher.getMatchLength(), 1);
+        }
+
+        processedLength.addAndGet(segmentEnd - segmentStart);
+        segmentMatches.set(firstSegment, matches);
+    }
+}
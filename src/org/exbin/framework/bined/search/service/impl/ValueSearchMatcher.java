@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.framework.bined.search.service.impl;
+
+import java.nio.ByteBuffer;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.bined.CodeAreaUtils;
+import org.exbin.framework.bined.search.ValuePattern;
+import org.exbin.framework.bined.search.service.SearchMatcher;
+
+/**
+ * Matcher of numeric values in given range.
+ * <p>
+ * Value at each position is read as single word from block buffer in byte
+ * order of pattern instead of being assembled from individual bytes.
+ */
+@ParametersAreNonnullByDefault
+public class ValueSearchMatcher implements SearchMatcher {
+
+    private final ValuePattern pattern;
+    private final int valueLength;
+    private final SearchDataBuffer dataBuffer;
+    private final ByteBuffer wordBuffer;
+
+    public ValueSearchMatcher(ValuePattern pattern) {
+        this.pattern = pattern;
+        valueLength = pattern.getLength();
+        dataBuffer = new SearchDataBuffer(valueLength);
+        wordBuffer = ByteBuffer.wrap(dataBuffer.getBuffer()).order(pattern.getByteOrder());
+    }
+
+    @Override
+    public long findNext(BinaryData data, long position, long endPosition) {
+        long limit = Math.min(endPosition, data.getDataSize());
+        if (position < 0) {
+            position = 0;
+        }
+
+        while (position + valueLength <= limit) {
+            int length = dataBuffer.loadForward(data, position, limit);
+            int lastOffset = length - valueLength;
+            for (int offset = 0; offset <= lastOffset; offset++) {
+                if (matchesAt(offset)) {
+                    return position + offset;
+                }
+            }
+            position += lastOffset + 1;
+        }
+
+        return -1;
+    }
+
+    @Override
+    public long findPrevious(BinaryData data, long position, long startPosition, long endPosition) {
+        long limit = Math.min(endPosition, data.getDataSize());
+        if (startPosition < 0) {
+            startPosition = 0;
+        }
+        if (position > limit - valueLength) {
+            position = limit - valueLength;
+        }
+
+        while (position >= startPosition) {
+            dataBuffer.loadBackward(data, startPosition, position + valueLength);
+            long bufferStart = dataBuffer.getBufferStart();
+            for (int offset = (int) (position - bufferStart); offset >= 0; offset--) {
+                if (matchesAt(offset)) {
+                    return bufferStart + offset;
+                }
+            }
+            position = bufferStart - 1;
+        }
+
+        return -1;
+    }
+
+    @Override
+    public long getMatchLength() {
+        return valueLength;
+    }
+
+    @Override
+    public int getMatchPatternIndex() {
+        return 0;
+    }
+
+    @Override
+    public long getMaximumMatchLength() {
+        return valueLength;
+    }
+
+    @Nonnull
+    @Override
+    public SearchMatcher createCopy() {
+        return new ValueSearchMatcher(pattern);
+    }
+
+    private boolean matchesAt(int offset) {
+        boolean signed = pattern.isSigned();
+        switch (pattern.getValueType()) {
+            case BYTE: {
+                byte value = wordBuffer.get(offset);
+                return pattern.matches(signed ? value : value & 0xffL);
+            }
+            case WORD: {
+                short value = wordBuffer.getShort(offset);
+                return pattern.matches(signed ? value : value & 0xffffL);
+            }
+            case INTEGER: {
+                int value = wordBuffer.getInt(offset);
+                return pattern.matches(signed ? value : value & 0xffffffffL);
+            }
+            case LONG:
+                return pattern.matches(wordBuffer.getLong(offset));
+            case FLOAT:
+                return pattern.matches((double) wordBuffer.getFloat(offset));
+            case DOUBLE:
+                return pattern.matches(wordBuffer.getDouble(offset));
+            default:
+                throw CodeAreaUtils.getInvalidTypeException(pattern.getValueType());
+        }
+    }
+}